@@ -0,0 +1,48 @@
+package br.com.ellomei.config;
+
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.service.VersaoDeDadosService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chave de cache (usuário, método, argumentos, versão dos dados do usuário).
+ *
+ * Usada nos resultados do dashboard: qualquer gravação do usuário muda a versão
+ * (ver {@link VersaoDeDadosService}) e o próximo acesso recalcula. O método precisa
+ * receber o {@link Usuario}; os demais argumentos precisam de equals/hashCode.
+ *
+ * Uso: {@code @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")}
+ */
+@Component("chaveComVersaoDeDados")
+public class ChaveComVersaoDeDados implements KeyGenerator {
+
+    @Autowired
+    private VersaoDeDadosService versaoDeDadosService;
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Long usuarioId = null;
+        List<Object> partes = new ArrayList<>();
+        partes.add(method.getName());
+        for (Object param : params) {
+            if (param instanceof Usuario usuario) {
+                usuarioId = usuario.getId();
+            } else {
+                partes.add(param);
+            }
+        }
+        if (usuarioId == null) {
+            throw new IllegalStateException("O método " + method.getName() + " não recebe o usuário: não dá para versionar o cache.");
+        }
+        partes.add(0, usuarioId);
+        partes.add(versaoDeDadosService.getVersao(usuarioId));
+        return new SimpleKey(partes.toArray());
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.ellomei.config;
 
+import br.com.ellomei.domain.LancamentoFiltro;
 import br.com.ellomei.domain.LancamentoFormDTO;
 import br.com.ellomei.domain.PlanoAssinatura;
 import br.com.ellomei.domain.Usuario;
@@ -32,6 +33,9 @@ import java.time.YearMonth;
 @Component
 public class PlanLimitAspect {
 
+    /** Lançamentos (grupos de operação) por mês permitidos no plano FREE. */
+    public static final int LIMITE_MENSAL_FREE = 20;
+
     @Autowired
     private LancamentoRepository lancamentoRepository;
 
@@ -67,26 +71,12 @@ public class PlanLimitAspect {
                 LocalDate fimDoMes = mesAtual.atEndOfMonth();
 
                 // Conta quantos grupos de operação (lançamentos únicos) o usuário tem no mês atual
-                long count = lancamentoRepository.findComFiltros(
-                    inicioDoMes, 
-                    fimDoMes, 
-                    null,  // contaId
-                    null,  // contatoId
-                    null,  // tipo
-                    null,  // categoriaId
-                    null,  // comNotaFiscal
-                    null,  // descricao
-                    null,  // status
-                    usuario
-                ).stream()
-                    .map(l -> l.getGrupoOperacao() != null ? l.getGrupoOperacao() : l.getId().toString())
-                    .distinct()
-                    .count();
+                long count = lancamentoRepository.contarGrupos(LancamentoFiltro.doPeriodo(inicioDoMes, fimDoMes), usuario);
 
-                // Limite de 20 lançamentos mensais para o plano FREE
-                if (count >= 20) {
+                // Limite de lançamentos mensais para o plano FREE
+                if (count >= LIMITE_MENSAL_FREE) {
                     throw new PlanLimitExceededException(
-                        "Limite de 20 lançamentos mensais para o plano gratuito atingido. " +
+                        "Limite de " + LIMITE_MENSAL_FREE + " lançamentos mensais para o plano gratuito atingido. " +
                         "Faça upgrade para o plano PRO para lançamentos ilimitados."
                     );
                 }
@@ -45,6 +45,11 @@ public class RateLimitConfig {
      * - categoriasPorUsuario: Cache de categorias por usuário
      * - contatosPorUsuario: Cache de contatos por usuário
      * - contasPorUsuario: Cache de contas por usuário
+     * - dashboard: Resultados do DashboardService, com a versão dos dados na chave
+     *   (ver {@link ChaveComVersaoDeDados}). Guarda estatísticas, publicadas pelo Actuator
+     *   como cache.gets{cache="dashboard",result="hit|miss"}, cache.size e cache.evictions.
+     *   Expira 10 minutos após o cálculo: valores que dependem da data de hoje (ex.: mês
+     *   atual) e alterações feitas fora da aplicação não ficam presos no cache.
      */
     @Bean
     public CacheManager cacheManager() {
@@ -57,6 +62,11 @@ public class RateLimitConfig {
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .expireAfterAccess(1, TimeUnit.HOURS)
                 .maximumSize(10000));
+        cacheManager.registerCustomCache("dashboard", Caffeine.newBuilder()
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .maximumSize(5000)
+                .recordStats()
+                .build());
         return cacheManager;
     }
 
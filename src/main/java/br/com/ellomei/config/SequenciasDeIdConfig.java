@@ -0,0 +1,81 @@
+package br.com.ellomei.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Confere, ao subir a aplicação, as tabelas de sequência dos IDs com pool (allocationSize = 50)
+ * de {@code Lancamento}, {@code Comprovante} e {@code LancamentoTermo}.
+ *
+ * Com Flyway, a V2 inicia cada sequência depois do maior ID já gravado. Sem Flyway
+ * ({@code ddl-auto=update}, perfis default e dev) o Hibernate cria a tabela de sequência
+ * começando em 1, e com lançamentos já existentes o próximo INSERT colidiria com um ID antigo.
+ * Se o próximo valor não estiver acima do maior ID, ele é corrigido para {@code MAX(id) + 50},
+ * o mesmo valor da V2.
+ *
+ * Só se aplica quando o banco não tem SEQUENCE e o Hibernate emula a sequência com uma tabela
+ * (MySQL); com sequências nativas (H2 dos testes) não há o que conferir.
+ *
+ * Roda na criação do bean, depois de o Hibernate criar ou atualizar o schema e antes de
+ * o servidor web aceitar requisições.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Configuration
+public class SequenciasDeIdConfig implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenciasDeIdConfig.class);
+
+    /** Mesmo allocationSize dos @SequenceGenerator. */
+    private static final int TAMANHO_DO_POOL = 50;
+
+    /** Tabela da entidade -> tabela de sequência. */
+    private static final Map<String, String> SEQUENCIAS = Map.of(
+            "lancamento", "lancamento_seq",
+            "comprovante", "comprovante_seq",
+            "lancamento_termo", "lancamento_termo_seq");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterPropertiesSet() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            return;
+        }
+        SEQUENCIAS.forEach(this::verificar);
+    }
+
+    private void verificar(String tabela, String sequencia) {
+        long maiorId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabela, Long.class);
+        List<Long> valores = jdbcTemplate.queryForList("SELECT next_val FROM " + sequencia, Long.class);
+        long corrigido = maiorId + TAMANHO_DO_POOL;
+
+        if (valores.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO " + sequencia + " (next_val) VALUES (?)", corrigido);
+            logger.warn("Sequência {} sem valor: iniciada em {}", sequencia, corrigido);
+        } else if (valores.size() > 1) {
+            throw new IllegalStateException("A tabela de sequência " + sequencia + " deve ter uma única linha, mas tem " + valores.size());
+        } else if (valores.get(0) == null || valores.get(0) <= maiorId) {
+            // Condicional: não sobrescreve um valor que outra instância já tenha avançado
+            jdbcTemplate.update("UPDATE " + sequencia + " SET next_val = ? WHERE next_val IS NULL OR next_val <= ?", corrigido, maiorId);
+            logger.warn("Sequência {} estava em {}, abaixo do maior ID de {} ({}): corrigida para {}",
+                    sequencia, valores.get(0), tabela, maiorId, corrigido);
+        }
+    }
+}
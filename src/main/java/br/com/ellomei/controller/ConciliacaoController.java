@@ -0,0 +1,47 @@
+// src/main/java/br/com/ellomei/controller/ConciliacaoController.java
+package br.com.ellomei.controller;
+
+import br.com.ellomei.dto.RelatorioConciliacaoDTO;
+import br.com.ellomei.service.ConciliacaoDeSaldosService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Relatório da conciliação dos saldos com os lançamentos ({@link ConciliacaoDeSaldosService}),
+ * restrito a administradores.
+ *
+ * Endpoints:
+ * - GET /api/admin/conciliacao - Relatório da última execução (204 se nenhuma rodou ainda)
+ * - POST /api/admin/conciliacao - Executa agora; com corrigir=true, corrige os saldos divergentes
+ */
+@RestController
+@RequestMapping("/api/admin/conciliacao")
+@PreAuthorize("hasRole('ADMIN')")
+public class ConciliacaoController {
+
+    @Autowired private ConciliacaoDeSaldosService conciliacaoDeSaldosService;
+
+    @GetMapping
+    public ResponseEntity<RelatorioConciliacaoDTO> getUltimoRelatorio() {
+        RelatorioConciliacaoDTO relatorio = conciliacaoDeSaldosService.getUltimoRelatorio();
+        return relatorio != null ? ResponseEntity.ok(relatorio) : ResponseEntity.noContent().build();
+    }
+
+    @PostMapping
+    public ResponseEntity<?> conciliar(@RequestParam(defaultValue = "false") boolean corrigir) {
+        try {
+            return ResponseEntity.ok(conciliacaoDeSaldosService.conciliar(corrigir));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Conciliação em andamento", "message", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+// src/main/java/br/com/ellomei/controller/ContaRestController.java
+package br.com.ellomei.controller;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.service.ContaService;
+import br.com.ellomei.service.SaldoDiarioService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Histórico de saldo de uma conta, lido da tabela de saldo diário ({@link SaldoDiarioService}).
+ *
+ * A conta passa pela checagem de propriedade de {@link ContaService#buscarPorId(Long)}.
+ */
+@RestController
+@RequestMapping("/api/contas")
+public class ContaRestController {
+
+    @Autowired private ContaService contaService;
+    @Autowired private SaldoDiarioService saldoDiarioService;
+
+    /**
+     * Saldo da conta no fim de um dia.
+     *
+     * @param data Data desejada (padrão: hoje)
+     */
+    @GetMapping("/{id}/saldo")
+    public ResponseEntity<SaldoDiarioService.PontoDoSaldo> getSaldoEm(@PathVariable Long id,
+                                                                      @RequestParam(required = false) LocalDate data) {
+        Optional<Conta> conta = contaService.buscarPorId(id);
+        if (conta.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(saldoDiarioService.saldoEm(conta.get(), data != null ? data : LocalDate.now()));
+    }
+
+    /**
+     * Saldo da conta no fim de cada dia de um período (inclusive), um ponto por dia.
+     * Sem parâmetros, devolve os últimos 30 dias.
+     */
+    @GetMapping("/{id}/saldos")
+    public ResponseEntity<?> getSerieDeSaldos(@PathVariable Long id,
+                                              @RequestParam(required = false) LocalDate dataInicio,
+                                              @RequestParam(required = false) LocalDate dataFim) {
+        Optional<Conta> conta = contaService.buscarPorId(id);
+        if (conta.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        LocalDate fim = dataFim != null ? dataFim : LocalDate.now();
+        LocalDate inicio = dataInicio != null ? dataInicio : fim.minusDays(29);
+        try {
+            return ResponseEntity.ok(saldoDiarioService.serie(conta.get(), inicio, fim));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Período inválido", "message", e.getMessage()));
+        }
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
 
@@ -33,4 +35,24 @@ public class ContasAPagarController {
         lancamentoService.pagarConta(id, usuario);
         return "redirect:/contas-a-pagar";
     }
-}
\ No newline at end of file
+
+    /**
+     * Paga de uma vez as contas selecionadas na lista.
+     */
+    @PostMapping("/pagar")
+    public String pagarContasSelecionadas(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                          @CurrentUser Usuario usuario,
+                                          RedirectAttributes redirectAttributes) {
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("mensagemErro", "Selecione ao menos uma conta para pagar.");
+            return "redirect:/contas-a-pagar";
+        }
+        try {
+            int pagas = lancamentoService.pagarContas(ids, usuario);
+            redirectAttributes.addFlashAttribute("mensagemSucesso", pagas + " conta(s) marcada(s) como paga(s).");
+        } catch (IllegalStateException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", e.getMessage());
+        }
+        return "redirect:/contas-a-pagar";
+    }
+}
@@ -2,7 +2,6 @@ package br.com.ellomei.controller;
 
 import br.com.ellomei.config.security.CurrentUser;
 import br.com.ellomei.domain.*;
-import br.com.ellomei.dto.UsageMetricsDTO;
 import br.com.ellomei.service.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -10,19 +9,12 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
 
 @Controller
 public class DashboardController {
 
-    @Autowired private DashboardService dashboardService;
-    @Autowired private ContaService contaService;
-    @Autowired private ContatoService contatoService;
-    @Autowired private CategoriaDespesaService categoriaService;
-    @Autowired private LancamentoService lancamentoService;
-    @Autowired private UsageMetricsService usageMetricsService;
+    @Autowired private DashboardPaginaService dashboardPaginaService;
 
     @GetMapping("/dashboard")
     public String mostrarDashboard(
@@ -38,34 +30,22 @@ public class DashboardController {
             @CurrentUser Usuario usuario,
             Model model) {
 
-        // 1. Busca dados para os dropdowns dos filtros
-        model.addAttribute("listaDeContas", contaService.buscarTodasPorUsuario(usuario));
-        model.addAttribute("listaDePessoas", contatoService.buscarTodosPorUsuario(usuario));
-        model.addAttribute("listaDeCategorias", categoriaService.buscarTodasPorUsuario(usuario));
+        // 1. Dropdowns dos filtros, KPIs e métricas de uso, consultados em paralelo
+        LancamentoFiltro filtro = new LancamentoFiltro(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status);
+        DashboardPaginaService.PaginaDashboard pagina = dashboardPaginaService.montar(filtro, usuario);
 
-        // 2. Busca os lançamentos com filtros aplicados
-        List<Lancamento> lancamentosFiltrados = lancamentoService.buscarComFiltros(
-                dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status, usuario
-        );
+        model.addAttribute("listaDeContas", pagina.contas());
+        model.addAttribute("listaDePessoas", pagina.contatos());
+        model.addAttribute("listaDeCategorias", pagina.categorias());
 
-        // 3. Calcula KPIs
-        BigDecimal totalEntradas = lancamentosFiltrados.stream()
-                .filter(l -> l.getTipo() == TipoLancamento.ENTRADA && l.getStatus() == StatusLancamento.PAGO)
-                .map(Lancamento::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // 2. KPIs (somas do resumo mensal ou do banco, sem carregar os lançamentos)
+        model.addAttribute("saldoTotal", pagina.saldoTotal());
+        model.addAttribute("totalEntradas", pagina.totalEntradas());
+        model.addAttribute("totalSaidas", pagina.totalSaidas());
 
-        BigDecimal totalSaidas = lancamentosFiltrados.stream()
-                .filter(l -> l.getTipo() == TipoLancamento.SAIDA && l.getStatus() == StatusLancamento.PAGO)
-                .map(Lancamento::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        model.addAttribute("saldoTotal", dashboardService.getSaldoTotal(usuario, contaId));
-        model.addAttribute("totalEntradas", totalEntradas);
-        model.addAttribute("totalSaidas", totalSaidas);
-
-        // 3.5. Adiciona métricas de uso do plano
-        UsageMetricsDTO usageMetrics = usageMetricsService.calcularMetricas(usuario);
-        model.addAttribute("usageMetrics", usageMetrics);
+        // 3. Métricas de uso do plano e partes que não puderam ser carregadas
+        model.addAttribute("usageMetrics", pagina.usageMetrics());
+        model.addAttribute("partesIndisponiveis", pagina.indisponiveis());
 
         // 4. Devolve filtros selecionados para a view (completo)
         model.addAttribute("dataInicioSel", dataInicio);
@@ -3,30 +3,57 @@ package br.com.ellomei.controller;
 
 import br.com.ellomei.config.security.CurrentUser;
 import br.com.ellomei.domain.ChartData;
+import br.com.ellomei.domain.Granularidade;
+import br.com.ellomei.domain.LancamentoFiltro;
 import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
 import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.service.DashboardEventosService;
 import br.com.ellomei.service.DashboardService;
-import br.com.ellomei.service.LancamentoService; // Importe para o faturamento mensal
+import br.com.ellomei.service.DashboardService.SnapshotDashboard;
+import br.com.ellomei.service.VersaoDeDadosService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.YearMonth;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * Dados dos gráficos e widgets do dashboard.
+ *
+ * As respostas levam um ETag derivado da versão dos dados do usuário
+ * ({@link VersaoDeDadosService}) e {@code Cache-Control: no-cache, private}: o navegador
+ * guarda a resposta e revalida a cada atualização. Sem gravação desde a última resposta,
+ * o If-None-Match bate e a resposta é um 304, sem nenhuma consulta de agregação.
+ */
 @RestController
 @RequestMapping("/api/dashboard")
 public class DashboardRestController {
 
+    /** Revalida a cada uso; só o navegador do usuário guarda a resposta. */
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    /**
+     * Identifica esta execução da aplicação. A versão dos dados fica em memória e recomeça do
+     * zero ao reiniciar; sem isto, um ETag antigo poderia bater com dados diferentes.
+     */
+    private static final String INSTANCIA = Long.toString(System.currentTimeMillis(), 36);
+
     @Autowired private DashboardService dashboardService;
-    @Autowired private LancamentoService lancamentoService; // Necessário para o faturamento
+    @Autowired private VersaoDeDadosService versaoDeDadosService;
+    @Autowired private DashboardEventosService dashboardEventosService;
 
     @GetMapping("/despesas-por-categoria")
     public ResponseEntity<List<ChartData>> getDespesasPorCategoria(
@@ -36,44 +63,88 @@ public class DashboardRestController {
             @RequestParam(required = false) Long contatoId,
             @RequestParam(required = false) Long categoriaId,
             @RequestParam(required = false) StatusLancamento status,
-            @CurrentUser Usuario usuario) {
-        List<ChartData> data = dashboardService.getDespesasPorCategoria(dataInicio, dataFim, contaId, contatoId, categoriaId, status, usuario);
-        return ResponseEntity.ok(data);
+            @CurrentUser Usuario usuario,
+            WebRequest request) {
+        return comEtag(request, usuario,
+                () -> dashboardService.getDespesasPorCategoria(dataInicio, dataFim, contaId, contatoId, categoriaId, status, usuario));
     }
 
+    /**
+     * Fluxo de caixa (entradas e saídas pagas) por período.
+     * Sem parâmetros, devolve os últimos 12 meses, mês a mês.
+     *
+     * @param granularidade SEMANA, MES (padrão) ou TRIMESTRE
+     */
     @GetMapping("/fluxo-caixa-mensal")
-    public ResponseEntity<Map<String, List<?>>> getFluxoDeCaixaMensal(@CurrentUser Usuario usuario) {
-        Map<String, List<?>> data = dashboardService.getFluxoDeCaixaUltimos12Meses(usuario);
-        return ResponseEntity.ok(data);
+    public ResponseEntity<?> getFluxoDeCaixaMensal(
+            @RequestParam(required = false) LocalDate dataInicio,
+            @RequestParam(required = false) LocalDate dataFim,
+            @RequestParam(defaultValue = "MES") Granularidade granularidade,
+            @CurrentUser Usuario usuario,
+            WebRequest request) {
+        try {
+            return comEtag(request, usuario, () -> dashboardService.getFluxoDeCaixa(dataInicio, dataFim, granularidade, usuario));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Período inválido", "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/faturamento-widget")
-    public ResponseEntity<Map<String, BigDecimal>> getDadosWidgetFaturamento(@RequestParam String tipoCalculo, @CurrentUser Usuario usuario) {
-        YearMonth mesAtual = YearMonth.now();
-        int anoAtual = mesAtual.getYear();
+    public ResponseEntity<Map<String, BigDecimal>> getDadosWidgetFaturamento(@RequestParam String tipoCalculo, @CurrentUser Usuario usuario,
+                                                                             WebRequest request) {
+        return comEtag(request, usuario, () -> dashboardService.getFaturamentoWidget(tipoCalculo, usuario));
+    }
 
-        BigDecimal faturamentoAnual;
-        BigDecimal faturamentoMensal;
+    /**
+     * Todos os gráficos e o widget de faturamento da página em uma resposta, calculados sobre
+     * uma única leitura do resumo mensal. Os endpoints acima continuam valendo para atualizar
+     * uma parte só (ex.: troca de granularidade ou do tipo de cálculo).
+     *
+     * Filtros iguais aos de despesas-por-categoria; o fluxo de caixa é o dos últimos 12 meses.
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<SnapshotDashboard> getSnapshot(
+            @RequestParam(required = false) LocalDate dataInicio,
+            @RequestParam(required = false) LocalDate dataFim,
+            @RequestParam(required = false) Long contaId,
+            @RequestParam(required = false) Long contatoId,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) StatusLancamento status,
+            @RequestParam(defaultValue = "MES") Granularidade granularidade,
+            @RequestParam(defaultValue = "OFICIAL") String tipoCalculo,
+            @CurrentUser Usuario usuario,
+            WebRequest request) {
+        LancamentoFiltro filtro = new LancamentoFiltro(dataInicio, dataFim, contaId, contatoId, TipoLancamento.SAIDA, categoriaId, null, null, status);
+        return comEtag(request, usuario, () -> dashboardService.getSnapshot(filtro, granularidade, tipoCalculo, usuario));
+    }
 
-        switch (tipoCalculo) {
-            case "BANCARIO":
-                faturamentoAnual = dashboardService.getFaturamentoBancario(anoAtual, usuario);
-                faturamentoMensal = dashboardService.getFaturamentoBancarioMesAtual(usuario);
-                break;
-            case "ESTIMADO_CUSTOS":
-                faturamentoAnual = dashboardService.getMetaFaturamentoBaseadoEmCustos(anoAtual, usuario);
-                faturamentoMensal = dashboardService.getMetaFaturamentoBaseadoEmCustosMensal(usuario);
-                break;
-            default: // "OFICIAL"
-                faturamentoAnual = dashboardService.getFaturamentoOficial(anoAtual, usuario);
-                faturamentoMensal = dashboardService.getTotalEntradas(mesAtual.atDay(1), mesAtual.atEndOfMonth(), null, null, usuario);
-                break;
-        }
+    /**
+     * Canal SSE do dashboard: a cada gravação de lançamentos do usuário, recebe o evento
+     * "lancamentos" com o delta ({@link br.com.ellomei.dto.DeltaDashboardDTO}).
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getEventos(@CurrentUser Usuario usuario) {
+        return dashboardEventosService.conectar(usuario.getId());
+    }
 
-        Map<String, BigDecimal> response = new HashMap<>();
-        response.put("faturamentoAnual", faturamentoAnual);
-        response.put("faturamentoMensal", faturamentoMensal);
+    /**
+     * Responde 304 quando o If-None-Match bate com a versão atual dos dados do usuário,
+     * sem executar {@code dados}; caso contrário, executa e devolve com o ETag.
+     */
+    private <T> ResponseEntity<T> comEtag(WebRequest request, Usuario usuario, Supplier<T> dados) {
+        String etag = etagDosDados(usuario);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDAR).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR).body(dados.get());
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * ETag fraco: usuário, execução da aplicação, versão dos dados e dia atual (os períodos
+     * padrão, como os últimos 12 meses e o ano corrente, mudam com a data).
+     */
+    private String etagDosDados(Usuario usuario) {
+        return "W/\"" + usuario.getId() + "-" + INSTANCIA + "-" + versaoDeDadosService.getVersao(usuario.getId())
+                + "-" + LocalDate.now() + "\"";
     }
 }
\ No newline at end of file
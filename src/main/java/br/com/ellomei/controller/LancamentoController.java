@@ -2,18 +2,26 @@ package br.com.ellomei.controller;
 
 import br.com.ellomei.config.security.CurrentUser;
 import br.com.ellomei.domain.*;
+import br.com.ellomei.exception.PlanLimitExceededException;
 import br.com.ellomei.service.*;
+import br.com.ellomei.service.importacao.ResultadoImportacao;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -21,10 +29,14 @@ import java.util.List;
 @RequestMapping("/lancamentos")
 public class LancamentoController {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     @Autowired private LancamentoService lancamentoService;
     @Autowired private ContaService contaService;
     @Autowired private CategoriaDespesaService categoriaService;
     @Autowired private ContatoService contatoService;
+    @Autowired private ExportacaoService exportacaoService;
+    @Autowired private ImportacaoService importacaoService;
 
     @GetMapping
     public String listarLancamentos(
@@ -37,22 +49,38 @@ public class LancamentoController {
             @RequestParam(required = false) Boolean comNotaFiscal,
             @RequestParam(required = false) String descricao,
             @RequestParam(required = false) StatusLancamento status,
-            @PageableDefault(size = 20, sort = "data") Pageable pageable,
+            @RequestParam(required = false) String depois,
+            @RequestParam(required = false) String antes,
+            @RequestParam(defaultValue = "20") int size,
             @CurrentUser Usuario usuario, Model model) {
 
-        // Busca os lançamentos agrupados com base nos filtros (com paginação)
-        Page<LancamentoGrupoDTO> lancamentosAgrupadosPage = lancamentoService.buscarComFiltrosAgrupados(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status, usuario, pageable);
-        model.addAttribute("lancamentosPage", lancamentosAgrupadosPage);
+        // Busca os lançamentos agrupados com base nos filtros (paginação por cursor).
+        // A tela só mostra anterior/próxima, então a contagem total não é executada.
+        LancamentoFiltro filtro = new LancamentoFiltro(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status);
+        int tamanho = Math.max(1, Math.min(size, TAMANHO_MAXIMO_PAGINA));
+        PaginaPorCursor<LancamentoGrupoDTO> lancamentosPagina = lancamentoService.buscarComFiltrosAgrupadosPorCursor(filtro, usuario, depois, antes, tamanho, false);
+        model.addAttribute("lancamentosPagina", lancamentosPagina);
+        // Links de navegação: mesma URL (filtros incluídos), trocando apenas o cursor
+        if (lancamentosPagina.hasAnterior()) {
+            model.addAttribute("urlPaginaAnterior", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("antes", lancamentosPagina.getCursorAnterior())
+                    .replaceQueryParam("depois").toUriString());
+        }
+        if (lancamentosPagina.hasProxima()) {
+            model.addAttribute("urlProximaPagina", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("depois", lancamentosPagina.getCursorProximo())
+                    .replaceQueryParam("antes").toUriString());
+        }
         // Mantém compatibilidade com HTML antigo
-        model.addAttribute("listaDeLancamentos", lancamentosAgrupadosPage.getContent());
+        model.addAttribute("listaDeLancamentos", lancamentosPagina.getConteudo());
 
         // Calcula os totais para os KPIs da página (apenas da página atual)
-        BigDecimal totalEntradas = lancamentosAgrupadosPage.getContent().stream()
+        BigDecimal totalEntradas = lancamentosPagina.getConteudo().stream()
                 .filter(l -> l.getTipo() == TipoLancamento.ENTRADA && l.getStatus() == StatusLancamento.PAGO)
                 .map(LancamentoGrupoDTO::getValorTotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        BigDecimal totalSaidas = lancamentosAgrupadosPage.getContent().stream()
+        BigDecimal totalSaidas = lancamentosPagina.getConteudo().stream()
                 .filter(l -> l.getTipo() == TipoLancamento.SAIDA && l.getStatus() == StatusLancamento.PAGO)
                 .map(LancamentoGrupoDTO::getValorTotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
@@ -74,6 +102,110 @@ public class LancamentoController {
         return "lancamentos";
     }
 
+    /**
+     * Exporta os lançamentos filtrados em CSV.
+     * O arquivo é escrito na resposta enquanto as linhas são lidas do banco (sem montar tudo em memória).
+     */
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportarCsv(
+            @RequestParam(required = false) LocalDate dataInicio,
+            @RequestParam(required = false) LocalDate dataFim,
+            @RequestParam(required = false) Long contaId,
+            @RequestParam(required = false) Long contatoId,
+            @RequestParam(required = false) TipoLancamento tipo,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Boolean comNotaFiscal,
+            @RequestParam(required = false) String descricao,
+            @RequestParam(required = false) StatusLancamento status,
+            @CurrentUser Usuario usuario) {
+
+        LancamentoFiltro filtro = new LancamentoFiltro(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status);
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarCsv(filtro, usuario, saida);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("lancamentos.csv").build().toString())
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(corpo);
+    }
+
+    /**
+     * Exporta os lançamentos pagos de uma conta como extrato OFX.
+     * A conta é obrigatória (um extrato OFX descreve uma única conta).
+     */
+    @GetMapping("/export/ofx")
+    public ResponseEntity<StreamingResponseBody> exportarOfx(
+            @RequestParam Long contaId,
+            @RequestParam(required = false) LocalDate dataInicio,
+            @RequestParam(required = false) LocalDate dataFim,
+            @RequestParam(required = false) Long contatoId,
+            @RequestParam(required = false) TipoLancamento tipo,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Boolean comNotaFiscal,
+            @RequestParam(required = false) String descricao,
+            @CurrentUser Usuario usuario) {
+
+        // buscarPorId verifica se a conta pertence ao usuário
+        Conta conta = contaService.buscarPorId(contaId).orElseThrow(() -> new RuntimeException("Conta não encontrada"));
+        LancamentoFiltro filtro = new LancamentoFiltro(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, null);
+        StreamingResponseBody corpo = saida -> exportacaoService.exportarOfx(filtro, conta, usuario, saida);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("extrato-" + contaId + ".ofx").build().toString())
+                .contentType(MediaType.parseMediaType("application/x-ofx"))
+                .body(corpo);
+    }
+
+    @GetMapping("/importar")
+    public String mostrarFormularioDeImportacao(Model model, @CurrentUser Usuario usuario) {
+        model.addAttribute("listaDeContas", contaService.buscarTodasPorUsuario(usuario));
+        return "importar-extrato";
+    }
+
+    /**
+     * Importa um extrato bancário (OFX ou CSV) para a conta escolhida.
+     */
+    @PostMapping("/importar")
+    public String importarExtrato(@RequestParam Long contaId,
+                                  @RequestParam("arquivo") MultipartFile arquivo,
+                                  @CurrentUser Usuario usuario,
+                                  RedirectAttributes redirectAttributes) {
+        if (arquivo.isEmpty()) {
+            redirectAttributes.addFlashAttribute("mensagemErro", "Selecione um arquivo de extrato.");
+            return "redirect:/lancamentos/importar";
+        }
+        try (InputStream entrada = arquivo.getInputStream()) {
+            ResultadoImportacao resultado = importacaoService.importarExtrato(entrada, arquivo.getOriginalFilename(), contaId, usuario);
+            redirectAttributes.addFlashAttribute("mensagemSucesso", resultado.getMensagem());
+            return "redirect:/lancamentos";
+        } catch (IllegalArgumentException | PlanLimitExceededException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", e.getMessage());
+        } catch (IOException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", "Não foi possível ler o arquivo enviado.");
+        }
+        return "redirect:/lancamentos/importar";
+    }
+
+    /**
+     * Importa notas fiscais eletrônicas (XMLs avulsos ou em .zip) para a conta escolhida.
+     */
+    @PostMapping("/importar/nfe")
+    public String importarNotasFiscais(@RequestParam Long contaId,
+                                       @RequestParam("arquivos") MultipartFile[] arquivos,
+                                       @RequestParam(defaultValue = "false") boolean pagas,
+                                       @CurrentUser Usuario usuario,
+                                       RedirectAttributes redirectAttributes) {
+        try {
+            ResultadoImportacao resultado = importacaoService.importarNotasFiscais(arquivos, contaId, pagas, usuario);
+            redirectAttributes.addFlashAttribute("mensagemSucesso", resultado.getMensagem());
+            return "redirect:/lancamentos";
+        } catch (IllegalArgumentException | PlanLimitExceededException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", e.getMessage());
+        } catch (IOException e) {
+            redirectAttributes.addFlashAttribute("mensagemErro", "Não foi possível ler os arquivos enviados.");
+        }
+        return "redirect:/lancamentos/importar";
+    }
+
     private void carregarDadosDoFormulario(Model model, Usuario usuario) {
         model.addAttribute("listaDeContas", contaService.buscarTodasPorUsuario(usuario));
         model.addAttribute("listaDeCategorias", categoriaService.buscarTodasPorUsuario(usuario));
@@ -8,6 +8,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -43,7 +44,12 @@ import java.time.LocalDateTime;
  * @since 1.0.0
  */
 @Entity
-@Table(name = "assinaturas")
+@Table(name = "assinaturas", indexes = {
+    @Index(name = "idx_assinaturas_usuario_inicio", columnList = "usuario_id, data_inicio"),
+    @Index(name = "idx_assinaturas_status_cobranca", columnList = "status, data_proxima_cobranca"),
+    @Index(name = "idx_assinaturas_status_expiracao", columnList = "status, data_expiracao"),
+    @Index(name = "idx_assinaturas_pagamento_externo", columnList = "id_pagamento_externo")
+})
 public class Assinatura {
     
     @Id
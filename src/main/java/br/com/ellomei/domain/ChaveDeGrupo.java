@@ -0,0 +1,58 @@
+package br.com.ellomei.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Chave de um grupo de lançamentos na listagem paginada por cursor (keyset).
+ *
+ * A ordem da listagem é (MAX(data), MAX(id)) decrescente; como cada ID pertence a um
+ * único grupo, o par identifica a posição do grupo sem ambiguidade e serve de cursor.
+ */
+public class ChaveDeGrupo {
+    private String chave; // grupoOperacao, ou o ID para lançamentos sem grupo
+    private LocalDate data; // MAX(data) do grupo
+    private Long ultimoId; // MAX(id) do grupo
+
+    /**
+     * Construtor usado pela projeção em LancamentoRepository.
+     */
+    public ChaveDeGrupo(String chave, LocalDate data, Long ultimoId) {
+        this.chave = chave;
+        this.data = data;
+        this.ultimoId = ultimoId;
+    }
+
+    /**
+     * Codifica a posição do grupo em um token opaco para a URL (Base64 de "data|id").
+     */
+    public String codificarCursor() {
+        String posicao = data + "|" + ultimoId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(posicao.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um token gerado por {@link #codificarCursor()}.
+     *
+     * @return A posição (sem a chave), ou null se o token estiver vazio ou inválido
+     */
+    public static ChaveDeGrupo decodificarCursor(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String posicao = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = posicao.split("\\|");
+            if (partes.length != 2) return null;
+            return new ChaveDeGrupo(null, LocalDate.parse(partes[0]), Long.valueOf(partes[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Token adulterado ou de outra versão: volta para a primeira página
+            return null;
+        }
+    }
+
+    // Getters
+    public String getChave() { return chave; }
+    public LocalDate getData() { return data; }
+    public Long getUltimoId() { return ultimoId; }
+}
@@ -0,0 +1,63 @@
+package br.com.ellomei.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Tamanho dos períodos de uma série do dashboard (ex.: fluxo de caixa por semana, mês ou trimestre).
+ */
+public enum Granularidade {
+    SEMANA("Semana"),
+    MES("Mês"),
+    TRIMESTRE("Trimestre");
+
+    private static final DateTimeFormatter FORMATO_SEMANA = DateTimeFormatter.ofPattern("dd/MM/yy");
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("MMM/yy");
+
+    private final String descricao;
+
+    Granularidade(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * Primeiro dia do período que contém a data (as semanas começam na segunda-feira).
+     */
+    public LocalDate inicioDoPeriodo(LocalDate data) {
+        return switch (this) {
+            case SEMANA -> data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> data.withDayOfMonth(1);
+            case TRIMESTRE -> LocalDate.of(data.getYear(), (data.getMonthValue() - 1) / 3 * 3 + 1, 1);
+        };
+    }
+
+    /**
+     * Primeiro dia do período seguinte.
+     *
+     * @param inicioDoPeriodo Primeiro dia de um período (ver {@link #inicioDoPeriodo(LocalDate)})
+     */
+    public LocalDate proximoPeriodo(LocalDate inicioDoPeriodo) {
+        return switch (this) {
+            case SEMANA -> inicioDoPeriodo.plusWeeks(1);
+            case MES -> inicioDoPeriodo.plusMonths(1);
+            case TRIMESTRE -> inicioDoPeriodo.plusMonths(3);
+        };
+    }
+
+    /**
+     * Rótulo do período para os gráficos (ex.: "03/02/25", "fev/25", "1º tri/25").
+     */
+    public String rotulo(LocalDate inicioDoPeriodo) {
+        return switch (this) {
+            case SEMANA -> inicioDoPeriodo.format(FORMATO_SEMANA);
+            case MES -> inicioDoPeriodo.format(FORMATO_MES);
+            case TRIMESTRE -> ((inicioDoPeriodo.getMonthValue() - 1) / 3 + 1) + "º tri/" + String.format("%02d", inicioDoPeriodo.getYear() % 100);
+        };
+    }
+}
@@ -9,28 +9,66 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedEntityGraphs;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.Filter;
 import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.ParamDef;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
+@NamedEntityGraphs({
+        // Listagens de lançamentos: conta, categoria e contato em uma única consulta (sem N+1)
+        @NamedEntityGraph(name = Lancamento.GRAFO_LISTAGEM, attributeNodes = {
+                @NamedAttributeNode("conta"),
+                @NamedAttributeNode("categoriaDespesa"),
+                @NamedAttributeNode("contato")
+        }),
+        // Edição, contas a pagar e relatórios em PDF: também carrega os comprovantes
+        @NamedEntityGraph(name = Lancamento.GRAFO_COM_COMPROVANTES, attributeNodes = {
+                @NamedAttributeNode("conta"),
+                @NamedAttributeNode("categoriaDespesa"),
+                @NamedAttributeNode("contato"),
+                @NamedAttributeNode("comprovantes")
+        })
+})
+// Índices das consultas quentes (todas filtram por usuário). Em produção são criados pela migration V3.
+@Table(indexes = {
+        @Index(name = "idx_lancamento_usuario_data_id", columnList = "usuario_id, data, id"),
+        @Index(name = "idx_lancamento_usuario_grupo", columnList = "usuario_id, grupo_operacao"),
+        @Index(name = "idx_lancamento_usuario_status_data", columnList = "usuario_id, status, data"),
+        @Index(name = "idx_lancamento_usuario_tipo_data", columnList = "usuario_id, tipo, data")
+})
+@DynamicUpdate // Edições de operação atualizam no lugar: o UPDATE inclui só as colunas alteradas
 @FilterDef(name = "tenantFilter", parameters = @ParamDef(name = "tenantId", type = Long.class))
 @Filter(name = "tenantFilter", condition = "usuario_id = :tenantId")
 public class Lancamento {
 
+    public static final String GRAFO_LISTAGEM = "Lancamento.listagem";
+    public static final String GRAFO_COM_COMPROVANTES = "Lancamento.comComprovantes";
+
+    // Sequência com pool (allocationSize) em vez de IDENTITY: permite que o Hibernate
+    // agrupe os INSERTs em lotes JDBC (IDENTITY desabilita o batching).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+    @SequenceGenerator(name = "lancamento_seq", sequenceName = "lancamento_seq", allocationSize = 50)
     private Long id;
 
     private String grupoOperacao;
@@ -51,21 +89,22 @@ public class Lancamento {
     private TipoLancamento tipo;
 
     @NotNull(message = "Conta é obrigatória.")
-    @ManyToOne
+    // Associações LAZY: cada consulta escolhe o que carregar (ver os @NamedEntityGraph acima)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "conta_id")
     private Conta conta;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "categoria_despesa_id")
     private CategoriaDespesa categoriaDespesa;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contato_id")
     private Contato contato;
 
     private Boolean comNotaFiscal;
 
-    @OneToMany(mappedBy = "lancamento", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "lancamento", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comprovante> comprovantes = new ArrayList<>();
 
     @NotNull(message = "Status é obrigatório.")
@@ -78,6 +117,10 @@ public class Lancamento {
     private Usuario usuario;
     // -------------------
 
+    // Índice invertido da descrição (busca por texto). Mantido por atualizarTermosDeBusca().
+    @OneToMany(mappedBy = "lancamento", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<LancamentoTermo> termos = new HashSet<>();
+
 
     // Getters e Setters
     public Long getId() { return id; }
@@ -85,7 +128,14 @@ public class Lancamento {
     public String getGrupoOperacao() { return grupoOperacao; }
     public void setGrupoOperacao(String grupoOperacao) { this.grupoOperacao = grupoOperacao; }
     public String getDescricao() { return descricao; }
-    public void setDescricao(String descricao) { this.descricao = descricao; }
+    public void setDescricao(String descricao) {
+        // Mesmos termos (ex.: só mudou acento, caixa ou pontuação): nem carrega os termos gravados
+        boolean mesmosTermos = TextoDeBusca.termos(this.descricao).equals(TextoDeBusca.termos(descricao));
+        this.descricao = descricao;
+        if (!mesmosTermos) {
+            atualizarTermosDeBusca();
+        }
+    }
     public BigDecimal getValor() { return valor; }
     public void setValor(BigDecimal valor) { this.valor = valor; }
     public LocalDate getData() { return data; }
@@ -107,6 +157,36 @@ public class Lancamento {
 
     // --- NOVOS GETTERS E SETTERS ---
     public Usuario getUsuario() { return usuario; }
-    public void setUsuario(Usuario usuario) { this.usuario = usuario; }
+    public void setUsuario(Usuario usuario) {
+        // A edição repassa o mesmo dono: os termos só mudam quando o lançamento ganha um usuário
+        boolean mesmoUsuario = this.usuario != null && usuario != null && this.usuario.getId() != null
+                && this.usuario.getId().equals(usuario.getId());
+        this.usuario = usuario;
+        if (!mesmoUsuario) {
+            atualizarTermosDeBusca();
+        }
+    }
     // -----------------------------
+
+    public Set<LancamentoTermo> getTermos() { return termos; }
+
+    /**
+     * Sincroniza os termos de busca com a descrição atual.
+     * Só altera o que mudou: termos que continuam na descrição não são regravados.
+     * Sem usuário ainda não há como indexar; o setUsuario chama de novo.
+     */
+    public void atualizarTermosDeBusca() {
+        if (usuario == null) {
+            return;
+        }
+        Set<String> novos = TextoDeBusca.termos(descricao);
+        termos.removeIf(termo -> !novos.contains(termo.getTermo()));
+        for (LancamentoTermo termo : termos) {
+            termo.setUsuario(usuario);
+            novos.remove(termo.getTermo());
+        }
+        for (String termo : novos) {
+            termos.add(new LancamentoTermo(this, termo));
+        }
+    }
 }
\ No newline at end of file
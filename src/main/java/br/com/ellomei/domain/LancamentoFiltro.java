@@ -0,0 +1,94 @@
+package br.com.ellomei.domain;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Filtros opcionais das consultas de lançamentos (listagem, dashboard, relatórios).
+ *
+ * Campos nulos (ou descrição em branco) não filtram: as consultas montadas a partir
+ * deste objeto (ver LancamentoSpecifications) só incluem os predicados informados.
+ */
+public class LancamentoFiltro {
+    private LocalDate dataInicio;
+    private LocalDate dataFim;
+    private Long contaId;
+    private Long contatoId;
+    private TipoLancamento tipo;
+    private Long categoriaId;
+    private Boolean comNotaFiscal;
+    private String descricao;
+    private StatusLancamento status;
+
+    // Construtores
+    public LancamentoFiltro() {}
+
+    public LancamentoFiltro(LocalDate dataInicio, LocalDate dataFim, Long contaId, Long contatoId,
+                            TipoLancamento tipo, Long categoriaId, Boolean comNotaFiscal,
+                            String descricao, StatusLancamento status) {
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.contaId = contaId;
+        this.contatoId = contatoId;
+        this.tipo = tipo;
+        this.categoriaId = categoriaId;
+        this.comNotaFiscal = comNotaFiscal;
+        this.descricao = descricao;
+        this.status = status;
+    }
+
+    /**
+     * Filtro apenas pelo período (datas inclusivas).
+     */
+    public static LancamentoFiltro doPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        LancamentoFiltro filtro = new LancamentoFiltro();
+        filtro.setDataInicio(dataInicio);
+        filtro.setDataFim(dataFim);
+        return filtro;
+    }
+
+    // Getters e Setters
+    public LocalDate getDataInicio() { return dataInicio; }
+    public void setDataInicio(LocalDate dataInicio) { this.dataInicio = dataInicio; }
+
+    public LocalDate getDataFim() { return dataFim; }
+    public void setDataFim(LocalDate dataFim) { this.dataFim = dataFim; }
+
+    public Long getContaId() { return contaId; }
+    public void setContaId(Long contaId) { this.contaId = contaId; }
+
+    public Long getContatoId() { return contatoId; }
+    public void setContatoId(Long contatoId) { this.contatoId = contatoId; }
+
+    public TipoLancamento getTipo() { return tipo; }
+    public void setTipo(TipoLancamento tipo) { this.tipo = tipo; }
+
+    public Long getCategoriaId() { return categoriaId; }
+    public void setCategoriaId(Long categoriaId) { this.categoriaId = categoriaId; }
+
+    public Boolean getComNotaFiscal() { return comNotaFiscal; }
+    public void setComNotaFiscal(Boolean comNotaFiscal) { this.comNotaFiscal = comNotaFiscal; }
+
+    public String getDescricao() { return descricao; }
+    public void setDescricao(String descricao) { this.descricao = descricao; }
+
+    public StatusLancamento getStatus() { return status; }
+    public void setStatus(StatusLancamento status) { this.status = status; }
+
+    // equals/hashCode: o filtro faz parte da chave do cache do dashboard
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LancamentoFiltro that)) return false;
+        return Objects.equals(dataInicio, that.dataInicio) && Objects.equals(dataFim, that.dataFim)
+                && Objects.equals(contaId, that.contaId) && Objects.equals(contatoId, that.contatoId)
+                && tipo == that.tipo && Objects.equals(categoriaId, that.categoriaId)
+                && Objects.equals(comNotaFiscal, that.comNotaFiscal) && Objects.equals(descricao, that.descricao)
+                && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status);
+    }
+}
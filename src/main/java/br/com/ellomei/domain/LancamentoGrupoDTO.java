@@ -2,11 +2,13 @@ package br.com.ellomei.domain;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
 
 /**
  * DTO que representa um grupo de lançamentos (transação com múltiplos pagamentos)
  * para exibição na listagem principal
+ *
+ * É preenchido direto pela consulta agregada (projeção Criteria com SUM/MIN/COUNT),
+ * sem carregar as entidades Lancamento, Conta, Categoria e Contato do grupo.
  */
 public class LancamentoGrupoDTO {
     private Long id; // ID do primeiro lançamento do grupo (para edição/exclusão)
@@ -17,18 +19,24 @@ public class LancamentoGrupoDTO {
     private StatusLancamento status;
     private BigDecimal valorTotal; // Soma de todos os valores do grupo
     private String contasDescricao; // Descrição das contas envolvidas
-    private CategoriaDespesa categoriaDespesa;
-    private Contato contato;
+    private Long quantidadeContas; // Quantidade de contas distintas no grupo
+    private String categoriaNome;
+    private String contatoNome;
     private Boolean comNotaFiscal;
-    private List<Comprovante> comprovantes;
 
     // Construtores
     public LancamentoGrupoDTO() {}
 
-    public LancamentoGrupoDTO(Long id, String grupoOperacao, String descricao, LocalDate data, 
-                             TipoLancamento tipo, StatusLancamento status, BigDecimal valorTotal, 
-                             String contasDescricao, CategoriaDespesa categoriaDespesa, 
-                             Contato contato, Boolean comNotaFiscal, List<Comprovante> comprovantes) {
+    /**
+     * Construtor usado pela projeção em LancamentoRepository (uma linha por grupo).
+     *
+     * @param nomesDasContas Nomes distintos das contas do grupo, separados por vírgula
+     * @param quantidadeContas Quantidade de contas distintas no grupo
+     */
+    public LancamentoGrupoDTO(Long id, String grupoOperacao, String descricao, LocalDate data,
+                             TipoLancamento tipo, StatusLancamento status, BigDecimal valorTotal,
+                             String nomesDasContas, Long quantidadeContas, String categoriaNome,
+                             String contatoNome, Boolean comNotaFiscal) {
         this.id = id;
         this.grupoOperacao = grupoOperacao;
         this.descricao = descricao;
@@ -36,11 +44,11 @@ public class LancamentoGrupoDTO {
         this.tipo = tipo;
         this.status = status;
         this.valorTotal = valorTotal;
-        this.contasDescricao = contasDescricao;
-        this.categoriaDespesa = categoriaDespesa;
-        this.contato = contato;
+        this.quantidadeContas = quantidadeContas;
+        setNomesDasContas(nomesDasContas);
+        this.categoriaNome = categoriaNome;
+        this.contatoNome = contatoNome;
         this.comNotaFiscal = comNotaFiscal;
-        this.comprovantes = comprovantes;
     }
 
     // Getters e Setters
@@ -68,15 +76,26 @@ public class LancamentoGrupoDTO {
     public String getContasDescricao() { return contasDescricao; }
     public void setContasDescricao(String contasDescricao) { this.contasDescricao = contasDescricao; }
 
-    public CategoriaDespesa getCategoriaDespesa() { return categoriaDespesa; }
-    public void setCategoriaDespesa(CategoriaDespesa categoriaDespesa) { this.categoriaDespesa = categoriaDespesa; }
+    public Long getQuantidadeContas() { return quantidadeContas; }
+
+    /**
+     * Monta a descrição das contas: com apenas uma conta, mostra só o nome;
+     * com várias, mostra "Múltiplas contas (...)".
+     *
+     * @param nomesDasContas Nomes distintos das contas do grupo, separados por vírgula
+     */
+    public void setNomesDasContas(String nomesDasContas) {
+        this.contasDescricao = quantidadeContas != null && quantidadeContas > 1
+                ? "Múltiplas contas (" + nomesDasContas + ")"
+                : nomesDasContas;
+    }
+
+    public String getCategoriaNome() { return categoriaNome; }
+    public void setCategoriaNome(String categoriaNome) { this.categoriaNome = categoriaNome; }
 
-    public Contato getContato() { return contato; }
-    public void setContato(Contato contato) { this.contato = contato; }
+    public String getContatoNome() { return contatoNome; }
+    public void setContatoNome(String contatoNome) { this.contatoNome = contatoNome; }
 
     public Boolean getComNotaFiscal() { return comNotaFiscal; }
     public void setComNotaFiscal(Boolean comNotaFiscal) { this.comNotaFiscal = comNotaFiscal; }
-
-    public List<Comprovante> getComprovantes() { return comprovantes; }
-    public void setComprovantes(List<Comprovante> comprovantes) { this.comprovantes = comprovantes; }
 }
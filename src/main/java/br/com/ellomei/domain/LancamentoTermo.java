@@ -0,0 +1,78 @@
+package br.com.ellomei.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.util.Objects;
+
+/**
+ * Entrada do índice invertido de busca: um termo normalizado da descrição de um lançamento.
+ *
+ * A busca por descrição consulta esta tabela pelo índice (usuario_id, termo) com
+ * {@code termo LIKE 'prefixo%'}, em vez de varrer os lançamentos do usuário com
+ * {@code descricao LIKE '%texto%'}. Os termos são mantidos pelo próprio {@link Lancamento}
+ * (ver {@link Lancamento#atualizarTermosDeBusca()}) e removidos junto com ele.
+ */
+@Entity
+@Table(name = "lancamento_termo", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_lancamento_termo_lancamento_termo", columnNames = {"lancamento_id", "termo"})
+}, indexes = {
+        @Index(name = "idx_lancamento_termo_usuario_termo", columnList = "usuario_id, termo, lancamento_id")
+})
+public class LancamentoTermo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_termo_seq")
+    @SequenceGenerator(name = "lancamento_termo_seq", sequenceName = "lancamento_termo_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lancamento_id", nullable = false)
+    private Lancamento lancamento;
+
+    // Cópia do dono do lançamento: mantém a busca restrita ao tenant já no índice
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(nullable = false, length = TextoDeBusca.TAMANHO_MAXIMO_TERMO)
+    private String termo;
+
+    protected LancamentoTermo() {}
+
+    LancamentoTermo(Lancamento lancamento, String termo) {
+        this.lancamento = lancamento;
+        this.usuario = lancamento.getUsuario();
+        this.termo = termo;
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public Lancamento getLancamento() { return lancamento; }
+    public Usuario getUsuario() { return usuario; }
+    void setUsuario(Usuario usuario) { this.usuario = usuario; }
+    public String getTermo() { return termo; }
+
+    // Um lançamento não repete termos: a identidade dentro do conjunto é o próprio termo
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LancamentoTermo)) return false;
+        return Objects.equals(termo, ((LancamentoTermo) o).termo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(termo);
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.ellomei.domain;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem paginada por cursor (keyset).
+ *
+ * Em vez do número da página, carrega os tokens para a página anterior e a próxima.
+ * O total de registros só é preenchido quando pedido, pois exige uma consulta de
+ * contagem sobre todo o histórico filtrado.
+ */
+public class PaginaPorCursor<T> {
+    private final List<T> conteudo;
+    private final int tamanho;
+    private final String cursorAnterior; // null na primeira página
+    private final String cursorProximo; // null na última página
+    private final Long totalElementos; // null quando a contagem não foi pedida
+
+    public PaginaPorCursor(List<T> conteudo, int tamanho, String cursorAnterior, String cursorProximo, Long totalElementos) {
+        this.conteudo = conteudo;
+        this.tamanho = tamanho;
+        this.cursorAnterior = cursorAnterior;
+        this.cursorProximo = cursorProximo;
+        this.totalElementos = totalElementos;
+    }
+
+    public boolean hasAnterior() { return cursorAnterior != null; }
+    public boolean hasProxima() { return cursorProximo != null; }
+    public boolean isTotalConhecido() { return totalElementos != null; }
+
+    // Getters
+    public List<T> getConteudo() { return conteudo; }
+    public int getTamanho() { return tamanho; }
+    public String getCursorAnterior() { return cursorAnterior; }
+    public String getCursorProximo() { return cursorProximo; }
+    public Long getTotalElementos() { return totalElementos; }
+}
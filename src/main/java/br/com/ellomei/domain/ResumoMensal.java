@@ -0,0 +1,137 @@
+package br.com.ellomei.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resumo mensal dos lançamentos de um usuário: soma e quantidade por
+ * (mês, tipo, status, conta, categoria, com nota fiscal).
+ *
+ * É mantido pelo {@link br.com.ellomei.service.LancamentoService} na mesma transação
+ * que grava os lançamentos, então o dashboard lê algumas dezenas de linhas daqui em vez
+ * de agregar todo o histórico a cada acesso. O resumo pode ser recalculado a partir dos
+ * lançamentos a qualquer momento (ver {@link br.com.ellomei.service.ResumoMensalService}).
+ *
+ * Conta e categoria são guardadas só pelo ID (o resumo é um dado derivado); lançamentos
+ * sem categoria ficam com {@link #SEM_CATEGORIA}, para que a chave única valha também para eles.
+ */
+@Entity
+@Table(name = "resumo_mensal", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_resumo_mensal_chave",
+                columnNames = {"usuario_id", "mes", "tipo", "status", "conta_id", "categoria_id", "com_nota_fiscal"})
+})
+public class ResumoMensal {
+
+    /** Valor de categoriaId para lançamentos sem categoria de despesa. */
+    public static final long SEM_CATEGORIA = 0L;
+
+    /**
+     * Chave de agregação do resumo (o usuário fica de fora: cada operação é de um único usuário).
+     *
+     * @param mes Primeiro dia do mês
+     */
+    public record Chave(LocalDate mes, TipoLancamento tipo, StatusLancamento status,
+                        Long contaId, Long categoriaId, boolean comNotaFiscal) {
+
+        public static Chave de(Lancamento lancamento) {
+            return de(lancamento.getData(), lancamento.getTipo(), lancamento.getStatus(), lancamento.getConta().getId(),
+                    lancamento.getCategoriaDespesa() != null ? lancamento.getCategoriaDespesa().getId() : null,
+                    lancamento.getComNotaFiscal());
+        }
+
+        /**
+         * Monta a chave a partir dos valores de um lançamento, normalizando mês, categoria e nota fiscal.
+         */
+        public static Chave de(LocalDate data, TipoLancamento tipo, StatusLancamento status,
+                               Long contaId, Long categoriaId, Boolean comNotaFiscal) {
+            return new Chave(data.withDayOfMonth(1), tipo, status, contaId,
+                    categoriaId != null ? categoriaId : SEM_CATEGORIA, Boolean.TRUE.equals(comNotaFiscal));
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(nullable = false)
+    private LocalDate mes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoLancamento tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusLancamento status;
+
+    @Column(name = "conta_id", nullable = false)
+    private Long contaId;
+
+    @Column(name = "categoria_id", nullable = false)
+    private Long categoriaId;
+
+    @Column(name = "com_nota_fiscal", nullable = false)
+    private boolean comNotaFiscal;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    protected ResumoMensal() {}
+
+    public ResumoMensal(Usuario usuario, Chave chave, BigDecimal total, long quantidade) {
+        this.usuario = usuario;
+        this.mes = chave.mes();
+        this.tipo = chave.tipo();
+        this.status = chave.status();
+        this.contaId = chave.contaId();
+        this.categoriaId = chave.categoriaId();
+        this.comNotaFiscal = chave.comNotaFiscal();
+        this.total = total;
+        this.quantidade = quantidade;
+    }
+
+    public Chave getChave() {
+        return new Chave(mes, tipo, status, contaId, categoriaId, comNotaFiscal);
+    }
+
+    /**
+     * @return ID da categoria de despesa, ou null se os lançamentos não têm categoria
+     */
+    public Long getCategoriaIdOuNulo() {
+        return categoriaId == SEM_CATEGORIA ? null : categoriaId;
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public Usuario getUsuario() { return usuario; }
+    public LocalDate getMes() { return mes; }
+    public TipoLancamento getTipo() { return tipo; }
+    public StatusLancamento getStatus() { return status; }
+    public Long getContaId() { return contaId; }
+    public Long getCategoriaId() { return categoriaId; }
+    public boolean isComNotaFiscal() { return comNotaFiscal; }
+    public BigDecimal getTotal() { return total; }
+    public void setTotal(BigDecimal total) { this.total = total; }
+    public long getQuantidade() { return quantidade; }
+    public void setQuantidade(long quantidade) { this.quantidade = quantidade; }
+}
@@ -0,0 +1,69 @@
+package br.com.ellomei.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Histórico de saldo de uma conta: uma linha por dia com lançamentos PAGOS.
+ *
+ * Guarda só o movimento do dia (entradas menos saídas). O saldo da conta em uma data é
+ * {@code saldoInicial} mais a soma dos movimentos até ela, calculada na leitura: uma linha por
+ * dia com movimento, e não por lançamento. Sem acumulado gravado, um lançamento retroativo
+ * altera apenas o seu dia, e não todos os dias seguintes.
+ *
+ * É mantido pelo {@link br.com.ellomei.service.LancamentoService} na mesma transação que
+ * grava os lançamentos e pode ser recalculado a qualquer momento
+ * (ver {@link br.com.ellomei.service.SaldoDiarioService}). Como o resumo mensal, guarda a
+ * conta só pelo ID.
+ */
+@Entity
+@Table(name = "saldo_diario", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_saldo_diario_conta_data", columnNames = {"conta_id", "data"})
+})
+public class SaldoDiario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(name = "conta_id", nullable = false)
+    private Long contaId;
+
+    @Column(nullable = false)
+    private LocalDate data;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal movimento;
+
+    protected SaldoDiario() {}
+
+    public SaldoDiario(Usuario usuario, Long contaId, LocalDate data, BigDecimal movimento) {
+        this.usuario = usuario;
+        this.contaId = contaId;
+        this.data = data;
+        this.movimento = movimento;
+    }
+
+    // Getters e Setters
+    public Long getId() { return id; }
+    public Usuario getUsuario() { return usuario; }
+    public Long getContaId() { return contaId; }
+    public LocalDate getData() { return data; }
+    public BigDecimal getMovimento() { return movimento; }
+    public void setMovimento(BigDecimal movimento) { this.movimento = movimento; }
+}
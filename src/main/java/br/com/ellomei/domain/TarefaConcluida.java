@@ -0,0 +1,38 @@
+package br.com.ellomei.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de uma tarefa de manutenção que só precisa rodar uma vez por banco
+ * (ex.: indexar os lançamentos gravados antes do índice de busca existir).
+ *
+ * Quem executa a tarefa grava a linha ao terminar e, nas próximas subidas da aplicação,
+ * encontra a linha e não repete o trabalho.
+ */
+@Entity
+@Table(name = "tarefa_concluida")
+public class TarefaConcluida {
+
+    @Id
+    @Column(length = 100)
+    private String nome;
+
+    @Column(name = "concluida_em", nullable = false)
+    private LocalDateTime concluidaEm;
+
+    protected TarefaConcluida() {}
+
+    public TarefaConcluida(String nome) {
+        this.nome = nome;
+        this.concluidaEm = LocalDateTime.now();
+    }
+
+    // Getters
+    public String getNome() { return nome; }
+    public LocalDateTime getConcluidaEm() { return concluidaEm; }
+}
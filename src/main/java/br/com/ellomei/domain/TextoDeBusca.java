@@ -0,0 +1,43 @@
+package br.com.ellomei.domain;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de texto para o índice de busca de lançamentos.
+ *
+ * O texto é quebrado em termos sem acento e em minúsculas ("Serviço de Café" vira
+ * "servico", "de", "cafe"). A mesma regra vale para o que é indexado e para o que é
+ * pesquisado, então "cafe", "Café" e "CAF" encontram o mesmo lançamento.
+ */
+public final class TextoDeBusca {
+
+    /** Tamanho da coluna lancamento_termo.termo. Termos maiores são truncados. */
+    public static final int TAMANHO_MAXIMO_TERMO = 50;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private TextoDeBusca() {}
+
+    /**
+     * Termos distintos do texto, na ordem em que aparecem. Texto nulo ou sem letras/dígitos
+     * não gera termos.
+     */
+    public static Set<String> termos(String texto) {
+        Set<String> termos = new LinkedHashSet<>();
+        if (texto == null || texto.isBlank()) {
+            return termos;
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        for (String termo : SEPARADORES.split(semAcentos.toLowerCase(Locale.ROOT))) {
+            if (!termo.isEmpty()) {
+                termos.add(termo.length() > TAMANHO_MAXIMO_TERMO ? termo.substring(0, TAMANHO_MAXIMO_TERMO) : termo);
+            }
+        }
+        return termos;
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.ellomei.dto;
+
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Efeito de uma gravação de lançamentos nos números do dashboard, enviado por SSE às abas
+ * abertas do usuário depois do commit.
+ *
+ * A página soma as variações nos gráficos e nos cards que já mostra, sem buscar tudo de novo.
+ *
+ * @param variacoes Variações líquidas por mês, tipo, status, conta e categoria
+ * @param saldos Novo saldo das contas afetadas
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+public record DeltaDashboardDTO(List<Variacao> variacoes, List<Saldo> saldos) {
+
+    /**
+     * Variação de uma linha do resumo mensal.
+     *
+     * @param mes Primeiro dia do mês
+     * @param rotuloMes Rótulo do mês no fluxo de caixa mensal (ex.: "fev/25")
+     * @param rotuloTrimestre Rótulo do trimestre no fluxo de caixa trimestral (ex.: "1º tri/25")
+     * @param categoria Nome da categoria da despesa (null = sem categoria)
+     * @param contaBancaria true se a conta não é do tipo "Caixa" (faturamento bancário)
+     * @param valor Variação da soma (negativa quando o valor saiu do mês)
+     */
+    public record Variacao(LocalDate mes, String rotuloMes, String rotuloTrimestre, TipoLancamento tipo,
+                           StatusLancamento status, Long contaId, Long categoriaId, String categoria,
+                           boolean comNotaFiscal, boolean contaBancaria, BigDecimal valor) {
+    }
+
+    /**
+     * @param variacao Quanto o saldo mudou nesta gravação
+     */
+    public record Saldo(Long contaId, BigDecimal saldoAtual, BigDecimal variacao) {
+    }
+}
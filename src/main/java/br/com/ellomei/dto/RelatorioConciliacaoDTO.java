@@ -0,0 +1,39 @@
+package br.com.ellomei.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado de uma conciliação dos saldos das contas com os lançamentos
+ * (ver {@link br.com.ellomei.service.ConciliacaoDeSaldosService}).
+ *
+ * @param inicio Início da execução
+ * @param duracaoMs Duração da execução, em milissegundos
+ * @param usuarios Usuários verificados
+ * @param contas Contas verificadas
+ * @param contasDivergentes Contas com saldo diferente do calculado a partir dos lançamentos
+ * @param diferencaTotal Soma das diferenças, em valor absoluto
+ * @param correcaoAutomatica true se as divergências foram corrigidas nesta execução
+ * @param lotesComErro Lotes de usuários que não puderam ser verificados (ver o log)
+ * @param divergencias As maiores divergências, da maior para a menor diferença (no máximo
+ *                     {@value br.com.ellomei.service.ConciliacaoDeSaldosService#MAXIMO_NO_RELATORIO})
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+public record RelatorioConciliacaoDTO(LocalDateTime inicio, long duracaoMs, int usuarios, int contas,
+                                      int contasDivergentes, BigDecimal diferencaTotal, boolean correcaoAutomatica,
+                                      int lotesComErro, List<Divergencia> divergencias) {
+
+    /**
+     * Conta cujo saldo gravado não bate com os lançamentos.
+     *
+     * @param saldoEsperado Saldo inicial mais as entradas e menos as saídas pagas
+     * @param diferenca Saldo gravado menos o esperado (positiva: saldo acima do esperado)
+     * @param corrigida true se o saldo foi corrigido nesta execução
+     */
+    public record Divergencia(Long contaId, Long usuarioId, String nomeConta, BigDecimal saldoAtual,
+                              BigDecimal saldoEsperado, BigDecimal diferenca, boolean corrigida) {
+    }
+}
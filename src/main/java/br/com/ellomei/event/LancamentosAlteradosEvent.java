@@ -0,0 +1,55 @@
+package br.com.ellomei.event;
+
+import br.com.ellomei.domain.ResumoMensal;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.service.AjustesDoResumo;
+import org.springframework.context.ApplicationEvent;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Evento de domínio disparado quando uma operação grava lançamentos (criação, edição,
+ * pagamento, exclusão ou importação).
+ *
+ * Leva apenas o efeito líquido da operação, o mesmo aplicado no resumo mensal e nos saldos:
+ * quem escuta não precisa recarregar os lançamentos. Publicado dentro da transação; os
+ * listeners que avisam outros sistemas devem rodar depois do commit
+ * ({@code @TransactionalEventListener}).
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+public class LancamentosAlteradosEvent extends ApplicationEvent {
+
+    private final Usuario usuario;
+    private final Map<ResumoMensal.Chave, AjustesDoResumo.Variacao> variacoes;
+    private final Map<Long, BigDecimal> deltasDeSaldo;
+
+    /**
+     * @param source O objeto que publicou o evento (o LancamentoService)
+     * @param usuario Dono dos lançamentos
+     * @param variacoes Variações líquidas por linha do resumo mensal
+     * @param deltasDeSaldo Variação líquida do saldo por conta
+     */
+    public LancamentosAlteradosEvent(Object source, Usuario usuario,
+                                     Map<ResumoMensal.Chave, AjustesDoResumo.Variacao> variacoes,
+                                     Map<Long, BigDecimal> deltasDeSaldo) {
+        super(source);
+        this.usuario = usuario;
+        this.variacoes = variacoes;
+        this.deltasDeSaldo = deltasDeSaldo;
+    }
+
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    public Map<ResumoMensal.Chave, AjustesDoResumo.Variacao> getVariacoes() {
+        return variacoes;
+    }
+
+    public Map<Long, BigDecimal> getDeltasDeSaldo() {
+        return deltasDeSaldo;
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.ellomei.listener;
+
+import br.com.ellomei.domain.CategoriaDespesa;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Granularidade;
+import br.com.ellomei.domain.ResumoMensal;
+import br.com.ellomei.dto.DeltaDashboardDTO;
+import br.com.ellomei.event.LancamentosAlteradosEvent;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.service.CategoriaDespesaService;
+import br.com.ellomei.service.DashboardEventosService;
+import br.com.ellomei.service.ResumoMensalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Listener que avisa as abas abertas do dashboard quando lançamentos são gravados.
+ *
+ * Roda depois do commit (uma operação desfeita não avisa ninguém) e fora da thread da
+ * requisição. Sem aba conectada, não faz nenhuma consulta. Com abas conectadas, monta o
+ * {@link DeltaDashboardDTO} com uma consulta às contas afetadas (para o saldo novo) e a
+ * lista de categorias em cache.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Component
+public class DashboardEventosListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventosListener.class);
+
+    @Autowired
+    private DashboardEventosService dashboardEventosService;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private CategoriaDespesaService categoriaDespesaService;
+
+    /**
+     * Envia o delta da operação às conexões SSE do usuário.
+     *
+     * @param event Variações da operação confirmada
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Async
+    public void handleLancamentosAlterados(LancamentosAlteradosEvent event) {
+        Long usuarioId = event.getUsuario().getId();
+        if (!dashboardEventosService.temConexoes(usuarioId)) {
+            return;
+        }
+
+        Set<Long> contaIds = new HashSet<>(event.getDeltasDeSaldo().keySet());
+        event.getVariacoes().keySet().forEach(chave -> contaIds.add(chave.contaId()));
+        Map<Long, Conta> contas = contaRepository.findByIdInAndUsuario(contaIds, event.getUsuario()).stream()
+                .collect(Collectors.toMap(Conta::getId, Function.identity()));
+        Map<Long, String> categorias = categoriaDespesaService.buscarTodasPorUsuario(event.getUsuario()).stream()
+                .collect(Collectors.toMap(CategoriaDespesa::getId, CategoriaDespesa::getNome));
+
+        List<DeltaDashboardDTO.Variacao> variacoes = event.getVariacoes().entrySet().stream()
+                .map(e -> {
+                    ResumoMensal.Chave chave = e.getKey();
+                    Conta conta = contas.get(chave.contaId());
+                    Long categoriaId = chave.categoriaId() == ResumoMensal.SEM_CATEGORIA ? null : chave.categoriaId();
+                    return new DeltaDashboardDTO.Variacao(chave.mes(), Granularidade.MES.rotulo(chave.mes()),
+                            Granularidade.TRIMESTRE.rotulo(Granularidade.TRIMESTRE.inicioDoPeriodo(chave.mes())),
+                            chave.tipo(), chave.status(), chave.contaId(), categoriaId, categorias.get(categoriaId),
+                            chave.comNotaFiscal(), conta != null && ResumoMensalService.isContaBancaria(conta.getTipo()), e.getValue().total());
+                })
+                .collect(Collectors.toList());
+        List<DeltaDashboardDTO.Saldo> saldos = event.getDeltasDeSaldo().entrySet().stream()
+                .filter(e -> contas.containsKey(e.getKey()))
+                .map(e -> new DeltaDashboardDTO.Saldo(e.getKey(), contas.get(e.getKey()).getSaldoAtual(), e.getValue()))
+                .collect(Collectors.toList());
+
+        dashboardEventosService.enviar(usuarioId, DashboardEventosService.EVENTO_LANCAMENTOS, new DeltaDashboardDTO(variacoes, saldos));
+        logger.debug("Delta do dashboard enviado ao usuário {}: {} variação(ões), {} saldo(s)", usuarioId, variacoes.size(), saldos.size());
+    }
+}
@@ -2,6 +2,7 @@ package br.com.ellomei.listener;
 
 import br.com.ellomei.domain.Comprovante;
 import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
 import br.com.ellomei.domain.TipoLancamento;
 import br.com.ellomei.domain.Usuario;
 import br.com.ellomei.event.ReportGenerationRequestedEvent;
@@ -165,16 +166,14 @@ public class ReportGenerationListener {
             if ("ESTIMADO_CUSTOS".equals(tipoVisao)) {
                 tituloVisao = "Meta (Baseado em Compras)";
                 BigDecimal faturamentoAnual = dashboardService.getMetaFaturamentoBaseadoEmCustos(anoAtual, usuario);
-                lancamentos = lancamentoService.buscarComFiltros(dataInicio, dataFim, event.getContaId(), 
-                    event.getContatoId(), TipoLancamento.SAIDA, event.getCategoriaId(), true, 
-                    event.getDescricao(), event.getStatus(), usuario);
+                lancamentos = lancamentoService.buscarComFiltrosParaRelatorio(
+                    criarFiltro(event, TipoLancamento.SAIDA, true), usuario);
                 variaveis.put("faturamentoAnual", faturamentoAnual);
             } else {
                 tituloVisao = "OFICIAL".equals(tipoVisao) ? "Faturamento Oficial" : "Faturamento Bancário";
                 BigDecimal faturamentoAnual = dashboardService.getFaturamentoOficial(anoAtual, usuario);
-                lancamentos = lancamentoService.buscarComFiltros(dataInicio, dataFim, event.getContaId(), 
-                    event.getContatoId(), TipoLancamento.ENTRADA, event.getCategoriaId(), 
-                    event.getComNotaFiscal(), event.getDescricao(), event.getStatus(), usuario);
+                lancamentos = lancamentoService.buscarComFiltrosParaRelatorio(
+                    criarFiltro(event, TipoLancamento.ENTRADA, event.getComNotaFiscal()), usuario);
                 variaveis.put("faturamentoAnual", faturamentoAnual);
             }
 
@@ -196,9 +195,8 @@ public class ReportGenerationListener {
             variaveis.put("totalPeriodo", totalPeriodo);
         } else {
             templateNome = "relatorio_lancamentos";
-            lancamentos = lancamentoService.buscarComFiltros(dataInicio, dataFim, event.getContaId(), 
-                event.getContatoId(), event.getTipo(), event.getCategoriaId(), event.getComNotaFiscal(), 
-                event.getDescricao(), event.getStatus(), usuario);
+            lancamentos = lancamentoService.buscarComFiltrosParaRelatorio(
+                criarFiltro(event, event.getTipo(), event.getComNotaFiscal()), usuario);
             BigDecimal total = lancamentos.stream().map(Lancamento::getValor).reduce(BigDecimal.ZERO, BigDecimal::add);
             variaveis.put("total", total);
         }
@@ -217,10 +215,8 @@ public class ReportGenerationListener {
     private byte[] gerarRelatorioComprasComNota(ReportGenerationRequestedEvent event) throws Exception {
         Usuario usuario = event.getUsuario();
         
-        List<Lancamento> lancamentos = lancamentoService.buscarComFiltros(
-                event.getDataInicio(), event.getDataFim(), event.getContaId(), event.getContatoId(), 
-                TipoLancamento.SAIDA, event.getCategoriaId(), true, event.getDescricao(), 
-                event.getStatus(), usuario);
+        List<Lancamento> lancamentos = lancamentoService.buscarComFiltrosParaRelatorio(
+                criarFiltro(event, TipoLancamento.SAIDA, true), usuario);
 
         BigDecimal total = lancamentos.stream()
                 .map(Lancamento::getValor)
@@ -242,10 +238,8 @@ public class ReportGenerationListener {
     private byte[] gerarRelatorioLancamentos(ReportGenerationRequestedEvent event) throws Exception {
         Usuario usuario = event.getUsuario();
         
-        List<Lancamento> lancamentos = lancamentoService.buscarComFiltros(
-                event.getDataInicio(), event.getDataFim(), event.getContaId(), event.getContatoId(), 
-                event.getTipo(), event.getCategoriaId(), event.getComNotaFiscal(), 
-                event.getDescricao(), event.getStatus(), usuario);
+        List<Lancamento> lancamentos = lancamentoService.buscarComFiltrosParaRelatorio(
+                criarFiltro(event, event.getTipo(), event.getComNotaFiscal()), usuario);
 
         // Process file paths to be accessible in the PDF
         for (Lancamento lancamento : lancamentos) {
@@ -265,5 +259,12 @@ public class ReportGenerationListener {
         CompletableFuture<byte[]> pdfFuture = pdfService.gerarPdfDeHtml("relatorio_lancamentos", variaveis);
         return pdfFuture.get();
     }
-}
 
+    /**
+     * Monta o filtro da consulta a partir do evento; tipo e nota fiscal variam por relatório.
+     */
+    private LancamentoFiltro criarFiltro(ReportGenerationRequestedEvent event, TipoLancamento tipo, Boolean comNotaFiscal) {
+        return new LancamentoFiltro(event.getDataInicio(), event.getDataFim(), event.getContaId(), event.getContatoId(),
+                tipo, event.getCategoriaId(), comNotaFiscal, event.getDescricao(), event.getStatus());
+    }
+}
@@ -6,7 +6,12 @@ import br.com.ellomei.domain.Usuario; // Importe a entidade Usuario
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List; // Importe a classe List
 
 @Repository
@@ -18,5 +23,27 @@ public interface ContaRepository extends JpaRepository<Conta, Long> {
 
     // Busca todas as contas associadas a um determinado usuário (com paginação)
     Page<Conta> findByUsuario(Usuario usuario, Pageable pageable);
+
+    // Busca várias contas de uma vez, restrita às contas do usuário (usado nas operações com múltiplos pagamentos)
+    List<Conta> findByIdInAndUsuario(Collection<Long> ids, Usuario usuario);
+
+    // --- ATUALIZAÇÃO DE SALDO ---
+    // Soma o delta direto no banco (UPDATE atômico), sem ler o saldo para a memória.
+    // flushAutomatically: grava antes as alterações pendentes da operação;
+    // clearAutomatically: evita que entidades Conta já carregadas fiquem com o saldo antigo.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Conta c SET c.saldoAtual = c.saldoAtual + :delta WHERE c.id = :id AND c.usuario = :usuario")
+    int adicionarAoSaldo(@Param("id") Long id, @Param("delta") BigDecimal delta, @Param("usuario") Usuario usuario);
+    // -------------------
+
+    // --- CONCILIAÇÃO ---
+    // Saldo gravado e soma dos lançamentos PAGOS (entradas menos saídas) de todas as contas dos usuários,
+    // em uma consulta: (contaId, usuarioId, nomeConta, saldoInicial, saldoAtual, movimento); movimento é nulo sem lançamentos
+    @Query("SELECT c.id, c.usuario.id, c.nomeConta, c.saldoInicial, c.saldoAtual, " +
+           "SUM(CASE WHEN l.tipo = br.com.ellomei.domain.TipoLancamento.ENTRADA THEN l.valor ELSE -l.valor END) " +
+           "FROM Conta c LEFT JOIN Lancamento l ON l.conta = c AND l.status = br.com.ellomei.domain.StatusLancamento.PAGO " +
+           "WHERE c.usuario.id IN :usuarioIds " +
+           "GROUP BY c.id, c.usuario.id, c.nomeConta, c.saldoInicial, c.saldoAtual")
+    List<Object[]> somarMovimentoPorConta(@Param("usuarioIds") Collection<Long> usuarioIds);
     // -------------------
 }
\ No newline at end of file
@@ -2,97 +2,40 @@
 package br.com.ellomei.repository;
 
 import br.com.ellomei.domain.*;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, JpaSpecificationExecutor<Lancamento>, LancamentoRepositoryCustom {
 
     // Métodos já refatorados
+    // Edição/exclusão da operação e tela de contas a pagar usam conta, categoria, contato e comprovantes
+    @EntityGraph(Lancamento.GRAFO_COM_COMPROVANTES)
     List<Lancamento> findByGrupoOperacaoAndUsuario(String grupoOperacao, Usuario usuario);
+    @EntityGraph(Lancamento.GRAFO_COM_COMPROVANTES)
     List<Lancamento> findByStatusAndUsuarioOrderByDataAsc(StatusLancamento status, Usuario usuario);
 
-    // Busca lançamentos com filtros (sem paginação - legado)
-    @Query("SELECT l FROM Lancamento l WHERE " +
-            "(:dataInicio IS NULL OR l.data >= :dataInicio) AND " +
-            "(:dataFim IS NULL OR l.data <= :dataFim) AND " +
-            "(:contaId IS NULL OR l.conta.id = :contaId) AND " +
-            "(:contatoId IS NULL OR l.contato.id = :contatoId) AND " +
-            "(:tipo IS NULL OR l.tipo = :tipo) AND " +
-            "(:categoriaId IS NULL OR l.categoriaDespesa.id = :categoriaId) AND " +
-            "(:comNotaFiscal IS NULL OR l.comNotaFiscal = :comNotaFiscal) AND " +
-            "(:descricao IS NULL OR l.descricao LIKE %:descricao%) AND " +
-            "(:status IS NULL OR l.status = :status) AND " +
-            "l.usuario = :usuario " +
-            "ORDER BY l.data DESC, l.id DESC")
-    List<Lancamento> findComFiltros(
-            @Param("dataInicio") LocalDate dataInicio,
-            @Param("dataFim") LocalDate dataFim,
-            @Param("contaId") Long contaId,
-            @Param("contatoId") Long contatoId,
-            @Param("tipo") TipoLancamento tipo,
-            @Param("categoriaId") Long categoriaId,
-            @Param("comNotaFiscal") Boolean comNotaFiscal,
-            @Param("descricao") String descricao,
-            @Param("status") StatusLancamento status,
-            @Param("usuario") Usuario usuario
-    );
-
-    // Busca lançamentos com filtros (com paginação)
-    @Query("SELECT l FROM Lancamento l WHERE " +
-            "(:dataInicio IS NULL OR l.data >= :dataInicio) AND " +
-            "(:dataFim IS NULL OR l.data <= :dataFim) AND " +
-            "(:contaId IS NULL OR l.conta.id = :contaId) AND " +
-            "(:contatoId IS NULL OR l.contato.id = :contatoId) AND " +
-            "(:tipo IS NULL OR l.tipo = :tipo) AND " +
-            "(:categoriaId IS NULL OR l.categoriaDespesa.id = :categoriaId) AND " +
-            "(:comNotaFiscal IS NULL OR l.comNotaFiscal = :comNotaFiscal) AND " +
-            "(:descricao IS NULL OR l.descricao LIKE %:descricao%) AND " +
-            "(:status IS NULL OR l.status = :status) AND " +
-            "l.usuario = :usuario " +
-            "ORDER BY l.data DESC, l.id DESC")
-    Page<Lancamento> findComFiltros(
-            @Param("dataInicio") LocalDate dataInicio,
-            @Param("dataFim") LocalDate dataFim,
-            @Param("contaId") Long contaId,
-            @Param("contatoId") Long contatoId,
-            @Param("tipo") TipoLancamento tipo,
-            @Param("categoriaId") Long categoriaId,
-            @Param("comNotaFiscal") Boolean comNotaFiscal,
-            @Param("descricao") String descricao,
-            @Param("status") StatusLancamento status,
-            @Param("usuario") Usuario usuario,
-            Pageable pageable
-    );
-
-    @Query("SELECT new br.com.ellomei.domain.ChartData(c.nome, SUM(l.valor)) " +
-            "FROM Lancamento l JOIN l.categoriaDespesa c " +
-            "WHERE l.tipo = 'SAIDA' " +
-            "AND (:status IS NULL OR l.status = :status) " +
-            "AND l.data >= :inicioDoMes AND l.data <= :fimDoMes " +
-            "AND (:contaId IS NULL OR l.conta.id = :contaId) " +
-            "AND (:contatoId IS NULL OR l.contato.id = :contatoId) " +
-            "AND (:categoriaId IS NULL OR l.categoriaDespesa.id = :categoriaId) " +
-            "AND l.usuario = :usuario " +
-            "GROUP BY c.nome " +
-            "ORDER BY SUM(l.valor) DESC")
-    List<ChartData> findDespesasPorCategoriaComFiltros(
-            @Param("inicioDoMes") LocalDate inicioDoMes,
-            @Param("fimDoMes") LocalDate fimDoMes,
-            @Param("contaId") Long contaId,
-            @Param("contatoId") Long contatoId,
-            @Param("categoriaId") Long categoriaId,
-            @Param("status") StatusLancamento status,
-            @Param("usuario") Usuario usuario
-    );
+    /**
+     * Busca lançamentos com filtros (sem paginação - legado).
+     * Assinatura antiga, delega para a consulta dinâmica de {@link LancamentoRepositoryCustom}.
+     */
+    default List<Lancamento> findComFiltros(LocalDate dataInicio, LocalDate dataFim, Long contaId, Long contatoId,
+                                            TipoLancamento tipo, Long categoriaId, Boolean comNotaFiscal,
+                                            String descricao, StatusLancamento status, Usuario usuario) {
+        LancamentoFiltro filtro = new LancamentoFiltro(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status);
+        return buscarComFiltros(filtro, usuario, Lancamento.GRAFO_LISTAGEM);
+    }
 
     // --- CONSULTA ATUALIZADA ---
     @Query("SELECT SUM(l.valor) FROM Lancamento l JOIN l.conta c " +
@@ -121,4 +64,76 @@ public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
             @Param("dataInicio") LocalDate dataInicio,
             @Param("dataFim") LocalDate dataFim
     );
-}
\ No newline at end of file
+
+    /**
+     * Lançamentos ainda sem termos de busca, em ordem de ID a partir de {@code ultimoId}.
+     * Usado para indexar os lançamentos gravados antes do índice de busca existir.
+     */
+    @Query("SELECT l FROM Lancamento l WHERE l.id > :ultimoId " +
+           "AND NOT EXISTS (SELECT t.id FROM LancamentoTermo t WHERE t.lancamento = l) " +
+           "ORDER BY l.id")
+    List<Lancamento> findSemTermosDeBusca(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    /**
+     * Data, tipo, valor e descrição dos lançamentos de uma conta no período, sem carregar entidades.
+     * Usado na importação de extratos para reconhecer movimentações já lançadas.
+     */
+    @Query("SELECT l.data, l.tipo, l.valor, l.descricao FROM Lancamento l " +
+           "WHERE l.usuario = :usuario AND l.conta = :conta " +
+           "AND l.data >= :dataInicio AND l.data <= :dataFim")
+    List<Object[]> findResumoParaDuplicidade(
+            @Param("usuario") Usuario usuario,
+            @Param("conta") Conta conta,
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim
+    );
+
+    /**
+     * ID, conta, tipo, valor, status, data, categoria e nota fiscal dos lançamentos informados que pertencem ao usuário.
+     * Usado no pagamento em lote: confere a propriedade de todos os IDs com uma única consulta
+     * e traz o necessário para ajustar saldos e resumo mensal sem carregar as entidades.
+     */
+    @Query("SELECT l.id, l.conta.id, l.tipo, l.valor, l.status, l.data, l.categoriaDespesa.id, l.comNotaFiscal FROM Lancamento l " +
+           "WHERE l.id IN :ids AND l.usuario = :usuario")
+    List<Object[]> findResumoParaPagamento(@Param("ids") Collection<Long> ids, @Param("usuario") Usuario usuario);
+
+    /**
+     * Soma dos lançamentos PAGOS do usuário por dia e tipo, no período: (data, tipo, soma).
+     * Base das séries do dashboard que o resumo mensal não cobre (ex.: por semana).
+     */
+    @Query("SELECT l.data, l.tipo, SUM(l.valor) FROM Lancamento l " +
+           "WHERE l.usuario = :usuario AND l.status = br.com.ellomei.domain.StatusLancamento.PAGO " +
+           "AND l.data >= :dataInicio AND l.data <= :dataFim " +
+           "GROUP BY l.data, l.tipo")
+    List<Object[]> somarPagosPorDia(@Param("usuario") Usuario usuario, @Param("dataInicio") LocalDate dataInicio,
+                                    @Param("dataFim") LocalDate dataFim);
+
+    /**
+     * Soma e quantidade dos lançamentos do usuário por mês, tipo, status, conta, categoria e nota fiscal.
+     * Usado na reconstrução do resumo mensal (ResumoMensalService).
+     */
+    @Query("SELECT year(l.data), month(l.data), l.tipo, l.status, l.conta.id, l.categoriaDespesa.id, l.comNotaFiscal, " +
+           "SUM(l.valor), COUNT(l) FROM Lancamento l WHERE l.usuario = :usuario " +
+           "GROUP BY year(l.data), month(l.data), l.tipo, l.status, l.conta.id, l.categoriaDespesa.id, l.comNotaFiscal")
+    List<Object[]> agregarPorMes(@Param("usuario") Usuario usuario);
+
+    /**
+     * Movimento líquido (entradas menos saídas) dos lançamentos PAGOS do usuário por conta e dia:
+     * (contaId, data, movimento). Usado na reconstrução do histórico de saldo (SaldoDiarioService).
+     */
+    @Query("SELECT l.conta.id, l.data, " +
+           "SUM(CASE WHEN l.tipo = br.com.ellomei.domain.TipoLancamento.ENTRADA THEN l.valor ELSE -l.valor END) " +
+           "FROM Lancamento l WHERE l.usuario = :usuario AND l.status = br.com.ellomei.domain.StatusLancamento.PAGO " +
+           "GROUP BY l.conta.id, l.data")
+    List<Object[]> agregarMovimentoPorDia(@Param("usuario") Usuario usuario);
+
+    /**
+     * Marca como PAGO, com um único UPDATE, os lançamentos informados que ainda estão A_PAGAR.
+     *
+     * @return Quantidade de lançamentos alterados
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Lancamento l SET l.status = br.com.ellomei.domain.StatusLancamento.PAGO " +
+           "WHERE l.id IN :ids AND l.usuario = :usuario AND l.status = br.com.ellomei.domain.StatusLancamento.A_PAGAR")
+    int marcarComoPagos(@Param("ids") Collection<Long> ids, @Param("usuario") Usuario usuario);
+}
@@ -0,0 +1,85 @@
+package br.com.ellomei.repository;
+
+import br.com.ellomei.domain.ChartData;
+import br.com.ellomei.domain.ChaveDeGrupo;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.LancamentoGrupoDTO;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de lançamentos com filtros opcionais, montadas com Criteria a partir de
+ * {@link LancamentoSpecifications}: apenas os filtros informados entram no SQL.
+ *
+ * A chave de grupo é grupoOperacao, ou o ID para lançamentos sem grupo (legados).
+ */
+public interface LancamentoRepositoryCustom {
+
+    /**
+     * Lançamentos dentro dos filtros, do mais recente para o mais antigo.
+     *
+     * @param grafo Entity graph a aplicar ({@link Lancamento#GRAFO_LISTAGEM} ou {@link Lancamento#GRAFO_COM_COMPROVANTES})
+     */
+    List<Lancamento> buscarComFiltros(LancamentoFiltro filtro, Usuario usuario, String grafo);
+
+    /**
+     * Lançamentos dentro dos filtros, do mais antigo para o mais recente, lidos sob demanda
+     * por um cursor (conta, categoria e contato vêm na mesma linha).
+     *
+     * Usado nas exportações: a memória não cresce com a quantidade de linhas, desde que quem
+     * consome desanexe cada lançamento depois de usá-lo. Deve ser consumido dentro de uma
+     * transação e fechado ao final (try-with-resources).
+     *
+     * @param fetchSize Linhas trazidas do banco a cada ida ao cursor
+     */
+    Stream<Lancamento> streamComFiltros(LancamentoFiltro filtro, Usuario usuario, int fetchSize);
+
+    /**
+     * Soma dos lançamentos PAGOS por tipo dentro dos filtros, sem carregar entidades.
+     * Tipos sem lançamentos não aparecem no mapa.
+     */
+    Map<TipoLancamento, BigDecimal> somarPagosPorTipo(LancamentoFiltro filtro, Usuario usuario);
+
+    /**
+     * Soma dos valores dos lançamentos dentro dos filtros (qualquer status), sem carregar entidades.
+     *
+     * @return A soma, ou BigDecimal.ZERO se nenhum lançamento atender aos filtros
+     */
+    BigDecimal somarValores(LancamentoFiltro filtro, Usuario usuario);
+
+    /**
+     * Total de despesas (SAIDA) por categoria dentro dos filtros, maior primeiro.
+     */
+    List<ChartData> buscarDespesasPorCategoria(LancamentoFiltro filtro, Usuario usuario);
+
+    /**
+     * Paginação por cursor (keyset): até {@code limite} chaves de grupo depois do cursor,
+     * na ordem da listagem. Sem cursor, é a primeira página.
+     */
+    List<ChaveDeGrupo> buscarChavesDeGrupoAposCursor(LancamentoFiltro filtro, Usuario usuario, ChaveDeGrupo cursor, int limite);
+
+    /**
+     * Paginação por cursor no sentido contrário: até {@code limite} chaves antes do cursor,
+     * do grupo mais antigo para o mais recente (quem chama inverte o resultado).
+     */
+    List<ChaveDeGrupo> buscarChavesDeGrupoAntesDoCursor(LancamentoFiltro filtro, Usuario usuario, ChaveDeGrupo cursor, int limite);
+
+    /**
+     * Número de grupos (operações) dentro dos filtros.
+     */
+    long contarGrupos(LancamentoFiltro filtro, Usuario usuario);
+
+    /**
+     * Resumo das operações (uma linha por grupo) dentro dos filtros, agregado no banco.
+     *
+     * @param chaves Restringe às chaves de grupo informadas (uma página); null para todas
+     */
+    List<LancamentoGrupoDTO> buscarResumoDosGrupos(LancamentoFiltro filtro, Usuario usuario, Collection<String> chaves);
+}
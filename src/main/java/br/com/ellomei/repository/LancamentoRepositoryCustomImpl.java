@@ -0,0 +1,320 @@
+package br.com.ellomei.repository;
+
+import br.com.ellomei.domain.CategoriaDespesa;
+import br.com.ellomei.domain.ChartData;
+import br.com.ellomei.domain.ChaveDeGrupo;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Contato;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.LancamentoGrupoDTO;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoContato;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementação (Criteria) de {@link LancamentoRepositoryCustom}.
+ *
+ * Todas as consultas partem dos mesmos predicados ({@link LancamentoSpecifications#comFiltros}),
+ * então o SQL gerado contém apenas os filtros informados.
+ */
+public class LancamentoRepositoryCustomImpl implements LancamentoRepositoryCustom {
+
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+    private static final String FETCH_SIZE = "org.hibernate.fetchSize";
+    private static final String READ_ONLY = "org.hibernate.readOnly";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Lancamento> buscarComFiltros(LancamentoFiltro filtro, Usuario usuario, String grafo) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Lancamento> cq = cb.createQuery(Lancamento.class);
+        Root<Lancamento> l = cq.from(Lancamento.class);
+
+        cq.select(l)
+                .where(filtros(filtro, usuario, l, cq, cb))
+                .orderBy(cb.desc(l.get("data")), cb.desc(l.get("id")));
+
+        return entityManager.createQuery(cq)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(grafo))
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Lancamento> streamComFiltros(LancamentoFiltro filtro, Usuario usuario, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Lancamento> cq = cb.createQuery(Lancamento.class);
+        Root<Lancamento> l = cq.from(Lancamento.class);
+
+        cq.select(l)
+                .where(filtros(filtro, usuario, l, cq, cb))
+                .orderBy(cb.asc(l.get("data")), cb.asc(l.get("id")));
+
+        // Somente leitura: o Hibernate não guarda o snapshot para dirty checking
+        return entityManager.createQuery(cq)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Lancamento.GRAFO_LISTAGEM))
+                .setHint(FETCH_SIZE, fetchSize)
+                .setHint(READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Map<TipoLancamento, BigDecimal> somarPagosPorTipo(LancamentoFiltro filtro, Usuario usuario) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Lancamento> l = cq.from(Lancamento.class);
+        Path<TipoLancamento> tipo = l.get("tipo");
+        Expression<BigDecimal> soma = cb.sum(l.<BigDecimal>get("valor"));
+
+        cq.multiselect(tipo, soma)
+                .where(filtros(filtro, usuario, l, cq, cb), cb.equal(l.get("status"), StatusLancamento.PAGO))
+                .groupBy(tipo);
+
+        Map<TipoLancamento, BigDecimal> totais = new EnumMap<>(TipoLancamento.class);
+        for (Tuple linha : entityManager.createQuery(cq).getResultList()) {
+            totais.put(linha.get(tipo), linha.get(soma));
+        }
+        return totais;
+    }
+
+    @Override
+    public BigDecimal somarValores(LancamentoFiltro filtro, Usuario usuario) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BigDecimal> cq = cb.createQuery(BigDecimal.class);
+        Root<Lancamento> l = cq.from(Lancamento.class);
+
+        cq.select(cb.coalesce(cb.sum(l.<BigDecimal>get("valor")), BigDecimal.ZERO))
+                .where(filtros(filtro, usuario, l, cq, cb));
+
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    @Override
+    public List<ChartData> buscarDespesasPorCategoria(LancamentoFiltro filtro, Usuario usuario) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ChartData> cq = cb.createQuery(ChartData.class);
+        Root<Lancamento> l = cq.from(Lancamento.class);
+        Join<Lancamento, CategoriaDespesa> categoria = l.join("categoriaDespesa");
+        Expression<BigDecimal> soma = cb.sum(l.<BigDecimal>get("valor"));
+
+        cq.select(cb.construct(ChartData.class, categoria.get("nome"), soma))
+                .where(filtros(filtro, usuario, l, cq, cb), cb.equal(l.get("tipo"), TipoLancamento.SAIDA))
+                .groupBy(categoria.get("nome"))
+                .orderBy(cb.desc(soma));
+
+        return entityManager.createQuery(cq).getResultList();
+    }
+
+    @Override
+    public List<ChaveDeGrupo> buscarChavesDeGrupoAposCursor(LancamentoFiltro filtro, Usuario usuario, ChaveDeGrupo cursor, int limite) {
+        return buscarChavesDeGrupoPorCursor(filtro, usuario, cursor, limite, true);
+    }
+
+    @Override
+    public List<ChaveDeGrupo> buscarChavesDeGrupoAntesDoCursor(LancamentoFiltro filtro, Usuario usuario, ChaveDeGrupo cursor, int limite) {
+        return buscarChavesDeGrupoPorCursor(filtro, usuario, cursor, limite, false);
+    }
+
+    /**
+     * O cursor (MAX(data), MAX(id)) é comparado direto no HAVING, sem OFFSET:
+     * o custo da página não depende de quantas páginas vieram antes.
+     */
+    private List<ChaveDeGrupo> buscarChavesDeGrupoPorCursor(LancamentoFiltro filtro, Usuario usuario, ChaveDeGrupo cursor, int limite, boolean apos) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ChaveDeGrupo> cq = cb.createQuery(ChaveDeGrupo.class);
+        Root<Lancamento> l = cq.from(Lancamento.class);
+        Expression<String> chave = chaveDoGrupo(l, cb);
+        Expression<LocalDate> ultimaData = cb.greatest(l.<LocalDate>get("data"));
+        Expression<Long> ultimoId = cb.max(l.<Long>get("id"));
+
+        cq.select(cb.construct(ChaveDeGrupo.class, chave, ultimaData, ultimoId))
+                .where(filtros(filtro, usuario, l, cq, cb))
+                .groupBy(chave);
+
+        if (cursor != null) {
+            cq.having(apos
+                    ? cb.or(cb.lessThan(ultimaData, cursor.getData()),
+                            cb.and(cb.equal(ultimaData, cursor.getData()), cb.lessThan(ultimoId, cursor.getUltimoId())))
+                    : cb.or(cb.greaterThan(ultimaData, cursor.getData()),
+                            cb.and(cb.equal(ultimaData, cursor.getData()), cb.greaterThan(ultimoId, cursor.getUltimoId()))));
+        }
+        cq.orderBy(apos
+                ? List.of(cb.desc(ultimaData), cb.desc(ultimoId))
+                : List.of(cb.asc(ultimaData), cb.asc(ultimoId)));
+
+        return entityManager.createQuery(cq).setMaxResults(limite).getResultList();
+    }
+
+    @Override
+    public long contarGrupos(LancamentoFiltro filtro, Usuario usuario) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Lancamento> l = cq.from(Lancamento.class);
+
+        cq.select(cb.countDistinct(chaveDoGrupo(l, cb)))
+                .where(filtros(filtro, usuario, l, cq, cb));
+
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    /**
+     * Uma linha por grupo: SUM(valor), COUNT(DISTINCT conta) e apenas os nomes da
+     * categoria e do contato. O GROUP BY é só a chave do grupo, a mesma da paginação
+     * ({@link #buscarChavesDeGrupoAposCursor}); os campos comuns do grupo (descrição, data, tipo...)
+     * vêm de MAX. O status é o mais pendente entre os lançamentos do grupo: basta um
+     * A_PAGAR (ou A_RECEBER) para a operação aparecer assim, mesmo com parte já paga.
+     *
+     * Com uma conta, o nome vem do próprio agregado (MIN); os nomes dos grupos com
+     * várias contas vêm de uma segunda consulta, só quando houver algum.
+     */
+    @Override
+    public List<LancamentoGrupoDTO> buscarResumoDosGrupos(LancamentoFiltro filtro, Usuario usuario, Collection<String> chaves) {
+        if (chaves != null && chaves.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LancamentoGrupoDTO> cq = cb.createQuery(LancamentoGrupoDTO.class);
+        Root<Lancamento> l = cq.from(Lancamento.class);
+        Join<Lancamento, Conta> conta = l.join("conta");
+        Join<Lancamento, CategoriaDespesa> categoria = l.join("categoriaDespesa", JoinType.LEFT);
+        Join<Lancamento, Contato> contato = l.join("contato", JoinType.LEFT);
+
+        // Mesmo critério de Contato#getNomeExibicao
+        Expression<String> contatoNome = cb.<String>selectCase()
+                .when(cb.and(cb.equal(contato.get("tipoContato"), TipoContato.PESSOA_JURIDICA),
+                                cb.isNotNull(contato.get("nomeFantasia")),
+                                cb.notEqual(contato.get("nomeFantasia"), "")),
+                        contato.<String>get("nomeFantasia"))
+                .otherwise(contato.<String>get("nomeCompleto"));
+
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(filtros(filtro, usuario, l, cq, cb));
+        if (chaves != null) {
+            predicados.add(pertenceAsChaves(l, cb, chaves));
+        }
+
+        Expression<StatusLancamento> status = cb.<StatusLancamento>selectCase()
+                .when(algum(cb.equal(l.get("status"), StatusLancamento.A_PAGAR), cb), StatusLancamento.A_PAGAR)
+                .when(algum(cb.equal(l.get("status"), StatusLancamento.A_RECEBER), cb), StatusLancamento.A_RECEBER)
+                .otherwise(StatusLancamento.PAGO);
+        Expression<TipoLancamento> tipo = cb.<TipoLancamento>selectCase()
+                .when(algum(cb.equal(l.get("tipo"), TipoLancamento.SAIDA), cb), TipoLancamento.SAIDA)
+                .otherwise(TipoLancamento.ENTRADA);
+        Expression<Boolean> comNotaFiscal = cb.<Boolean>selectCase()
+                .when(algum(cb.isTrue(l.get("comNotaFiscal")), cb), true)
+                .otherwise(false);
+        Expression<String> chave = chaveDoGrupo(l, cb);
+
+        cq.select(cb.construct(LancamentoGrupoDTO.class,
+                        cb.min(l.<Long>get("id")), cb.greatest(l.<String>get("grupoOperacao")),
+                        cb.greatest(l.<String>get("descricao")), cb.greatest(l.<LocalDate>get("data")),
+                        tipo, status, cb.sum(l.<BigDecimal>get("valor")),
+                        cb.least(conta.<String>get("nomeConta")), cb.countDistinct(conta.get("id")),
+                        cb.greatest(categoria.<String>get("nome")), cb.greatest(contatoNome), comNotaFiscal))
+                .where(predicados.toArray(new Predicate[0]))
+                .groupBy(chave)
+                .orderBy(cb.desc(cb.greatest(l.<LocalDate>get("data"))), cb.desc(cb.max(l.<Long>get("id"))));
+
+        List<LancamentoGrupoDTO> resumo = entityManager.createQuery(cq).getResultList();
+        preencherNomesDasContas(resumo, filtro, usuario);
+        return resumo;
+    }
+
+    /**
+     * Completa a descrição das contas dos grupos com mais de uma conta
+     * (nomes distintos, em ordem alfabética), respeitando os mesmos filtros.
+     */
+    private void preencherNomesDasContas(List<LancamentoGrupoDTO> resumo, LancamentoFiltro filtro, Usuario usuario) {
+        // Lançamentos sem grupo têm uma única conta
+        Set<String> grupos = resumo.stream()
+                .filter(dto -> dto.getGrupoOperacao() != null && dto.getQuantidadeContas() != null && dto.getQuantidadeContas() > 1)
+                .map(LancamentoGrupoDTO::getGrupoOperacao)
+                .collect(Collectors.toSet());
+        if (grupos.isEmpty()) {
+            return;
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<Lancamento> l = cq.from(Lancamento.class);
+        Join<Lancamento, Conta> conta = l.join("conta");
+        Path<String> grupo = l.get("grupoOperacao");
+        Path<String> nomeConta = conta.get("nomeConta");
+
+        cq.multiselect(grupo, nomeConta).distinct(true)
+                .where(filtros(filtro, usuario, l, cq, cb), grupo.in(grupos))
+                .orderBy(cb.asc(nomeConta));
+
+        Map<String, List<String>> nomesPorGrupo = new HashMap<>();
+        for (Tuple linha : entityManager.createQuery(cq).getResultList()) {
+            nomesPorGrupo.computeIfAbsent(linha.get(grupo), g -> new ArrayList<>()).add(linha.get(nomeConta));
+        }
+        for (LancamentoGrupoDTO dto : resumo) {
+            List<String> nomes = nomesPorGrupo.get(dto.getGrupoOperacao());
+            if (grupos.contains(dto.getGrupoOperacao()) && nomes != null) {
+                dto.setNomesDasContas(String.join(", ", nomes));
+            }
+        }
+    }
+
+    private Predicate filtros(LancamentoFiltro filtro, Usuario usuario, Root<Lancamento> l, CriteriaQuery<?> cq, CriteriaBuilder cb) {
+        return LancamentoSpecifications.comFiltros(filtro, usuario).toPredicate(l, cq, cb);
+    }
+
+    /**
+     * Em uma consulta agrupada, verdadeiro se algum lançamento do grupo atende à condição.
+     */
+    private Predicate algum(Predicate condicao, CriteriaBuilder cb) {
+        return cb.equal(cb.max(cb.<Integer>selectCase().when(condicao, 1).otherwise(0)), 1);
+    }
+
+    /**
+     * Chave do grupo: grupoOperacao, ou o ID para lançamentos sem grupo.
+     */
+    private Expression<String> chaveDoGrupo(Root<Lancamento> l, CriteriaBuilder cb) {
+        return cb.coalesce(l.<String>get("grupoOperacao"), l.<Long>get("id").as(String.class));
+    }
+
+    /**
+     * Restringe às chaves de grupo de uma página. Chaves numéricas são IDs de lançamentos sem grupo.
+     */
+    private Predicate pertenceAsChaves(Root<Lancamento> l, CriteriaBuilder cb, Collection<String> chaves) {
+        List<Long> idsSemGrupo = chaves.stream()
+                .filter(chave -> chave.chars().allMatch(Character::isDigit))
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+
+        Predicate doGrupo = l.get("grupoOperacao").in(chaves);
+        if (idsSemGrupo.isEmpty()) {
+            return doGrupo;
+        }
+        return cb.or(doGrupo, cb.and(cb.isNull(l.get("grupoOperacao")), l.get("id").in(idsSemGrupo)));
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.ellomei.repository;
+
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.LancamentoTermo;
+import br.com.ellomei.domain.TextoDeBusca;
+import br.com.ellomei.domain.Usuario;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predicados dinâmicos das consultas de lançamentos.
+ *
+ * Substitui o padrão {@code (:x IS NULL OR col = :x)} das consultas JPQL: cada
+ * combinação de filtros gera um SQL contendo apenas as condições informadas, o que
+ * permite ao MySQL escolher o índice adequado (ex.: usuario_id + data) em vez de
+ * usar só o índice do usuário e filtrar o resto linha a linha.
+ */
+public final class LancamentoSpecifications {
+
+    private LancamentoSpecifications() {}
+
+    /**
+     * Lançamentos do usuário que atendem aos filtros informados.
+     * O usuário é sempre obrigatório; os demais filtros só entram se preenchidos.
+     */
+    public static Specification<Lancamento> comFiltros(LancamentoFiltro filtro, Usuario usuario) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            predicados.add(cb.equal(root.get("usuario"), usuario));
+
+            if (filtro.getDataInicio() != null) {
+                predicados.add(cb.greaterThanOrEqualTo(root.<LocalDate>get("data"), filtro.getDataInicio()));
+            }
+            if (filtro.getDataFim() != null) {
+                predicados.add(cb.lessThanOrEqualTo(root.<LocalDate>get("data"), filtro.getDataFim()));
+            }
+            // conta.id, contato.id e categoriaDespesa.id usam a chave estrangeira, sem JOIN
+            if (filtro.getContaId() != null) {
+                predicados.add(cb.equal(root.get("conta").get("id"), filtro.getContaId()));
+            }
+            if (filtro.getContatoId() != null) {
+                predicados.add(cb.equal(root.get("contato").get("id"), filtro.getContatoId()));
+            }
+            if (filtro.getTipo() != null) {
+                predicados.add(cb.equal(root.get("tipo"), filtro.getTipo()));
+            }
+            if (filtro.getCategoriaId() != null) {
+                predicados.add(cb.equal(root.get("categoriaDespesa").get("id"), filtro.getCategoriaId()));
+            }
+            if (filtro.getComNotaFiscal() != null) {
+                predicados.add(cb.equal(root.get("comNotaFiscal"), filtro.getComNotaFiscal()));
+            }
+            // Descrição: cada termo pesquisado precisa casar com o início de um termo indexado
+            // (sem acento, sem diferenciar maiúsculas). Consulta o índice (usuario_id, termo)
+            // de lancamento_termo em vez de varrer os lançamentos com LIKE '%texto%'.
+            for (String termo : TextoDeBusca.termos(filtro.getDescricao())) {
+                Subquery<Long> comTermo = query.subquery(Long.class);
+                Root<LancamentoTermo> t = comTermo.from(LancamentoTermo.class);
+                comTermo.select(t.get("lancamento").get("id"))
+                        .where(cb.equal(t.get("usuario"), usuario),
+                               cb.like(t.get("termo"), termo + "%"));
+                predicados.add(root.get("id").in(comTermo));
+            }
+            if (filtro.getStatus() != null) {
+                predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+            }
+
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.ellomei.repository;
+
+import br.com.ellomei.domain.ResumoMensal;
+import br.com.ellomei.domain.Usuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, Long> {
+
+    // Linhas do resumo de um usuário entre dois meses (mes é sempre o primeiro dia do mês)
+    List<ResumoMensal> findByUsuarioAndMesBetween(Usuario usuario, LocalDate mesInicio, LocalDate mesFim);
+
+    // Totais por mês, tipo, nota fiscal e conta (com o tipo da conta), somados no banco: (mes, tipo, comNotaFiscal, contaId, tipoDaConta, total)
+    @Query("SELECT r.mes, r.tipo, r.comNotaFiscal, r.contaId, c.tipo, SUM(r.total) " +
+           "FROM ResumoMensal r JOIN Conta c ON c.id = r.contaId " +
+           "WHERE r.usuario = :usuario AND r.mes BETWEEN :mesInicio AND :mesFim " +
+           "GROUP BY r.mes, r.tipo, r.comNotaFiscal, r.contaId, c.tipo")
+    List<Object[]> somarPorMes(@Param("usuario") Usuario usuario, @Param("mesInicio") LocalDate mesInicio,
+                               @Param("mesFim") LocalDate mesFim);
+
+    // Totais PAGOS do período por tipo, conta, categoria e nota fiscal: (tipo, contaId, categoriaId, comNotaFiscal, total)
+    @Query("SELECT r.tipo, r.contaId, r.categoriaId, r.comNotaFiscal, SUM(r.total) " +
+           "FROM ResumoMensal r " +
+           "WHERE r.usuario = :usuario AND r.status = br.com.ellomei.domain.StatusLancamento.PAGO " +
+           "AND r.mes BETWEEN :mesInicio AND :mesFim " +
+           "GROUP BY r.tipo, r.contaId, r.categoriaId, r.comNotaFiscal")
+    List<Object[]> somarPagos(@Param("usuario") Usuario usuario, @Param("mesInicio") LocalDate mesInicio,
+                              @Param("mesFim") LocalDate mesFim);
+
+    // Todas as linhas do resumo de um usuário (reconstrução)
+    List<ResumoMensal> findByUsuario(Usuario usuario);
+
+    // Soma o delta à linha da chave, criando-a se ainda não existir, em um único comando atômico
+    // (upsert pela chave única): duas transações criando a mesma linha não colidem, a segunda
+    // espera a primeira e soma. Tipo e status vão pelo nome do enum, como na coluna.
+    // flushAutomatically: os lançamentos pendentes saem antes, na ordem da operação;
+    // clearAutomatically: evita que um ResumoMensal já carregado fique com o total antigo.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO resumo_mensal (usuario_id, mes, tipo, status, conta_id, categoria_id, com_nota_fiscal, total, quantidade) " +
+                   "VALUES (:usuarioId, :mes, :tipo, :status, :contaId, :categoriaId, :comNotaFiscal, :total, :quantidade) " +
+                   "ON DUPLICATE KEY UPDATE total = total + VALUES(total), quantidade = quantidade + VALUES(quantidade)",
+           nativeQuery = true)
+    int somar(@Param("usuarioId") Long usuarioId, @Param("mes") LocalDate mes, @Param("tipo") String tipo,
+              @Param("status") String status, @Param("contaId") Long contaId, @Param("categoriaId") Long categoriaId,
+              @Param("comNotaFiscal") boolean comNotaFiscal, @Param("total") BigDecimal total, @Param("quantidade") long quantidade);
+
+    // Remove as linhas zeradas (sobras de exclusões), conferindo os valores no próprio DELETE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ResumoMensal r WHERE r.usuario = :usuario AND r.total = 0 AND r.quantidade = 0")
+    int excluirZeradas(@Param("usuario") Usuario usuario);
+}
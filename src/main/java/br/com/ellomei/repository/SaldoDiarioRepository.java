@@ -0,0 +1,33 @@
+package br.com.ellomei.repository;
+
+import br.com.ellomei.domain.SaldoDiario;
+import br.com.ellomei.domain.Usuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SaldoDiarioRepository extends JpaRepository<SaldoDiario, Long>, SaldoDiarioRepositoryCustom {
+
+    // Soma dos movimentos antes da data: somada ao saldo inicial, é o saldo no fim do dia anterior.
+    // Percorre só o índice (conta_id, data), uma entrada por dia com movimento.
+    @Query("SELECT COALESCE(SUM(s.movimento), 0) FROM SaldoDiario s WHERE s.contaId = :contaId AND s.data < :data")
+    BigDecimal somarMovimentosAntesDe(@Param("contaId") Long contaId, @Param("data") LocalDate data);
+
+    // Dias com movimento de um intervalo (inclusive), em ordem
+    List<SaldoDiario> findByContaIdAndDataBetweenOrderByData(Long contaId, LocalDate inicio, LocalDate fim);
+
+    // Todas as linhas do histórico de um usuário (reconstrução)
+    List<SaldoDiario> findByUsuario(Usuario usuario);
+
+    // Remove os dias sem movimento (sobras de exclusões), conferindo o valor no próprio DELETE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM SaldoDiario s WHERE s.usuario = :usuario AND s.movimento = 0")
+    int excluirSemMovimento(@Param("usuario") Usuario usuario);
+}
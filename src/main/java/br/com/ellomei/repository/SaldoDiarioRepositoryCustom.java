@@ -0,0 +1,22 @@
+package br.com.ellomei.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Gravação em lote do histórico de saldo diário.
+ */
+public interface SaldoDiarioRepositoryCustom {
+
+    /**
+     * Soma o movimento de cada conta e dia, criando os dias que ainda não têm linha, com
+     * INSERTs de várias linhas e ON DUPLICATE KEY UPDATE (soma atômica pela chave única):
+     * duas transações criando o mesmo dia não colidem, a segunda espera a primeira e soma.
+     *
+     * @param usuarioId Usuário proprietário das contas
+     * @param movimentos Movimento por ID de conta e dia; valores zero são ignorados
+     * @return Quantidade de comandos executados
+     */
+    int somarMovimentos(Long usuarioId, Map<Long, Map<LocalDate, BigDecimal>> movimentos);
+}
@@ -0,0 +1,67 @@
+package br.com.ellomei.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementação (SQL nativo) de {@link SaldoDiarioRepositoryCustom}.
+ *
+ * O upsert nativo não passa pelo lote JDBC do Hibernate, então os dias são agrupados no próprio
+ * comando: um INSERT com até {@value #DIAS_POR_COMANDO} linhas em VALUES.
+ */
+public class SaldoDiarioRepositoryCustomImpl implements SaldoDiarioRepositoryCustom {
+
+    static final int DIAS_POR_COMANDO = 500;
+
+    private record Dia(Long contaId, LocalDate data, BigDecimal movimento) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int somarMovimentos(Long usuarioId, Map<Long, Map<LocalDate, BigDecimal>> movimentos) {
+        List<Dia> dias = new ArrayList<>();
+        movimentos.forEach((contaId, porDia) -> porDia.forEach((data, movimento) -> {
+            if (movimento.signum() != 0) dias.add(new Dia(contaId, data, movimento));
+        }));
+
+        if (dias.isEmpty()) return 0;
+
+        // Como @Modifying(flushAutomatically = true, clearAutomatically = true): os lançamentos
+        // pendentes saem antes, e nenhum SaldoDiario já carregado fica com o movimento antigo
+        entityManager.flush();
+        int comandos = 0;
+        for (int inicio = 0; inicio < dias.size(); inicio += DIAS_POR_COMANDO) {
+            somar(usuarioId, dias.subList(inicio, Math.min(inicio + DIAS_POR_COMANDO, dias.size())));
+            comandos++;
+        }
+        entityManager.clear();
+        return comandos;
+    }
+
+    private void somar(Long usuarioId, List<Dia> dias) {
+        StringBuilder sql = new StringBuilder("INSERT INTO saldo_diario (usuario_id, conta_id, data, movimento) VALUES ");
+        for (int i = 0; i < dias.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(:usuarioId, :conta").append(i).append(", :data").append(i).append(", :movimento").append(i).append(')');
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE movimento = movimento + VALUES(movimento)");
+
+        Query query = entityManager.createNativeQuery(sql.toString()).setParameter("usuarioId", usuarioId);
+        for (int i = 0; i < dias.size(); i++) {
+            Dia dia = dias.get(i);
+            query.setParameter("conta" + i, dia.contaId())
+                    .setParameter("data" + i, dia.data())
+                    .setParameter("movimento" + i, dia.movimento());
+        }
+        query.executeUpdate();
+    }
+}
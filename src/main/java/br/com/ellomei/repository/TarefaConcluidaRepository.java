@@ -0,0 +1,9 @@
+package br.com.ellomei.repository;
+
+import br.com.ellomei.domain.TarefaConcluida;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TarefaConcluidaRepository extends JpaRepository<TarefaConcluida, String> {
+}
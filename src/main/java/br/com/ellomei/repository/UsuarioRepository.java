@@ -2,6 +2,8 @@ package br.com.ellomei.repository;
 
 import br.com.ellomei.domain.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
@@ -10,4 +12,8 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     // Método para encontrar usuário por email (recuperação de senha, etc)
     Optional<Usuario> findByEmail(String email);
+
+    // IDs de todos os usuários, para os jobs que processam um usuário por transação
+    @Query("SELECT u.id FROM Usuario u ORDER BY u.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acumula as variações de saldo (deltas) por conta ao longo de uma operação.
+ *
+ * Em vez de ler o saldo da conta, somar em Java e salvar a conta a cada lançamento,
+ * cada lançamento aplicado ou revertido apenas soma o seu efeito no delta da conta.
+ * No fim da operação, {@link ContaService#aplicarAjustesDeSaldo(AjustesDeSaldo, br.com.ellomei.domain.Usuario)}
+ * aplica um único UPDATE atômico por conta afetada.
+ *
+ * Os deltas também ficam separados pela data dos lançamentos, para o histórico de saldo
+ * diário ({@link SaldoDiarioService#aplicarAjustes(AjustesDeSaldo, br.com.ellomei.domain.Usuario)}).
+ *
+ * Regras:
+ * - Apenas lançamentos PAGO afetam o saldo
+ * - ENTRADA soma, SAIDA subtrai (e o inverso ao reverter)
+ * - Contas cujo delta líquido é zero não são atualizadas (mas os dias podem ser: mudar a
+ *   data de um lançamento pago não altera o saldo atual, só o histórico)
+ *
+ * As contas ficam ordenadas por ID para que transações concorrentes travem as
+ * linhas de conta sempre na mesma ordem (evita deadlock).
+ */
+public class AjustesDeSaldo {
+
+    private final Map<Long, BigDecimal> deltasPorConta = new TreeMap<>();
+    private final Map<Long, Map<LocalDate, BigDecimal>> deltasPorDia = new TreeMap<>();
+
+    /**
+     * Registra o efeito de um lançamento no saldo da sua conta.
+     *
+     * @param lancamento Lançamento a ser aplicado
+     */
+    public void aplicar(Lancamento lancamento) {
+        registrar(lancamento, false);
+    }
+
+    /**
+     * Registra a reversão do efeito de um lançamento no saldo da sua conta.
+     *
+     * @param lancamento Lançamento a ser revertido
+     */
+    public void reverter(Lancamento lancamento) {
+        registrar(lancamento, true);
+    }
+
+    /**
+     * Registra o pagamento de um lançamento conhecido apenas pelos seus valores
+     * (ex.: pagamento em lote, em que os lançamentos não são carregados como entidades).
+     *
+     * @param contaId Conta do lançamento
+     * @param tipo Tipo do lançamento
+     * @param valor Valor do lançamento
+     * @param data Data do lançamento
+     */
+    public void aplicarPagamento(Long contaId, TipoLancamento tipo, BigDecimal valor, LocalDate data) {
+        somar(contaId, tipo, valor, data, false);
+    }
+
+    private void registrar(Lancamento lancamento, boolean reversao) {
+        if (lancamento.getStatus() != StatusLancamento.PAGO) return;
+
+        somar(lancamento.getConta().getId(), lancamento.getTipo(), lancamento.getValor(), lancamento.getData(), reversao);
+    }
+
+    private void somar(Long contaId, TipoLancamento tipo, BigDecimal valor, LocalDate data, boolean reversao) {
+        BigDecimal efeito = tipo == TipoLancamento.ENTRADA ? valor : valor.negate();
+        if (reversao) {
+            efeito = efeito.negate();
+        }
+        deltasPorConta.merge(contaId, efeito, BigDecimal::add);
+        deltasPorDia.computeIfAbsent(contaId, id -> new TreeMap<>()).merge(data, efeito, BigDecimal::add);
+    }
+
+    /**
+     * @return Deltas líquidos por ID de conta, sem as contas cujo delta é zero
+     */
+    public Map<Long, BigDecimal> getDeltasPorConta() {
+        Map<Long, BigDecimal> naoZerados = new TreeMap<>();
+        deltasPorConta.forEach((contaId, delta) -> {
+            if (delta.signum() != 0) naoZerados.put(contaId, delta);
+        });
+        return Collections.unmodifiableMap(naoZerados);
+    }
+
+    /**
+     * @return Deltas líquidos por ID de conta e data (em ordem), sem os dias cujo delta é zero
+     */
+    public Map<Long, Map<LocalDate, BigDecimal>> getDeltasPorDia() {
+        Map<Long, Map<LocalDate, BigDecimal>> naoZerados = new TreeMap<>();
+        deltasPorDia.forEach((contaId, dias) -> dias.forEach((data, delta) -> {
+            if (delta.signum() != 0) naoZerados.computeIfAbsent(contaId, id -> new TreeMap<>()).put(data, delta);
+        }));
+        return Collections.unmodifiableMap(naoZerados);
+    }
+
+    /**
+     * @return true se nenhuma conta nem nenhum dia do histórico precisa ser atualizado
+     */
+    public boolean isVazio() {
+        // O delta da conta é a soma dos dias: dias zerados implicam conta zerada
+        return deltasPorDia.values().stream()
+                .allMatch(dias -> dias.values().stream().allMatch(delta -> delta.signum() == 0));
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.ResumoMensal;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Acumula as variações do resumo mensal (soma e quantidade por chave) ao longo de uma operação.
+ *
+ * Funciona como o {@link AjustesDeSaldo}: cada lançamento aplicado ou revertido apenas soma
+ * o seu efeito na chave do resumo, e no fim da operação
+ * {@link ResumoMensalService#aplicarAjustes(AjustesDoResumo, br.com.ellomei.domain.Usuario)}
+ * grava um único UPDATE por chave afetada.
+ *
+ * Regras:
+ * - Todos os status entram no resumo (o dashboard também mostra valores em aberto)
+ * - Aplicar soma valor e quantidade; reverter subtrai
+ * - Chaves cuja variação líquida é zero não são gravadas (ex.: edição só da descrição)
+ *
+ * As chaves ficam ordenadas para que transações concorrentes travem as linhas do
+ * resumo sempre na mesma ordem (evita deadlock).
+ */
+public class AjustesDoResumo {
+
+    /**
+     * Variação de uma linha do resumo.
+     */
+    public record Variacao(BigDecimal total, long quantidade) {
+
+        Variacao somar(Variacao outra) {
+            return new Variacao(total.add(outra.total), quantidade + outra.quantidade);
+        }
+
+        boolean isZero() {
+            return total.signum() == 0 && quantidade == 0;
+        }
+    }
+
+    private static final Comparator<ResumoMensal.Chave> ORDEM_DAS_CHAVES = Comparator
+            .comparing(ResumoMensal.Chave::mes)
+            .thenComparing(ResumoMensal.Chave::tipo)
+            .thenComparing(ResumoMensal.Chave::status)
+            .thenComparing(ResumoMensal.Chave::contaId)
+            .thenComparing(ResumoMensal.Chave::categoriaId)
+            .thenComparing(ResumoMensal.Chave::comNotaFiscal);
+
+    private final Map<ResumoMensal.Chave, Variacao> variacoes = new TreeMap<>(ORDEM_DAS_CHAVES);
+
+    /**
+     * Registra um lançamento no resumo do seu mês.
+     *
+     * @param lancamento Lançamento a ser aplicado
+     */
+    public void aplicar(Lancamento lancamento) {
+        aplicar(ResumoMensal.Chave.de(lancamento), lancamento.getValor(), 1);
+    }
+
+    /**
+     * Retira um lançamento do resumo. Deve ser chamado antes de alterar o lançamento,
+     * enquanto ele ainda tem os valores gravados.
+     *
+     * @param lancamento Lançamento a ser revertido
+     */
+    public void reverter(Lancamento lancamento) {
+        aplicar(ResumoMensal.Chave.de(lancamento), lancamento.getValor().negate(), -1);
+    }
+
+    /**
+     * Registra uma variação conhecida apenas pelos valores (ex.: pagamento em lote, em que os
+     * lançamentos não são carregados como entidades, ou a agregação feita na reconstrução).
+     *
+     * @param chave Chave do resumo
+     * @param total Variação da soma (negativa para retirar)
+     * @param quantidade Variação da quantidade de lançamentos (negativa para retirar)
+     */
+    public void aplicar(ResumoMensal.Chave chave, BigDecimal total, long quantidade) {
+        variacoes.merge(chave, new Variacao(total, quantidade), Variacao::somar);
+    }
+
+    /**
+     * @return Variações líquidas por chave, sem as chaves cuja variação é zero
+     */
+    public Map<ResumoMensal.Chave, Variacao> getVariacoes() {
+        Map<ResumoMensal.Chave, Variacao> naoZeradas = new TreeMap<>(ORDEM_DAS_CHAVES);
+        variacoes.forEach((chave, variacao) -> {
+            if (!variacao.isZero()) naoZeradas.put(chave, variacao);
+        });
+        return Collections.unmodifiableMap(naoZeradas);
+    }
+
+    /**
+     * @return true se nenhuma linha do resumo precisa ser atualizada
+     */
+    public boolean isVazio() {
+        return variacoes.values().stream().allMatch(Variacao::isZero);
+    }
+}
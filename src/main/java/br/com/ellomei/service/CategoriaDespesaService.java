@@ -24,6 +24,9 @@ public class CategoriaDespesaService {
     @Autowired
     private CategoriaDespesaRepository categoriaDespesaRepository;
 
+    @Autowired
+    private VersaoDeDadosService versaoDeDadosService;
+
     // Método legado (sem paginação) - mantido para compatibilidade
     @Transactional(readOnly = true)
     @Cacheable(value = "categoriasPorUsuario", key = "#usuario.id")
@@ -45,6 +48,7 @@ public class CategoriaDespesaService {
     public CategoriaDespesa salvar(CategoriaDespesa categoriaDespesa, Usuario usuario) {
         categoriaDespesa.setUsuario(usuario); // Associa a categoria ao usuário logado
         logger.debug("Cache de categorias invalidado para o usuário: {}", usuario.getId());
+        versaoDeDadosService.incrementar(usuario.getId());
         return categoriaDespesaRepository.save(categoriaDespesa);
     }
 
@@ -64,6 +68,7 @@ public class CategoriaDespesaService {
             categoriaDespesaRepository.deleteById(id);
             // Manually evict cache after deletion
             evictCategoriaCache(usuarioId);
+            versaoDeDadosService.incrementar(usuarioId);
         } else {
             categoriaDespesaRepository.deleteById(id);
         }
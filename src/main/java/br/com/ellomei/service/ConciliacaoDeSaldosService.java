@@ -0,0 +1,286 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.dto.RelatorioConciliacaoDTO;
+import br.com.ellomei.dto.RelatorioConciliacaoDTO.Divergencia;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conciliação dos saldos das contas com os lançamentos.
+ *
+ * O saldo atual é mantido por deltas ({@link AjustesDeSaldo}) e nunca recalculado; um erro ou
+ * uma alteração feita direto no banco o deixaria errado para sempre. Este job recalcula, para
+ * cada conta, {@code saldoInicial + entradas PAGAS - saídas PAGAS} e compara com o saldo gravado.
+ *
+ * Os usuários são divididos em lotes de {@code conciliacao.usuarios-por-lote}; cada lote é uma
+ * única consulta agregada, em uma transação somente leitura, e os lotes rodam em um pool limitado
+ * ({@value #THREADS} threads; com o pool ocupado, o lote roda na thread do job). O resultado fica
+ * disponível como métricas (ellomei.conciliacao.*) e no relatório da última execução.
+ *
+ * Com {@code conciliacao.corrigir-automaticamente=true}, as divergências são corrigidas somando a
+ * diferença ao saldo (UPDATE atômico, como nas gravações de lançamentos). Saldo e lançamentos vêm
+ * da mesma consulta, então a diferença continua certa mesmo que a conta receba lançamentos
+ * entre a consulta e a correção.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Service
+public class ConciliacaoDeSaldosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConciliacaoDeSaldosService.class);
+
+    /** Lotes conciliados ao mesmo tempo (cada um ocupa uma conexão do banco). */
+    private static final int THREADS = 4;
+
+    /** Lotes aguardando uma thread livre antes de rodarem na thread do job. */
+    private static final int FILA = 16;
+
+    /** Divergências listadas no relatório (as maiores); as contagens incluem todas. */
+    public static final int MAXIMO_NO_RELATORIO = 500;
+
+    /** Contas verificadas e divergências encontradas em um lote. */
+    public record ResultadoDoLote(int contas, List<Divergencia> divergencias) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ContaRepository contaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private VersaoDeDadosService versaoDeDadosService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${conciliacao.usuarios-por-lote:200}")
+    private int usuariosPorLote = 200;
+
+    @Value("${conciliacao.corrigir-automaticamente:false}")
+    private boolean corrigirAutomaticamente;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(FILA), new CustomizableThreadFactory("conciliacao-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    private final AtomicReference<RelatorioConciliacaoDTO> ultimoRelatorio = new AtomicReference<>();
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    private Timer duracao;
+    private Counter contasCorrigidas;
+
+    @PostConstruct
+    public void registrarMetricas() {
+        Gauge.builder("ellomei.conciliacao.contas.divergentes", ultimoRelatorio,
+                        ultimo -> ultimo.get() != null ? ultimo.get().contasDivergentes() : 0)
+                .description("Contas com saldo divergente dos lançamentos na última conciliação")
+                .register(meterRegistry);
+        Gauge.builder("ellomei.conciliacao.diferenca.total", ultimoRelatorio,
+                        ultimo -> ultimo.get() != null ? ultimo.get().diferencaTotal().doubleValue() : 0)
+                .description("Soma das diferenças (valor absoluto) na última conciliação")
+                .register(meterRegistry);
+        Gauge.builder("ellomei.conciliacao.lotes.com.erro", ultimoRelatorio,
+                        ultimo -> ultimo.get() != null ? ultimo.get().lotesComErro() : 0)
+                .description("Lotes de usuários não verificados na última conciliação")
+                .register(meterRegistry);
+        contasCorrigidas = Counter.builder("ellomei.conciliacao.contas.corrigidas")
+                .description("Saldos corrigidos pela conciliação")
+                .register(meterRegistry);
+        duracao = Timer.builder("ellomei.conciliacao.duracao")
+                .description("Duração da conciliação de saldos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Concilia os saldos de todos os usuários (job agendado).
+     *
+     * Executa todos os dias às 5h da manhã, depois das reconstruções do resumo e do histórico de saldo.
+     */
+    @Scheduled(cron = "0 0 5 * * *")
+    public void conciliarTodos() {
+        try {
+            conciliar(corrigirAutomaticamente);
+        } catch (IllegalStateException e) {
+            logger.warn("Conciliação agendada ignorada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Concilia os saldos de todos os usuários, um lote de usuários por tarefa do pool, e guarda o relatório.
+     *
+     * @param corrigir true para corrigir os saldos divergentes
+     * @return Relatório da execução
+     * @throws IllegalStateException se outra conciliação estiver em andamento
+     */
+    public RelatorioConciliacaoDTO conciliar(boolean corrigir) {
+        if (!emExecucao.compareAndSet(false, true)) {
+            throw new IllegalStateException("Já existe uma conciliação de saldos em andamento.");
+        }
+        try {
+            LocalDateTime inicio = LocalDateTime.now();
+            long inicioNs = System.nanoTime();
+            logger.info("Iniciando conciliação dos saldos (correção automática: {})...", corrigir);
+
+            List<Long> usuarioIds = usuarioRepository.findAllIds();
+            List<CompletableFuture<ResultadoDoLote>> lotes = new ArrayList<>();
+            for (int i = 0; i < usuarioIds.size(); i += usuariosPorLote) {
+                List<Long> lote = List.copyOf(usuarioIds.subList(i, Math.min(i + usuariosPorLote, usuarioIds.size())));
+                lotes.add(CompletableFuture.supplyAsync(() -> conciliarLote(lote, corrigir), executor)
+                        .exceptionally(erro -> {
+                            logger.error("Erro ao conciliar os saldos dos usuários {} a {}: {}",
+                                    lote.get(0), lote.get(lote.size() - 1), erro.toString());
+                            return null;
+                        }));
+            }
+            CompletableFuture.allOf(lotes.toArray(new CompletableFuture[0])).join();
+
+            int contas = 0;
+            int lotesComErro = 0;
+            List<Divergencia> divergencias = new ArrayList<>();
+            for (CompletableFuture<ResultadoDoLote> lote : lotes) {
+                ResultadoDoLote resultado = lote.join();
+                if (resultado == null) {
+                    lotesComErro++;
+                    continue;
+                }
+                contas += resultado.contas();
+                divergencias.addAll(resultado.divergencias());
+            }
+            divergencias.sort(Comparator.comparing((Divergencia d) -> d.diferenca().abs()).reversed());
+            BigDecimal diferencaTotal = divergencias.stream()
+                    .map(d -> d.diferenca().abs())
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            long duracaoNs = System.nanoTime() - inicioNs;
+            RelatorioConciliacaoDTO relatorio = new RelatorioConciliacaoDTO(inicio, TimeUnit.NANOSECONDS.toMillis(duracaoNs),
+                    usuarioIds.size(), contas, divergencias.size(), diferencaTotal, corrigir, lotesComErro,
+                    List.copyOf(divergencias.subList(0, Math.min(MAXIMO_NO_RELATORIO, divergencias.size()))));
+            ultimoRelatorio.set(relatorio);
+            duracao.record(duracaoNs, TimeUnit.NANOSECONDS);
+            if (corrigir) {
+                contasCorrigidas.increment(divergencias.size());
+            }
+
+            if (divergencias.isEmpty()) {
+                logger.info("Conciliação dos saldos concluída: {} contas verificadas, nenhuma divergência", contas);
+            } else {
+                logger.warn("Conciliação dos saldos concluída: {} de {} contas divergentes (diferença total {}){}",
+                        divergencias.size(), contas, diferencaTotal, corrigir ? ", corrigidas" : "");
+            }
+            return relatorio;
+        } finally {
+            emExecucao.set(false);
+        }
+    }
+
+    /**
+     * Concilia os saldos das contas de um lote de usuários: uma consulta agregada e, se
+     * {@code corrigir}, um UPDATE atômico por conta divergente.
+     *
+     * @param usuarioIds Usuários do lote
+     * @param corrigir true para corrigir os saldos divergentes
+     */
+    public ResultadoDoLote conciliarLote(List<Long> usuarioIds, boolean corrigir) {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        List<Object[]> linhas = leitura.execute(status -> {
+            // O lote tem vários usuários: sem o filtro de tenant, mesmo rodando na thread de uma requisição
+            entityManager.unwrap(Session.class).disableFilter("tenantFilter");
+            return contaRepository.somarMovimentoPorConta(usuarioIds);
+        });
+
+        List<Divergencia> divergencias = new ArrayList<>();
+        for (Object[] linha : linhas) {
+            BigDecimal saldoInicial = linha[3] != null ? (BigDecimal) linha[3] : BigDecimal.ZERO;
+            BigDecimal saldoAtual = linha[4] != null ? (BigDecimal) linha[4] : BigDecimal.ZERO;
+            BigDecimal movimento = linha[5] != null ? (BigDecimal) linha[5] : BigDecimal.ZERO;
+            BigDecimal saldoEsperado = saldoInicial.add(movimento);
+            BigDecimal diferenca = saldoAtual.subtract(saldoEsperado);
+            if (diferenca.signum() != 0) {
+                divergencias.add(new Divergencia((Long) linha[0], (Long) linha[1], (String) linha[2],
+                        saldoAtual, saldoEsperado, diferenca, corrigir));
+            }
+        }
+
+        if (corrigir && !divergencias.isEmpty()) {
+            corrigir(divergencias);
+        }
+        return new ResultadoDoLote(linhas.size(), divergencias);
+    }
+
+    /**
+     * Soma ao saldo de cada conta o oposto da diferença encontrada, em uma transação, e
+     * invalida o cache de contas e os dados do dashboard dos usuários afetados.
+     */
+    private void corrigir(List<Divergencia> divergencias) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Divergencia divergencia : divergencias) {
+                contaRepository.adicionarAoSaldo(divergencia.contaId(), divergencia.diferenca().negate(),
+                        usuarioRepository.getReferenceById(divergencia.usuarioId()));
+            }
+        });
+
+        Set<Long> usuarios = new TreeSet<>();
+        divergencias.forEach(divergencia -> usuarios.add(divergencia.usuarioId()));
+        for (Long usuarioId : usuarios) {
+            contaService.evictContaCache(usuarioId);
+            versaoDeDadosService.incrementar(usuarioId);
+        }
+        logger.warn("Saldos corrigidos pela conciliação: {} conta(s) de {} usuário(s)", divergencias.size(), usuarios.size());
+    }
+
+    /**
+     * @return Relatório da última conciliação, ou null se nenhuma rodou desde que a aplicação subiu
+     */
+    public RelatorioConciliacaoDTO getUltimoRelatorio() {
+        return ultimoRelatorio.get();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
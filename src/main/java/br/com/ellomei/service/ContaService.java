@@ -10,12 +10,18 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ContaService {
@@ -25,6 +31,9 @@ public class ContaService {
     @Autowired
     private ContaRepository contaRepository;
 
+    @Autowired
+    private VersaoDeDadosService versaoDeDadosService;
+
     // Método legado (sem paginação) - mantido para compatibilidade
     @Transactional(readOnly = true)
     @Cacheable(value = "contasPorUsuario", key = "#usuario.id")
@@ -50,6 +59,7 @@ public class ContaService {
             conta.setSaldoAtual(conta.getSaldoInicial());
         }
         logger.debug("Cache de contas invalidado para o usuário: {}", usuario.getId());
+        versaoDeDadosService.incrementar(usuario.getId());
         return contaRepository.save(conta);
     }
 
@@ -59,6 +69,51 @@ public class ContaService {
         return contaRepository.findById(id);
     }
 
+    /**
+     * Carrega de uma só vez as contas informadas, garantindo que todas pertencem ao usuário.
+     *
+     * Substitui N chamadas a {@link #buscarPorId(Long)} (cada uma com a sua checagem
+     * de propriedade) por uma única consulta filtrada pelo usuário.
+     *
+     * @param ids IDs das contas
+     * @param usuario Usuário proprietário
+     * @return Mapa de ID para conta
+     * @throws AccessDeniedException se alguma conta não existir ou não pertencer ao usuário
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Conta> buscarPorIds(Collection<Long> ids, Usuario usuario) {
+        Map<Long, Conta> contas = contaRepository.findByIdInAndUsuario(ids, usuario).stream()
+                .collect(Collectors.toMap(Conta::getId, Function.identity()));
+        if (!contas.keySet().containsAll(ids)) {
+            throw new AccessDeniedException("Conta não encontrada ou não pertence ao usuário.");
+        }
+        return contas;
+    }
+
+    /**
+     * Aplica nos saldos as variações acumuladas durante uma operação.
+     *
+     * Executa um único UPDATE atômico ({@code saldo_atual = saldo_atual + delta}) por conta
+     * afetada, sem ler o saldo para a memória, e invalida o cache de contas uma única vez.
+     * Como a soma é feita pelo banco, dois pagamentos simultâneos na mesma conta
+     * não sobrescrevem um ao outro.
+     *
+     * @param ajustes Deltas acumulados por conta
+     * @param usuario Usuário proprietário das contas
+     * @throws AccessDeniedException se alguma conta não pertencer ao usuário
+     */
+    @Transactional
+    @CacheEvict(value = "contasPorUsuario", key = "#usuario.id", condition = "!#ajustes.vazio")
+    public void aplicarAjustesDeSaldo(AjustesDeSaldo ajustes, Usuario usuario) {
+        for (Map.Entry<Long, BigDecimal> ajuste : ajustes.getDeltasPorConta().entrySet()) {
+            int atualizadas = contaRepository.adicionarAoSaldo(ajuste.getKey(), ajuste.getValue(), usuario);
+            if (atualizadas == 0) {
+                throw new AccessDeniedException("Conta não encontrada ou não pertence ao usuário.");
+            }
+        }
+        logger.debug("Saldos ajustados em {} conta(s) para o usuário: {}", ajustes.getDeltasPorConta().size(), usuario.getId());
+    }
+
     @Transactional
     @PreAuthorize("@customSecurityService.isContaOwner(#id)")
     public void excluirPorId(Long id) {
@@ -69,6 +124,7 @@ public class ContaService {
             contaRepository.deleteById(id);
             // Manually evict cache after deletion
             evictContaCache(usuarioId);
+            versaoDeDadosService.incrementar(usuarioId);
         } else {
             contaRepository.deleteById(id);
         }
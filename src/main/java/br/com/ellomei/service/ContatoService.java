@@ -26,6 +26,9 @@ public class ContatoService {
     @Autowired
     private ContatoRepository contatoRepository;
 
+    @Autowired
+    private VersaoDeDadosService versaoDeDadosService;
+
     // Método legado (sem paginação) - mantido para compatibilidade
     @Transactional(readOnly = true)
     @Cacheable(value = "contatosPorUsuario", key = "#usuario.id")
@@ -47,6 +50,7 @@ public class ContatoService {
     public Contato salvar(Contato contato, Usuario usuario) {
         contato.setUsuario(usuario); // Associa o contato ao usuário logado
         logger.debug("Cache de contatos invalidado para o usuário: {}", usuario.getId());
+        versaoDeDadosService.incrementar(usuario.getId());
         return contatoRepository.save(contato);
     }
 
@@ -66,6 +70,7 @@ public class ContatoService {
             contatoRepository.deleteById(id);
             // Manually evict cache after deletion
             evictContatoCache(usuarioId);
+            versaoDeDadosService.incrementar(usuarioId);
         } else {
             contatoRepository.deleteById(id);
         }
@@ -0,0 +1,158 @@
+package br.com.ellomei.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conexões SSE abertas pelo dashboard, por usuário.
+ *
+ * Cada aba aberta no dashboard mantém uma conexão; quando um lançamento do usuário é
+ * gravado, todas recebem o delta (ver {@link br.com.ellomei.listener.DashboardEventosListener}).
+ * A conexão é uma requisição assíncrona do servlet: aberta, não ocupa thread.
+ *
+ * Limites:
+ * - {@value #MAXIMO_POR_USUARIO} conexões por usuário; a mais antiga é encerrada quando chega uma nova
+ * - dashboard.eventos.maximo-conexoes no total; acima disso a conexão é recusada (503) e a
+ *   página segue funcionando sem atualização automática
+ * - cada conexão dura no máximo {@value #DURACAO_MS} ms; o navegador reconecta sozinho
+ *
+ * Conexões encerradas, expiradas ou com erro saem do registro; o sinal de vida periódico
+ * detecta as abas fechadas sem aviso.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Service
+public class DashboardEventosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventosService.class);
+
+    /** Abas do dashboard conectadas ao mesmo tempo por usuário. */
+    static final int MAXIMO_POR_USUARIO = 5;
+
+    /** Duração máxima de uma conexão (30 minutos). */
+    static final long DURACAO_MS = 30 * 60 * 1000L;
+
+    /** Nome do evento SSE com o delta dos lançamentos. */
+    public static final String EVENTO_LANCAMENTOS = "lancamentos";
+
+    @Value("${dashboard.eventos.maximo-conexoes:1000}")
+    private int maximoConexoes = 1000;
+
+    private final Map<Long, Deque<SseEmitter>> conexoes = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+
+    /**
+     * Abre uma conexão para o usuário.
+     *
+     * @throws ResponseStatusException 503 quando o limite total de conexões foi atingido
+     */
+    public SseEmitter conectar(Long usuarioId) {
+        if (total.incrementAndGet() > maximoConexoes) {
+            total.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Limite de conexões de atualização do dashboard atingido.");
+        }
+
+        SseEmitter emitter = new SseEmitter(DURACAO_MS);
+        // compute (e não computeIfAbsent + add): a fila não pode sair do mapa entre as duas coisas
+        Deque<SseEmitter> doUsuario = conexoes.compute(usuarioId, (id, fila) -> {
+            Deque<SseEmitter> destino = fila != null ? fila : new ConcurrentLinkedDeque<>();
+            destino.addLast(emitter);
+            return destino;
+        });
+        emitter.onCompletion(() -> remover(usuarioId, emitter));
+        emitter.onTimeout(() -> remover(usuarioId, emitter));
+        emitter.onError(erro -> remover(usuarioId, emitter));
+
+        while (doUsuario.size() > MAXIMO_POR_USUARIO) {
+            SseEmitter maisAntiga = doUsuario.peekFirst();
+            if (maisAntiga != null && remover(usuarioId, maisAntiga)) {
+                maisAntiga.complete();
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * @return true se o usuário tem alguma aba do dashboard conectada
+     */
+    public boolean temConexoes(Long usuarioId) {
+        Deque<SseEmitter> doUsuario = conexoes.get(usuarioId);
+        return doUsuario != null && !doUsuario.isEmpty();
+    }
+
+    /**
+     * Total de conexões abertas, somando todos os usuários.
+     */
+    public int getTotalDeConexoes() {
+        return total.get();
+    }
+
+    /**
+     * Envia um evento a todas as conexões do usuário. Conexões que falham são encerradas.
+     *
+     * @param usuarioId Usuário destinatário
+     * @param nome Nome do evento SSE
+     * @param dados Conteúdo (serializado em JSON)
+     */
+    public void enviar(Long usuarioId, String nome, Object dados) {
+        Deque<SseEmitter> doUsuario = conexoes.get(usuarioId);
+        if (doUsuario == null) return;
+        for (SseEmitter emitter : List.copyOf(doUsuario)) {
+            enviar(usuarioId, emitter, SseEmitter.event().name(nome).data(dados));
+        }
+    }
+
+    /**
+     * Sinal de vida: um comentário SSE em todas as conexões. Além de manter proxies sem
+     * fechar a conexão por inatividade, encerra as de abas fechadas sem aviso.
+     */
+    @Scheduled(fixedRateString = "${dashboard.eventos.sinal-de-vida-ms:25000}")
+    public void enviarSinalDeVida() {
+        conexoes.forEach((usuarioId, doUsuario) -> {
+            for (SseEmitter emitter : List.copyOf(doUsuario)) {
+                enviar(usuarioId, emitter, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    private void enviar(Long usuarioId, SseEmitter emitter, SseEmitter.SseEventBuilder evento) {
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Conexão SSE do usuário {} encerrada: {}", usuarioId, e.getMessage());
+            if (remover(usuarioId, emitter)) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * Tira a conexão do registro (uma única vez, qualquer que seja o motivo).
+     *
+     * @return true se a conexão ainda estava registrada
+     */
+    private boolean remover(Long usuarioId, SseEmitter emitter) {
+        Deque<SseEmitter> doUsuario = conexoes.get(usuarioId);
+        if (doUsuario == null || !doUsuario.remove(emitter)) {
+            return false;
+        }
+        total.decrementAndGet();
+        conexoes.computeIfPresent(usuarioId, (id, deque) -> deque.isEmpty() ? null : deque);
+        return true;
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.CategoriaDespesa;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Contato;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.dto.UsageMetricsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Monta os dados da página do dashboard consultando as partes independentes em paralelo
+ * (contas, contatos, categorias, totais do período, saldo e métricas de uso).
+ *
+ * Cada parte roda em uma thread do pool do dashboard, na sua própria transação somente
+ * leitura e com o filtro de tenant ativo, e tem um tempo máximo. Uma parte que falha ou
+ * demora demais não derruba a página: volta vazia e o nome dela aparece em
+ * {@link PaginaDashboard#indisponiveis()}. O tempo da página passa a ser o da parte mais
+ * lenta, e não a soma de todas.
+ *
+ * O pool é limitado e dimensionado pelo pool de conexões: cada thread ocupa uma conexão do
+ * Hikari enquanto consulta, então, sem configuração, fica com metade de
+ * {@code spring.datasource.hikari.maximum-pool-size} e o resto atende as requisições. Com o
+ * pool e a fila cheios, a parte é recusada na hora e volta vazia, em vez de rodar sem tempo
+ * máximo na thread da requisição. O tempo máximo conta desde o disparo da página (a espera na
+ * fila entra nele); a transação da parte recebe o tempo que sobrou, e o Hibernate o repassa
+ * como timeout das consultas, que o banco cancela em vez de continuar depois que a página
+ * desistiu. Java 17 não tem threads virtuais, por isso o pool de tamanho fixo.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Service
+public class DashboardPaginaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardPaginaService.class);
+
+    /**
+     * Dados da página. Partes indisponíveis vêm vazias (listas) ou nulas (valores).
+     *
+     * @param indisponiveis Nomes das partes que falharam ou passaram do tempo máximo
+     */
+    public record PaginaDashboard(List<Conta> contas, List<Contato> contatos, List<CategoriaDespesa> categorias,
+                                  BigDecimal saldoTotal, BigDecimal totalEntradas, BigDecimal totalSaidas,
+                                  UsageMetricsDTO usageMetrics, List<String> indisponiveis) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ContaService contaService;
+
+    @Autowired
+    private ContatoService contatoService;
+
+    @Autowired
+    private CategoriaDespesaService categoriaDespesaService;
+
+    @Autowired
+    private UsageMetricsService usageMetricsService;
+
+    /** Tempo máximo de cada parte, em milissegundos, contado desde o disparo da página. */
+    @Value("${dashboard.pagina.timeout-ms:3000}")
+    private long timeoutMs = 3000;
+
+    /** Consultas simultâneas do dashboard, somando todas as requisições (0 = metade das conexões do banco). */
+    @Value("${dashboard.pagina.threads:0}")
+    private int threads;
+
+    /** Partes aguardando uma thread livre; além disso, são recusadas. */
+    @Value("${dashboard.pagina.fila:12}")
+    private int fila = 12;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int conexoesDoBanco = 10;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void iniciar() {
+        int tamanho = threads > 0 ? threads : Math.max(1, conexoesDoBanco / 2);
+        if (tamanho >= conexoesDoBanco) {
+            logger.warn("Dashboard com {} threads e só {} conexões no banco: as requisições vão esperar por conexão",
+                    tamanho, conexoesDoBanco);
+        }
+        executor = new ThreadPoolExecutor(tamanho, tamanho, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, fila)), new CustomizableThreadFactory("dashboard-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Consulta todas as partes da página ao mesmo tempo e espera a última terminar
+     * (ou passar do tempo máximo).
+     *
+     * @param filtro Filtros do dashboard (usados nos totais de entradas e saídas)
+     * @param usuario Usuário logado
+     */
+    public PaginaDashboard montar(LancamentoFiltro filtro, Usuario usuario) {
+        List<String> indisponiveis = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<List<Conta>> contas = consultar("contas", usuario, indisponiveis, List.of(),
+                () -> contaService.buscarTodasPorUsuario(usuario));
+        CompletableFuture<List<Contato>> contatos = consultar("contatos", usuario, indisponiveis, List.of(),
+                () -> contatoService.buscarTodosPorUsuario(usuario));
+        CompletableFuture<List<CategoriaDespesa>> categorias = consultar("categorias", usuario, indisponiveis, List.of(),
+                () -> categoriaDespesaService.buscarTodasPorUsuario(usuario));
+        CompletableFuture<BigDecimal> saldoTotal = consultar("saldo total", usuario, indisponiveis, null,
+                () -> dashboardService.getSaldoTotal(usuario, filtro.getContaId()));
+        CompletableFuture<Map<TipoLancamento, BigDecimal>> totais = consultar("entradas e saídas", usuario, indisponiveis, Map.of(),
+                () -> dashboardService.getTotaisPagosPorTipo(filtro, usuario));
+        CompletableFuture<UsageMetricsDTO> usageMetrics = consultar("uso do plano", usuario, indisponiveis, null,
+                () -> usageMetricsService.calcularMetricas(usuario));
+
+        CompletableFuture.allOf(contas, contatos, categorias, saldoTotal, totais, usageMetrics).join();
+
+        List<String> nomesIndisponiveis = new ArrayList<>(indisponiveis);
+        Collections.sort(nomesIndisponiveis);
+        return new PaginaDashboard(contas.join(), contatos.join(), categorias.join(), saldoTotal.join(),
+                totais.join().get(TipoLancamento.ENTRADA), totais.join().get(TipoLancamento.SAIDA),
+                usageMetrics.join(), nomesIndisponiveis);
+    }
+
+    /**
+     * Dispara uma parte no pool; em caso de erro, de pool cheio ou de tempo esgotado, completa
+     * com {@code seFalhar}.
+     */
+    private <T> CompletableFuture<T> consultar(String parte, Usuario usuario, List<String> indisponiveis, T seFalhar,
+                                               Supplier<T> consulta) {
+        long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        CompletableFuture<T> resultado;
+        try {
+            resultado = CompletableFuture.supplyAsync(() -> emTransacaoSomenteLeitura(usuario, prazo, consulta), executor);
+        } catch (RejectedExecutionException e) {
+            resultado = CompletableFuture.failedFuture(e);
+        }
+        return resultado
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(erro -> {
+                    logger.warn("Dashboard do usuário {}: '{}' indisponível ({})", usuario.getId(), parte, erro.toString());
+                    indisponiveis.add(parte);
+                    return seFalhar;
+                });
+    }
+
+    /**
+     * Executa a consulta em uma transação somente leitura da thread atual, com o filtro de tenant
+     * ativo (o {@link br.com.ellomei.config.TenantFilterAspect} só ativa na sessão da requisição)
+     * e com o tempo que ainda resta até o {@code prazo} como timeout. Se a parte esperou na fila
+     * além do prazo, a página já desistiu dela e o banco nem é consultado.
+     */
+    private <T> T emTransacaoSomenteLeitura(Usuario usuario, long prazo, Supplier<T> consulta) {
+        long restanteMs = TimeUnit.NANOSECONDS.toMillis(prazo - System.nanoTime());
+        if (restanteMs <= 0) {
+            throw new IllegalStateException("tempo máximo esgotado na fila");
+        }
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        // O timeout da transação é em segundos; arredonda para cima para não cortar a parte antes da página
+        transacao.setTimeout((int) Math.ceil(restanteMs / 1000.0));
+        return transacao.execute(status -> {
+            entityManager.unwrap(Session.class).enableFilter("tenantFilter").setParameter("tenantId", usuario.getId());
+            return consulta.get();
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
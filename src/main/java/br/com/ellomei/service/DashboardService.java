@@ -1,37 +1,87 @@
 package br.com.ellomei.service;
 
+import br.com.ellomei.domain.CategoriaDespesa;
 import br.com.ellomei.domain.ChartData;
 import br.com.ellomei.domain.Conta;
-import br.com.ellomei.domain.Lancamento;
-import br.com.ellomei.domain.LancamentoGrupoDTO;
+import br.com.ellomei.domain.Granularidade;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.ResumoMensal;
 import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TextoDeBusca;
 import br.com.ellomei.domain.TipoLancamento;
 import br.com.ellomei.domain.Usuario;
 import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.service.ResumoMensalService.TotalMensal;
+import br.com.ellomei.service.ResumoMensalService.TotalPago;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Pageable;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+/**
+ * Números do dashboard.
+ *
+ * Os totais por período são lidos do resumo mensal ({@link ResumoMensal}), mantido a cada
+ * gravação de lançamento: algumas dezenas de linhas por consulta, independente do tamanho
+ * do histórico. Filtros que o resumo não guarda (contato, período que não começa no dia 1
+ * ou não termina no fim do mês) continuam consultando os lançamentos.
+ *
+ * Os resultados ficam no cache "dashboard" com a versão dos dados do usuário na chave
+ * ({@link VersaoDeDadosService}): abrir o dashboard de novo sem nenhuma gravação no meio
+ * não refaz as consultas. Por isso os valores devolvidos não devem ser alterados.
+ */
 @Service
 public class DashboardService {
 
+    /** Maior período aceito nas séries do fluxo de caixa. */
+    private static final int MAXIMO_ANOS_FLUXO_DE_CAIXA = 5;
+
+    /** Entradas de qualquer conta. */
+    private static final Predicate<TotalMensal> FATURAMENTO_OFICIAL = t -> t.tipo() == TipoLancamento.ENTRADA;
+
+    /** Entradas em contas que não são do tipo "Caixa" (mesma regra de {@link LancamentoService#calcularEntradasBancarias}). */
+    private static final Predicate<TotalMensal> FATURAMENTO_BANCARIO = t -> t.tipo() == TipoLancamento.ENTRADA && t.contaBancaria();
+
+    /** Compras com nota fiscal, base da meta de faturamento. */
+    private static final Predicate<TotalMensal> COMPRAS_COM_NOTA = t -> t.tipo() == TipoLancamento.SAIDA && t.comNotaFiscal();
+
+    /**
+     * Todos os dados dos gráficos e do widget de faturamento da página, calculados juntos.
+     *
+     * @param despesasPorCategoria Mesmo formato de {@link #getDespesasPorCategoria}
+     * @param fluxoDeCaixa Mesmo formato de {@link #getFluxoDeCaixa} (últimos 12 meses)
+     * @param faturamento Mesmo formato de {@link #getFaturamentoWidget}
+     */
+    public record SnapshotDashboard(List<ChartData> despesasPorCategoria, Map<String, List<?>> fluxoDeCaixa,
+                                    Map<String, BigDecimal> faturamento) {
+    }
+
     @Autowired
     private ContaRepository contaRepository;
 
     @Autowired
     private LancamentoService lancamentoService;
 
+    @Autowired
+    private ResumoMensalService resumoMensalService;
+
+    @Autowired
+    private CategoriaDespesaService categoriaDespesaService;
 
+
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
     public BigDecimal getSaldoTotal(Usuario usuario, Long contaId) {
         if (contaId != null) {
             return contaRepository.findById(contaId)
@@ -45,20 +95,59 @@ public class DashboardService {
     }
 
 
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
     public BigDecimal getTotalEntradas(LocalDate dataInicio, LocalDate dataFim, Long contaId, Long contatoId, Usuario usuario) {
         if (dataInicio == null || dataFim == null) {
             YearMonth mesAtual = YearMonth.now();
             dataInicio = mesAtual.atDay(1);
             dataFim = mesAtual.atEndOfMonth();
         }
-        List<LancamentoGrupoDTO> entradasAgrupadas = lancamentoService.buscarComFiltrosAgrupados(
-                dataInicio, dataFim, contaId, contatoId, TipoLancamento.ENTRADA, null, null, null, null, usuario, Pageable.unpaged()
-        ).getContent();
-        return entradasAgrupadas.stream()
-                .map(LancamentoGrupoDTO::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (contatoId == null && cobreMesesInteiros(dataInicio, dataFim)) {
+            List<TotalMensal> totais = resumoMensalService.buscarTotaisPorMes(usuario, YearMonth.from(dataInicio), YearMonth.from(dataFim));
+            return somar(totais, t -> t.tipo() == TipoLancamento.ENTRADA && (contaId == null || contaId.equals(t.contaId())));
+        }
+        return lancamentoService.somarValores(
+                new LancamentoFiltro(dataInicio, dataFim, contaId, contatoId, TipoLancamento.ENTRADA, null, null, null, null), usuario
+        );
+    }
+
+    /**
+     * Totais PAGOS por tipo dentro dos filtros do dashboard, sem carregar lançamentos.
+     *
+     * Sem contato, sem descrição e com datas ausentes ou em meses inteiros, a soma sai do
+     * resumo mensal, inclusive sem filtro de data (todo o histórico); nos demais casos,
+     * de uma soma por tipo nos lançamentos.
+     *
+     * @return Mapa com o total de ENTRADA e de SAIDA (BigDecimal.ZERO quando não houver)
+     */
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
+    public Map<TipoLancamento, BigDecimal> getTotaisPagosPorTipo(LancamentoFiltro filtro, Usuario usuario) {
+        if (!cabeNoResumo(filtro)) {
+            return lancamentoService.somarPagosPorTipo(filtro, usuario);
+        }
+
+        Map<TipoLancamento, BigDecimal> totais = new EnumMap<>(TipoLancamento.class);
+        for (TipoLancamento t : TipoLancamento.values()) {
+            totais.put(t, BigDecimal.ZERO);
+        }
+        if (filtro.getStatus() != null && filtro.getStatus() != StatusLancamento.PAGO) {
+            return totais;
+        }
+
+        YearMonth inicio = filtro.getDataInicio() != null ? YearMonth.from(filtro.getDataInicio()) : null;
+        YearMonth fim = filtro.getDataFim() != null ? YearMonth.from(filtro.getDataFim()) : null;
+        for (TotalPago t : resumoMensalService.buscarTotaisPagos(usuario, inicio, fim)) {
+            if ((filtro.getContaId() == null || filtro.getContaId().equals(t.contaId()))
+                    && (filtro.getTipo() == null || filtro.getTipo() == t.tipo())
+                    && (filtro.getCategoriaId() == null || filtro.getCategoriaId().equals(t.categoriaId()))
+                    && (filtro.getComNotaFiscal() == null || filtro.getComNotaFiscal() == t.comNotaFiscal())) {
+                totais.merge(t.tipo(), t.total(), BigDecimal::add);
+            }
+        }
+        return totais;
     }
 
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
     public List<ChartData> getDespesasPorCategoria(LocalDate dataInicio, LocalDate dataFim, Long contaId, Long contatoId, Long categoriaId, StatusLancamento status, Usuario usuario) {
         if (dataInicio == null || dataFim == null) {
             YearMonth mesAtual = YearMonth.now();
@@ -66,99 +155,295 @@ public class DashboardService {
             dataFim = mesAtual.atEndOfMonth();
         }
 
-        return lancamentoService.buscarDespesasPorCategoria(dataInicio, dataFim, contaId, contatoId, categoriaId, status, usuario);
+        if (contatoId == null && cobreMesesInteiros(dataInicio, dataFim)) {
+            return despesasPorCategoriaDoResumo(buscarResumo(dataInicio, dataFim, usuario), dataInicio, dataFim,
+                    contaId, categoriaId, status, usuario);
+        }
+
+        LancamentoFiltro filtro = new LancamentoFiltro(dataInicio, dataFim, contaId, contatoId, TipoLancamento.SAIDA, categoriaId, null, null, status);
+        return lancamentoService.buscarDespesasPorCategoria(filtro, usuario);
     }
 
-    public Map<String, List<?>> getFluxoDeCaixaUltimos12Meses(Usuario usuario) {
-        Map<String, List<?>> resultado = new HashMap<>();
-        List<String> labels = new ArrayList<>();
-        List<BigDecimal> entradas = new ArrayList<>();
-        List<BigDecimal> saidas = new ArrayList<>();
+    /**
+     * Mesmo resultado de {@link LancamentoService#buscarDespesasPorCategoria}: despesas com categoria,
+     * somadas por nome de categoria, da maior para a menor.
+     *
+     * @param resumo Linhas do resumo que cobrem o período (linhas de outros meses são ignoradas)
+     */
+    private List<ChartData> despesasPorCategoriaDoResumo(List<ResumoMensal> resumo, LocalDate dataInicio, LocalDate dataFim,
+                                                         Long contaId, Long categoriaId, StatusLancamento status, Usuario usuario) {
+        Map<Long, String> nomesDasCategorias = categoriaDespesaService.buscarTodasPorUsuario(usuario).stream()
+                .collect(Collectors.toMap(CategoriaDespesa::getId, CategoriaDespesa::getNome));
+
+        Map<String, BigDecimal> totaisPorNome = new LinkedHashMap<>();
+        for (ResumoMensal r : resumo) {
+            String nome = nomesDasCategorias.get(r.getCategoriaIdOuNulo());
+            if (r.getTipo() != TipoLancamento.SAIDA || nome == null || !noPeriodo(r, dataInicio, dataFim)
+                    || (contaId != null && !contaId.equals(r.getContaId()))
+                    || (categoriaId != null && !categoriaId.equals(r.getCategoriaId()))
+                    || (status != null && status != r.getStatus())) {
+                continue;
+            }
+            totaisPorNome.merge(nome, r.getTotal(), BigDecimal::add);
+        }
 
-        LocalDate hoje = LocalDate.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM/yy");
+        return totaisPorNome.entrySet().stream()
+                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
+                .map(e -> new ChartData(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
 
-        for (int i = 11; i >= 0; i--) {
-            YearMonth mes = YearMonth.from(hoje.minusMonths(i));
-            labels.add(mes.format(formatter));
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
+    public Map<String, List<?>> getFluxoDeCaixaUltimos12Meses(Usuario usuario) {
+        return getFluxoDeCaixa(inicioDoFluxoPadrao(), fimDoFluxoPadrao(), Granularidade.MES, usuario);
+    }
 
-            LocalDate inicioDoMes = mes.atDay(1);
-            LocalDate fimDoMes = mes.atEndOfMonth();
+    /**
+     * Série de entradas e saídas PAGAS por período (semana, mês ou trimestre).
+     *
+     * Sai de uma única consulta agregada: meses inteiros por mês ou trimestre vêm do resumo mensal;
+     * semanas e períodos quebrados, da soma por dia e tipo dos lançamentos. Períodos sem
+     * movimentação aparecem com zero.
+     *
+     * @param dataInicio Início do período (null = últimos 12 meses)
+     * @param dataFim Fim do período (null = últimos 12 meses)
+     * @param granularidade Tamanho de cada ponto da série
+     * @return Mapa com "labels", "entradas" e "saidas", na ordem dos períodos
+     * @throws IllegalArgumentException se o período for invertido ou maior que {@value #MAXIMO_ANOS_FLUXO_DE_CAIXA} anos
+     */
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
+    public Map<String, List<?>> getFluxoDeCaixa(LocalDate dataInicio, LocalDate dataFim, Granularidade granularidade, Usuario usuario) {
+        if (dataInicio == null || dataFim == null) {
+            dataInicio = inicioDoFluxoPadrao();
+            dataFim = fimDoFluxoPadrao();
+        }
+        if (dataFim.isBefore(dataInicio)) {
+            throw new IllegalArgumentException("A data final não pode ser anterior à data inicial.");
+        }
+        if (dataFim.isAfter(dataInicio.plusYears(MAXIMO_ANOS_FLUXO_DE_CAIXA))) {
+            throw new IllegalArgumentException("O período do fluxo de caixa pode ter no máximo " + MAXIMO_ANOS_FLUXO_DE_CAIXA + " anos.");
+        }
 
-            BigDecimal totalEntradas = lancamentoService.buscarComFiltrosAgrupados(
-                    inicioDoMes, fimDoMes, null, null, TipoLancamento.ENTRADA, null, null, null, StatusLancamento.PAGO, usuario, Pageable.unpaged()
-            ).getContent().stream()
-                    .map(LancamentoGrupoDTO::getValorTotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<ResumoMensal> resumo = fluxoCabeNoResumo(dataInicio, dataFim, granularidade) ? buscarResumo(dataInicio, dataFim, usuario) : null;
+        return fluxoDeCaixa(resumo, dataInicio, dataFim, granularidade, usuario);
+    }
 
-            BigDecimal totalSaidas = lancamentoService.buscarComFiltrosAgrupados(
-                    inicioDoMes, fimDoMes, null, null, TipoLancamento.SAIDA, null, null, null, StatusLancamento.PAGO, usuario, Pageable.unpaged()
-            ).getContent().stream()
-                    .map(LancamentoGrupoDTO::getValorTotal)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Monta a série do fluxo de caixa de um período já validado.
+     *
+     * @param resumo Linhas do resumo que cobrem o período, ou null para somar os lançamentos por dia
+     */
+    private Map<String, List<?>> fluxoDeCaixa(List<ResumoMensal> resumo, LocalDate dataInicio, LocalDate dataFim,
+                                              Granularidade granularidade, Usuario usuario) {
+        // Um ponto por período, mesmo sem movimentação
+        Map<LocalDate, BigDecimal> entradas = new LinkedHashMap<>();
+        Map<LocalDate, BigDecimal> saidas = new LinkedHashMap<>();
+        for (LocalDate inicio = granularidade.inicioDoPeriodo(dataInicio); !inicio.isAfter(dataFim); inicio = granularidade.proximoPeriodo(inicio)) {
+            entradas.put(inicio, BigDecimal.ZERO);
+            saidas.put(inicio, BigDecimal.ZERO);
+        }
 
-            entradas.add(totalEntradas);
-            saidas.add(totalSaidas);
+        if (resumo != null) {
+            for (ResumoMensal r : resumo) {
+                if (r.getStatus() == StatusLancamento.PAGO && noPeriodo(r, dataInicio, dataFim)) {
+                    Map<LocalDate, BigDecimal> serie = r.getTipo() == TipoLancamento.ENTRADA ? entradas : saidas;
+                    serie.merge(granularidade.inicioDoPeriodo(r.getMes()), r.getTotal(), BigDecimal::add);
+                }
+            }
+        } else {
+            for (Object[] linha : lancamentoService.somarPagosPorDia(dataInicio, dataFim, usuario)) {
+                Map<LocalDate, BigDecimal> serie = linha[1] == TipoLancamento.ENTRADA ? entradas : saidas;
+                serie.merge(granularidade.inicioDoPeriodo((LocalDate) linha[0]), (BigDecimal) linha[2], BigDecimal::add);
+            }
         }
 
-        resultado.put("labels", labels);
-        resultado.put("entradas", entradas);
-        resultado.put("saidas", saidas);
+        Map<String, List<?>> resultado = new HashMap<>();
+        resultado.put("labels", entradas.keySet().stream().map(granularidade::rotulo).collect(Collectors.toList()));
+        resultado.put("entradas", new ArrayList<>(entradas.values()));
+        resultado.put("saidas", new ArrayList<>(saidas.values()));
         return resultado;
     }
 
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
     public BigDecimal getFaturamentoOficial(int ano, Usuario usuario) {
-        LocalDate inicioDoAno = LocalDate.of(ano, 1, 1);
-        LocalDate fimDoAno = LocalDate.of(ano, 12, 31);
-        List<LancamentoGrupoDTO> entradas = lancamentoService.buscarComFiltrosAgrupados(
-                inicioDoAno, fimDoAno, null, null, TipoLancamento.ENTRADA, null, null, null, null, usuario, Pageable.unpaged()
-        ).getContent();
-        return entradas.stream()
-                .map(LancamentoGrupoDTO::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return somar(totaisDoAno(ano, usuario), FATURAMENTO_OFICIAL);
     }
 
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
     public BigDecimal getFaturamentoBancario(int ano, Usuario usuario) {
-        LocalDate inicioDoAno = LocalDate.of(ano, 1, 1);
-        LocalDate fimDoAno = LocalDate.of(ano, 12, 31);
-        return lancamentoService.calcularEntradasBancarias(inicioDoAno, fimDoAno, usuario);
+        return somar(totaisDoAno(ano, usuario), FATURAMENTO_BANCARIO);
     }
 
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
     public BigDecimal getFaturamentoBancarioMesAtual(Usuario usuario) {
         YearMonth mesAtual = YearMonth.now();
-        LocalDate inicioDoMes = mesAtual.atDay(1);
-        LocalDate fimDoMes = mesAtual.atEndOfMonth();
-        return lancamentoService.calcularEntradasBancarias(inicioDoMes, fimDoMes, usuario);
+        return somar(resumoMensalService.buscarTotaisPorMes(usuario, mesAtual, mesAtual), FATURAMENTO_BANCARIO);
     }
 
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
     public BigDecimal getMetaFaturamentoBaseadoEmCustos(int ano, Usuario usuario) {
-        LocalDate inicioDoAno = LocalDate.of(ano, 1, 1);
-        LocalDate fimDoAno = LocalDate.of(ano, 12, 31);
-        List<LancamentoGrupoDTO> comprasComNota = lancamentoService.buscarComFiltrosAgrupados(
-                inicioDoAno, fimDoAno, null, null, TipoLancamento.SAIDA, null, true, null, null, usuario, Pageable.unpaged()
-        ).getContent();
-        BigDecimal totalComprasComNota = comprasComNota.stream()
-                .map(LancamentoGrupoDTO::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        if (totalComprasComNota.equals(BigDecimal.ZERO)) {
-            return BigDecimal.ZERO;
-        }
-        return totalComprasComNota.divide(new BigDecimal("0.8"), 2, RoundingMode.HALF_UP);
+        return metaBaseadaEmCustos(somar(totaisDoAno(ano, usuario), COMPRAS_COM_NOTA));
     }
 
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
     public BigDecimal getMetaFaturamentoBaseadoEmCustosMensal(Usuario usuario) {
         YearMonth mesAtual = YearMonth.now();
-        LocalDate inicioDoMes = mesAtual.atDay(1);
-        LocalDate fimDoMes = mesAtual.atEndOfMonth();
-        List<LancamentoGrupoDTO> comprasComNota = lancamentoService.buscarComFiltrosAgrupados(
-                inicioDoMes, fimDoMes, null, null, TipoLancamento.SAIDA, null, true, null, null, usuario, Pageable.unpaged()
-        ).getContent();
-        BigDecimal totalComprasComNota = comprasComNota.stream()
-                .map(LancamentoGrupoDTO::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        if (totalComprasComNota.equals(BigDecimal.ZERO)) {
+        return metaBaseadaEmCustos(somar(resumoMensalService.buscarTotaisPorMes(usuario, mesAtual, mesAtual), COMPRAS_COM_NOTA));
+    }
+
+    /**
+     * Dados do widget de faturamento (ano e mês atuais) a partir de uma única consulta aos
+     * totais do ano: o valor do mês é a parte do ano que cai no mês atual.
+     *
+     * @param tipoCalculo "BANCARIO", "ESTIMADO_CUSTOS" ou "OFICIAL" (qualquer outro valor)
+     * @return Mapa com "faturamentoAnual" e "faturamentoMensal"
+     */
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
+    public Map<String, BigDecimal> getFaturamentoWidget(String tipoCalculo, Usuario usuario) {
+        return faturamentoWidget(tipoCalculo, totaisDoAno(YearMonth.now().getYear(), usuario));
+    }
+
+    private Map<String, BigDecimal> faturamentoWidget(String tipoCalculo, List<TotalMensal> totaisDoAno) {
+        LocalDate inicioDoMes = YearMonth.now().atDay(1);
+
+        Predicate<TotalMensal> filtro = switch (tipoCalculo) {
+            case "BANCARIO" -> FATURAMENTO_BANCARIO;
+            case "ESTIMADO_CUSTOS" -> COMPRAS_COM_NOTA;
+            default -> FATURAMENTO_OFICIAL;
+        };
+        BigDecimal anual = somar(totaisDoAno, filtro);
+        BigDecimal mensal = somar(totaisDoAno, filtro.and(t -> t.mes().equals(inicioDoMes)));
+        if ("ESTIMADO_CUSTOS".equals(tipoCalculo)) {
+            anual = metaBaseadaEmCustos(anual);
+            mensal = metaBaseadaEmCustos(mensal);
+        }
+
+        Map<String, BigDecimal> widget = new HashMap<>();
+        widget.put("faturamentoAnual", anual);
+        widget.put("faturamentoMensal", mensal);
+        return widget;
+    }
+
+    /**
+     * Dados dos gráficos e do widget de faturamento da página em uma só chamada.
+     *
+     * O resumo mensal é lido uma vez, cobrindo o ano atual, os últimos 12 meses do fluxo de
+     * caixa e o período das despesas; as três partes saem dessas mesmas linhas. Partes com
+     * filtros que o resumo não guarda (contato, semana, período quebrado) consultam os
+     * lançamentos, como nos métodos individuais.
+     *
+     * @param filtro Filtros das despesas por categoria (sem datas = mês atual)
+     * @param granularidade Granularidade do fluxo de caixa dos últimos 12 meses
+     * @param tipoCalculo Tipo de cálculo do widget de faturamento
+     */
+    @Cacheable(cacheNames = "dashboard", keyGenerator = "chaveComVersaoDeDados")
+    public SnapshotDashboard getSnapshot(LancamentoFiltro filtro, Granularidade granularidade, String tipoCalculo, Usuario usuario) {
+        YearMonth mesAtual = YearMonth.now();
+        LocalDate despesasInicio = filtro.getDataInicio();
+        LocalDate despesasFim = filtro.getDataFim();
+        if (despesasInicio == null || despesasFim == null) {
+            despesasInicio = mesAtual.atDay(1);
+            despesasFim = mesAtual.atEndOfMonth();
+        }
+        LocalDate fluxoInicio = inicioDoFluxoPadrao();
+        LocalDate fluxoFim = fimDoFluxoPadrao();
+        boolean despesasDoResumo = filtro.getContatoId() == null && cobreMesesInteiros(despesasInicio, despesasFim);
+        boolean fluxoDoResumo = fluxoCabeNoResumo(fluxoInicio, fluxoFim, granularidade);
+
+        // Uma única leitura do resumo para as partes que o usam
+        YearMonth inicio = YearMonth.of(mesAtual.getYear(), 1);
+        YearMonth fim = YearMonth.of(mesAtual.getYear(), 12);
+        if (fluxoDoResumo && YearMonth.from(fluxoInicio).isBefore(inicio)) {
+            inicio = YearMonth.from(fluxoInicio);
+        }
+        if (despesasDoResumo) {
+            inicio = YearMonth.from(despesasInicio).isBefore(inicio) ? YearMonth.from(despesasInicio) : inicio;
+            fim = YearMonth.from(despesasFim).isAfter(fim) ? YearMonth.from(despesasFim) : fim;
+        }
+        List<ResumoMensal> resumo = resumoMensalService.buscarPorPeriodo(usuario, inicio, fim);
+
+        List<ChartData> despesasPorCategoria = despesasDoResumo
+                ? despesasPorCategoriaDoResumo(resumo, despesasInicio, despesasFim, filtro.getContaId(), filtro.getCategoriaId(), filtro.getStatus(), usuario)
+                : lancamentoService.buscarDespesasPorCategoria(new LancamentoFiltro(despesasInicio, despesasFim, filtro.getContaId(),
+                        filtro.getContatoId(), TipoLancamento.SAIDA, filtro.getCategoriaId(), null, null, filtro.getStatus()), usuario);
+
+        Map<String, List<?>> fluxoDeCaixa = fluxoDeCaixa(fluxoDoResumo ? resumo : null, fluxoInicio, fluxoFim, granularidade, usuario);
+
+        LocalDate inicioDoAno = LocalDate.of(mesAtual.getYear(), 1, 1);
+        LocalDate fimDoAno = LocalDate.of(mesAtual.getYear(), 12, 31);
+        List<ResumoMensal> resumoDoAno = resumo.stream().filter(r -> noPeriodo(r, inicioDoAno, fimDoAno)).collect(Collectors.toList());
+        Map<String, BigDecimal> faturamento = faturamentoWidget(tipoCalculo,
+                resumoMensalService.totaisPorMes(resumoDoAno, contaRepository.findByUsuario(usuario)));
+
+        return new SnapshotDashboard(despesasPorCategoria, fluxoDeCaixa, faturamento);
+    }
+
+    private static LocalDate inicioDoFluxoPadrao() {
+        return YearMonth.now().minusMonths(11).atDay(1);
+    }
+
+    private static LocalDate fimDoFluxoPadrao() {
+        return YearMonth.now().atEndOfMonth();
+    }
+
+    /**
+     * Semanas não batem com meses: só mês ou trimestre de meses inteiros vêm do resumo.
+     */
+    private boolean fluxoCabeNoResumo(LocalDate dataInicio, LocalDate dataFim, Granularidade granularidade) {
+        return granularidade != Granularidade.SEMANA && cobreMesesInteiros(dataInicio, dataFim);
+    }
+
+    /**
+     * A linha do resumo é de um mês que cai entre as duas datas.
+     */
+    private static boolean noPeriodo(ResumoMensal r, LocalDate dataInicio, LocalDate dataFim) {
+        return !r.getMes().isBefore(dataInicio.withDayOfMonth(1)) && !r.getMes().isAfter(dataFim);
+    }
+
+    private List<TotalMensal> totaisDoAno(int ano, Usuario usuario) {
+        return resumoMensalService.buscarTotaisPorMes(usuario, YearMonth.of(ano, 1), YearMonth.of(ano, 12));
+    }
+
+    /**
+     * Meta de faturamento: compras com nota fiscal no período divididas por 0,8.
+     */
+    private BigDecimal metaBaseadaEmCustos(BigDecimal totalComprasComNota) {
+        if (totalComprasComNota.signum() == 0) {
             return BigDecimal.ZERO;
         }
         return totalComprasComNota.divide(new BigDecimal("0.8"), 2, RoundingMode.HALF_UP);
     }
+
+    /**
+     * O resumo guarda meses inteiros: só serve se o período vai do dia 1 ao último dia de um mês.
+     */
+    private boolean cobreMesesInteiros(LocalDate dataInicio, LocalDate dataFim) {
+        return dataInicio.getDayOfMonth() == 1
+                && dataFim.equals(YearMonth.from(dataFim).atEndOfMonth())
+                && !dataFim.isBefore(dataInicio);
+    }
+
+    /**
+     * Filtros que o resumo guarda: sem contato, sem descrição e com cada data ausente
+     * ou na borda de um mês (início no dia 1, fim no último dia).
+     */
+    private boolean cabeNoResumo(LancamentoFiltro filtro) {
+        LocalDate dataInicio = filtro.getDataInicio();
+        LocalDate dataFim = filtro.getDataFim();
+        return filtro.getContatoId() == null
+                && TextoDeBusca.termos(filtro.getDescricao()).isEmpty()
+                && (dataInicio == null || dataInicio.getDayOfMonth() == 1)
+                && (dataFim == null || dataFim.equals(YearMonth.from(dataFim).atEndOfMonth()));
+    }
+
+    private List<ResumoMensal> buscarResumo(LocalDate dataInicio, LocalDate dataFim, Usuario usuario) {
+        return resumoMensalService.buscarPorPeriodo(usuario, YearMonth.from(dataInicio), YearMonth.from(dataFim));
+    }
+
+    private BigDecimal somar(List<TotalMensal> totais, Predicate<TotalMensal> filtro) {
+        return totais.stream()
+                .filter(filtro)
+                .map(TotalMensal::total)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
\ No newline at end of file
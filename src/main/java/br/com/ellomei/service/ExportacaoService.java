@@ -0,0 +1,200 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.LancamentoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de exportação do livro-caixa do usuário (CSV e OFX).
+ *
+ * As exportações são escritas direto na resposta HTTP enquanto os lançamentos são lidos
+ * por um cursor do banco ({@link LancamentoRepository#streamComFiltros}). Cada lançamento é
+ * desanexado do contexto de persistência logo depois de escrito, então a memória usada não
+ * depende do período exportado (exportações de vários anos para a contabilidade).
+ *
+ * No MySQL o cursor é o result set em streaming do Connector/J (fetch size
+ * {@code Integer.MIN_VALUE}), ligado só nestas consultas: as demais continuam lendo o
+ * resultado inteiro, como antes. Enquanto o streaming está aberto a conexão não executa
+ * outras consultas, por isso tudo o que é escrito vem do entity graph da listagem.
+ *
+ * Células de CSV que o Excel interpretaria como fórmula são prefixadas com aspas simples
+ * (ver {@link #campoCsv(String)}).
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Service
+public class ExportacaoService {
+
+    /** Linhas trazidas do banco a cada ida ao cursor (bancos que respeitam o fetch size). */
+    private static final int FETCH_SIZE = 500;
+
+    /** Fetch size que liga o result set em streaming do Connector/J (MySQL). */
+    private static final int FETCH_SIZE_STREAMING_MYSQL = Integer.MIN_VALUE;
+
+    /** Primeiros caracteres com que o Excel trata uma célula como fórmula. */
+    private static final String INICIO_DE_FORMULA = "=+-@\t\r";
+
+    private static final DateTimeFormatter DATA_CSV = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATA_OFX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter DATA_HORA_OFX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private int fetchSize = FETCH_SIZE;
+
+    @PostConstruct
+    public void definirFetchSize() {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        if (dialect instanceof MySQLDialect) {
+            fetchSize = FETCH_SIZE_STREAMING_MYSQL;
+        }
+    }
+
+    /**
+     * Exporta os lançamentos em CSV (separador ";", decimal com vírgula, datas dd/MM/yyyy),
+     * o formato que o Excel em português abre sem configuração.
+     */
+    @Transactional(readOnly = true)
+    public void exportarCsv(LancamentoFiltro filtro, Usuario usuario, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        // BOM: sem ele o Excel abre o arquivo como ANSI e quebra os acentos
+        writer.write('\uFEFF');
+        writer.write("Data;Descrição;Tipo;Status;Valor;Conta;Categoria;Contato;Nota Fiscal;Operação\r\n");
+
+        try (Stream<Lancamento> lancamentos = lancamentoRepository.streamComFiltros(filtro, usuario, fetchSize)) {
+            Iterator<Lancamento> iterator = lancamentos.iterator();
+            while (iterator.hasNext()) {
+                Lancamento lancamento = iterator.next();
+                writer.write(String.join(";",
+                        lancamento.getData().format(DATA_CSV),
+                        campoCsv(lancamento.getDescricao()),
+                        lancamento.getTipo().name(),
+                        lancamento.getStatus().name(),
+                        lancamento.getValor().setScale(2, RoundingMode.HALF_UP).toPlainString().replace('.', ','),
+                        campoCsv(lancamento.getConta() != null ? lancamento.getConta().getNomeConta() : null),
+                        campoCsv(lancamento.getCategoriaDespesa() != null ? lancamento.getCategoriaDespesa().getNome() : null),
+                        campoCsv(lancamento.getContato() != null ? lancamento.getContato().getNomeExibicao() : null),
+                        Boolean.TRUE.equals(lancamento.getComNotaFiscal()) ? "Sim" : "Não",
+                        campoCsv(lancamento.getGrupoOperacao())));
+                writer.write("\r\n");
+                entityManager.detach(lancamento);
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Exporta os lançamentos PAGOS de uma conta como extrato OFX 1.02 (SGML), o formato
+     * importado pelos sistemas contábeis e de conciliação bancária.
+     *
+     * Um extrato OFX descreve uma única conta; entradas saem como crédito e saídas como débito
+     * (valor negativo). Os demais filtros (período, categoria, descrição...) são respeitados.
+     */
+    @Transactional(readOnly = true)
+    public void exportarOfx(LancamentoFiltro filtro, Conta conta, Usuario usuario, OutputStream saida) throws IOException {
+        LancamentoFiltro filtroDaConta = new LancamentoFiltro(filtro.getDataInicio(), filtro.getDataFim(), conta.getId(),
+                filtro.getContatoId(), filtro.getTipo(), filtro.getCategoriaId(), filtro.getComNotaFiscal(),
+                filtro.getDescricao(), StatusLancamento.PAGO);
+        LocalDate dataInicio = filtro.getDataInicio() != null ? filtro.getDataInicio() : LocalDate.EPOCH;
+        LocalDate dataFim = filtro.getDataFim() != null ? filtro.getDataFim() : LocalDate.now();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        writer.write("OFXHEADER:100\r\nDATA:OFXSGML\r\nVERSION:102\r\nSECURITY:NONE\r\nENCODING:UTF-8\r\n"
+                + "CHARSET:NONE\r\nCOMPRESSION:NONE\r\nOLDFILEUID:NONE\r\nNEWFILEUID:NONE\r\n\r\n");
+        writer.write("<OFX>\r\n");
+        writer.write("<SIGNONMSGSRSV1><SONRS><STATUS><CODE>0<SEVERITY>INFO</STATUS>"
+                + "<DTSERVER>" + LocalDateTime.now().format(DATA_HORA_OFX) + "<LANGUAGE>POR</SONRS></SIGNONMSGSRSV1>\r\n");
+        writer.write("<BANKMSGSRSV1><STMTTRNRS><TRNUID>1<STATUS><CODE>0<SEVERITY>INFO</STATUS>\r\n");
+        writer.write("<STMTRS><CURDEF>BRL\r\n");
+        writer.write("<BANKACCTFROM><BANKID>0000<ACCTID>" + conta.getId() + "<ACCTTYPE>CHECKING</BANKACCTFROM>\r\n");
+        writer.write("<BANKTRANLIST><DTSTART>" + dataInicio.format(DATA_OFX) + "<DTEND>" + dataFim.format(DATA_OFX) + "\r\n");
+
+        try (Stream<Lancamento> lancamentos = lancamentoRepository.streamComFiltros(filtroDaConta, usuario, fetchSize)) {
+            Iterator<Lancamento> iterator = lancamentos.iterator();
+            while (iterator.hasNext()) {
+                Lancamento lancamento = iterator.next();
+                boolean entrada = lancamento.getTipo() == TipoLancamento.ENTRADA;
+                BigDecimal valor = lancamento.getValor().setScale(2, RoundingMode.HALF_UP);
+                writer.write("<STMTTRN><TRNTYPE>" + (entrada ? "CREDIT" : "DEBIT")
+                        + "<DTPOSTED>" + lancamento.getData().format(DATA_OFX)
+                        + "<TRNAMT>" + (entrada ? valor : valor.negate()).toPlainString()
+                        + "<FITID>" + lancamento.getId()
+                        + "<MEMO>" + textoOfx(lancamento.getDescricao())
+                        + "</STMTTRN>\r\n");
+                entityManager.detach(lancamento);
+            }
+        }
+
+        writer.write("</BANKTRANLIST>\r\n");
+        writer.write("<LEDGERBAL><BALAMT>" + conta.getSaldoAtual().setScale(2, RoundingMode.HALF_UP).toPlainString()
+                + "<DTASOF>" + LocalDateTime.now().format(DATA_HORA_OFX) + "</LEDGERBAL>\r\n");
+        writer.write("</STMTRS></STMTTRNRS></BANKMSGSRSV1>\r\n</OFX>\r\n");
+        writer.flush();
+    }
+
+    /**
+     * Campo de CSV: entre aspas (com aspas internas duplicadas) quando contém separador,
+     * aspas ou quebra de linha.
+     *
+     * Texto livre que começa com =, +, -, @, tab ou CR é prefixado com ' para que o Excel o
+     * mostre como texto em vez de executá-lo como fórmula (injeção de fórmula em CSV).
+     */
+    private String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (!valor.isEmpty() && INICIO_DE_FORMULA.indexOf(valor.charAt(0)) >= 0) {
+            valor = "'" + valor;
+        }
+        if (valor.contains(";") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+
+    /**
+     * Texto livre em OFX SGML: sem quebras de linha e com os caracteres de marcação escapados.
+     */
+    private String textoOfx(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        return valor.replaceAll("[\\r\\n]+", " ")
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+}
@@ -75,6 +75,33 @@ public class FileStorageService {
         return generatedFiles;
     }
 
+    /**
+     * Copia para o armazenamento um arquivo já gravado em disco (ex.: temporário de uma importação).
+     *
+     * @return Nome único do arquivo gravado
+     */
+    public String storeFile(Path source, String originalFileName) {
+        String fileName = StringUtils.cleanPath(Paths.get(originalFileName).getFileName().toString());
+        String uniqueFileName = UUID.randomUUID().toString() + "_" + fileName;
+        try {
+            Files.copy(source, this.fileStorageLocation.resolve(uniqueFileName), StandardCopyOption.REPLACE_EXISTING);
+            return uniqueFileName;
+        } catch (IOException ex) {
+            throw new RuntimeException("Não foi possível armazenar o arquivo " + fileName, ex);
+        }
+    }
+
+    /**
+     * Remove um arquivo do armazenamento; arquivos inexistentes são ignorados.
+     */
+    public void deleteFile(String fileName) {
+        try {
+            Files.deleteIfExists(this.fileStorageLocation.resolve(fileName).normalize());
+        } catch (IOException ex) {
+            throw new RuntimeException("Não foi possível remover o arquivo " + fileName, ex);
+        }
+    }
+
     public Path getFileStorageLocation() {
         return this.fileStorageLocation;
     }
@@ -0,0 +1,465 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.config.PlanLimitAspect;
+import br.com.ellomei.domain.*;
+import br.com.ellomei.exception.PlanLimitExceededException;
+import br.com.ellomei.repository.ContatoRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.service.importacao.LeitorCsv;
+import br.com.ellomei.service.importacao.LeitorDeExtrato;
+import br.com.ellomei.service.importacao.LeitorNFe;
+import br.com.ellomei.service.importacao.LeitorOfx;
+import br.com.ellomei.service.importacao.LinhaDeExtrato;
+import br.com.ellomei.service.importacao.NotaFiscalEletronica;
+import br.com.ellomei.service.importacao.ResultadoImportacao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Serviço de importação de extratos bancários (OFX e CSV) e de notas fiscais eletrônicas
+ * (XML de NF-e, avulso ou em ZIP) para uma conta.
+ *
+ * Os arquivos são lidos de forma sequencial, as movimentações já lançadas na conta são
+ * ignoradas e as novas são gravadas com {@link LancamentoService#salvarEmLote}:
+ * INSERTs em lote e um único ajuste de saldo por importação.
+ */
+@Service
+public class ImportacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoService.class);
+
+    private static final int TAMANHO_MAXIMO_DESCRICAO = 100;
+    private static final int TAMANHO_MINIMO_DESCRICAO = 3;
+
+    /** Limites de um envio de notas: protegem memória e disco contra arquivos ZIP desproporcionais. */
+    private static final int MAXIMO_NOTAS_POR_ENVIO = 2000;
+    private static final int TAMANHO_MAXIMO_XML = 2 * 1024 * 1024;
+    private static final long TAMANHO_MAXIMO_ENVIO = 100L * 1024 * 1024;
+
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private ContaService contaService;
+    @Autowired private ContatoService contatoService;
+    @Autowired private ContatoRepository contatoRepository;
+    @Autowired private FileStorageService fileStorageService;
+
+    /**
+     * Nota já lida; o XML fica num arquivo temporário até a nota ser lançada (vira o comprovante).
+     */
+    private record XmlDaNota(NotaFiscalEletronica nota, String nomeArquivo, Path arquivo) { }
+
+    /**
+     * Notas lidas em um envio. Só uma nota por vez fica em memória: cada XML é gravado num
+     * arquivo temporário assim que lido, e os temporários são apagados ao fechar.
+     */
+    private static final class NotasDoEnvio implements AutoCloseable {
+        private final List<XmlDaNota> xmls = new ArrayList<>();
+        private long bytesLidos;
+
+        @Override
+        public void close() {
+            for (XmlDaNota xml : xmls) {
+                try {
+                    Files.deleteIfExists(xml.arquivo());
+                } catch (IOException e) {
+                    logger.warn("Não foi possível apagar o temporário {}: {}", xml.arquivo(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Importa um extrato para a conta informada.
+     *
+     * Cada movimentação vira um lançamento PAGO com grupo de operação próprio (entrada para
+     * créditos, saída para débitos). Uma movimentação é considerada já lançada quando existe
+     * na conta um lançamento com a mesma data, tipo, valor e descrição (sem diferenciar acentos
+     * e pontuação); reimportar o mesmo arquivo, portanto, não duplica nada.
+     *
+     * @param entrada Conteúdo do arquivo
+     * @param nomeArquivo Nome original, usado para escolher o formato pela extensão
+     * @param contaId Conta de destino
+     * @param usuario Usuário proprietário da conta
+     * @return Quantidades importadas, já existentes e descartadas
+     * @throws IllegalArgumentException se o formato não for suportado ou o arquivo for inválido
+     * @throws PlanLimitExceededException se a importação ultrapassar o limite do plano FREE
+     */
+    @Transactional
+    public ResultadoImportacao importarExtrato(InputStream entrada, String nomeArquivo, Long contaId, Usuario usuario) throws IOException {
+        Conta conta = contaService.buscarPorIds(List.of(contaId), usuario).get(contaId);
+        LeitorDeExtrato leitor = escolherLeitor(nomeArquivo);
+
+        List<Lancamento> lidos = new ArrayList<>();
+        int descartadas = leitor.ler(entrada, linha -> lidos.add(criarLancamento(linha, conta, usuario)));
+        if (lidos.isEmpty()) {
+            return new ResultadoImportacao(0, 0, descartadas);
+        }
+
+        List<Lancamento> novos = removerJaLancados(lidos, conta, usuario);
+        verificarLimiteDoPlano(novos, usuario);
+
+        lancamentoService.salvarEmLote(novos, usuario);
+        logger.info("Extrato {} importado para a conta {}: {} novos, {} já existentes, {} descartados",
+                nomeArquivo, contaId, novos.size(), lidos.size() - novos.size(), descartadas);
+        return new ResultadoImportacao(novos.size(), lidos.size() - novos.size(), descartadas);
+    }
+
+    /**
+     * Importa notas fiscais eletrônicas (arquivos .xml ou .zip com vários XMLs) para a conta informada.
+     *
+     * Cada nota vira um lançamento com nota fiscal e grupo de operação próprio: ENTRADA quando
+     * o emitente é o próprio MEI (venda) e SAIDA quando ele é o destinatário (compra). Sem CNPJ
+     * no perfil, toda nota é tratada como compra. A outra parte é associada ao contato de mesmo
+     * CNPJ/CPF ou cadastrada automaticamente, e o XML fica anexado como comprovante.
+     * Notas repetidas (no envio ou já lançadas na conta) são ignoradas.
+     *
+     * Os XMLs só são copiados para o armazenamento depois de todas as validações; se a
+     * transação for desfeita, as cópias são apagadas.
+     *
+     * @param arquivos XMLs de NF-e e/ou arquivos ZIP contendo XMLs
+     * @param contaId Conta de destino
+     * @param pagas Se as notas já foram pagas/recebidas; caso contrário ficam A_PAGAR/A_RECEBER
+     * @param usuario Usuário proprietário da conta
+     * @return Quantidades importadas, já existentes e descartadas
+     * @throws IllegalArgumentException se algum arquivo não for .xml nem .zip, ou o envio passar dos limites
+     * @throws PlanLimitExceededException se a importação ultrapassar o limite do plano FREE
+     */
+    @Transactional
+    public ResultadoImportacao importarNotasFiscais(MultipartFile[] arquivos, Long contaId, boolean pagas, Usuario usuario) throws IOException {
+        Conta conta = contaService.buscarPorIds(List.of(contaId), usuario).get(contaId);
+        LeitorNFe leitor = new LeitorNFe();
+
+        try (NotasDoEnvio envio = new NotasDoEnvio()) {
+            int descartadas = 0;
+            for (MultipartFile arquivo : arquivos) {
+                if (arquivo == null || arquivo.isEmpty()) {
+                    continue;
+                }
+                String nome = arquivo.getOriginalFilename() == null ? "" : arquivo.getOriginalFilename();
+                try (InputStream entrada = arquivo.getInputStream()) {
+                    descartadas += lerArquivoDeNotas(entrada, nome, leitor, envio);
+                }
+            }
+
+            String cnpjDoMei = NotaFiscalEletronica.apenasDigitos(usuario.getCnpj());
+            Set<String> chavesLidas = new HashSet<>();
+            List<Lancamento> lidos = new ArrayList<>();
+            Map<Lancamento, XmlDaNota> xmlPorLancamento = new IdentityHashMap<>();
+            int repetidas = 0;
+            for (XmlDaNota xml : envio.xmls) {
+                NotaFiscalEletronica nota = xml.nota();
+                if (nota.getChave() != null && !chavesLidas.add(nota.getChave())) {
+                    repetidas++;
+                    continue;
+                }
+                TipoLancamento tipo = tipoDaNota(nota, cnpjDoMei);
+                if (tipo == null) {
+                    descartadas++;
+                    continue;
+                }
+                Lancamento lancamento = criarLancamento(nota, tipo, pagas, conta, usuario);
+                lidos.add(lancamento);
+                xmlPorLancamento.put(lancamento, xml);
+            }
+            if (lidos.isEmpty()) {
+                return new ResultadoImportacao(0, repetidas, descartadas);
+            }
+
+            List<Lancamento> novos = removerJaLancados(lidos, conta, usuario);
+            verificarLimiteDoPlano(novos, usuario);
+
+            Map<String, Contato> contatosPorDocumento = carregarContatosPorDocumento(usuario);
+            List<String> armazenados = new ArrayList<>();
+            apagarSeDesfeita(armazenados);
+            for (Lancamento lancamento : novos) {
+                XmlDaNota xml = xmlPorLancamento.get(lancamento);
+                NotaFiscalEletronica.Parte parte = lancamento.getTipo() == TipoLancamento.ENTRADA
+                        ? xml.nota().getDestinatario() : xml.nota().getEmitente();
+                lancamento.setContato(buscarOuCriarContato(parte, contatosPorDocumento, usuario));
+
+                Comprovante comprovante = new Comprovante();
+                comprovante.setPathArquivo(fileStorageService.storeFile(xml.arquivo(), xml.nomeArquivo()));
+                armazenados.add(comprovante.getPathArquivo());
+                comprovante.setLancamento(lancamento);
+                lancamento.getComprovantes().add(comprovante);
+            }
+
+            lancamentoService.salvarEmLote(novos, usuario);
+            int duplicadas = repetidas + lidos.size() - novos.size();
+            logger.info("{} nota(s) fiscal(is) importada(s) para a conta {}: {} já existentes, {} descartadas",
+                    novos.size(), contaId, duplicadas, descartadas);
+            return new ResultadoImportacao(novos.size(), duplicadas, descartadas);
+        }
+    }
+
+    /**
+     * Apaga do armazenamento os XMLs copiados se a transação da importação não for confirmada,
+     * para não deixar arquivos sem comprovante. A lista pode ser preenchida depois do registro.
+     */
+    private void apagarSeDesfeita(List<String> armazenados) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                for (String arquivo : armazenados) {
+                    try {
+                        fileStorageService.deleteFile(arquivo);
+                    } catch (RuntimeException e) {
+                        logger.warn("Comprovante {} de importação desfeita não foi apagado: {}", arquivo, e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Lê um .xml ou cada .xml de um .zip (entrada a entrada, sem extrair o ZIP inteiro).
+     *
+     * @return Quantidade de XMLs descartados por não serem NF-e ou estarem incompletos
+     */
+    private int lerArquivoDeNotas(InputStream entrada, String nomeArquivo, LeitorNFe leitor, NotasDoEnvio destino) throws IOException {
+        String nome = nomeArquivo.toLowerCase(Locale.ROOT);
+        if (nome.endsWith(".xml")) {
+            return lerXmlDeNota(entrada, nomeArquivo, leitor, destino) ? 0 : 1;
+        }
+        if (!nome.endsWith(".zip")) {
+            throw new IllegalArgumentException("Formato de arquivo não suportado: " + nomeArquivo + ". Envie XMLs de NF-e ou um .zip.");
+        }
+        int descartadas = 0;
+        try (ZipInputStream zip = new ZipInputStream(entrada)) {
+            ZipEntry item;
+            while ((item = zip.getNextEntry()) != null) {
+                if (!item.isDirectory() && item.getName().toLowerCase(Locale.ROOT).endsWith(".xml")
+                        && !lerXmlDeNota(zip, item.getName(), leitor, destino)) {
+                    descartadas++;
+                }
+            }
+        }
+        return descartadas;
+    }
+
+    private boolean lerXmlDeNota(InputStream entrada, String nomeArquivo, LeitorNFe leitor, NotasDoEnvio destino) throws IOException {
+        if (destino.xmls.size() >= MAXIMO_NOTAS_POR_ENVIO) {
+            throw new IllegalArgumentException("Envie no máximo " + MAXIMO_NOTAS_POR_ENVIO + " notas por vez.");
+        }
+        byte[] conteudo = entrada.readNBytes(TAMANHO_MAXIMO_XML + 1);
+        destino.bytesLidos += conteudo.length;
+        if (destino.bytesLidos > TAMANHO_MAXIMO_ENVIO) {
+            throw new IllegalArgumentException("Envie no máximo " + TAMANHO_MAXIMO_ENVIO / (1024 * 1024) + " MB de notas por vez.");
+        }
+        if (conteudo.length > TAMANHO_MAXIMO_XML) {
+            return false;
+        }
+        try {
+            NotaFiscalEletronica nota = leitor.ler(new ByteArrayInputStream(conteudo));
+            if (nota == null || !nota.isCompleta()) {
+                return false;
+            }
+            Path arquivo = Files.createTempFile("nfe-", ".xml");
+            destino.xmls.add(new XmlDaNota(nota, nomeArquivo, arquivo));
+            Files.write(arquivo, conteudo);
+            return true;
+        } catch (IllegalArgumentException e) {
+            logger.debug("XML {} ignorado: {}", nomeArquivo, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * ENTRADA se o MEI emitiu a nota, SAIDA se a recebeu; {@code null} se a nota é de outra empresa.
+     */
+    private TipoLancamento tipoDaNota(NotaFiscalEletronica nota, String cnpjDoMei) {
+        if (cnpjDoMei == null || cnpjDoMei.isEmpty()) {
+            return TipoLancamento.SAIDA;
+        }
+        if (cnpjDoMei.equals(nota.getEmitente().getDocumento())) {
+            return TipoLancamento.ENTRADA;
+        }
+        if (cnpjDoMei.equals(nota.getDestinatario().getDocumento())) {
+            return TipoLancamento.SAIDA;
+        }
+        return null;
+    }
+
+    private Lancamento criarLancamento(NotaFiscalEletronica nota, TipoLancamento tipo, boolean pagas, Conta conta, Usuario usuario) {
+        NotaFiscalEletronica.Parte parte = tipo == TipoLancamento.ENTRADA ? nota.getDestinatario() : nota.getEmitente();
+        String nomeDaParte = parte.getNomeExibicao() != null ? parte.getNomeExibicao() : parte.getDocumento();
+
+        Lancamento lancamento = new Lancamento();
+        lancamento.setGrupoOperacao(UUID.randomUUID().toString());
+        lancamento.setData(nota.getDataEmissao());
+        lancamento.setTipo(tipo);
+        lancamento.setValor(nota.getValorTotal());
+        lancamento.setDescricao(ajustarDescricao("NF-e " + (nota.getNumero() != null ? nota.getNumero() : "") + " - " + nomeDaParte, tipo));
+        lancamento.setConta(conta);
+        lancamento.setStatus(pagas ? StatusLancamento.PAGO
+                : tipo == TipoLancamento.ENTRADA ? StatusLancamento.A_RECEBER : StatusLancamento.A_PAGAR);
+        lancamento.setComNotaFiscal(true);
+        lancamento.setUsuario(usuario);
+        return lancamento;
+    }
+
+    /**
+     * Contatos do usuário indexados por CNPJ/CPF (só dígitos), carregados com uma única consulta.
+     */
+    private Map<String, Contato> carregarContatosPorDocumento(Usuario usuario) {
+        Map<String, Contato> contatos = new HashMap<>();
+        for (Contato contato : contatoRepository.findByUsuario(usuario)) {
+            String documento = NotaFiscalEletronica.apenasDigitos(
+                    contato.getTipoContato() == TipoContato.PESSOA_JURIDICA ? contato.getCnpj() : contato.getCpf());
+            if (documento != null && !documento.isEmpty()) {
+                contatos.putIfAbsent(documento, contato);
+            }
+        }
+        return contatos;
+    }
+
+    private Contato buscarOuCriarContato(NotaFiscalEletronica.Parte parte, Map<String, Contato> contatosPorDocumento, Usuario usuario) {
+        String documento = parte.getDocumento();
+        if (documento == null || documento.isEmpty()) {
+            return null;
+        }
+        Contato existente = contatosPorDocumento.get(documento);
+        if (existente != null) {
+            return existente;
+        }
+
+        Contato contato = new Contato();
+        if (parte.isPessoaJuridica()) {
+            contato.setTipoContato(TipoContato.PESSOA_JURIDICA);
+            contato.setCnpj(documento);
+            contato.setRazaoSocial(parte.getNome());
+            contato.setNomeFantasia(parte.getNomeExibicao());
+        } else {
+            contato.setTipoContato(TipoContato.PESSOA_FISICA);
+            contato.setCpf(documento);
+            contato.setNomeCompleto(parte.getNome());
+        }
+        Contato salvo = contatoService.salvar(contato, usuario);
+        contatosPorDocumento.put(documento, salvo);
+        return salvo;
+    }
+
+    private LeitorDeExtrato escolherLeitor(String nomeArquivo) {
+        String nome = nomeArquivo == null ? "" : nomeArquivo.toLowerCase(Locale.ROOT);
+        if (nome.endsWith(".ofx")) {
+            return new LeitorOfx();
+        }
+        if (nome.endsWith(".csv")) {
+            return new LeitorCsv();
+        }
+        throw new IllegalArgumentException("Formato de arquivo não suportado. Envie um extrato .ofx ou .csv.");
+    }
+
+    private Lancamento criarLancamento(LinhaDeExtrato linha, Conta conta, Usuario usuario) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setGrupoOperacao(UUID.randomUUID().toString());
+        lancamento.setData(linha.getData());
+        lancamento.setTipo(linha.getTipo());
+        lancamento.setValor(linha.getValor().abs());
+        lancamento.setDescricao(ajustarDescricao(linha.getDescricao(), linha.getTipo()));
+        lancamento.setConta(conta);
+        lancamento.setStatus(StatusLancamento.PAGO);
+        lancamento.setComNotaFiscal(false);
+        lancamento.setUsuario(usuario);
+        return lancamento;
+    }
+
+    /**
+     * Adapta a descrição do banco às regras do lançamento (entre 3 e 100 caracteres).
+     */
+    private String ajustarDescricao(String descricao, TipoLancamento tipo) {
+        String texto = descricao == null ? "" : descricao.trim().replaceAll("\\s+", " ");
+        if (texto.length() < TAMANHO_MINIMO_DESCRICAO) {
+            texto = ((tipo == TipoLancamento.SAIDA ? "Débito " : "Crédito ") + texto).trim();
+        }
+        return texto.length() > TAMANHO_MAXIMO_DESCRICAO ? texto.substring(0, TAMANHO_MAXIMO_DESCRICAO) : texto;
+    }
+
+    /**
+     * Descarta as movimentações que já existem na conta.
+     *
+     * Uma única consulta traz (data, tipo, valor, descrição) dos lançamentos da conta no período
+     * do extrato. As chaves são contadas, e não apenas guardadas num conjunto, para que duas
+     * movimentações legítimas e idênticas no mesmo dia (ex.: duas tarifas iguais) continuem
+     * sendo importadas quando só uma delas já estiver lançada.
+     */
+    private List<Lancamento> removerJaLancados(List<Lancamento> lidos, Conta conta, Usuario usuario) {
+        LocalDate inicio = lidos.stream().map(Lancamento::getData).min(LocalDate::compareTo).orElseThrow();
+        LocalDate fim = lidos.stream().map(Lancamento::getData).max(LocalDate::compareTo).orElseThrow();
+
+        Map<String, Integer> existentes = new HashMap<>();
+        for (Object[] linha : lancamentoRepository.findResumoParaDuplicidade(usuario, conta, inicio, fim)) {
+            String chave = LinhaDeExtrato.chaveDeDuplicidade((LocalDate) linha[0], (TipoLancamento) linha[1],
+                    (BigDecimal) linha[2], (String) linha[3]);
+            existentes.merge(chave, 1, Integer::sum);
+        }
+
+        List<Lancamento> novos = new ArrayList<>();
+        for (Lancamento lancamento : lidos) {
+            String chave = LinhaDeExtrato.chaveDeDuplicidade(lancamento.getData(), lancamento.getTipo(),
+                    lancamento.getValor(), lancamento.getDescricao());
+            Integer restantes = existentes.get(chave);
+            if (restantes != null && restantes > 0) {
+                existentes.put(chave, restantes - 1);
+            } else {
+                novos.add(lancamento);
+            }
+        }
+        return novos;
+    }
+
+    /**
+     * Aplica à importação o limite mensal do plano FREE: os lançamentos importados para
+     * o mês corrente somam-se aos já existentes no mês.
+     */
+    private void verificarLimiteDoPlano(List<Lancamento> novos, Usuario usuario) {
+        if (usuario.getPlano() != PlanoAssinatura.FREE) {
+            return;
+        }
+        YearMonth mesAtual = YearMonth.now();
+        long novosNoMes = novos.stream().filter(l -> YearMonth.from(l.getData()).equals(mesAtual)).count();
+        if (novosNoMes == 0) {
+            return;
+        }
+        long existentesNoMes = lancamentoRepository.contarGrupos(
+                LancamentoFiltro.doPeriodo(mesAtual.atDay(1), mesAtual.atEndOfMonth()), usuario);
+        if (existentesNoMes + novosNoMes > PlanLimitAspect.LIMITE_MENSAL_FREE) {
+            throw new PlanLimitExceededException(
+                    "O extrato tem " + novosNoMes + " lançamento(s) no mês atual e o plano gratuito permite "
+                    + PlanLimitAspect.LIMITE_MENSAL_FREE + " por mês (" + existentesNoMes + " já usados). "
+                    + "Faça upgrade para o plano PRO para lançamentos ilimitados.");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.TarefaConcluida;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.TarefaConcluidaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Serviço que mantém o índice de busca por texto dos lançamentos (tabela lancamento_termo).
+ *
+ * Lançamentos novos e editados são indexados pela própria entidade ao gravar
+ * (ver {@link Lancamento#atualizarTermosDeBusca()}). Este serviço cobre os lançamentos
+ * gravados antes do índice existir: ao subir a aplicação, indexa em lotes todos os
+ * que ainda não têm termos. A indexação roda uma única vez por banco; ao terminar, fica
+ * registrada em {@link TarefaConcluida} e não é repetida nas próximas subidas.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Service
+public class IndiceDeBuscaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceDeBuscaService.class);
+
+    private static final int TAMANHO_LOTE = 500;
+
+    /** Nome da tarefa em tarefa_concluida. */
+    static final String TAREFA = "indexar-lancamentos-antigos";
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private TarefaConcluidaRepository tarefaConcluidaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Indexa os lançamentos sem termos de busca, um lote por transação.
+     *
+     * Roda em segundo plano para não atrasar a subida da aplicação. Avança pelo ID,
+     * então lançamentos cuja descrição não gera termos não são revisitados.
+     * Depois de concluída, as próximas subidas só consultam o registro da tarefa; se for
+     * interrompida, a próxima subida recomeça e pula o que já foi indexado.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexarLancamentosPendentes() {
+        if (tarefaConcluidaRepository.existsById(TAREFA)) {
+            return;
+        }
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        long ultimoId = 0L;
+        int indexados = 0;
+
+        while (true) {
+            final long aPartirDe = ultimoId;
+            List<Lancamento> lote = transacao.execute(status -> {
+                List<Lancamento> pendentes = lancamentoRepository.findSemTermosDeBusca(aPartirDe, PageRequest.of(0, TAMANHO_LOTE));
+                pendentes.forEach(Lancamento::atualizarTermosDeBusca);
+                return pendentes;
+            });
+            if (lote == null || lote.isEmpty()) {
+                break;
+            }
+            indexados += lote.size();
+            ultimoId = lote.get(lote.size() - 1).getId();
+        }
+
+        tarefaConcluidaRepository.save(new TarefaConcluida(TAREFA));
+        logger.info("Índice de busca: {} lançamentos antigos indexados", indexados);
+    }
+}
@@ -1,23 +1,28 @@
 package br.com.ellomei.service;
 
 import br.com.ellomei.domain.CategoriaDespesa;
+import br.com.ellomei.domain.ChaveDeGrupo;
 import br.com.ellomei.domain.ChartData;
 import br.com.ellomei.domain.Comprovante;
 import br.com.ellomei.domain.Conta;
 import br.com.ellomei.domain.FormaPagamento;
 import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
 import br.com.ellomei.domain.LancamentoFormDTO;
 import br.com.ellomei.domain.LancamentoGrupoDTO;
 import br.com.ellomei.domain.PagamentoDTO;
+import br.com.ellomei.domain.PaginaPorCursor;
+import br.com.ellomei.domain.ResumoMensal;
 import br.com.ellomei.domain.StatusLancamento;
 import br.com.ellomei.domain.TipoLancamento;
 import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.event.LancamentosAlteradosEvent;
 import br.com.ellomei.repository.ComprovanteRepository;
 import br.com.ellomei.repository.LancamentoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -26,11 +31,19 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -38,10 +51,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class LancamentoService {
 
+    /** Lançamentos por bloco nas gravações em lote (importações). */
+    private static final int TAMANHO_BLOCO_LOTE = 500;
+
+    @PersistenceContext private EntityManager entityManager;
     @Autowired private LancamentoRepository lancamentoRepository;
     @Autowired private ComprovanteRepository comprovanteRepository;
     @Autowired private ContaService contaService;
+    @Autowired private ResumoMensalService resumoMensalService;
+    @Autowired private SaldoDiarioService saldoDiarioService;
+    @Autowired private VersaoDeDadosService versaoDeDadosService;
     @Autowired private FileStorageService fileStorageService;
+    @Autowired private ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     @PreAuthorize("@customSecurityService.isLancamentoOwner(#id)")
@@ -63,10 +84,15 @@ public class LancamentoService {
      *
      * Este método coordena todo o fluxo:
      * 1. Gera ou reutiliza o grupoOperacao
-     * 2. Se for edição, reverte e exclui lançamentos antigos
-     * 3. Cria os novos lançamentos
-     * 4. Processa os comprovantes anexados
-     * 5. Aplica os efeitos financeiros (atualiza saldos)
+     * 2. Se for edição, compara o formulário com o grupo salvo e altera só o que mudou;
+     *    se for nova operação, cria os lançamentos
+     * 3. Processa os comprovantes anexados
+     * 4. Persiste os lançamentos novos e comprovantes em lote (saveAll + cascade)
+     * 5. Aplica os efeitos financeiros (um UPDATE de saldo por conta, só com o delta líquido)
+     *    e atualiza o resumo mensal do dashboard da mesma forma
+     *
+     * Nada é gravado antes do flush do commit: os INSERTs de lançamentos e
+     * comprovantes saem em lotes JDBC (IDs vêm da sequência com pool).
      *
      * @param form Dados do formulário com informações da operação
      * @param comprovanteFiles Arquivos de comprovante enviados
@@ -74,24 +100,80 @@ public class LancamentoService {
      */
     @Transactional
     public void salvarOuAtualizarOperacao(LancamentoFormDTO form, MultipartFile[] comprovanteFiles, Usuario usuario) {
-        final String grupoOperacao = (form.getGrupoOperacao() != null && !form.getGrupoOperacao().isBlank())
-                ? form.getGrupoOperacao()
-                : UUID.randomUUID().toString();
-        form.setGrupoOperacao(grupoOperacao);
-
-        // Se for uma edição, lida com os lançamentos antigos primeiro
-        if (isUpdateOperation(form)) {
-            reverterEExcluirLancamentosAntigos(form.getGrupoOperacao(), usuario);
+        // Decidido antes de gerar o grupo: depois disso todo formulário teria um grupoOperacao
+        final boolean edicao = isUpdateOperation(form);
+        if (!edicao) {
+            form.setGrupoOperacao(UUID.randomUUID().toString());
         }
+        AjustesDeSaldo ajustes = new AjustesDeSaldo();
+        AjustesDoResumo resumo = new AjustesDoResumo();
 
-        // Processa os novos lançamentos
-        List<Lancamento> novosLancamentos = criarNovosLancamentos(form, usuario);
+        List<Lancamento> lancamentosDoGrupo = new ArrayList<>();
+        List<Lancamento> novosLancamentos = new ArrayList<>();
 
-        // Processa os comprovantes
-        processarComprovantes(novosLancamentos, comprovanteFiles);
+        if (edicao) {
+            // Edição: atualiza no lugar, insere/exclui apenas os pagamentos que mudaram
+            sincronizarOperacaoExistente(form, usuario, ajustes, resumo, lancamentosDoGrupo, novosLancamentos);
+        } else {
+            novosLancamentos = criarNovosLancamentos(form, usuario);
+            novosLancamentos.forEach(ajustes::aplicar);
+            novosLancamentos.forEach(resumo::aplicar);
+            lancamentosDoGrupo.addAll(novosLancamentos);
+        }
 
-        // Aplica os efeitos financeiros
-        aplicarEfeitosFinanceiros(novosLancamentos);
+        // Processa os comprovantes (novos arquivos valem para todo o grupo)
+        processarComprovantes(lancamentosDoGrupo, comprovanteFiles);
+
+        // Persiste os novos de uma vez (os comprovantes vão junto via cascade);
+        // os existentes são atualizados pelo dirty checking no flush
+        lancamentoRepository.saveAll(novosLancamentos);
+
+        // Aplica os efeitos financeiros (líquidos, somados por conta e por linha do resumo)
+        aplicarEfeitos(resumo, ajustes, usuario);
+    }
+
+    /**
+     * Grava de uma vez lançamentos novos já montados (importação de extratos e notas).
+     *
+     * Os INSERTs saem em lotes JDBC, em blocos de {@value #TAMANHO_BLOCO_LOTE} lançamentos:
+     * cada bloco é enviado (flush) e o contexto de persistência é esvaziado (clear), para que
+     * o dirty checking não cresça com o tamanho do arquivo. O saldo é ajustado uma única vez
+     * no fim, com um UPDATE por conta somando todos os lançamentos pagos; o resumo mensal
+     * recebe um UPDATE por mês/tipo/conta/categoria afetado.
+     *
+     * Atenção: entidades carregadas antes pelo chamador ficam desanexadas ao final.
+     *
+     * @param lancamentos Lançamentos novos (sem ID), com conta e usuário preenchidos
+     * @param usuario Usuário proprietário dos lançamentos e das contas
+     */
+    @Transactional
+    public void salvarEmLote(List<Lancamento> lancamentos, Usuario usuario) {
+        AjustesDeSaldo ajustes = new AjustesDeSaldo();
+        AjustesDoResumo resumo = new AjustesDoResumo();
+        lancamentos.forEach(ajustes::aplicar);
+        lancamentos.forEach(resumo::aplicar);
+
+        for (int inicio = 0; inicio < lancamentos.size(); inicio += TAMANHO_BLOCO_LOTE) {
+            lancamentoRepository.saveAll(lancamentos.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_LOTE, lancamentos.size())));
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        aplicarEfeitos(resumo, ajustes, usuario);
+    }
+
+    /**
+     * Grava os efeitos acumulados de uma operação (resumo mensal, saldos e histórico de saldo),
+     * avança a versão dos dados do usuário e publica o {@link LancamentosAlteradosEvent} com as variações.
+     */
+    private void aplicarEfeitos(AjustesDoResumo resumo, AjustesDeSaldo ajustes, Usuario usuario) {
+        resumoMensalService.aplicarAjustes(resumo, usuario);
+        contaService.aplicarAjustesDeSaldo(ajustes, usuario);
+        saldoDiarioService.aplicarAjustes(ajustes, usuario);
+        versaoDeDadosService.incrementar(usuario.getId());
+        if (!resumo.isVazio() || !ajustes.isVazio()) {
+            eventPublisher.publishEvent(new LancamentosAlteradosEvent(this, usuario, resumo.getVariacoes(), ajustes.getDeltasPorConta()));
+        }
     }
 
     /**
@@ -108,57 +190,113 @@ public class LancamentoService {
     }
 
     /**
-     * Reverte os efeitos financeiros e exclui os lançamentos antigos de um grupo.
+     * Aplica a edição de uma operação comparando o formulário com o grupo salvo.
      *
-     * Este método é chamado durante a edição de uma operação para limpar
-     * os lançamentos anteriores antes de criar os novos.
+     * Cada pagamento do formulário é pareado com um lançamento existente da mesma conta:
+     * - Pareado: os campos são atualizados no próprio lançamento (o Hibernate só gera
+     *   UPDATE se algo mudou, e apenas das colunas alteradas)
+     * - Pagamento sem par: vira um lançamento novo, com cópia dos comprovantes do grupo
+     * - Lançamento sem par: é excluído
      *
-     * @param grupoOperacao Identificador do grupo de lançamentos
-     * @param usuario Usuário proprietário dos lançamentos
-     */
-    private void reverterEExcluirLancamentosAntigos(String grupoOperacao, Usuario usuario) {
-        List<Lancamento> lancamentosAntigos = lancamentoRepository.findByGrupoOperacaoAndUsuario(grupoOperacao, usuario);
-        lancamentosAntigos.forEach(this::reverterLancamentoNaContaSePago);
-        lancamentoRepository.deleteAll(lancamentosAntigos);
-    }
-
-    /**
-     * Reverte o lançamento na conta se ele estiver com status PAGO.
+     * Para o saldo, cada lançamento existente tem o efeito antigo revertido e o novo aplicado
+     * no mesmo acumulador, então só o delta líquido por conta chega ao banco (zero se
+     * apenas a descrição mudou). O resumo mensal segue a mesma lógica.
      *
-     * @param lancamento Lançamento a ser revertido
+     * @param form Dados do formulário
+     * @param usuario Usuário proprietário da operação
+     * @param ajustes Acumulador dos deltas de saldo da operação
+     * @param resumo Acumulador das variações do resumo mensal da operação
+     * @param lancamentosDoGrupo Recebe todos os lançamentos do grupo após a edição
+     * @param novosLancamentos Recebe apenas os lançamentos que precisam ser inseridos
      */
-    private void reverterLancamentoNaContaSePago(Lancamento lancamento) {
-        if (lancamento.getStatus() == StatusLancamento.PAGO) {
-            reverterLancamentoNaConta(lancamento);
+    private void sincronizarOperacaoExistente(LancamentoFormDTO form, Usuario usuario, AjustesDeSaldo ajustes, AjustesDoResumo resumo,
+                                              List<Lancamento> lancamentosDoGrupo, List<Lancamento> novosLancamentos) {
+        List<Lancamento> existentes = lancamentoRepository.findByGrupoOperacaoAndUsuario(form.getGrupoOperacao(), usuario);
+        List<PagamentoDTO> pagamentosValidos = filtrarPagamentosValidos(form);
+        Map<Long, Conta> contas = buscarContasDosPagamentos(pagamentosValidos, usuario);
+
+        // Lançamentos existentes disponíveis para pareamento, por conta
+        Map<Long, Deque<Lancamento>> existentesPorConta = new LinkedHashMap<>();
+        for (Lancamento existente : existentes) {
+            existentesPorConta.computeIfAbsent(existente.getConta().getId(), k -> new ArrayDeque<>()).add(existente);
+        }
+        List<Comprovante> comprovantesDoGrupo = existentes.isEmpty() ? List.of() : existentes.get(0).getComprovantes();
+
+        for (PagamentoDTO pagamento : pagamentosValidos) {
+            Conta conta = contas.get(pagamento.getConta());
+            Deque<Lancamento> candidatos = existentesPorConta.get(conta.getId());
+            Lancamento existente = candidatos != null ? candidatos.poll() : null;
+
+            if (existente != null) {
+                ajustes.reverter(existente);
+                resumo.reverter(existente);
+                mapearFormParaLancamento(form, existente, usuario, pagamento, conta);
+                ajustes.aplicar(existente);
+                resumo.aplicar(existente);
+                lancamentosDoGrupo.add(existente);
+            } else {
+                Lancamento novo = new Lancamento();
+                mapearFormParaLancamento(form, novo, usuario, pagamento, conta);
+                comprovantesDoGrupo.forEach(modelo -> {
+                    Comprovante copia = new Comprovante();
+                    copia.setPathArquivo(modelo.getPathArquivo());
+                    copia.setLancamento(novo);
+                    novo.getComprovantes().add(copia);
+                });
+                ajustes.aplicar(novo);
+                resumo.aplicar(novo);
+                lancamentosDoGrupo.add(novo);
+                novosLancamentos.add(novo);
+            }
         }
+
+        // O que sobrou não está mais no formulário
+        existentesPorConta.values().forEach(restantes -> restantes.forEach(removido -> {
+            ajustes.reverter(removido);
+            resumo.reverter(removido);
+            lancamentoRepository.delete(removido);
+        }));
     }
 
     /**
-     * Cria e salva os novos lançamentos a partir dos dados do formulário.
+     * Cria os novos lançamentos a partir dos dados do formulário.
+     *
+     * As contas dos pagamentos são carregadas em uma única consulta e os
+     * lançamentos retornados ainda não foram persistidos.
      *
      * @param form Dados do formulário com informações da operação
      * @param usuario Usuário proprietário dos lançamentos
-     * @return Lista de lançamentos salvos
+     * @return Lista de lançamentos a serem salvos
      */
     private List<Lancamento> criarNovosLancamentos(LancamentoFormDTO form, Usuario usuario) {
-        List<Lancamento> lancamentosSalvos = new ArrayList<>();
-        for (PagamentoDTO pagamento : form.getPagamentos()) {
-            if (pagamento.getValor() == null || pagamento.getConta() == null) continue;
+        List<PagamentoDTO> pagamentosValidos = filtrarPagamentosValidos(form);
+        Map<Long, Conta> contas = buscarContasDosPagamentos(pagamentosValidos, usuario);
 
+        List<Lancamento> novosLancamentos = new ArrayList<>();
+        for (PagamentoDTO pagamento : pagamentosValidos) {
             Lancamento lancamento = new Lancamento();
-            mapearFormParaLancamento(form, lancamento, usuario, pagamento);
+            mapearFormParaLancamento(form, lancamento, usuario, pagamento, contas.get(pagamento.getConta()));
+            novosLancamentos.add(lancamento);
+        }
+        return novosLancamentos;
+    }
 
-            // Associa comprovantes existentes (caso de edição)
-            if (form.getGrupoOperacao() != null && form.getComprovantes() != null) {
-                form.getComprovantes().forEach(comp -> {
-                    comp.setLancamento(lancamento);
-                    lancamento.getComprovantes().add(comp);
-                });
-            }
+    /**
+     * Descarta as linhas de pagamento incompletas (sem conta ou sem valor) do formulário.
+     */
+    private List<PagamentoDTO> filtrarPagamentosValidos(LancamentoFormDTO form) {
+        return form.getPagamentos().stream()
+                .filter(p -> p.getValor() != null && p.getConta() != null)
+                .collect(Collectors.toList());
+    }
 
-            lancamentosSalvos.add(lancamentoRepository.save(lancamento));
-        }
-        return lancamentosSalvos;
+    /**
+     * Carrega em uma única consulta as contas usadas pelos pagamentos.
+     */
+    private Map<Long, Conta> buscarContasDosPagamentos(List<PagamentoDTO> pagamentos, Usuario usuario) {
+        if (pagamentos.isEmpty()) return Map.of();
+        return contaService.buscarPorIds(
+                pagamentos.stream().map(PagamentoDTO::getConta).collect(Collectors.toSet()), usuario);
     }
 
     /**
@@ -168,8 +306,9 @@ public class LancamentoService {
      * @param lancamento Entidade a ser preenchida
      * @param usuario Usuário proprietário
      * @param pagamento Dados específicos do pagamento (conta e valor)
+     * @param conta Conta do pagamento, já carregada
      */
-    private void mapearFormParaLancamento(LancamentoFormDTO form, Lancamento lancamento, Usuario usuario, PagamentoDTO pagamento) {
+    private void mapearFormParaLancamento(LancamentoFormDTO form, Lancamento lancamento, Usuario usuario, PagamentoDTO pagamento, Conta conta) {
         lancamento.setDescricao(form.getDescricao());
         lancamento.setData(form.getData());
         lancamento.setTipo(form.getTipo());
@@ -179,18 +318,16 @@ public class LancamentoService {
         lancamento.setGrupoOperacao(form.getGrupoOperacao());
         lancamento.setStatus(form.getStatus());
         lancamento.setUsuario(usuario);
-
-        Conta conta = contaService.buscarPorId(pagamento.getConta())
-                .orElseThrow(() -> new RuntimeException("Conta não encontrada!"));
         lancamento.setConta(conta);
         lancamento.setValor(pagamento.getValor());
     }
 
     /**
-     * Processa e salva os arquivos de comprovante para os lançamentos.
+     * Processa os arquivos de comprovante para os lançamentos.
      *
      * Os arquivos são armazenados e associados a todos os lançamentos do grupo.
-     * PDFs com múltiplas páginas são automaticamente divididos.
+     * PDFs com múltiplas páginas são automaticamente divididos. Os comprovantes
+     * são persistidos pelo cascade junto com os lançamentos.
      *
      * @param lancamentos Lista de lançamentos que receberão os comprovantes
      * @param comprovanteFiles Arquivos enviados
@@ -215,25 +352,12 @@ public class LancamentoService {
                     Comprovante comprovante = new Comprovante();
                     comprovante.setPathArquivo(path);
                     comprovante.setLancamento(lancamento);
-                    comprovanteRepository.save(comprovante);
+                    lancamento.getComprovantes().add(comprovante);
                 }
             }
         }
     }
 
-    /**
-     * Aplica os efeitos financeiros dos lançamentos nas contas.
-     *
-     * Apenas lançamentos com status PAGO afetam o saldo das contas.
-     *
-     * @param lancamentos Lista de lançamentos a serem aplicados
-     */
-    private void aplicarEfeitosFinanceiros(List<Lancamento> lancamentos) {
-        lancamentos.stream()
-                .filter(l -> l.getStatus() == StatusLancamento.PAGO)
-                .forEach(this::aplicarLancamentoNaConta);
-    }
-
 
 
     @Transactional(readOnly = true)
@@ -269,31 +393,62 @@ public class LancamentoService {
     public void excluirOperacao(Long lancamentoId, Usuario usuario) {
         Lancamento umLancamentoDoGrupo = buscarPorId(lancamentoId).orElseThrow(() -> new RuntimeException("Lançamento não encontrado!"));
 
+        AjustesDeSaldo ajustes = new AjustesDeSaldo();
+        AjustesDoResumo resumo = new AjustesDoResumo();
         String grupoOperacao = umLancamentoDoGrupo.getGrupoOperacao();
         if (grupoOperacao == null || grupoOperacao.isBlank()) {
-            if (umLancamentoDoGrupo.getStatus() == StatusLancamento.PAGO) {
-                reverterLancamentoNaConta(umLancamentoDoGrupo);
-            }
+            ajustes.reverter(umLancamentoDoGrupo);
+            resumo.reverter(umLancamentoDoGrupo);
             lancamentoRepository.delete(umLancamentoDoGrupo);
         } else {
-            excluirOperacaoPorGrupo(grupoOperacao, usuario);
+            excluirOperacaoPorGrupo(grupoOperacao, usuario, ajustes, resumo);
         }
+        aplicarEfeitos(resumo, ajustes, usuario);
     }
 
-    private void excluirOperacaoPorGrupo(String grupoOperacao, Usuario usuario) {
+    private void excluirOperacaoPorGrupo(String grupoOperacao, Usuario usuario, AjustesDeSaldo ajustes, AjustesDoResumo resumo) {
         if (grupoOperacao == null || grupoOperacao.isBlank()) return;
         List<Lancamento> lancamentosDoGrupo = lancamentoRepository.findByGrupoOperacaoAndUsuario(grupoOperacao, usuario);
         for (Lancamento lancamento : lancamentosDoGrupo) {
-            if (lancamento.getStatus() == StatusLancamento.PAGO) {
-                reverterLancamentoNaConta(lancamento);
-            }
+            ajustes.reverter(lancamento);
+            resumo.reverter(lancamento);
             lancamentoRepository.delete(lancamento);
         }
     }
 
+    /**
+     * Busca lançamentos com filtros (conta, categoria e contato carregados na mesma consulta).
+     */
+    @Transactional(readOnly = true)
+    public List<Lancamento> buscarComFiltros(LancamentoFiltro filtro, Usuario usuario) {
+        return lancamentoRepository.buscarComFiltros(filtro, usuario, Lancamento.GRAFO_LISTAGEM);
+    }
+
+    /**
+     * Busca lançamentos com filtros para os relatórios em PDF, já com conta,
+     * categoria, contato e comprovantes carregados (uma única consulta).
+     *
+     * Os relatórios são gerados de forma assíncrona, fora da transação, então
+     * nada pode depender de carregamento LAZY depois do retorno.
+     */
+    @Transactional(readOnly = true)
+    public List<Lancamento> buscarComFiltrosParaRelatorio(LancamentoFiltro filtro, Usuario usuario) {
+        return lancamentoRepository.buscarComFiltros(filtro, usuario, Lancamento.GRAFO_COM_COMPROVANTES);
+    }
+
+    /**
+     * Soma os lançamentos PAGOS por tipo dentro dos filtros, direto no banco.
+     *
+     * @return Mapa com o total de ENTRADA e de SAIDA (BigDecimal.ZERO quando não houver)
+     */
     @Transactional(readOnly = true)
-    public List<Lancamento> buscarComFiltros(LocalDate dataInicio, LocalDate dataFim, Long contaId, Long contatoId, TipoLancamento tipo, Long categoriaId, Boolean comNotaFiscal, String descricao, StatusLancamento status, Usuario usuario) {
-        return lancamentoRepository.findComFiltros(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status, usuario);
+    public Map<TipoLancamento, BigDecimal> somarPagosPorTipo(LancamentoFiltro filtro, Usuario usuario) {
+        Map<TipoLancamento, BigDecimal> totais = new EnumMap<>(TipoLancamento.class);
+        for (TipoLancamento t : TipoLancamento.values()) {
+            totais.put(t, BigDecimal.ZERO);
+        }
+        totais.putAll(lancamentoRepository.somarPagosPorTipo(filtro, usuario));
+        return totais;
     }
 
     /**
@@ -302,18 +457,13 @@ public class LancamentoService {
      * Retorna dados agregados para exibição em gráficos de pizza/barras,
      * mostrando o total gasto em cada categoria de despesa.
      *
-     * @param dataInicio Data inicial do período
-     * @param dataFim Data final do período
-     * @param contaId ID da conta (opcional)
-     * @param contatoId ID do contato (opcional)
-     * @param categoriaId ID da categoria (opcional)
-     * @param status Status do lançamento (opcional)
+     * @param filtro Filtros opcionais (apenas lançamentos do tipo SAIDA são considerados)
      * @param usuario Usuário proprietário dos dados
      * @return Lista de dados agregados por categoria
      */
     @Transactional(readOnly = true)
-    public List<ChartData> buscarDespesasPorCategoria(LocalDate dataInicio, LocalDate dataFim, Long contaId, Long contatoId, Long categoriaId, StatusLancamento status, Usuario usuario) {
-        return lancamentoRepository.findDespesasPorCategoriaComFiltros(dataInicio, dataFim, contaId, contatoId, categoriaId, status, usuario);
+    public List<ChartData> buscarDespesasPorCategoria(LancamentoFiltro filtro, Usuario usuario) {
+        return lancamentoRepository.buscarDespesasPorCategoria(filtro, usuario);
     }
 
     /**
@@ -333,89 +483,80 @@ public class LancamentoService {
         return total != null ? total : BigDecimal.ZERO;
     }
 
-    // Método legado (sem paginação) - mantido para compatibilidade
+    /**
+     * Soma dos valores dos lançamentos que atendem aos filtros (qualquer status), calculada no banco.
+     *
+     * @param filtro Filtros opcionais
+     * @param usuario Usuário proprietário dos dados
+     * @return A soma, ou zero se nenhum lançamento atender aos filtros
+     */
     @Transactional(readOnly = true)
-    public List<LancamentoGrupoDTO> buscarComFiltrosAgrupados(LocalDate dataInicio, LocalDate dataFim, Long contaId, Long contatoId, TipoLancamento tipo, Long categoriaId, Boolean comNotaFiscal, String descricao, StatusLancamento status, Usuario usuario) {
-        List<Lancamento> lancamentos = lancamentoRepository.findComFiltros(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status, usuario);
-
-        // Agrupa os lançamentos por grupoOperacao (ou por ID se não tiver grupo)
-        Map<String, List<Lancamento>> grupos = lancamentos.stream()
-                .collect(Collectors.groupingBy(l ->
-                    l.getGrupoOperacao() != null ? l.getGrupoOperacao() : l.getId().toString()
-                ));
-
-        // Converte cada grupo em um LancamentoGrupoDTO
-        return grupos.values().stream()
-                .map(this::criarLancamentoGrupoDTO)
-                .sorted((g1, g2) -> {
-                    // Ordena por data decrescente, depois por ID decrescente
-                    int dateCompare = g2.getData().compareTo(g1.getData());
-                    return dateCompare != 0 ? dateCompare : g2.getId().compareTo(g1.getId());
-                })
-                .collect(Collectors.toList());
+    public BigDecimal somarValores(LancamentoFiltro filtro, Usuario usuario) {
+        return lancamentoRepository.somarValores(filtro, usuario);
     }
 
-    // Novo método com paginação
+    /**
+     * Soma os lançamentos PAGOS por dia e tipo no período, direto no banco (uma linha por dia e tipo).
+     *
+     * @return Linhas (data, tipo, soma)
+     */
     @Transactional(readOnly = true)
-    public Page<LancamentoGrupoDTO> buscarComFiltrosAgrupados(LocalDate dataInicio, LocalDate dataFim, Long contaId, Long contatoId, TipoLancamento tipo, Long categoriaId, Boolean comNotaFiscal, String descricao, StatusLancamento status, Usuario usuario, Pageable pageable) {
-        // Busca os lançamentos paginados
-        Page<Lancamento> lancamentosPage = lancamentoRepository.findComFiltros(dataInicio, dataFim, contaId, contatoId, tipo, categoriaId, comNotaFiscal, descricao, status, usuario, pageable);
-
-        // Agrupa os lançamentos da PÁGINA ATUAL por grupoOperacao (ou por ID se não tiver grupo)
-        Map<String, List<Lancamento>> grupos = lancamentosPage.getContent().stream()
-                .collect(Collectors.groupingBy(l ->
-                    l.getGrupoOperacao() != null ? l.getGrupoOperacao() : l.getId().toString()
-                ));
-
-        // Converte cada grupo em um LancamentoGrupoDTO
-        List<LancamentoGrupoDTO> dtos = grupos.values().stream()
-                .map(this::criarLancamentoGrupoDTO)
-                .sorted((g1, g2) -> {
-                    // Ordena por data decrescente, depois por ID decrescente
-                    int dateCompare = g2.getData().compareTo(g1.getData());
-                    return dateCompare != 0 ? dateCompare : g2.getId().compareTo(g1.getId());
-                })
-                .collect(Collectors.toList());
-
-        // Retorna uma Page com os DTOs agrupados
-        return new PageImpl<>(dtos, pageable, lancamentosPage.getTotalElements());
+    public List<Object[]> somarPagosPorDia(LocalDate dataInicio, LocalDate dataFim, Usuario usuario) {
+        return lancamentoRepository.somarPagosPorDia(usuario, dataInicio, dataFim);
     }
 
-    private LancamentoGrupoDTO criarLancamentoGrupoDTO(List<Lancamento> lancamentosDoGrupo) {
-        if (lancamentosDoGrupo.isEmpty()) return null;
-
-        Lancamento primeiro = lancamentosDoGrupo.get(0);
-
-        // Calcula o valor total do grupo
-        BigDecimal valorTotal = lancamentosDoGrupo.stream()
-                .map(Lancamento::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Busca operações agrupadas (sem paginação), uma linha por grupo, já agregadas no banco.
+     */
+    @Transactional(readOnly = true)
+    public List<LancamentoGrupoDTO> buscarComFiltrosAgrupados(LancamentoFiltro filtro, Usuario usuario) {
+        return lancamentoRepository.buscarResumoDosGrupos(filtro, usuario, null);
+    }
 
-        // Cria descrição das contas envolvidas
-        String contasDescricao = lancamentosDoGrupo.stream()
-                .map(l -> l.getConta().getNomeConta())
-                .distinct()
-                .collect(Collectors.joining(", "));
+    /**
+     * Busca operações agrupadas com paginação por cursor (keyset) sobre os grupos.
+     *
+     * O custo de cada página não depende da profundidade: o cursor (data, id) do último
+     * grupo exibido é comparado direto na consulta, sem OFFSET. Busca-se um grupo a mais
+     * que o tamanho da página para saber se existe próxima página.
+     *
+     * @param depois Cursor da próxima página (null/vazio = primeira página)
+     * @param antes Cursor da página anterior; tem prioridade sobre {@code depois}
+     * @param tamanho Quantidade de grupos por página
+     * @param contarTotal Se true, executa também a contagem de grupos (consulta extra sobre todo o período filtrado)
+     */
+    @Transactional(readOnly = true)
+    public PaginaPorCursor<LancamentoGrupoDTO> buscarComFiltrosAgrupadosPorCursor(LancamentoFiltro filtro, Usuario usuario, String depois, String antes, int tamanho, boolean contarTotal) {
+        ChaveDeGrupo cursorAntes = ChaveDeGrupo.decodificarCursor(antes);
+
+        List<ChaveDeGrupo> chaves;
+        boolean temAnterior;
+        boolean temProxima;
+        if (cursorAntes != null) {
+            chaves = new ArrayList<>(lancamentoRepository.buscarChavesDeGrupoAntesDoCursor(filtro, usuario, cursorAntes, tamanho + 1));
+            temAnterior = chaves.size() > tamanho;
+            if (temAnterior) chaves = chaves.subList(0, tamanho);
+            Collections.reverse(chaves);
+            temProxima = true; // viemos de uma página seguinte
+        } else {
+            ChaveDeGrupo cursorDepois = ChaveDeGrupo.decodificarCursor(depois);
+            chaves = lancamentoRepository.buscarChavesDeGrupoAposCursor(filtro, usuario, cursorDepois, tamanho + 1);
+            temProxima = chaves.size() > tamanho;
+            if (temProxima) chaves = chaves.subList(0, tamanho);
+            temAnterior = cursorDepois != null;
+        }
 
-        // Se há apenas uma conta, mostra só o nome. Se há múltiplas, mostra "Múltiplas contas"
-        if (lancamentosDoGrupo.size() > 1 && lancamentosDoGrupo.stream().map(l -> l.getConta().getId()).distinct().count() > 1) {
-            contasDescricao = "Múltiplas contas (" + contasDescricao + ")";
+        Long total = contarTotal ? lancamentoRepository.contarGrupos(filtro, usuario) : null;
+        if (chaves.isEmpty()) {
+            return new PaginaPorCursor<>(new ArrayList<>(), tamanho, null, null, total);
         }
 
-        return new LancamentoGrupoDTO(
-                primeiro.getId(),
-                primeiro.getGrupoOperacao(),
-                primeiro.getDescricao(),
-                primeiro.getData(),
-                primeiro.getTipo(),
-                primeiro.getStatus(),
-                valorTotal,
-                contasDescricao,
-                primeiro.getCategoriaDespesa(),
-                primeiro.getContato(),
-                primeiro.getComNotaFiscal(),
-                primeiro.getComprovantes()
-        );
+        List<String> chavesDaPagina = chaves.stream().map(ChaveDeGrupo::getChave).collect(Collectors.toList());
+        List<LancamentoGrupoDTO> dtos = lancamentoRepository.buscarResumoDosGrupos(filtro, usuario, chavesDaPagina);
+        return new PaginaPorCursor<>(dtos, tamanho,
+                temAnterior ? chaves.get(0).codificarCursor() : null,
+                temProxima ? chaves.get(chaves.size() - 1).codificarCursor() : null,
+                total);
     }
 
     @Transactional(readOnly = true)
@@ -428,31 +569,70 @@ public class LancamentoService {
         Lancamento lancamento = buscarPorId(lancamentoId).orElseThrow(() -> new RuntimeException("Lançamento não encontrado!"));
 
         if (lancamento.getStatus() == StatusLancamento.A_PAGAR) {
+            AjustesDoResumo resumo = new AjustesDoResumo();
+            resumo.reverter(lancamento);
             lancamento.setStatus(StatusLancamento.PAGO);
-            aplicarLancamentoNaConta(lancamento);
             lancamentoRepository.save(lancamento);
+            resumo.aplicar(lancamento);
+
+            AjustesDeSaldo ajustes = new AjustesDeSaldo();
+            ajustes.aplicar(lancamento);
+            aplicarEfeitos(resumo, ajustes, usuario);
         }
     }
 
-    private void aplicarLancamentoNaConta(Lancamento lancamento) {
-        Conta conta = lancamento.getConta();
-        if (lancamento.getTipo() == TipoLancamento.ENTRADA) {
-            conta.setSaldoAtual(conta.getSaldoAtual().add(lancamento.getValor()));
-        } else {
-            conta.setSaldoAtual(conta.getSaldoAtual().subtract(lancamento.getValor()));
+    /**
+     * Paga de uma vez vários lançamentos A_PAGAR (ação em lote da tela de contas a pagar).
+     *
+     * Uma única consulta confere que todos os IDs pertencem ao usuário, um único UPDATE marca
+     * os lançamentos como PAGO e os saldos recebem um UPDATE por conta, com os valores somados
+     * (o resumo mensal, um UPDATE por linha afetada).
+     * Lançamentos que já não estão A_PAGAR (ex.: pagos em outra aba) são ignorados.
+     *
+     * @param lancamentoIds IDs dos lançamentos selecionados
+     * @param usuario Usuário proprietário
+     * @return Quantidade de lançamentos pagos
+     * @throws AccessDeniedException se algum lançamento não existir ou não pertencer ao usuário
+     */
+    public int pagarContas(Collection<Long> lancamentoIds, Usuario usuario) {
+        Set<Long> ids = new HashSet<>(lancamentoIds);
+        if (ids.isEmpty()) {
+            return 0;
         }
-        // CORREÇÃO AQUI
-        contaService.salvar(conta, lancamento.getUsuario());
-    }
 
-    private void reverterLancamentoNaConta(Lancamento lancamento) {
-        Conta conta = lancamento.getConta();
-        if (lancamento.getTipo() == TipoLancamento.ENTRADA) {
-            conta.setSaldoAtual(conta.getSaldoAtual().subtract(lancamento.getValor()));
-        } else {
-            conta.setSaldoAtual(conta.getSaldoAtual().add(lancamento.getValor()));
+        List<Object[]> resumos = lancamentoRepository.findResumoParaPagamento(ids, usuario);
+        if (resumos.size() != ids.size()) {
+            throw new AccessDeniedException("Lançamento não encontrado ou não pertence ao usuário.");
+        }
+
+        AjustesDeSaldo ajustes = new AjustesDeSaldo();
+        AjustesDoResumo resumoMensal = new AjustesDoResumo();
+        int aPagar = 0;
+        for (Object[] resumo : resumos) {
+            if (resumo[4] == StatusLancamento.A_PAGAR) {
+                Long contaId = (Long) resumo[1];
+                TipoLancamento tipo = (TipoLancamento) resumo[2];
+                BigDecimal valor = (BigDecimal) resumo[3];
+                LocalDate data = (LocalDate) resumo[5];
+                ajustes.aplicarPagamento(contaId, tipo, valor, data);
+                // O lançamento passa de A_PAGAR para PAGO na mesma linha de mês/conta/categoria
+                Long categoriaId = (Long) resumo[6];
+                Boolean comNotaFiscal = (Boolean) resumo[7];
+                resumoMensal.aplicar(ResumoMensal.Chave.de(data, tipo, StatusLancamento.A_PAGAR, contaId, categoriaId, comNotaFiscal), valor.negate(), -1);
+                resumoMensal.aplicar(ResumoMensal.Chave.de(data, tipo, StatusLancamento.PAGO, contaId, categoriaId, comNotaFiscal), valor, 1);
+                aPagar++;
+            }
+        }
+        if (aPagar == 0) {
+            return 0;
+        }
+
+        int pagos = lancamentoRepository.marcarComoPagos(ids, usuario);
+        if (pagos != aPagar) {
+            // Algum lançamento mudou de status entre a consulta e o UPDATE: desfaz tudo
+            throw new IllegalStateException("Algumas contas foram alteradas durante o pagamento. Tente novamente.");
         }
-        // CORREÇÃO AQUI
-        contaService.salvar(conta, lancamento.getUsuario());
+        aplicarEfeitos(resumoMensal, ajustes, usuario);
+        return pagos;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,225 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.ResumoMensal;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.ResumoMensalRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço que mantém o resumo mensal dos lançamentos (tabela resumo_mensal).
+ *
+ * O {@link LancamentoService} acumula o efeito de cada operação em um {@link AjustesDoResumo}
+ * e chama {@link #aplicarAjustes(AjustesDoResumo, Usuario)} na mesma transação que grava os
+ * lançamentos. Se o resumo divergir dos lançamentos (ex.: alteração feita direto no banco),
+ * a reconstrução diária corrige.
+ *
+ * Toda gravação no resumo é uma soma atômica no banco (nunca um valor absoluto calculado
+ * em memória), para que gravações concorrentes do mesmo usuário não se percam.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Service
+public class ResumoMensalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumoMensalService.class);
+
+    /** Limites dos períodos abertos (faixa aceita pelo tipo DATE do MySQL). */
+    private static final YearMonth PRIMEIRO_MES = YearMonth.of(1000, 1);
+    private static final YearMonth ULTIMO_MES = YearMonth.of(9999, 12);
+
+    /**
+     * Total de um mês por tipo, nota fiscal e conta (todos os status somados).
+     *
+     * @param contaBancaria true se a conta não é do tipo "Caixa" (faturamento bancário)
+     */
+    public record TotalMensal(LocalDate mes, TipoLancamento tipo, boolean comNotaFiscal, Long contaId,
+                              boolean contaBancaria, BigDecimal total) {
+    }
+
+    /**
+     * Total PAGO de um período por tipo, conta, categoria e nota fiscal.
+     *
+     * @param categoriaId {@link ResumoMensal#SEM_CATEGORIA} para lançamentos sem categoria
+     */
+    public record TotalPago(TipoLancamento tipo, Long contaId, Long categoriaId, boolean comNotaFiscal, BigDecimal total) {
+    }
+
+    @Autowired
+    private ResumoMensalRepository resumoMensalRepository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private VersaoDeDadosService versaoDeDadosService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Grava as variações acumuladas de uma operação: um upsert atômico por chave (soma na
+     * linha existente ou cria a linha). Duas transações criando a mesma linha ao mesmo tempo
+     * não falham: a segunda espera a primeira e soma a sua variação.
+     *
+     * Deve ser chamado antes de {@link ContaService#aplicarAjustesDeSaldo}, junto com as
+     * demais gravações da operação.
+     *
+     * @param ajustes Variações acumuladas na operação
+     * @param usuario Usuário proprietário dos lançamentos
+     */
+    @Transactional
+    public void aplicarAjustes(AjustesDoResumo ajustes, Usuario usuario) {
+        if (ajustes.isVazio()) return;
+
+        ajustes.getVariacoes().forEach((chave, variacao) -> resumoMensalRepository.somar(usuario.getId(), chave.mes(),
+                chave.tipo().name(), chave.status().name(), chave.contaId(), chave.categoriaId(), chave.comNotaFiscal(),
+                variacao.total(), variacao.quantidade()));
+    }
+
+    /**
+     * Busca as linhas do resumo de um intervalo de meses (inclusive).
+     */
+    @Transactional(readOnly = true)
+    public List<ResumoMensal> buscarPorPeriodo(Usuario usuario, YearMonth inicio, YearMonth fim) {
+        return resumoMensalRepository.findByUsuarioAndMesBetween(usuario, inicio.atDay(1), fim.atDay(1));
+    }
+
+    /**
+     * Totais de um intervalo de meses (inclusive) já somados no banco, sem carregar as linhas do resumo.
+     */
+    @Transactional(readOnly = true)
+    public List<TotalMensal> buscarTotaisPorMes(Usuario usuario, YearMonth inicio, YearMonth fim) {
+        return resumoMensalRepository.somarPorMes(usuario, inicio.atDay(1), fim.atDay(1)).stream()
+                .map(linha -> new TotalMensal((LocalDate) linha[0], (TipoLancamento) linha[1], (Boolean) linha[2],
+                        (Long) linha[3], isContaBancaria((String) linha[4]), (BigDecimal) linha[5]))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Os mesmos totais de {@link #buscarTotaisPorMes}, tirados de linhas do resumo já carregadas,
+     * sem nova consulta. Sai um total por linha (não agrupado), o que não muda as somas.
+     * Linhas de contas ausentes em {@code contas} ficam de fora, como no JOIN da consulta.
+     *
+     * @param linhas Linhas do resumo dos meses desejados
+     * @param contas Contas do usuário (para saber quais são bancárias)
+     */
+    public List<TotalMensal> totaisPorMes(List<ResumoMensal> linhas, List<Conta> contas) {
+        Map<Long, String> tiposDasContas = new HashMap<>();
+        contas.forEach(conta -> tiposDasContas.put(conta.getId(), conta.getTipo()));
+        return linhas.stream()
+                .filter(r -> tiposDasContas.containsKey(r.getContaId()))
+                .map(r -> new TotalMensal(r.getMes(), r.getTipo(), r.isComNotaFiscal(), r.getContaId(),
+                        isContaBancaria(tiposDasContas.get(r.getContaId())), r.getTotal()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Regra do faturamento bancário: conta de qualquer tipo, menos "Caixa".
+     */
+    public static boolean isContaBancaria(String tipoDaConta) {
+        return tipoDaConta != null && !tipoDaConta.equals("Caixa");
+    }
+
+    /**
+     * Totais PAGOS de um intervalo de meses (inclusive) somados no banco: uma linha por
+     * tipo, conta, categoria e nota fiscal, qualquer que seja o tamanho do histórico.
+     *
+     * @param inicio Primeiro mês (null = desde o início)
+     * @param fim Último mês (null = sem limite)
+     */
+    @Transactional(readOnly = true)
+    public List<TotalPago> buscarTotaisPagos(Usuario usuario, YearMonth inicio, YearMonth fim) {
+        LocalDate mesInicio = (inicio != null ? inicio : PRIMEIRO_MES).atDay(1);
+        LocalDate mesFim = (fim != null ? fim : ULTIMO_MES).atDay(1);
+        return resumoMensalRepository.somarPagos(usuario, mesInicio, mesFim).stream()
+                .map(linha -> new TotalPago((TipoLancamento) linha[0], (Long) linha[1], (Long) linha[2],
+                        (Boolean) linha[3], (BigDecimal) linha[4]))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recalcula o resumo de um usuário a partir dos lançamentos (uma consulta agregada)
+     * e corrige só as linhas que divergem.
+     *
+     * A correção é a diferença entre o esperado e o gravado, somada com o mesmo upsert de
+     * {@link #aplicarAjustes}: lançamentos e resumo são lidos no mesmo snapshot da transação
+     * (REPEATABLE READ), então a diferença não inclui operações de outras transações, e as
+     * somas que elas fizerem enquanto isso são preservadas.
+     *
+     * @param usuario Usuário a reconstruir
+     * @return Quantidade de linhas do resumo que estavam divergentes
+     */
+    @Transactional
+    public int reconstruir(Usuario usuario) {
+        AjustesDoResumo correcoes = new AjustesDoResumo();
+        for (Object[] linha : lancamentoRepository.agregarPorMes(usuario)) {
+            LocalDate mes = LocalDate.of(((Number) linha[0]).intValue(), ((Number) linha[1]).intValue(), 1);
+            ResumoMensal.Chave chave = ResumoMensal.Chave.de(mes, (TipoLancamento) linha[2], (StatusLancamento) linha[3],
+                    (Long) linha[4], (Long) linha[5], (Boolean) linha[6]);
+            correcoes.aplicar(chave, (BigDecimal) linha[7], ((Number) linha[8]).longValue());
+        }
+        // Subtrai o gravado: sobra só a diferença (as linhas sem lançamento ficam zeradas)
+        for (ResumoMensal atual : resumoMensalRepository.findByUsuario(usuario)) {
+            correcoes.aplicar(atual.getChave(), atual.getTotal().negate(), -atual.getQuantidade());
+        }
+
+        int divergentes = correcoes.getVariacoes().size();
+        aplicarAjustes(correcoes, usuario);
+        // Linhas zeradas sobram de exclusões e não contam como divergência
+        resumoMensalRepository.excluirZeradas(usuario);
+        if (divergentes > 0) {
+            versaoDeDadosService.incrementar(usuario.getId());
+        }
+        return divergentes;
+    }
+
+    /**
+     * Reconstrói o resumo de todos os usuários (job agendado), um usuário por transação.
+     *
+     * Executa todos os dias às 4h da manhã, depois dos jobs de assinatura.
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    public void reconstruirTodos() {
+        logger.info("Iniciando reconstrução do resumo mensal...");
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int usuariosComDivergencia = 0;
+
+        for (Long usuarioId : usuarioRepository.findAllIds()) {
+            try {
+                Integer divergentes = transacao.execute(status -> reconstruir(usuarioRepository.getReferenceById(usuarioId)));
+                if (divergentes != null && divergentes > 0) {
+                    usuariosComDivergencia++;
+                    logger.warn("Resumo mensal do usuário {} corrigido: {} linhas divergentes", usuarioId, divergentes);
+                }
+            } catch (Exception e) {
+                logger.error("Erro ao reconstruir o resumo mensal do usuário {}: {}", usuarioId, e.getMessage());
+            }
+        }
+
+        logger.info("Reconstrução do resumo mensal concluída: {} usuários corrigidos", usuariosComDivergencia);
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.SaldoDiario;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.SaldoDiarioRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serviço que mantém e consulta o histórico de saldo diário das contas (tabela saldo_diario).
+ *
+ * O {@link LancamentoService} acumula o efeito de cada operação em um {@link AjustesDeSaldo},
+ * que separa os deltas por conta e dia, e chama {@link #aplicarAjustes(AjustesDeSaldo, Usuario)}
+ * na mesma transação que grava os lançamentos. Só o movimento de cada dia é gravado; o saldo
+ * em uma data e a série de saldos de um período saem de duas consultas que somam os dias com
+ * movimento, qualquer que seja a quantidade de lançamentos.
+ * A reconstrução diária corrige divergências (ex.: alteração feita direto no banco).
+ *
+ * Como no resumo mensal, toda gravação é uma soma atômica no banco (nunca um valor absoluto
+ * calculado em memória), para que gravações concorrentes nas mesmas contas não se percam.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Service
+public class SaldoDiarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaldoDiarioService.class);
+
+    /** Maior série aceita (cerca de 5 anos, um ponto por dia). */
+    public static final int MAXIMO_DE_DIAS = 5 * 366;
+
+    /**
+     * Saldo de uma conta no fim de um dia.
+     *
+     * @param movimento Entradas menos saídas pagas no dia
+     */
+    public record PontoDoSaldo(LocalDate data, BigDecimal saldo, BigDecimal movimento) {
+    }
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Grava os deltas por dia de uma operação: um upsert de várias linhas soma o delta de cada
+     * conta e dia, criando os dias novos (ver {@link SaldoDiarioRepository#somarMovimentos}).
+     * Um lançamento retroativo só altera o seu dia, então o custo não depende de quantos dias
+     * vêm depois dele, e uma importação grande grava todos os dias em poucos comandos.
+     *
+     * Deve ser chamado depois de {@link ContaService#aplicarAjustesDeSaldo}, que confere as contas
+     * e trava as linhas de conta alteradas.
+     *
+     * @param ajustes Deltas acumulados na operação
+     * @param usuario Usuário proprietário das contas
+     */
+    @Transactional
+    public void aplicarAjustes(AjustesDeSaldo ajustes, Usuario usuario) {
+        if (ajustes.isVazio()) return;
+        saldoDiarioRepository.somarMovimentos(usuario.getId(), ajustes.getDeltasPorDia());
+    }
+
+    /**
+     * Saldo da conta no fim de um dia: saldo inicial mais a soma dos movimentos até a data.
+     *
+     * @param conta Conta já verificada (pertence ao usuário)
+     * @param data Data desejada
+     */
+    @Transactional(readOnly = true)
+    public PontoDoSaldo saldoEm(Conta conta, LocalDate data) {
+        return serie(conta, data, data).get(0);
+    }
+
+    /**
+     * Saldo da conta no fim de cada dia de um intervalo (inclusive), um ponto por dia.
+     *
+     * Soma os movimentos anteriores ao início e lê os dias com movimento do intervalo; os
+     * dias sem movimento repetem o saldo anterior.
+     *
+     * @param conta Conta já verificada (pertence ao usuário)
+     * @throws IllegalArgumentException se o fim for anterior ao início ou o intervalo passar de {@value #MAXIMO_DE_DIAS} dias
+     */
+    @Transactional(readOnly = true)
+    public List<PontoDoSaldo> serie(Conta conta, LocalDate inicio, LocalDate fim) {
+        long dias = ChronoUnit.DAYS.between(inicio, fim) + 1;
+        if (dias < 1 || dias > MAXIMO_DE_DIAS) {
+            throw new IllegalArgumentException("Período inválido: informe até " + MAXIMO_DE_DIAS + " dias, com o fim depois do início.");
+        }
+
+        BigDecimal saldo = conta.getSaldoInicial().add(saldoDiarioRepository.somarMovimentosAntesDe(conta.getId(), inicio));
+        Iterator<SaldoDiario> comMovimento = saldoDiarioRepository
+                .findByContaIdAndDataBetweenOrderByData(conta.getId(), inicio, fim).iterator();
+        SaldoDiario proximo = comMovimento.hasNext() ? comMovimento.next() : null;
+
+        List<PontoDoSaldo> serie = new ArrayList<>((int) dias);
+        for (LocalDate data = inicio; !data.isAfter(fim); data = data.plusDays(1)) {
+            BigDecimal movimento = BigDecimal.ZERO;
+            if (proximo != null && proximo.getData().equals(data)) {
+                movimento = proximo.getMovimento();
+                saldo = saldo.add(movimento);
+                proximo = comMovimento.hasNext() ? comMovimento.next() : null;
+            }
+            serie.add(new PontoDoSaldo(data, saldo, movimento));
+        }
+        return serie;
+    }
+
+    /**
+     * Recalcula o histórico de um usuário a partir dos lançamentos PAGOS (uma consulta agregada)
+     * e corrige só os dias que divergem.
+     *
+     * A correção é a diferença entre o esperado e o gravado, somada com o mesmo upsert de
+     * {@link #aplicarAjustes}: lançamentos e histórico são lidos no mesmo snapshot da transação
+     * (REPEATABLE READ), então a diferença não inclui operações de outras transações, e as
+     * somas que elas fizerem enquanto isso são preservadas.
+     *
+     * @param usuario Usuário a reconstruir
+     * @return Quantidade de dias do histórico que estavam divergentes
+     */
+    @Transactional
+    public int reconstruir(Usuario usuario) {
+        // Correção = esperado - gravado, por conta e dia
+        Map<Long, Map<LocalDate, BigDecimal>> correcoes = new TreeMap<>();
+        for (Object[] linha : lancamentoRepository.agregarMovimentoPorDia(usuario)) {
+            correcoes.computeIfAbsent((Long) linha[0], id -> new TreeMap<>()).merge((LocalDate) linha[1], (BigDecimal) linha[2], BigDecimal::add);
+        }
+        for (SaldoDiario atual : saldoDiarioRepository.findByUsuario(usuario)) {
+            correcoes.computeIfAbsent(atual.getContaId(), id -> new TreeMap<>()).merge(atual.getData(), atual.getMovimento().negate(), BigDecimal::add);
+        }
+
+        int divergentes = 0;
+        for (Map<LocalDate, BigDecimal> dias : correcoes.values()) {
+            divergentes += (int) dias.values().stream().filter(correcao -> correcao.signum() != 0).count();
+        }
+        saldoDiarioRepository.somarMovimentos(usuario.getId(), correcoes);
+        // Dias sem movimento sobram de exclusões e não alteram nenhum saldo
+        saldoDiarioRepository.excluirSemMovimento(usuario);
+        return divergentes;
+    }
+
+    /**
+     * Reconstrói o histórico de saldo de todos os usuários (job agendado), um usuário por transação.
+     *
+     * Executa todos os dias às 4h30 da manhã, depois da reconstrução do resumo mensal.
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    public void reconstruirTodos() {
+        logger.info("Iniciando reconstrução do histórico de saldo...");
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int usuariosComDivergencia = 0;
+
+        for (Long usuarioId : usuarioRepository.findAllIds()) {
+            try {
+                Integer divergentes = transacao.execute(status -> reconstruir(usuarioRepository.getReferenceById(usuarioId)));
+                if (divergentes != null && divergentes > 0) {
+                    usuariosComDivergencia++;
+                    logger.warn("Histórico de saldo do usuário {} corrigido: {} linhas divergentes", usuarioId, divergentes);
+                }
+            } catch (Exception e) {
+                logger.error("Erro ao reconstruir o histórico de saldo do usuário {}: {}", usuarioId, e.getMessage());
+            }
+        }
+
+        logger.info("Reconstrução do histórico de saldo concluída: {} usuários corrigidos", usuariosComDivergencia);
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.ellomei.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão dos dados de cada usuário: um contador que só cresce, incrementado a cada gravação
+ * de lançamentos, contas, categorias e contatos.
+ *
+ * Resultados em cache (ex.: números do dashboard) levam a versão na chave. Depois de uma
+ * gravação, as entradas antigas deixam de ser encontradas e expiram sozinhas, sem que quem
+ * grava precise saber quais consultas foram afetadas.
+ *
+ * A versão avança no momento da gravação e de novo quando a transação termina (commit ou
+ * rollback): um resultado calculado durante a transação, com dados ainda não confirmados,
+ * nunca fica valendo depois dela.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@Service
+public class VersaoDeDadosService {
+
+    private final ConcurrentHashMap<Long, AtomicLong> versoes = new ConcurrentHashMap<>();
+
+    /**
+     * Versão atual dos dados do usuário (0 enquanto não houver gravação desde a inicialização).
+     */
+    public long getVersao(Long usuarioId) {
+        AtomicLong versao = versoes.get(usuarioId);
+        return versao != null ? versao.get() : 0L;
+    }
+
+    /**
+     * Registra uma gravação nos dados do usuário.
+     *
+     * @param usuarioId ID do usuário dono dos dados alterados
+     */
+    public void incrementar(Long usuarioId) {
+        avancar(usuarioId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    avancar(usuarioId);
+                }
+            });
+        }
+    }
+
+    private void avancar(Long usuarioId) {
+        versoes.computeIfAbsent(usuarioId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
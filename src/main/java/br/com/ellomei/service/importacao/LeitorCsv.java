@@ -0,0 +1,128 @@
+package br.com.ellomei.service.importacao;
+
+import br.com.ellomei.domain.TextoDeBusca;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Leitor de extratos em CSV, linha a linha.
+ *
+ * A primeira linha é o cabeçalho; as colunas são localizadas pelo nome (sem diferenciar
+ * acentos e maiúsculas): Data, Descrição (ou Histórico) e Valor são obrigatórias; Tipo
+ * (ENTRADA/SAIDA) é opcional e, quando presente, define o sinal do valor. Aceita ";" ou ","
+ * como separador, datas dd/MM/yyyy ou yyyy-MM-dd e valores como "1.234,56" ou "1234.56".
+ * O CSV exportado pelo próprio ElloMEI é aceito como está.
+ */
+public class LeitorCsv implements LeitorDeExtrato {
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final Set<String> COLUNAS_DESCRICAO = Set.of("descricao", "historico", "lancamento", "memo");
+
+    @Override
+    public int ler(InputStream entrada, Consumer<LinhaDeExtrato> destino) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        String cabecalho = reader.readLine();
+        while (cabecalho != null && cabecalho.isBlank()) {
+            cabecalho = reader.readLine();
+        }
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio.");
+        }
+        cabecalho = cabecalho.replace("\uFEFF", "");
+        char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+
+        List<String> colunas = dividir(cabecalho, separador);
+        int colunaData = -1, colunaDescricao = -1, colunaValor = -1, colunaTipo = -1;
+        for (int i = 0; i < colunas.size(); i++) {
+            String nome = String.join(" ", TextoDeBusca.termos(colunas.get(i)));
+            if (nome.equals("data") && colunaData < 0) colunaData = i;
+            else if (COLUNAS_DESCRICAO.contains(nome) && colunaDescricao < 0) colunaDescricao = i;
+            else if (nome.equals("valor") && colunaValor < 0) colunaValor = i;
+            else if (nome.equals("tipo") && colunaTipo < 0) colunaTipo = i;
+        }
+        if (colunaData < 0 || colunaDescricao < 0 || colunaValor < 0) {
+            throw new IllegalArgumentException("O CSV precisa ter as colunas Data, Descrição e Valor.");
+        }
+
+        int descartadas = 0;
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            List<String> campos = dividir(linha, separador);
+            try {
+                LocalDate data = converterData(campos.get(colunaData));
+                BigDecimal valor = converterValor(campos.get(colunaValor));
+                if (colunaTipo >= 0 && colunaTipo < campos.size()) {
+                    String tipo = campos.get(colunaTipo).trim();
+                    if (tipo.equalsIgnoreCase("SAIDA")) valor = valor.abs().negate();
+                    else if (tipo.equalsIgnoreCase("ENTRADA")) valor = valor.abs();
+                }
+                if (valor.signum() == 0) {
+                    descartadas++;
+                    continue;
+                }
+                destino.accept(new LinhaDeExtrato(data, valor, campos.get(colunaDescricao).trim()));
+            } catch (IndexOutOfBoundsException | DateTimeParseException | NumberFormatException e) {
+                descartadas++;
+            }
+        }
+        return descartadas;
+    }
+
+    /**
+     * Divide uma linha respeitando campos entre aspas (com aspas internas duplicadas).
+     */
+    private List<String> dividir(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (c == '"') {
+                if (entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreAspas = !entreAspas;
+                }
+            } else if (c == separador && !entreAspas) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private LocalDate converterData(String texto) {
+        String data = texto.trim();
+        return data.contains("/") ? LocalDate.parse(data, DATA_BR) : LocalDate.parse(data);
+    }
+
+    private BigDecimal converterValor(String texto) {
+        String valor = texto.replace("R$", "").replace(" ", "").trim();
+        if (valor.contains(",")) {
+            // Formato brasileiro: ponto de milhar e vírgula decimal
+            valor = valor.replace(".", "").replace(',', '.');
+        }
+        return new BigDecimal(valor);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.ellomei.service.importacao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Leitor de um formato de extrato bancário.
+ *
+ * A leitura é sequencial: cada movimentação é entregue ao destino assim que é lida,
+ * sem carregar o arquivo inteiro (nem uma árvore do documento) em memória.
+ */
+public interface LeitorDeExtrato {
+
+    /**
+     * Lê o extrato e entrega cada movimentação válida ao destino.
+     *
+     * @param entrada Conteúdo do arquivo
+     * @param destino Recebe as movimentações, na ordem do arquivo
+     * @return Quantidade de linhas descartadas por estarem incompletas ou ilegíveis
+     * @throws IllegalArgumentException se o arquivo não estiver no formato esperado
+     */
+    int ler(InputStream entrada, Consumer<LinhaDeExtrato> destino) throws IOException;
+}
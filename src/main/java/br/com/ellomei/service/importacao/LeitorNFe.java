@@ -0,0 +1,124 @@
+package br.com.ellomei.service.importacao;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Leitor de XML de NF-e (modelo 55, com ou sem o envelope {@code <nfeProc>}) via StAX.
+ *
+ * O documento é percorrido evento a evento, sem montar uma árvore DOM: só os campos
+ * usados no lançamento são guardados e a leitura termina no fim de {@code <infNFe>},
+ * sem percorrer a assinatura digital.
+ */
+public class LeitorNFe {
+
+    private static final XMLInputFactory FACTORY = criarFactory();
+
+    /**
+     * DTDs e entidades externas desligados: o XML vem do usuário (proteção contra XXE).
+     */
+    private static XMLInputFactory criarFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    /**
+     * Lê uma NF-e.
+     *
+     * @param entrada Conteúdo do XML
+     * @return A nota lida, ou {@code null} se o XML não for uma NF-e (ex.: evento de cancelamento)
+     * @throws IllegalArgumentException se o XML estiver malformado
+     */
+    public NotaFiscalEletronica ler(InputStream entrada) {
+        XMLStreamReader reader = null;
+        try {
+            reader = FACTORY.createXMLStreamReader(entrada);
+            NotaFiscalEletronica nota = null;
+            Deque<String> caminho = new ArrayDeque<>();
+            StringBuilder texto = new StringBuilder();
+
+            while (reader.hasNext()) {
+                int evento = reader.next();
+                if (evento == XMLStreamConstants.START_ELEMENT) {
+                    String elemento = reader.getLocalName();
+                    if (elemento.equals("infNFe")) {
+                        nota = new NotaFiscalEletronica();
+                        String id = reader.getAttributeValue(null, "Id");
+                        nota.setChave(id == null ? null : NotaFiscalEletronica.apenasDigitos(id));
+                    }
+                    caminho.push(elemento);
+                    texto.setLength(0);
+                } else if (evento == XMLStreamConstants.CHARACTERS || evento == XMLStreamConstants.CDATA) {
+                    texto.append(reader.getText());
+                } else if (evento == XMLStreamConstants.END_ELEMENT) {
+                    String elemento = caminho.pop();
+                    if (elemento.equals("infNFe")) {
+                        return nota;
+                    }
+                    if (nota != null && !caminho.isEmpty()) {
+                        preencher(nota, caminho.peek(), elemento, texto.toString().trim());
+                    }
+                    texto.setLength(0);
+                }
+            }
+            return nota;
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("XML de nota fiscal inválido: " + e.getMessage(), e);
+        } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Data de emissão inválida na nota fiscal.", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // nada a liberar além do próprio leitor
+                }
+            }
+        }
+    }
+
+    private void preencher(NotaFiscalEletronica nota, String pai, String elemento, String valor) {
+        if (valor.isEmpty()) {
+            return;
+        }
+        switch (pai) {
+            case "ide" -> {
+                // dhEmi (versão 3.10+) traz data e hora com fuso; dEmi (versão 2.00) só a data
+                if (elemento.equals("dhEmi") || elemento.equals("dEmi")) {
+                    nota.setDataEmissao(LocalDate.parse(valor.substring(0, 10)));
+                } else if (elemento.equals("nNF")) {
+                    nota.setNumero(valor);
+                }
+            }
+            case "emit" -> preencherParte(nota.getEmitente(), elemento, valor);
+            case "dest" -> preencherParte(nota.getDestinatario(), elemento, valor);
+            case "ICMSTot" -> {
+                if (elemento.equals("vNF")) {
+                    nota.setValorTotal(new BigDecimal(valor));
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void preencherParte(NotaFiscalEletronica.Parte parte, String elemento, String valor) {
+        switch (elemento) {
+            case "CNPJ" -> parte.setDocumento(valor, true);
+            case "CPF" -> parte.setDocumento(valor, false);
+            case "xNome" -> parte.setNome(valor);
+            case "xFant" -> parte.setNomeFantasia(valor);
+            default -> { }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.ellomei.service.importacao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Leitor de extratos OFX, nas versões 1.x (SGML, sem tags de fechamento) e 2.x (XML).
+ *
+ * Percorre o arquivo caractere a caractere, guardando apenas os campos da transação
+ * ({@code <STMTTRN>}) corrente. Usa DTPOSTED, TRNAMT e MEMO (ou NAME, quando não há MEMO).
+ */
+public class LeitorOfx implements LeitorDeExtrato {
+
+    /** Limite de um valor de tag: protege a memória contra arquivos malformados. */
+    private static final int TAMANHO_MAXIMO_VALOR = 1000;
+
+    private static final DateTimeFormatter DATA_OFX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Override
+    public int ler(InputStream entrada, Consumer<LinhaDeExtrato> destino) throws IOException {
+        BufferedInputStream bufferizada = new BufferedInputStream(entrada);
+        Reader reader = new BufferedReader(new InputStreamReader(bufferizada, detectarCharset(bufferizada)));
+
+        Map<String, String> transacao = null;
+        String tagAtual = null;
+        StringBuilder valor = new StringBuilder();
+        boolean encontrouOfx = false;
+        int descartadas = 0;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c != '<') {
+                if (tagAtual != null && valor.length() < TAMANHO_MAXIMO_VALOR) {
+                    valor.append((char) c);
+                }
+                continue;
+            }
+
+            // Fim do valor da tag anterior (em SGML não há </TAG> nos campos)
+            if (transacao != null && tagAtual != null && !valor.toString().isBlank()) {
+                transacao.put(tagAtual, valor.toString().trim());
+            }
+            valor.setLength(0);
+
+            String tag = lerTag(reader);
+            if (tag.equals("OFX")) {
+                encontrouOfx = true;
+            }
+            if (tag.equals("STMTTRN")) {
+                transacao = new HashMap<>();
+                tagAtual = null;
+            } else if (tag.equals("/STMTTRN")) {
+                if (transacao != null) {
+                    LinhaDeExtrato linha = converter(transacao);
+                    if (linha != null) {
+                        destino.accept(linha);
+                    } else {
+                        descartadas++;
+                    }
+                }
+                transacao = null;
+                tagAtual = null;
+            } else {
+                tagAtual = tag.startsWith("/") || tag.startsWith("?") || tag.startsWith("!") ? null : tag;
+            }
+        }
+
+        if (!encontrouOfx) {
+            throw new IllegalArgumentException("Arquivo não está no formato OFX.");
+        }
+        return descartadas;
+    }
+
+    /**
+     * Lê o nome da tag até o '>' (o '<' já foi consumido). Atributos de XML são descartados.
+     */
+    private String lerTag(Reader reader) throws IOException {
+        StringBuilder tag = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1 && c != '>') {
+            if (tag.length() < 64) {
+                tag.append((char) c);
+            }
+        }
+        String nome = tag.toString().trim();
+        int espaco = nome.indexOf(' ');
+        return (espaco > 0 ? nome.substring(0, espaco) : nome).toUpperCase(Locale.ROOT);
+    }
+
+    private LinhaDeExtrato converter(Map<String, String> transacao) {
+        String data = transacao.get("DTPOSTED");
+        String valor = transacao.get("TRNAMT");
+        String descricao = transacao.getOrDefault("MEMO", transacao.get("NAME"));
+        if (data == null || data.length() < 8 || valor == null) {
+            return null;
+        }
+        try {
+            // DTPOSTED pode trazer hora e fuso (20260105120000[-3:BRT]); só a data interessa
+            LocalDate dataLancamento = LocalDate.parse(data.substring(0, 8), DATA_OFX);
+            // Alguns bancos brasileiros usam vírgula decimal no TRNAMT
+            BigDecimal valorLancamento = new BigDecimal(valor.replace(',', '.'));
+            if (valorLancamento.signum() == 0) {
+                return null;
+            }
+            return new LinhaDeExtrato(dataLancamento, valorLancamento, desescapar(descricao));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private String desescapar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        return texto.replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+    }
+
+    /**
+     * Descobre a codificação pelo cabeçalho: OFX 1.x declara CHARSET:1252 (comum nos bancos
+     * brasileiros) ou ENCODING:UTF-8; o XML do OFX 2.x declara encoding="...". Sem declaração, UTF-8.
+     */
+    private Charset detectarCharset(BufferedInputStream entrada) throws IOException {
+        entrada.mark(1024);
+        byte[] inicio = entrada.readNBytes(1024);
+        entrada.reset();
+
+        String cabecalho = new String(inicio, StandardCharsets.ISO_8859_1).toUpperCase(Locale.ROOT);
+        if (cabecalho.contains("ENCODING:UTF-8") || cabecalho.contains("ENCODING=\"UTF-8\"")) {
+            return StandardCharsets.UTF_8;
+        }
+        if (cabecalho.contains("CHARSET:1252") || cabecalho.contains("ENCODING=\"WINDOWS-1252\"")) {
+            return Charset.forName("windows-1252");
+        }
+        if (cabecalho.contains("CHARSET:ISO-8859-1") || cabecalho.contains("ENCODING=\"ISO-8859-1\"")) {
+            return StandardCharsets.ISO_8859_1;
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
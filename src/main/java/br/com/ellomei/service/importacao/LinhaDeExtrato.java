@@ -0,0 +1,43 @@
+package br.com.ellomei.service.importacao;
+
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.TextoDeBusca;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Uma movimentação lida de um extrato bancário (OFX ou CSV).
+ *
+ * O valor vem com sinal: positivo é crédito (ENTRADA), negativo é débito (SAIDA).
+ */
+public class LinhaDeExtrato {
+
+    private final LocalDate data;
+    private final BigDecimal valor;
+    private final String descricao;
+
+    public LinhaDeExtrato(LocalDate data, BigDecimal valor, String descricao) {
+        this.data = data;
+        this.valor = valor;
+        this.descricao = descricao;
+    }
+
+    public LocalDate getData() { return data; }
+    public BigDecimal getValor() { return valor; }
+    public String getDescricao() { return descricao; }
+
+    public TipoLancamento getTipo() {
+        return valor.signum() < 0 ? TipoLancamento.SAIDA : TipoLancamento.ENTRADA;
+    }
+
+    /**
+     * Chave usada para reconhecer uma movimentação já lançada: data, valor com sinal e
+     * descrição normalizada (sem acentos, maiúsculas ou pontuação).
+     */
+    public static String chaveDeDuplicidade(LocalDate data, TipoLancamento tipo, BigDecimal valorAbsoluto, String descricao) {
+        BigDecimal valorComSinal = tipo == TipoLancamento.SAIDA ? valorAbsoluto.negate() : valorAbsoluto;
+        return data + "|" + valorComSinal.stripTrailingZeros().toPlainString() + "|"
+                + String.join(" ", TextoDeBusca.termos(descricao));
+    }
+}
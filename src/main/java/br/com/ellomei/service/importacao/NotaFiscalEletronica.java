@@ -0,0 +1,66 @@
+package br.com.ellomei.service.importacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Dados de uma NF-e necessários para lançá-la: identificação, data, valor total
+ * e as duas partes (emitente e destinatário).
+ */
+public class NotaFiscalEletronica {
+
+    /**
+     * Emitente ou destinatário da nota. O documento é o CNPJ ou o CPF, apenas com dígitos.
+     */
+    public static class Parte {
+        private String documento;
+        private boolean pessoaJuridica;
+        private String nome;
+        private String nomeFantasia;
+
+        public String getDocumento() { return documento; }
+        void setDocumento(String documento, boolean pessoaJuridica) {
+            this.documento = apenasDigitos(documento);
+            this.pessoaJuridica = pessoaJuridica;
+        }
+        public boolean isPessoaJuridica() { return pessoaJuridica; }
+        public String getNome() { return nome; }
+        void setNome(String nome) { this.nome = nome; }
+        public String getNomeFantasia() { return nomeFantasia; }
+        void setNomeFantasia(String nomeFantasia) { this.nomeFantasia = nomeFantasia; }
+
+        /** Nome para exibição: o fantasia, quando houver. */
+        public String getNomeExibicao() {
+            return nomeFantasia != null && !nomeFantasia.isBlank() ? nomeFantasia : nome;
+        }
+    }
+
+    private String chave;
+    private String numero;
+    private LocalDate dataEmissao;
+    private BigDecimal valorTotal;
+    private final Parte emitente = new Parte();
+    private final Parte destinatario = new Parte();
+
+    public String getChave() { return chave; }
+    void setChave(String chave) { this.chave = chave; }
+    public String getNumero() { return numero; }
+    void setNumero(String numero) { this.numero = numero; }
+    public LocalDate getDataEmissao() { return dataEmissao; }
+    void setDataEmissao(LocalDate dataEmissao) { this.dataEmissao = dataEmissao; }
+    public BigDecimal getValorTotal() { return valorTotal; }
+    void setValorTotal(BigDecimal valorTotal) { this.valorTotal = valorTotal; }
+    public Parte getEmitente() { return emitente; }
+    public Parte getDestinatario() { return destinatario; }
+
+    /**
+     * Uma nota só pode ser lançada com data, valor positivo e emitente identificado.
+     */
+    public boolean isCompleta() {
+        return dataEmissao != null && valorTotal != null && valorTotal.signum() > 0 && emitente.getDocumento() != null;
+    }
+
+    public static String apenasDigitos(String texto) {
+        return texto == null ? null : texto.replaceAll("\\D", "");
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.ellomei.service.importacao;
+
+/**
+ * Resumo de uma importação: o que foi lançado, o que já existia e o que não pôde ser lido.
+ */
+public class ResultadoImportacao {
+
+    private final int importados;
+    private final int duplicados;
+    private final int descartados;
+
+    public ResultadoImportacao(int importados, int duplicados, int descartados) {
+        this.importados = importados;
+        this.duplicados = duplicados;
+        this.descartados = descartados;
+    }
+
+    public int getImportados() { return importados; }
+    public int getDuplicados() { return duplicados; }
+    public int getDescartados() { return descartados; }
+
+    /**
+     * Mensagem para o usuário, ex.: "12 lançamento(s) importado(s), 3 já existiam."
+     */
+    public String getMensagem() {
+        StringBuilder mensagem = new StringBuilder(importados + " lançamento(s) importado(s)");
+        if (duplicados > 0) {
+            mensagem.append(", ").append(duplicados).append(" já existiam");
+        }
+        if (descartados > 0) {
+            mensagem.append(", ").append(descartados).append(" registro(s) ignorado(s) por estarem incompletos ou ilegíveis");
+        }
+        return mensagem.append('.').toString();
+    }
+}
@@ -0,0 +1,32 @@
+-- ===================================
+-- Flyway Migration V2: Lancamento/Comprovante Sequences
+-- ===================================
+-- Descrição: Cria as tabelas de sequência usadas pelo gerador com pool
+--            (allocationSize = 50) de Lancamento e Comprovante.
+--            O MySQL não tem SEQUENCE, então o Hibernate emula com uma
+--            tabela de uma linha (coluna next_val).
+--
+--            O valor inicial é MAX(id) + 50: o otimizador "pooled" trata o
+--            valor lido como limite superior do bloco, então os próximos IDs
+--            começam logo após o maior ID já gravado via IDENTITY.
+-- Autor: ElloMEI Team
+-- Data: 2026-10-17
+-- ===================================
+
+CREATE TABLE IF NOT EXISTS lancamento_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO lancamento_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM lancamento;
+
+CREATE TABLE IF NOT EXISTS comprovante_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO comprovante_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM comprovante;
+
+-- ===================================
+-- Fim da Migration V2
+-- ===================================
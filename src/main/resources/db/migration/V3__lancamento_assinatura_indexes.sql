@@ -0,0 +1,55 @@
+-- ===================================
+-- Flyway Migration V3: Índices das consultas de Lancamento e Assinatura
+-- ===================================
+-- Descrição: Cria os índices compostos usados pelas consultas quentes.
+--            Todas as consultas de lançamento filtram por usuário, então
+--            usuario_id é sempre a primeira coluna; a segunda é a coluna
+--            de filtro/ordenação de cada caso de uso (período, operação,
+--            status, tipo).
+--
+--            O InnoDB descarta sozinho o índice implícito da FK quando um
+--            índice novo começa pela mesma coluna, então não sobram
+--            índices duplicados. Pelo mesmo motivo comprovante não ganha
+--            índice aqui: o índice da FK lancamento_id já atende ao
+--            carregamento dos comprovantes de um lançamento.
+--
+--            ALGORITHM=INPLACE, LOCK=NONE: a tabela continua aceitando
+--            leituras e escritas enquanto o índice é construído.
+-- Autor: ElloMEI Team
+-- Data: 2026-10-17
+-- ===================================
+
+-- Listagens, dashboard, relatórios e paginação por cursor (data, id)
+CREATE INDEX idx_lancamento_usuario_data_id
+    ON lancamento (usuario_id, data, id) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Edição/exclusão de uma operação (todas as pernas do mesmo grupo)
+CREATE INDEX idx_lancamento_usuario_grupo
+    ON lancamento (usuario_id, grupo_operacao) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Contas a pagar e totais pagos
+CREATE INDEX idx_lancamento_usuario_status_data
+    ON lancamento (usuario_id, status, data) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Entradas/saídas no período (limite de faturamento MEI, despesas por categoria)
+CREATE INDEX idx_lancamento_usuario_tipo_data
+    ON lancamento (usuario_id, tipo, data) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Assinaturas do usuário (vigente e histórico)
+CREATE INDEX idx_assinaturas_usuario_inicio
+    ON assinaturas (usuario_id, data_inicio) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Jobs agendados: renovação, retry, suspensões e trials expirados
+CREATE INDEX idx_assinaturas_status_cobranca
+    ON assinaturas (status, data_proxima_cobranca) ALGORITHM=INPLACE LOCK=NONE;
+
+CREATE INDEX idx_assinaturas_status_expiracao
+    ON assinaturas (status, data_expiracao) ALGORITHM=INPLACE LOCK=NONE;
+
+-- Webhooks do Mercado Pago
+CREATE INDEX idx_assinaturas_pagamento_externo
+    ON assinaturas (id_pagamento_externo) ALGORITHM=INPLACE LOCK=NONE;
+
+-- ===================================
+-- Fim da Migration V3
+-- ===================================
@@ -0,0 +1,51 @@
+-- ===================================
+-- Flyway Migration V4: Índice de busca por texto dos lançamentos
+-- ===================================
+-- Descrição: Cria o índice invertido da descrição dos lançamentos.
+--            Cada linha é um termo normalizado (minúsculo, sem acento) de
+--            um lançamento. A busca usa termo LIKE 'prefixo%' pelo índice
+--            (usuario_id, termo), em vez de descricao LIKE '%texto%', que
+--            varre todos os lançamentos do usuário.
+--
+--            Os lançamentos já existentes são indexados pela aplicação ao
+--            subir (IndiceDeBuscaService), pois a remoção de acentos é
+--            feita em Java. A indexação roda uma vez: ao terminar, grava
+--            uma linha em tarefa_concluida e não se repete nas próximas
+--            subidas.
+--
+--            Um lançamento não repete termos (chave única lancamento_id,
+--            termo); a chave também atende à remoção dos termos de um
+--            lançamento, que antes usava um índice próprio.
+-- Autor: ElloMEI Team
+-- Data: 2026-10-17
+-- ===================================
+
+CREATE TABLE IF NOT EXISTS lancamento_termo (
+    id BIGINT NOT NULL,
+    lancamento_id BIGINT NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    termo VARCHAR(50) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_lancamento_termo_lancamento_termo (lancamento_id, termo),
+    INDEX idx_lancamento_termo_usuario_termo (usuario_id, termo, lancamento_id),
+    CONSTRAINT fk_lancamento_termo_lancamento FOREIGN KEY (lancamento_id) REFERENCES lancamento (id),
+    CONSTRAINT fk_lancamento_termo_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+) ENGINE=InnoDB;
+
+-- Sequência com pool (allocationSize = 50), como lancamento_seq e comprovante_seq
+CREATE TABLE IF NOT EXISTS lancamento_termo_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO lancamento_termo_seq (next_val) VALUES (1);
+
+-- Tarefas de manutenção que rodam uma única vez (ex.: a indexação acima)
+CREATE TABLE IF NOT EXISTS tarefa_concluida (
+    nome VARCHAR(100) NOT NULL,
+    concluida_em DATETIME(6) NOT NULL,
+    PRIMARY KEY (nome)
+) ENGINE=InnoDB;
+
+-- ===================================
+-- Fim da Migration V4
+-- ===================================
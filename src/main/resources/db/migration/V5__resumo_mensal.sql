@@ -0,0 +1,59 @@
+-- ===================================
+-- Flyway Migration V5: Resumo mensal dos lançamentos
+-- ===================================
+-- Descrição: Cria a tabela resumo_mensal, com a soma e a quantidade de
+--            lançamentos por usuário, mês, tipo, status, conta, categoria
+--            e nota fiscal. O dashboard lê os totais daqui em vez de
+--            agregar todos os lançamentos a cada acesso; a aplicação
+--            mantém o resumo na mesma transação que grava os lançamentos.
+--
+--            O resumo é preenchido com os lançamentos já existentes.
+--            Lançamentos sem categoria usam categoria_id = 0 e
+--            com_nota_fiscal nulo vira 0, para que a chave única valha
+--            também para eles.
+--
+--            As variações são gravadas com INSERT ... ON DUPLICATE KEY
+--            UPDATE (soma atômica que também cria a linha), para que duas
+--            transações criando a mesma linha não esbarrem na chave única.
+--            O INSERT nativo não passa pelo gerador do Hibernate, por isso
+--            o ID é AUTO_INCREMENT.
+-- Autor: ElloMEI Team
+-- Data: 2026-10-17
+-- ===================================
+
+CREATE TABLE IF NOT EXISTS resumo_mensal (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    mes DATE NOT NULL,
+    tipo VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    conta_id BIGINT NOT NULL,
+    categoria_id BIGINT NOT NULL,
+    com_nota_fiscal BIT NOT NULL,
+    total DECIMAL(19,2) NOT NULL,
+    quantidade BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_resumo_mensal_chave (usuario_id, mes, tipo, status, conta_id, categoria_id, com_nota_fiscal),
+    CONSTRAINT fk_resumo_mensal_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+) ENGINE=InnoDB;
+
+INSERT INTO resumo_mensal (usuario_id, mes, tipo, status, conta_id, categoria_id, com_nota_fiscal, total, quantidade)
+SELECT usuario_id, mes, tipo, status, conta_id, categoria_id, com_nota_fiscal, total, quantidade
+FROM (
+    SELECT usuario_id,
+           DATE_SUB(data, INTERVAL DAYOFMONTH(data) - 1 DAY) AS mes,
+           tipo,
+           status,
+           conta_id,
+           COALESCE(categoria_despesa_id, 0) AS categoria_id,
+           COALESCE(com_nota_fiscal, 0) AS com_nota_fiscal,
+           SUM(valor) AS total,
+           COUNT(*) AS quantidade
+    FROM lancamento
+    GROUP BY usuario_id, DATE_SUB(data, INTERVAL DAYOFMONTH(data) - 1 DAY), tipo, status, conta_id,
+             COALESCE(categoria_despesa_id, 0), COALESCE(com_nota_fiscal, 0)
+) agregado;
+
+-- ===================================
+-- Fim da Migration V5
+-- ===================================
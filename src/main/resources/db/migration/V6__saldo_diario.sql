@@ -0,0 +1,48 @@
+-- ===================================
+-- Flyway Migration V6: Histórico de saldo diário das contas
+-- ===================================
+-- Descrição: Cria a tabela saldo_diario, com uma linha por conta e dia
+--            com lançamentos pagos e o movimento do dia (entradas menos
+--            saídas). O saldo de uma conta em uma data é saldo_inicial +
+--            a soma dos movimentos até aquela data; a aplicação mantém o
+--            histórico na mesma transação que grava os lançamentos.
+--
+--            O histórico é preenchido com os lançamentos pagos já
+--            existentes.
+--
+--            Os movimentos são gravados com INSERT ... ON DUPLICATE KEY
+--            UPDATE (soma atômica que também cria a linha), como em
+--            resumo_mensal (V5), por isso o ID é AUTO_INCREMENT.
+--            Nenhuma linha guarda o saldo acumulado: um lançamento
+--            retroativo altera só o seu dia.
+-- Autor: ElloMEI Team
+-- Data: 2026-10-17
+-- ===================================
+
+CREATE TABLE IF NOT EXISTS saldo_diario (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    conta_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+    movimento DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_saldo_diario_conta_data (conta_id, data),
+    CONSTRAINT fk_saldo_diario_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+) ENGINE=InnoDB;
+
+INSERT INTO saldo_diario (usuario_id, conta_id, data, movimento)
+SELECT usuario_id, conta_id, data, movimento
+FROM (
+    SELECT usuario_id,
+           conta_id,
+           data,
+           SUM(CASE WHEN tipo = 'ENTRADA' THEN valor ELSE -valor END) AS movimento
+    FROM lancamento
+    WHERE status = 'PAGO'
+    GROUP BY usuario_id, conta_id, data
+) movimento_diario
+WHERE movimento <> 0;
+
+-- ===================================
+-- Fim da Migration V6
+-- ===================================
@@ -0,0 +1,157 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.LancamentoFormDTO;
+import br.com.ellomei.domain.PagamentoDTO;
+import br.com.ellomei.domain.PlanoAssinatura;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.dto.RelatorioConciliacaoDTO.Divergencia;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.ConciliacaoDeSaldosService;
+import br.com.ellomei.service.ConciliacaoDeSaldosService.ResultadoDoLote;
+import br.com.ellomei.service.LancamentoService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração da conciliação dos saldos com os lançamentos.
+ *
+ * Verifica que a consulta agregada de um lote calcula o saldo esperado de cada conta (só
+ * lançamentos PAGOS contam), que um saldo alterado direto no banco aparece como divergência
+ * e que a correção deixa o saldo igual ao esperado.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser("userConciliacao")
+public class ConciliacaoDeSaldosIntegrationTest {
+
+    @Autowired private ConciliacaoDeSaldosService conciliacaoDeSaldosService;
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Usuario usuario;
+    private Conta banco;
+    private Conta caixa;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userConciliacao");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuario.setPlano(PlanoAssinatura.PRO);
+        usuarioRepository.save(usuario);
+
+        banco = criarConta("Banco", "Conta Corrente", "1000.00");
+        caixa = criarConta("Dinheiro", "Caixa", "0.00");
+
+        salvar("Venda", TipoLancamento.ENTRADA, StatusLancamento.PAGO, banco, "300.00");
+        salvar("Fornecedor", TipoLancamento.SAIDA, StatusLancamento.PAGO, banco, "120.00");
+        salvar("Aluguel", TipoLancamento.SAIDA, StatusLancamento.A_PAGAR, banco, "500.00");
+        salvar("Venda balcão", TipoLancamento.ENTRADA, StatusLancamento.PAGO, caixa, "45.00");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Conta criarConta(String nome, String tipo, String saldoInicial) {
+        Conta conta = new Conta();
+        conta.setNomeConta(nome);
+        conta.setTipo(tipo);
+        conta.setSaldoInicial(new BigDecimal(saldoInicial));
+        conta.setSaldoAtual(new BigDecimal(saldoInicial));
+        conta.setUsuario(usuario);
+        return contaRepository.save(conta);
+    }
+
+    private void salvar(String descricao, TipoLancamento tipo, StatusLancamento status, Conta conta, String valor) {
+        LancamentoFormDTO form = new LancamentoFormDTO();
+        form.setDescricao(descricao);
+        form.setData(LocalDate.now());
+        form.setTipo(tipo);
+        form.setStatus(status);
+        PagamentoDTO pagamento = new PagamentoDTO();
+        pagamento.setConta(conta.getId());
+        pagamento.setValor(new BigDecimal(valor));
+        form.setPagamentos(new ArrayList<>(List.of(pagamento)));
+        lancamentoService.salvarOuAtualizarOperacao(form, null, usuario);
+    }
+
+    private static void assertValor(String esperado, BigDecimal atual) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(atual), "Esperado " + esperado + ", obtido " + atual);
+    }
+
+    @Test
+    void saldosMantidosPelosLancamentosNaoDevemDivergir() {
+        // Cenário (Arrange)
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Ação (Act)
+        ResultadoDoLote resultado = conciliacaoDeSaldosService.conciliarLote(List.of(usuario.getId()), false);
+
+        // Verificação (Assert) - uma consulta para todas as contas do lote
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, resultado.contas());
+        assertTrue(resultado.divergencias().isEmpty());
+    }
+
+    @Test
+    void deveReportarECorrigirSaldoAlteradoDiretoNoBanco() {
+        // Cenário (Arrange)
+        jdbcTemplate.update("UPDATE conta SET saldo_atual = saldo_atual - 80 WHERE id = ?", banco.getId());
+
+        // Ação (Act) - só reporta
+        ResultadoDoLote reportado = conciliacaoDeSaldosService.conciliarLote(List.of(usuario.getId()), false);
+
+        // Verificação (Assert)
+        assertEquals(1, reportado.divergencias().size());
+        Divergencia divergencia = reportado.divergencias().get(0);
+        assertEquals(banco.getId(), divergencia.contaId());
+        assertValor("1100.00", divergencia.saldoAtual());
+        assertValor("1180.00", divergencia.saldoEsperado());
+        assertValor("-80.00", divergencia.diferenca());
+        assertValor("1100.00", contaRepository.findById(banco.getId()).orElseThrow().getSaldoAtual());
+
+        // Ação (Act) - corrige
+        ResultadoDoLote corrigido = conciliacaoDeSaldosService.conciliarLote(List.of(usuario.getId()), true);
+
+        // Verificação (Assert)
+        assertTrue(corrigido.divergencias().get(0).corrigida());
+        entityManager.clear();
+        assertValor("1180.00", contaRepository.findById(banco.getId()).orElseThrow().getSaldoAtual());
+        assertValor("45.00", contaRepository.findById(caixa.getId()).orElseThrow().getSaldoAtual());
+        assertTrue(conciliacaoDeSaldosService.conciliarLote(List.of(usuario.getId()), false).divergencias().isEmpty());
+    }
+}
@@ -0,0 +1,196 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.ChaveDeGrupo;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.StatusAssinatura;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.AssinaturaRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.ResumoMensalRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração dos índices das consultas de Lancamento, ResumoMensal e Assinatura.
+ *
+ * Executa cada consulta dos repositórios, captura o SQL gerado pelo Hibernate
+ * e roda EXPLAIN no H2. O teste falha se alguma delas varrer a tabela inteira
+ * (tableScan) em vez de usar um índice.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.ellomei.ConsultasComIndiceIntegrationTest$CapturaDeSql")
+@ActiveProfiles("test")
+@Transactional
+public class ConsultasComIndiceIntegrationTest {
+
+    /**
+     * Guarda os SELECTs preparados pelo Hibernate para que o teste rode EXPLAIN sobre eles.
+     */
+    public static class CapturaDeSql implements StatementInspector {
+
+        private static final List<String> CONSULTAS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                CONSULTAS.add(sql);
+            }
+            return sql;
+        }
+
+        static void limpar() {
+            CONSULTAS.clear();
+        }
+
+        static List<String> consultas() {
+            synchronized (CONSULTAS) {
+                return new ArrayList<>(CONSULTAS);
+            }
+        }
+    }
+
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private AssinaturaRepository assinaturaRepository;
+    @Autowired private ResumoMensalRepository resumoMensalRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userIndices");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuarioRepository.saveAndFlush(usuario);
+
+        CapturaDeSql.limpar();
+    }
+
+    /**
+     * Roda EXPLAIN em cada SELECT capturado e devolve os planos que varrem uma das tabelas informadas.
+     * Os parâmetros ficam nulos: o plano do H2 é escolhido pela forma da consulta, não pelos valores.
+     */
+    private List<String> planosComTableScan(String... tabelas) {
+        List<String> consultas = CapturaDeSql.consultas();
+        assertFalse(consultas.isEmpty(), "Nenhuma consulta foi capturada");
+
+        List<String> planosComScan = new ArrayList<>();
+        for (String sql : consultas) {
+            String plano = jdbcTemplate.execute((ConnectionCallback<String>) con -> {
+                try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+                    int parametros = ps.getParameterMetaData().getParameterCount();
+                    for (int i = 1; i <= parametros; i++) {
+                        ps.setObject(i, null);
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        return rs.getString(1);
+                    }
+                }
+            });
+            for (String tabela : tabelas) {
+                if (plano.toUpperCase(Locale.ROOT).contains(tabela + ".TABLESCAN")) {
+                    planosComScan.add(plano);
+                }
+            }
+        }
+        return planosComScan;
+    }
+
+    @Test
+    void consultasDeLancamentoDevemUsarIndices() {
+        // Arrange
+        LocalDate inicio = LocalDate.of(2026, 1, 1);
+        LocalDate fim = LocalDate.of(2026, 1, 31);
+        LancamentoFiltro semFiltros = new LancamentoFiltro();
+        LancamentoFiltro todosOsFiltros = new LancamentoFiltro(inicio, fim, 1L, 1L, TipoLancamento.SAIDA, 1L, true, "mercado", StatusLancamento.PAGO);
+        ChaveDeGrupo cursor = new ChaveDeGrupo("grupo-1", LocalDate.of(2026, 1, 15), 10L);
+        Conta conta = new Conta();
+        conta.setId(1L);
+
+        // Act
+        lancamentoRepository.findByGrupoOperacaoAndUsuario("grupo-1", usuario);
+        lancamentoRepository.findByStatusAndUsuarioOrderByDataAsc(StatusLancamento.A_PAGAR, usuario);
+        lancamentoRepository.sumEntradasBancariasNoPeriodo(inicio, fim, usuario);
+        lancamentoRepository.countDistinctGrupoOperacaoByUsuarioAndDataBetween(usuario, inicio, fim);
+        lancamentoRepository.findSemTermosDeBusca(0L, PageRequest.of(0, 10));
+        lancamentoRepository.findResumoParaDuplicidade(usuario, conta, inicio, fim);
+        lancamentoRepository.findResumoParaPagamento(List.of(1L, 2L), usuario);
+        lancamentoRepository.agregarPorMes(usuario);
+        lancamentoRepository.somarPagosPorDia(usuario, inicio, fim);
+        resumoMensalRepository.findByUsuarioAndMesBetween(usuario, inicio, fim);
+        resumoMensalRepository.findByUsuario(usuario);
+        resumoMensalRepository.somarPorMes(usuario, inicio, fim);
+        resumoMensalRepository.somarPagos(usuario, inicio, fim);
+        for (LancamentoFiltro filtro : List.of(semFiltros, todosOsFiltros)) {
+            lancamentoRepository.findComFiltros(filtro.getDataInicio(), filtro.getDataFim(), filtro.getContaId(), filtro.getContatoId(),
+                    filtro.getTipo(), filtro.getCategoriaId(), filtro.getComNotaFiscal(), filtro.getDescricao(), filtro.getStatus(), usuario);
+            lancamentoRepository.somarPagosPorTipo(filtro, usuario);
+            lancamentoRepository.somarValores(filtro, usuario);
+            lancamentoRepository.buscarDespesasPorCategoria(filtro, usuario);
+            lancamentoRepository.buscarChavesDeGrupoAposCursor(filtro, usuario, cursor, 10);
+            lancamentoRepository.buscarChavesDeGrupoAntesDoCursor(filtro, usuario, cursor, 10);
+            lancamentoRepository.contarGrupos(filtro, usuario);
+            lancamentoRepository.buscarResumoDosGrupos(filtro, usuario, List.of("grupo-1"));
+            try (var exportacao = lancamentoRepository.streamComFiltros(filtro, usuario, 10)) {
+                exportacao.count();
+            }
+        }
+
+        // Assert
+        List<String> planos = planosComTableScan("LANCAMENTO", "COMPROVANTE", "LANCAMENTO_TERMO", "RESUMO_MENSAL");
+        assertTrue(planos.isEmpty(), "Consultas de lançamento com tableScan:\n" + String.join("\n\n", planos));
+    }
+
+    @Test
+    void consultasDeAssinaturaDevemUsarIndices() {
+        // Arrange
+        LocalDate hoje = LocalDate.of(2026, 1, 15);
+
+        // Act
+        assinaturaRepository.findByUsuarioAndStatus(usuario, StatusAssinatura.ATIVA);
+        assinaturaRepository.findByUsuarioOrderByDataInicioDesc(usuario);
+        assinaturaRepository.findByIdPagamentoExterno("pagamento-externo");
+        assinaturaRepository.findAssinaturasParaRenovar(hoje);
+        assinaturaRepository.findAssinaturasSuspensasExpiradas(hoje);
+        assinaturaRepository.findTrialsExpirados(hoje);
+        assinaturaRepository.countByStatus(StatusAssinatura.ATIVA);
+        assinaturaRepository.existsByUsuarioAndStatus(usuario, StatusAssinatura.ATIVA);
+        assinaturaRepository.findAssinaturasParaRetry(StatusAssinatura.SUSPENSA, hoje, 3);
+
+        // Assert
+        List<String> planos = planosComTableScan("ASSINATURAS");
+        assertTrue(planos.isEmpty(), "Consultas de assinatura com tableScan:\n" + String.join("\n\n", planos));
+    }
+}
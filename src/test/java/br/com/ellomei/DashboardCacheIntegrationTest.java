@@ -0,0 +1,192 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.CategoriaDespesa;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.LancamentoFormDTO;
+import br.com.ellomei.domain.PagamentoDTO;
+import br.com.ellomei.domain.PlanoAssinatura;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.CategoriaDespesaService;
+import br.com.ellomei.service.ContaService;
+import br.com.ellomei.service.DashboardService;
+import br.com.ellomei.service.LancamentoService;
+import br.com.ellomei.service.VersaoDeDadosService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Teste de Integração do cache do dashboard versionado pelos dados do usuário.
+ *
+ * Verifica que uma segunda leitura sem gravação no meio não vai ao banco, que gravações de
+ * lançamentos, contas e categorias fazem o próximo acesso recalcular e que as estatísticas
+ * de acertos e faltas são registradas.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class DashboardCacheIntegrationTest {
+
+    @Autowired private DashboardService dashboardService;
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private ContaService contaService;
+    @Autowired private CategoriaDespesaService categoriaDespesaService;
+    @Autowired private VersaoDeDadosService versaoDeDadosService;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private CacheManager cacheManager;
+    @Autowired private EntityManager entityManager;
+
+    private final YearMonth mesAtual = YearMonth.now();
+
+    private Usuario usuario;
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        usuario = criarUsuario("userCacheDashboard");
+
+        conta = new Conta();
+        conta.setNomeConta("Banco");
+        conta.setTipo("Conta Corrente");
+        conta.setSaldoInicial(BigDecimal.ZERO);
+        contaService.salvar(conta, usuario);
+
+        salvarVenda("100.00");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Usuario criarUsuario(String username) {
+        Usuario novo = new Usuario();
+        novo.setUsername(username);
+        novo.setPassword(passwordEncoder.encode("password"));
+        novo.setRoles(TestHelper.createUserRole(roleRepository));
+        novo.setPlano(PlanoAssinatura.PRO);
+        return usuarioRepository.save(novo);
+    }
+
+    private void salvarVenda(String valor) {
+        LancamentoFormDTO form = new LancamentoFormDTO();
+        form.setDescricao("Venda");
+        form.setData(mesAtual.atDay(1));
+        form.setTipo(TipoLancamento.ENTRADA);
+        form.setStatus(StatusLancamento.PAGO);
+        PagamentoDTO pagamento = new PagamentoDTO();
+        pagamento.setConta(conta.getId());
+        pagamento.setValor(new BigDecimal(valor));
+        form.setPagamentos(new ArrayList<>(List.of(pagamento)));
+        lancamentoService.salvarOuAtualizarOperacao(form, null, usuario);
+    }
+
+    private Statistics estatisticasZeradas() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private CacheStats estatisticasDoCache() {
+        return ((CaffeineCache) cacheManager.getCache("dashboard")).getNativeCache().stats();
+    }
+
+    private static void assertValor(String esperado, BigDecimal atual) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(atual), "Esperado " + esperado + ", obtido " + atual);
+    }
+
+    @Test
+    void segundaLeituraSemGravacaoDeveVirDoCache() {
+        // Arrange
+        CacheStats antes = estatisticasDoCache();
+        Map<String, BigDecimal> primeira = dashboardService.getFaturamentoWidget("OFICIAL", usuario);
+        Statistics statistics = estatisticasZeradas();
+
+        // Act
+        Map<String, BigDecimal> segunda = dashboardService.getFaturamentoWidget("OFICIAL", usuario);
+
+        // Assert
+        assertEquals(0, statistics.getPrepareStatementCount(), "A segunda leitura não deve ir ao banco");
+        assertEquals(primeira, segunda);
+        CacheStats depois = estatisticasDoCache().minus(antes);
+        assertEquals(1, depois.hitCount());
+        assertEquals(1, depois.missCount());
+    }
+
+    @Test
+    void gravacaoDeLancamentoDeveInvalidarOsResultados() {
+        // Arrange
+        assertValor("100.00", dashboardService.getTotalEntradas(null, null, null, null, usuario));
+        assertValor("100.00", dashboardService.getSaldoTotal(usuario, null));
+
+        // Act
+        salvarVenda("50.00");
+
+        // Assert
+        assertValor("150.00", dashboardService.getTotalEntradas(null, null, null, null, usuario));
+        assertValor("150.00", dashboardService.getSaldoTotal(usuario, null));
+    }
+
+    @Test
+    void gravacaoDeContaOuCategoriaDeveAvancarAVersao() {
+        // Arrange
+        assertValor("100.00", dashboardService.getSaldoTotal(usuario, null));
+        long versaoInicial = versaoDeDadosService.getVersao(usuario.getId());
+
+        // Act
+        Conta caixa = new Conta();
+        caixa.setNomeConta("Caixa");
+        caixa.setTipo("Caixa");
+        caixa.setSaldoInicial(new BigDecimal("20.00"));
+        contaService.salvar(caixa, usuario);
+        long versaoAposConta = versaoDeDadosService.getVersao(usuario.getId());
+        CategoriaDespesa categoria = new CategoriaDespesa();
+        categoria.setNome("Aluguel");
+        categoriaDespesaService.salvar(categoria, usuario);
+
+        // Assert
+        assertNotEquals(versaoInicial, versaoAposConta);
+        assertNotEquals(versaoAposConta, versaoDeDadosService.getVersao(usuario.getId()));
+        assertValor("120.00", dashboardService.getSaldoTotal(usuario, null));
+    }
+
+    @Test
+    void usuariosNaoDevemCompartilharResultados() {
+        // Arrange
+        Usuario outro = criarUsuario("userCacheDashboard2");
+        dashboardService.getFaturamentoWidget("OFICIAL", usuario);
+
+        // Act
+        Map<String, BigDecimal> doOutro = dashboardService.getFaturamentoWidget("OFICIAL", outro);
+
+        // Assert
+        assertValor("0", doOutro.get("faturamentoAnual"));
+        assertValor("0", doOutro.get("faturamentoMensal"));
+    }
+}
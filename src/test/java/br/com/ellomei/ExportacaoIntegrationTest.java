@@ -0,0 +1,163 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.ExportacaoService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração das exportações de lançamentos (CSV e OFX).
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ExportacaoIntegrationTest {
+
+    @Autowired private ExportacaoService exportacaoService;
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+
+    private Usuario usuario;
+    private Conta contaBanco;
+    private Conta contaCaixa;
+    private final List<Lancamento> lancamentos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userExportacao");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuarioRepository.save(usuario);
+
+        contaBanco = criarConta("Banco", "500.00");
+        contaCaixa = criarConta("Caixa", "0.00");
+
+        criarLancamento("Venda; cliente \"A\"", LocalDate.of(2026, 1, 5), TipoLancamento.ENTRADA, StatusLancamento.PAGO, contaBanco, "1500.50");
+        criarLancamento("Aluguel", LocalDate.of(2026, 1, 10), TipoLancamento.SAIDA, StatusLancamento.PAGO, contaBanco, "800.00");
+        criarLancamento("Internet", LocalDate.of(2026, 1, 20), TipoLancamento.SAIDA, StatusLancamento.A_PAGAR, contaBanco, "99.90");
+        criarLancamento("Troco", LocalDate.of(2026, 1, 3), TipoLancamento.ENTRADA, StatusLancamento.PAGO, contaCaixa, "10.00");
+    }
+
+    private Conta criarConta(String nome, String saldo) {
+        Conta conta = new Conta();
+        conta.setNomeConta(nome);
+        conta.setTipo(nome);
+        conta.setSaldoInicial(BigDecimal.ZERO);
+        conta.setSaldoAtual(new BigDecimal(saldo));
+        conta.setUsuario(usuario);
+        return contaRepository.save(conta);
+    }
+
+    private void criarLancamento(String descricao, LocalDate data, TipoLancamento tipo, StatusLancamento status, Conta conta, String valor) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setDescricao(descricao);
+        lancamento.setData(data);
+        lancamento.setTipo(tipo);
+        lancamento.setStatus(status);
+        lancamento.setConta(conta);
+        lancamento.setValor(new BigDecimal(valor));
+        lancamento.setComNotaFiscal(false);
+        lancamento.setUsuario(usuario);
+        lancamentos.add(lancamentoRepository.save(lancamento));
+    }
+
+    @Test
+    void deveExportarCsvEmOrdemCronologica() throws Exception {
+        // Arrange
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        exportacaoService.exportarCsv(new LancamentoFiltro(), usuario, saida);
+
+        // Assert
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).replace("\uFEFF", "").split("\r\n");
+        assertEquals(5, linhas.length, "Cabeçalho + 4 lançamentos");
+        assertTrue(linhas[0].startsWith("Data;Descrição;Tipo;Status;Valor"));
+        assertTrue(linhas[1].startsWith("03/01/2026;Troco;ENTRADA;PAGO;10,00;Caixa"));
+        // Descrição com separador e aspas vai entre aspas
+        assertTrue(linhas[2].startsWith("05/01/2026;\"Venda; cliente \"\"A\"\"\";ENTRADA;PAGO;1500,50;Banco"));
+        assertTrue(linhas[4].startsWith("20/01/2026;Internet;SAIDA;A_PAGAR;99,90;Banco"));
+    }
+
+    @Test
+    void deveNeutralizarFormulasNoCsv() throws Exception {
+        // Arrange
+        criarLancamento("=HYPERLINK(\"http://exemplo\")", LocalDate.of(2026, 2, 1), TipoLancamento.ENTRADA, StatusLancamento.PAGO, contaCaixa, "1.00");
+        criarLancamento("@SUM(A1)", LocalDate.of(2026, 2, 2), TipoLancamento.ENTRADA, StatusLancamento.PAGO, contaCaixa, "1.00");
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        // Act
+        exportacaoService.exportarCsv(new LancamentoFiltro(), usuario, saida);
+
+        // Assert: o Excel mostra a célula como texto
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).replace("\uFEFF", "").split("\r\n");
+        assertTrue(linhas[5].startsWith("01/02/2026;\"'=HYPERLINK(\"\"http://exemplo\"\")\";ENTRADA"), linhas[5]);
+        assertTrue(linhas[6].startsWith("02/02/2026;'@SUM(A1);ENTRADA"), linhas[6]);
+    }
+
+    @Test
+    void deveDesanexarLancamentosExportados() throws Exception {
+        // Act
+        exportacaoService.exportarCsv(new LancamentoFiltro(), usuario, new ByteArrayOutputStream());
+
+        // Assert: nada do que foi exportado continua no contexto de persistência
+        assertTrue(lancamentos.stream().noneMatch(entityManager::contains));
+    }
+
+    @Test
+    void deveExportarOfxSomenteComLancamentosPagosDaConta() throws Exception {
+        // Arrange
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        LancamentoFiltro filtro = LancamentoFiltro.doPeriodo(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31));
+
+        // Act
+        exportacaoService.exportarOfx(filtro, contaBanco, usuario, saida);
+
+        // Assert
+        String ofx = saida.toString(StandardCharsets.UTF_8);
+        assertTrue(ofx.startsWith("OFXHEADER:100"));
+        assertTrue(ofx.contains("<ACCTID>" + contaBanco.getId() + "<ACCTTYPE>CHECKING"));
+        assertTrue(ofx.contains("<DTSTART>20260101<DTEND>20260131"));
+        assertTrue(ofx.contains("<TRNTYPE>CREDIT<DTPOSTED>20260105<TRNAMT>1500.50"));
+        assertTrue(ofx.contains("<TRNTYPE>DEBIT<DTPOSTED>20260110<TRNAMT>-800.00"));
+        assertTrue(ofx.contains("<LEDGERBAL><BALAMT>500.00"));
+        // A conta a pagar e o lançamento do Caixa ficam de fora
+        assertFalse(ofx.contains("Internet"));
+        assertFalse(ofx.contains("Troco"));
+        assertTrue(ofx.trim().endsWith("</OFX>"));
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Granularidade;
+import br.com.ellomei.domain.LancamentoFormDTO;
+import br.com.ellomei.domain.PagamentoDTO;
+import br.com.ellomei.domain.PlanoAssinatura;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.DashboardService;
+import br.com.ellomei.service.LancamentoService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Teste de Integração da série de fluxo de caixa do dashboard (por semana, mês e trimestre).
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class FluxoDeCaixaIntegrationTest {
+
+    @Autowired private DashboardService dashboardService;
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+
+    private Usuario usuario;
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userFluxo");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuario.setPlano(PlanoAssinatura.PRO);
+        usuarioRepository.save(usuario);
+
+        conta = new Conta();
+        conta.setNomeConta("Banco");
+        conta.setTipo("Conta Corrente");
+        conta.setSaldoInicial(BigDecimal.ZERO);
+        conta.setSaldoAtual(BigDecimal.ZERO);
+        conta.setUsuario(usuario);
+        contaRepository.save(conta);
+
+        // 06/01/2025 é uma segunda-feira
+        salvar("Venda 1", LocalDate.of(2025, 1, 6), TipoLancamento.ENTRADA, StatusLancamento.PAGO, "100.00");
+        salvar("Venda 2", LocalDate.of(2025, 1, 8), TipoLancamento.ENTRADA, StatusLancamento.PAGO, "50.00");
+        salvar("Venda a receber", LocalDate.of(2025, 1, 7), TipoLancamento.ENTRADA, StatusLancamento.A_RECEBER, "999.00");
+        salvar("Compra", LocalDate.of(2025, 1, 13), TipoLancamento.SAIDA, StatusLancamento.PAGO, "30.00");
+        salvar("Venda 3", LocalDate.of(2025, 2, 15), TipoLancamento.ENTRADA, StatusLancamento.PAGO, "20.00");
+        salvar("Tarifa", LocalDate.of(2025, 4, 1), TipoLancamento.SAIDA, StatusLancamento.PAGO, "10.00");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void salvar(String descricao, LocalDate data, TipoLancamento tipo, StatusLancamento status, String valor) {
+        LancamentoFormDTO form = new LancamentoFormDTO();
+        form.setDescricao(descricao);
+        form.setData(data);
+        form.setTipo(tipo);
+        form.setStatus(status);
+        PagamentoDTO pagamento = new PagamentoDTO();
+        pagamento.setConta(conta.getId());
+        pagamento.setValor(new BigDecimal(valor));
+        form.setPagamentos(new ArrayList<>(List.of(pagamento)));
+        lancamentoService.salvarOuAtualizarOperacao(form, null, usuario);
+    }
+
+    private static void assertSerie(List<String> esperado, List<?> atual) {
+        assertEquals(esperado.size(), atual.size(), "Quantidade de períodos");
+        for (int i = 0; i < esperado.size(); i++) {
+            assertEquals(0, new BigDecimal(esperado.get(i)).compareTo((BigDecimal) atual.get(i)),
+                    "Período " + i + ": esperado " + esperado.get(i) + ", obtido " + atual.get(i));
+        }
+    }
+
+    private Statistics estatisticasZeradas() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    void deveAgruparPorSemanaComUmaUnicaConsulta() {
+        // Arrange
+        Statistics statistics = estatisticasZeradas();
+
+        // Act
+        Map<String, List<?>> fluxo = dashboardService.getFluxoDeCaixa(LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 19), Granularidade.SEMANA, usuario);
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of("06/01/25", "13/01/25"), fluxo.get("labels"));
+        assertSerie(List.of("150.00", "0"), fluxo.get("entradas"));
+        assertSerie(List.of("0", "30.00"), fluxo.get("saidas"));
+    }
+
+    @Test
+    void deveAgruparPorTrimestreAPartirDoResumo() {
+        // Arrange
+        Statistics statistics = estatisticasZeradas();
+
+        // Act
+        Map<String, List<?>> fluxo = dashboardService.getFluxoDeCaixa(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30), Granularidade.TRIMESTRE, usuario);
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of("1º tri/25", "2º tri/25"), fluxo.get("labels"));
+        assertSerie(List.of("170.00", "0"), fluxo.get("entradas"));
+        assertSerie(List.of("30.00", "10.00"), fluxo.get("saidas"));
+    }
+
+    @Test
+    void deveAgruparPorMesComPeriodoQuebrado() {
+        // Act: resumo (meses inteiros) e lançamentos (período quebrado)
+        Map<String, List<?>> mesesInteiros = dashboardService.getFluxoDeCaixa(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 4, 30), Granularidade.MES, usuario);
+        Map<String, List<?>> quebrado = dashboardService.getFluxoDeCaixa(LocalDate.of(2025, 1, 8), LocalDate.of(2025, 2, 14), Granularidade.MES, usuario);
+
+        // Assert
+        assertSerie(List.of("150.00", "20.00", "0", "0"), mesesInteiros.get("entradas"));
+        assertSerie(List.of("30.00", "0", "0", "10.00"), mesesInteiros.get("saidas"));
+        assertSerie(List.of("50.00", "0"), quebrado.get("entradas"));
+        assertSerie(List.of("30.00", "0"), quebrado.get("saidas"));
+    }
+
+    @Test
+    void deveRejeitarPeriodoInvalido() {
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> dashboardService.getFluxoDeCaixa(inicio, inicio.minusDays(1), Granularidade.MES, usuario));
+        assertThrows(IllegalArgumentException.class,
+                () -> dashboardService.getFluxoDeCaixa(inicio, inicio.plusYears(6), Granularidade.SEMANA, usuario));
+    }
+}
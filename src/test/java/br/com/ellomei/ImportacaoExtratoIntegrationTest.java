@@ -0,0 +1,224 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.PlanoAssinatura;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.exception.PlanLimitExceededException;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.ImportacaoService;
+import br.com.ellomei.service.importacao.ResultadoImportacao;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração da importação de extratos bancários (OFX e CSV).
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ImportacaoExtratoIntegrationTest {
+
+    private static final String OFX_SGML =
+            "OFXHEADER:100\r\nDATA:OFXSGML\r\nVERSION:102\r\nENCODING:USASCII\r\nCHARSET:1252\r\n\r\n" +
+            "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>" +
+            "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20250105120000[-3:BRT]<TRNAMT>1500.50<FITID>1<MEMO>Pix recebido Cliente A\r\n</STMTTRN>" +
+            "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20250110<TRNAMT>-800,00<FITID>2<NAME>Aluguel Loja\r\n</STMTTRN>" +
+            "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20250112<TRNAMT>-12.90<FITID>3<MEMO>Tarifa pacote serviços\r\n</STMTTRN>" +
+            "<STMTTRN><TRNTYPE>DEBIT<TRNAMT>-5.00<FITID>4<MEMO>Sem data\r\n</STMTTRN>" +
+            "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>";
+
+    @Autowired private ImportacaoService importacaoService;
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+
+    private Usuario usuario;
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userImportacao");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuario.setPlano(PlanoAssinatura.PRO);
+        usuarioRepository.save(usuario);
+
+        conta = new Conta();
+        conta.setNomeConta("Banco");
+        conta.setTipo("Conta Corrente");
+        conta.setSaldoInicial(new BigDecimal("100.00"));
+        conta.setSaldoAtual(new BigDecimal("100.00"));
+        conta.setUsuario(usuario);
+        contaRepository.save(conta);
+    }
+
+    private ResultadoImportacao importar(String conteudo, Charset charset, String nomeArquivo) throws Exception {
+        try (InputStream entrada = new ByteArrayInputStream(conteudo.getBytes(charset))) {
+            return importacaoService.importarExtrato(entrada, nomeArquivo, conta.getId(), usuario);
+        }
+    }
+
+    private BigDecimal saldoAtual() {
+        entityManager.clear();
+        return contaRepository.findById(conta.getId()).orElseThrow().getSaldoAtual();
+    }
+
+    @Test
+    void deveImportarOfxEAjustarSaldo() throws Exception {
+        // Act
+        ResultadoImportacao resultado = importar(OFX_SGML, Charset.forName("windows-1252"), "extrato.OFX");
+
+        // Assert
+        assertEquals(3, resultado.getImportados());
+        assertEquals(1, resultado.getDescartados(), "Transação sem DTPOSTED é descartada");
+
+        List<Lancamento> lancamentos = lancamentoRepository.findByStatusAndUsuarioOrderByDataAsc(StatusLancamento.PAGO, usuario);
+        assertEquals(3, lancamentos.size());
+        assertTrue(lancamentos.stream().allMatch(l -> l.getStatus() == StatusLancamento.PAGO));
+        assertTrue(lancamentos.stream().anyMatch(l -> l.getDescricao().equals("Tarifa pacote serviços")
+                && l.getTipo() == TipoLancamento.SAIDA && l.getValor().compareTo(new BigDecimal("12.90")) == 0));
+        assertTrue(lancamentos.stream().anyMatch(l -> l.getDescricao().equals("Aluguel Loja")
+                && l.getValor().compareTo(new BigDecimal("800.00")) == 0));
+        assertEquals(3, lancamentos.stream().map(Lancamento::getGrupoOperacao).distinct().count());
+
+        // 100,00 + 1500,50 - 800,00 - 12,90
+        assertEquals(0, new BigDecimal("787.60").compareTo(saldoAtual()));
+    }
+
+    @Test
+    void deveIgnorarMovimentacoesJaLancadasAoReimportar() throws Exception {
+        // Arrange
+        importar(OFX_SGML, Charset.forName("windows-1252"), "extrato.ofx");
+
+        // Act
+        ResultadoImportacao resultado = importar(OFX_SGML, Charset.forName("windows-1252"), "extrato.ofx");
+
+        // Assert
+        assertEquals(0, resultado.getImportados());
+        assertEquals(3, resultado.getDuplicados());
+        assertEquals(3, lancamentoRepository.findByStatusAndUsuarioOrderByDataAsc(StatusLancamento.PAGO, usuario).size());
+        assertEquals(0, new BigDecimal("787.60").compareTo(saldoAtual()), "O saldo não pode ser ajustado duas vezes");
+    }
+
+    @Test
+    void deveImportarCsvComFormatoBrasileiro() throws Exception {
+        // Arrange
+        String csv = "\uFEFFData;Histórico;Valor\r\n" +
+                "05/01/2025;\"Venda; balcão\";\"1.234,56\"\r\n" +
+                "06/01/2025;Combustível;-150,00\r\n" +
+                "07/01/2025;Linha quebrada\r\n" +
+                "08/01/2025;Tarifa;-10,00\r\n" +
+                "08/01/2025;Tarifa;-10,00\r\n";
+
+        // Act
+        ResultadoImportacao resultado = importar(csv, StandardCharsets.UTF_8, "extrato.csv");
+
+        // Assert
+        assertEquals(4, resultado.getImportados(), "Duas tarifas iguais no mesmo dia são movimentações distintas");
+        assertEquals(1, resultado.getDescartados());
+        assertEquals(0, new BigDecimal("1164.56").compareTo(saldoAtual()));
+    }
+
+    @Test
+    void deveReimportarApenasMovimentacoesNovasDoCsv() throws Exception {
+        // Arrange
+        importar("Data;Descrição;Valor\n08/01/2025;Tarifa;-10,00\n", StandardCharsets.UTF_8, "a.csv");
+
+        // Act: o mesmo dia agora tem duas tarifas; só a segunda é nova
+        ResultadoImportacao resultado = importar("Data;Descrição;Valor\n08/01/2025;TARIFA;-10,00\n08/01/2025;Tarifa;-10,00\n",
+                StandardCharsets.UTF_8, "b.csv");
+
+        // Assert
+        assertEquals(1, resultado.getImportados());
+        assertEquals(1, resultado.getDuplicados());
+        assertEquals(2, lancamentoRepository.findByStatusAndUsuarioOrderByDataAsc(StatusLancamento.PAGO, usuario).size());
+    }
+
+    @Test
+    void deveRejeitarFormatoNaoSuportado() {
+        assertThrows(IllegalArgumentException.class, () -> importar("qualquer", StandardCharsets.UTF_8, "extrato.pdf"));
+        assertThrows(IllegalArgumentException.class, () -> importar("Data;Valor\n", StandardCharsets.UTF_8, "extrato.csv"));
+        assertThrows(IllegalArgumentException.class, () -> importar("não é ofx", StandardCharsets.UTF_8, "extrato.ofx"));
+    }
+
+    @Test
+    void deveAplicarLimiteDoPlanoFreeNaImportacao() {
+        // Arrange
+        usuario.setPlano(PlanoAssinatura.FREE);
+        usuarioRepository.save(usuario);
+        String hoje = LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        StringBuilder csv = new StringBuilder("Data;Descrição;Valor\n");
+        for (int i = 1; i <= 21; i++) {
+            csv.append(hoje).append(";Venda ").append(i).append(";10,00\n");
+        }
+
+        // Act & Assert
+        assertThrows(PlanLimitExceededException.class, () -> importar(csv.toString(), StandardCharsets.UTF_8, "extrato.csv"));
+        assertEquals(0, lancamentoRepository.contarGrupos(new LancamentoFiltro(), usuario));
+    }
+
+    /**
+     * Importação grande: os INSERTs saem em lotes JDBC, então o número de comandos
+     * preparados fica muito abaixo do número de linhas do extrato.
+     */
+    @Test
+    void deveImportarExtratoGrandeEmLotes() throws Exception {
+        // Arrange
+        int linhas = 2000;
+        StringBuilder csv = new StringBuilder("Data;Descrição;Valor\n");
+        LocalDate inicio = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < linhas; i++) {
+            csv.append(inicio.plusDays(i % 365)).append(";Pedido ").append(i).append(";")
+                    .append(i % 2 == 0 ? "10.00" : "-4.00").append("\n");
+        }
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Act
+        ResultadoImportacao resultado = importar(csv.toString(), StandardCharsets.UTF_8, "grande.csv");
+
+        // Assert
+        assertEquals(linhas, resultado.getImportados());
+        long comandos = statistics.getPrepareStatementCount();
+        assertTrue(comandos < linhas / 4, "Esperado INSERT em lote, mas foram preparados " + comandos + " comandos");
+        // 100,00 + 1000 x 10,00 - 1000 x 4,00
+        assertEquals(0, new BigDecimal("6100.00").compareTo(saldoAtual()));
+        assertEquals(linhas, lancamentoRepository.contarGrupos(new LancamentoFiltro(), usuario));
+    }
+}
@@ -0,0 +1,258 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Contato;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.PlanoAssinatura;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoContato;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.ContatoRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.ImportacaoService;
+import br.com.ellomei.service.importacao.ResultadoImportacao;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração da importação de NF-e (XML avulso e ZIP).
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class ImportacaoNotaFiscalIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoNotaFiscalIntegrationTest.class);
+
+    private static final String CNPJ_MEI = "11444777000161";
+    private static final String CNPJ_FORNECEDOR = "11222333000181";
+
+    @Autowired private ImportacaoService importacaoService;
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private ContatoRepository contatoRepository;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+
+    private Usuario usuario;
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userNotaFiscal");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuario.setCnpj("11.444.777/0001-61");
+        usuario.setPlano(PlanoAssinatura.PRO);
+        usuarioRepository.save(usuario);
+
+        conta = new Conta();
+        conta.setNomeConta("Banco");
+        conta.setTipo("Conta Corrente");
+        conta.setSaldoInicial(BigDecimal.ZERO);
+        conta.setSaldoAtual(BigDecimal.ZERO);
+        conta.setUsuario(usuario);
+        contaRepository.save(conta);
+    }
+
+    /**
+     * XML de NF-e (versão 4.00, com envelope nfeProc e assinatura) com os campos usados na importação.
+     */
+    private static String xmlNota(int numero, String cnpjEmitente, String nomeEmitente, String documentoDestinatario,
+                                  String nomeDestinatario, LocalDate data, String valor) {
+        String chave = String.format("35%s%s55001%09d1%08d0", "2501", cnpjEmitente, numero, numero);
+        String tagDocumento = documentoDestinatario.length() == 11 ? "CPF" : "CNPJ";
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<nfeProc xmlns=\"http://www.portalfiscal.inf.br/nfe\" versao=\"4.00\"><NFe><infNFe Id=\"NFe" + chave + "\" versao=\"4.00\">" +
+                "<ide><cUF>35</cUF><natOp>Venda de mercadoria</natOp><mod>55</mod><serie>1</serie><nNF>" + numero + "</nNF>" +
+                "<dhEmi>" + data + "T10:15:00-03:00</dhEmi><tpNF>1</tpNF></ide>" +
+                "<emit><CNPJ>" + cnpjEmitente + "</CNPJ><xNome>" + nomeEmitente + "</xNome>" +
+                "<enderEmit><xLgr>Rua A</xLgr><xMun>São Paulo</xMun></enderEmit></emit>" +
+                "<dest><" + tagDocumento + ">" + documentoDestinatario + "</" + tagDocumento + "><xNome>" + nomeDestinatario + "</xNome></dest>" +
+                "<det nItem=\"1\"><prod><xProd>Produto</xProd><vProd>" + valor + "</vProd></prod></det>" +
+                "<total><ICMSTot><vProd>" + valor + "</vProd><vNF>" + valor + "</vNF></ICMSTot></total>" +
+                "</infNFe><Signature xmlns=\"http://www.w3.org/2000/09/xmldsig#\"><SignatureValue>abc</SignatureValue></Signature></NFe>" +
+                "<protNFe versao=\"4.00\"><infProt><chNFe>" + chave + "</chNFe></infProt></protNFe></nfeProc>";
+    }
+
+    private static MockMultipartFile xml(String nome, String conteudo) {
+        return new MockMultipartFile("arquivos", nome, "text/xml", conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockMultipartFile zip(String nome, List<String> xmls) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < xmls.size(); i++) {
+                zip.putNextEntry(new ZipEntry("notas/nota-" + i + ".xml"));
+                zip.write(xmls.get(i).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("arquivos", nome, "application/zip", bytes.toByteArray());
+    }
+
+    private ResultadoImportacao importar(boolean pagas, MultipartFile... arquivos) throws Exception {
+        return importacaoService.importarNotasFiscais(arquivos, conta.getId(), pagas, usuario);
+    }
+
+    private List<Lancamento> lancamentos() {
+        entityManager.clear();
+        return lancamentoRepository.buscarComFiltros(new LancamentoFiltro(), usuario, Lancamento.GRAFO_COM_COMPROVANTES);
+    }
+
+    @Test
+    void deveLancarNotaEmitidaComoEntradaECadastrarCliente() throws Exception {
+        // Arrange
+        String nota = xmlNota(101, CNPJ_MEI, "Minha Empresa MEI", "12345678909", "Maria Cliente", LocalDate.of(2025, 3, 10), "250.00");
+
+        // Act
+        ResultadoImportacao resultado = importar(true, xml("venda.xml", nota));
+
+        // Assert
+        assertEquals(1, resultado.getImportados());
+        Lancamento lancamento = lancamentos().get(0);
+        assertEquals(TipoLancamento.ENTRADA, lancamento.getTipo());
+        assertEquals(StatusLancamento.PAGO, lancamento.getStatus());
+        assertTrue(lancamento.getComNotaFiscal());
+        assertEquals(0, new BigDecimal("250.00").compareTo(lancamento.getValor()));
+        assertEquals(LocalDate.of(2025, 3, 10), lancamento.getData());
+        assertEquals("NF-e 101 - Maria Cliente", lancamento.getDescricao());
+
+        Contato cliente = lancamento.getContato();
+        assertNotNull(cliente);
+        assertEquals(TipoContato.PESSOA_FISICA, cliente.getTipoContato());
+        assertEquals("12345678909", cliente.getCpf());
+
+        assertEquals(1, lancamento.getComprovantes().size());
+        assertTrue(lancamento.getComprovantes().get(0).getPathArquivo().endsWith("venda.xml"));
+    }
+
+    @Test
+    void deveLancarNotaRecebidaComoSaidaUsandoContatoExistente() throws Exception {
+        // Arrange: o contato foi cadastrado com o CNPJ formatado
+        Contato fornecedor = new Contato();
+        fornecedor.setTipoContato(TipoContato.PESSOA_JURIDICA);
+        fornecedor.setRazaoSocial("Fornecedor Alfa Ltda");
+        fornecedor.setNomeFantasia("Alfa");
+        fornecedor.setCnpj("11.222.333/0001-81");
+        fornecedor.setUsuario(usuario);
+        contatoRepository.save(fornecedor);
+        String nota = xmlNota(7, CNPJ_FORNECEDOR, "Fornecedor Alfa Ltda", CNPJ_MEI, "Minha Empresa MEI", LocalDate.of(2025, 3, 12), "80.50");
+
+        // Act
+        ResultadoImportacao resultado = importar(false, xml("compra.xml", nota));
+
+        // Assert
+        assertEquals(1, resultado.getImportados());
+        Lancamento lancamento = lancamentos().get(0);
+        assertEquals(TipoLancamento.SAIDA, lancamento.getTipo());
+        assertEquals(StatusLancamento.A_PAGAR, lancamento.getStatus());
+        assertEquals(fornecedor.getId(), lancamento.getContato().getId());
+        assertEquals(1, contatoRepository.findByUsuario(usuario).size(), "Nenhum contato novo deve ser criado");
+    }
+
+    @Test
+    void deveIgnorarNotasRepetidasDeOutrasEmpresasEXmlsQueNaoSaoNotas() throws Exception {
+        // Arrange
+        String compra = xmlNota(1, CNPJ_FORNECEDOR, "Fornecedor Alfa Ltda", CNPJ_MEI, "Minha Empresa MEI", LocalDate.of(2025, 4, 1), "10.00");
+        String deTerceiros = xmlNota(2, CNPJ_FORNECEDOR, "Fornecedor Alfa Ltda", "99999999000191", "Outra Empresa", LocalDate.of(2025, 4, 1), "20.00");
+        String evento = "<?xml version=\"1.0\"?><procEventoNFe><evento><infEvento><tpEvento>110111</tpEvento></infEvento></evento></procEventoNFe>";
+        MockMultipartFile arquivoZip = zip("notas.zip", List.of(compra, compra, deTerceiros, evento, "<quebrado"));
+
+        // Act
+        ResultadoImportacao resultado = importar(true, arquivoZip);
+        ResultadoImportacao reimportacao = importar(true, xml("compra.xml", compra));
+
+        // Assert
+        assertEquals(1, resultado.getImportados());
+        assertEquals(1, resultado.getDuplicados(), "A mesma chave duas vezes no ZIP");
+        assertEquals(3, resultado.getDescartados(), "Nota de terceiros, evento e XML malformado");
+        assertEquals(0, reimportacao.getImportados());
+        assertEquals(1, reimportacao.getDuplicados());
+        assertEquals(1, lancamentos().size());
+        assertEquals(0, new BigDecimal("-10.00").compareTo(contaRepository.findById(conta.getId()).orElseThrow().getSaldoAtual()));
+    }
+
+    @Test
+    void deveRejeitarArquivoQueNaoEhXmlNemZip() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importar(true, new MockMultipartFile("arquivos", "nota.pdf", "application/pdf", new byte[]{1, 2, 3})));
+    }
+
+    /**
+     * Benchmark de vazão: um ZIP com centenas de notas de poucos fornecedores.
+     * Os lançamentos, comprovantes e termos de busca saem em lotes JDBC, então o número
+     * de comandos preparados fica bem abaixo do número de notas.
+     */
+    @Test
+    void deveImportarCentenasDeNotasPorEnvio() throws Exception {
+        // Arrange
+        int notas = 500;
+        String[][] fornecedores = {
+                {CNPJ_FORNECEDOR, "Fornecedor Alfa Ltda"},
+                {"45723174000110", "Distribuidora Beta SA"},
+                {"06990590000123", "Comercial Gama ME"}
+        };
+        List<String> xmls = new ArrayList<>();
+        for (int i = 1; i <= notas; i++) {
+            String[] fornecedor = fornecedores[i % fornecedores.length];
+            xmls.add(xmlNota(i, fornecedor[0], fornecedor[1], CNPJ_MEI, "Minha Empresa MEI",
+                    LocalDate.of(2025, 1, 1).plusDays(i % 200), "12.34"));
+        }
+        MockMultipartFile arquivoZip = zip("lote.zip", xmls);
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Act
+        long inicio = System.nanoTime();
+        ResultadoImportacao resultado = importar(true, arquivoZip);
+        long milissegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert
+        long comandos = statistics.getPrepareStatementCount();
+        logger.info("Importação de {} NF-e: {} ms ({} notas/s), {} comandos preparados",
+                notas, milissegundos, notas * 1000L / Math.max(1, milissegundos), comandos);
+        assertEquals(notas, resultado.getImportados());
+        assertEquals(3, contatoRepository.findByUsuario(usuario).size(), "Um contato por fornecedor");
+        assertTrue(comandos < notas / 2, "Esperado INSERT em lote, mas foram preparados " + comandos + " comandos");
+        assertTrue(milissegundos < 30_000, "Importação de " + notas + " notas levou " + milissegundos + " ms");
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.LancamentoService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração da busca por descrição de lançamentos.
+ *
+ * A busca usa o índice invertido (lancamento_termo): cada termo pesquisado casa com o
+ * início de uma palavra da descrição, sem diferenciar acentos nem maiúsculas, e o
+ * índice acompanha as edições e exclusões do lançamento.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class LancamentoBuscaIntegrationTest {
+
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+
+    private Usuario usuario;
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        usuario = criarUsuario("userBusca");
+        conta = criarConta(usuario);
+
+        criarLancamento("Serviço de manutenção elétrica", usuario, conta);
+        criarLancamento("Compra de café para o escritório", usuario, conta);
+        criarLancamento("Aluguel da sala comercial", usuario, conta);
+    }
+
+    private Usuario criarUsuario(String username) {
+        Usuario novo = new Usuario();
+        novo.setUsername(username);
+        novo.setPassword(passwordEncoder.encode("password"));
+        novo.setRoles(TestHelper.createUserRole(roleRepository));
+        return usuarioRepository.save(novo);
+    }
+
+    private Conta criarConta(Usuario dono) {
+        Conta novaConta = new Conta();
+        novaConta.setNomeConta("Banco");
+        novaConta.setTipo("Banco");
+        novaConta.setSaldoInicial(BigDecimal.ZERO);
+        novaConta.setSaldoAtual(BigDecimal.ZERO);
+        novaConta.setUsuario(dono);
+        return contaRepository.save(novaConta);
+    }
+
+    private Lancamento criarLancamento(String descricao, Usuario dono, Conta contaDoLancamento) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setDescricao(descricao);
+        lancamento.setData(LocalDate.of(2026, 1, 10));
+        lancamento.setTipo(TipoLancamento.SAIDA);
+        lancamento.setStatus(StatusLancamento.PAGO);
+        lancamento.setConta(contaDoLancamento);
+        lancamento.setValor(new BigDecimal("10.00"));
+        lancamento.setUsuario(dono);
+        return lancamentoRepository.save(lancamento);
+    }
+
+    private List<String> buscar(String texto) {
+        entityManager.flush();
+        LancamentoFiltro filtro = new LancamentoFiltro();
+        filtro.setDescricao(texto);
+        return lancamentoService.buscarComFiltros(filtro, usuario).stream()
+                .map(Lancamento::getDescricao)
+                .toList();
+    }
+
+    @Test
+    void deveBuscarSemAcentoESemDiferenciarMaiusculas() {
+        assertEquals(List.of("Serviço de manutenção elétrica"), buscar("SERVICO"));
+        assertEquals(List.of("Compra de café para o escritório"), buscar("Café"));
+        assertEquals(List.of("Compra de café para o escritório"), buscar("cafe"));
+    }
+
+    @Test
+    void deveBuscarPorPrefixoDeCadaPalavra() {
+        // "manut" e "eletr" são prefixos de palavras da mesma descrição
+        assertEquals(List.of("Serviço de manutenção elétrica"), buscar("manut eletr"));
+        // Todos os termos precisam casar
+        assertTrue(buscar("manut aluguel").isEmpty());
+        // Prefixo, não trecho do meio da palavra
+        assertTrue(buscar("utencao").isEmpty());
+    }
+
+    @Test
+    void deveAtualizarIndiceAoEditarDescricao() {
+        // Arrange
+        Lancamento aluguel = lancamentoRepository.findAll().stream()
+                .filter(l -> l.getDescricao().startsWith("Aluguel"))
+                .findFirst().orElseThrow();
+
+        // Act
+        aluguel.setDescricao("Condomínio da sala comercial");
+        lancamentoRepository.save(aluguel);
+
+        // Assert
+        assertTrue(buscar("aluguel").isEmpty());
+        assertEquals(List.of("Condomínio da sala comercial"), buscar("condominio"));
+        assertEquals(List.of("Condomínio da sala comercial"), buscar("sala"));
+    }
+
+    @Test
+    void naoDeveRecarregarTermosQuandoADescricaoNormalizadaNaoMuda() {
+        // Arrange: lançamento lido do banco, com os termos ainda não carregados
+        entityManager.flush();
+        entityManager.clear();
+        Lancamento aluguel = lancamentoRepository.findAll().stream()
+                .filter(l -> l.getDescricao().startsWith("Aluguel"))
+                .findFirst().orElseThrow();
+
+        // Act: só muda a caixa e a pontuação; a edição repassa o mesmo dono
+        aluguel.setDescricao("ALUGUEL da sala, comercial!");
+        aluguel.setUsuario(usuarioRepository.findById(usuario.getId()).orElseThrow());
+
+        // Assert
+        assertFalse(Hibernate.isInitialized(aluguel.getTermos()));
+        assertEquals(List.of("ALUGUEL da sala, comercial!"), buscar("aluguel"));
+    }
+
+    @Test
+    void deveRemoverTermosAoExcluirLancamento() {
+        // Arrange
+        Lancamento cafe = lancamentoRepository.findAll().stream()
+                .filter(l -> l.getDescricao().startsWith("Compra"))
+                .findFirst().orElseThrow();
+
+        // Act
+        lancamentoRepository.delete(cafe);
+        entityManager.flush();
+
+        // Assert
+        assertTrue(buscar("cafe").isEmpty());
+        Long termosRestantes = entityManager.createQuery(
+                "SELECT COUNT(t) FROM LancamentoTermo t WHERE t.lancamento.id = :id", Long.class)
+                .setParameter("id", cafe.getId())
+                .getSingleResult();
+        assertEquals(0L, termosRestantes);
+    }
+
+    @Test
+    void naoDeveEncontrarLancamentosDeOutroUsuario() {
+        // Arrange
+        Usuario outroUsuario = criarUsuario("userBuscaOutro");
+        criarLancamento("Serviço de pintura", outroUsuario, criarConta(outroUsuario));
+
+        // Act & Assert
+        assertEquals(List.of("Serviço de manutenção elétrica"), buscar("servico"));
+    }
+}
@@ -0,0 +1,209 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.CategoriaDespesa;
+import br.com.ellomei.domain.Comprovante;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Contato;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoContato;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.CategoriaDespesaRepository;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.ContatoRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.LancamentoService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração dos planos de carregamento (fetch plans) de Lancamento.
+ *
+ * As associações de Lancamento são LAZY e cada caso de uso escolhe o que carregar
+ * (entity graphs). Os testes contam as consultas executadas (Hibernate Statistics)
+ * para garantir que nenhum caso de uso volta a ter N+1.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class LancamentoFetchPlanIntegrationTest {
+
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private ContatoRepository contatoRepository;
+    @Autowired private CategoriaDespesaRepository categoriaDespesaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+
+    private Usuario usuario;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userFetchPlan");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuarioRepository.save(usuario);
+
+        // 3 lançamentos, cada um com conta, categoria e contato próprios e 2 comprovantes
+        for (int i = 1; i <= 3; i++) {
+            criarLancamento(i, i == 1 ? StatusLancamento.PAGO : StatusLancamento.A_PAGAR);
+        }
+
+        // Esvazia o contexto de persistência para que as buscas realmente consultem o banco
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    private void criarLancamento(int i, StatusLancamento status) {
+        Conta conta = new Conta();
+        conta.setNomeConta("Conta " + i);
+        conta.setTipo("Banco");
+        conta.setSaldoInicial(BigDecimal.ZERO);
+        conta.setSaldoAtual(BigDecimal.ZERO);
+        conta.setUsuario(usuario);
+        contaRepository.save(conta);
+
+        CategoriaDespesa categoria = new CategoriaDespesa();
+        categoria.setNome("Categoria " + i);
+        categoria.setUsuario(usuario);
+        categoriaDespesaRepository.save(categoria);
+
+        Contato contato = new Contato();
+        contato.setTipoContato(TipoContato.PESSOA_FISICA);
+        contato.setNomeCompleto("Contato " + i);
+        contato.setUsuario(usuario);
+        contatoRepository.save(contato);
+
+        Lancamento lancamento = new Lancamento();
+        lancamento.setGrupoOperacao("grupo-" + i);
+        lancamento.setDescricao("Compra " + i);
+        lancamento.setData(LocalDate.of(2026, 1, i));
+        lancamento.setTipo(TipoLancamento.SAIDA);
+        lancamento.setStatus(status);
+        lancamento.setValor(new BigDecimal("10.00"));
+        lancamento.setConta(conta);
+        lancamento.setCategoriaDespesa(categoria);
+        lancamento.setContato(contato);
+        lancamento.setComNotaFiscal(true);
+        lancamento.setUsuario(usuario);
+        for (int c = 1; c <= 2; c++) {
+            Comprovante comprovante = new Comprovante();
+            comprovante.setPathArquivo("comprovante-" + i + "-" + c + ".pdf");
+            comprovante.setLancamento(lancamento);
+            lancamento.getComprovantes().add(comprovante);
+        }
+        lancamentoRepository.save(lancamento);
+    }
+
+    private LancamentoFiltro filtroComNotaFiscal() {
+        LancamentoFiltro filtro = new LancamentoFiltro();
+        filtro.setComNotaFiscal(true);
+        return filtro;
+    }
+
+    /**
+     * Percorre tudo o que as telas e relatórios acessam em cada lançamento.
+     */
+    private void acessarAssociacoes(List<Lancamento> lancamentos, boolean comComprovantes) {
+        for (Lancamento lancamento : lancamentos) {
+            lancamento.getConta().getNomeConta();
+            lancamento.getCategoriaDespesa().getNome();
+            lancamento.getContato().getNomeCompleto();
+            if (comComprovantes) {
+                lancamento.getComprovantes().forEach(Comprovante::getPathArquivo);
+            }
+        }
+    }
+
+    @Test
+    void listagemDeveCarregarAssociacoesEmUmaConsulta() {
+        // Act
+        List<Lancamento> lancamentos = lancamentoService.buscarComFiltros(new LancamentoFiltro(), usuario);
+        acessarAssociacoes(lancamentos, false);
+
+        // Assert
+        assertEquals(3, lancamentos.size());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Conta, categoria e contato devem vir na mesma consulta");
+        // A listagem não carrega comprovantes
+        assertTrue(lancamentos.stream().noneMatch(l -> Hibernate.isInitialized(l.getComprovantes())));
+    }
+
+    @Test
+    void relatorioDeveCarregarComprovantesEmUmaConsulta() {
+        // Act
+        List<Lancamento> lancamentos = lancamentoService.buscarComFiltrosParaRelatorio(filtroComNotaFiscal(), usuario);
+        acessarAssociacoes(lancamentos, true);
+
+        // Assert: o join com os comprovantes não duplica lançamentos
+        assertEquals(3, lancamentos.size());
+        assertTrue(lancamentos.stream().allMatch(l -> l.getComprovantes().size() == 2));
+        assertEquals(1, statistics.getPrepareStatementCount(), "O relatório deve ser montado com uma única consulta");
+    }
+
+    @Test
+    void contasAPagarDevemCarregarComprovantesEmUmaConsulta() {
+        // Act
+        List<Lancamento> contasAPagar = lancamentoService.buscarContasAPagarPorUsuario(usuario);
+        acessarAssociacoes(contasAPagar, true);
+
+        // Assert
+        assertEquals(2, contasAPagar.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void totaisDoDashboardNaoDevemCarregarEntidades() {
+        // Act
+        Map<TipoLancamento, BigDecimal> totais = lancamentoService.somarPagosPorTipo(new LancamentoFiltro(), usuario);
+
+        // Assert: somente o lançamento PAGO entra na soma
+        assertEquals(0, new BigDecimal("10.00").compareTo(totais.get(TipoLancamento.SAIDA)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(totais.get(TipoLancamento.ENTRADA)));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount(), "Agregados não devem carregar lançamentos");
+    }
+
+    @Test
+    void contagemDoLimiteDoPlanoNaoDeveCarregarEntidades() {
+        // Act
+        long operacoes = lancamentoRepository.contarGrupos(LancamentoFiltro.doPeriodo(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31)), usuario);
+
+        // Assert
+        assertEquals(3, operacoes);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
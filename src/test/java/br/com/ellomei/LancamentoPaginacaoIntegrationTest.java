@@ -0,0 +1,223 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.LancamentoGrupoDTO;
+import br.com.ellomei.domain.PaginaPorCursor;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.LancamentoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração para a listagem paginada de operações.
+ *
+ * Garante que a paginação é feita sobre os grupos de operação (grupoOperacao)
+ * e não sobre as linhas: um grupo nunca fica dividido entre páginas e o total
+ * informado é o número de grupos. Verifica também a projeção agregada de cada grupo.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class LancamentoPaginacaoIntegrationTest {
+
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    private Usuario usuario;
+    private Conta contaBanco;
+    private Conta contaCaixa;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userPaginacao");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuarioRepository.save(usuario);
+
+        contaBanco = criarConta("Banco");
+        contaCaixa = criarConta("Caixa");
+
+        // 3 operações: duas com dois pagamentos cada e uma legada (sem grupoOperacao)
+        criarLancamento("grupo-recente", LocalDate.of(2026, 1, 10), contaBanco, "100.00");
+        criarLancamento("grupo-recente", LocalDate.of(2026, 1, 10), contaCaixa, "50.00");
+        criarLancamento("grupo-meio", LocalDate.of(2026, 1, 9), contaBanco, "30.00");
+        criarLancamento("grupo-meio", LocalDate.of(2026, 1, 9), contaBanco, "20.00");
+        criarLancamento(null, LocalDate.of(2026, 1, 8), contaBanco, "10.00");
+    }
+
+    private Conta criarConta(String nome) {
+        Conta conta = new Conta();
+        conta.setNomeConta(nome);
+        conta.setTipo(nome);
+        conta.setSaldoInicial(BigDecimal.ZERO);
+        conta.setSaldoAtual(BigDecimal.ZERO);
+        conta.setUsuario(usuario);
+        return contaRepository.save(conta);
+    }
+
+    private void criarLancamento(String grupoOperacao, LocalDate data, Conta conta, String valor) {
+        criarLancamento(grupoOperacao, data, conta, valor, TipoLancamento.ENTRADA, StatusLancamento.PAGO);
+    }
+
+    private Lancamento criarLancamento(String grupoOperacao, LocalDate data, Conta conta, String valor,
+                                       TipoLancamento tipo, StatusLancamento status) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setGrupoOperacao(grupoOperacao);
+        lancamento.setDescricao("Operação de teste");
+        lancamento.setData(data);
+        lancamento.setTipo(tipo);
+        lancamento.setStatus(status);
+        lancamento.setConta(conta);
+        lancamento.setValor(new BigDecimal(valor));
+        lancamento.setUsuario(usuario);
+        return lancamentoRepository.save(lancamento);
+    }
+
+    @Test
+    void devePaginarPorGrupoSemDividirOperacoes() {
+        PaginaPorCursor<LancamentoGrupoDTO> primeira = buscarPaginaPorCursor(null, null, true);
+
+        // O total é de grupos (3), não de linhas (5)
+        assertEquals(3L, primeira.getTotalElementos());
+        assertEquals(2, primeira.getConteudo().size());
+        assertTrue(primeira.hasProxima());
+
+        // Grupos completos, do mais recente para o mais antigo
+        assertEquals("grupo-recente", primeira.getConteudo().get(0).getGrupoOperacao());
+        assertEquals(0, new BigDecimal("150.00").compareTo(primeira.getConteudo().get(0).getValorTotal()));
+        assertEquals("grupo-meio", primeira.getConteudo().get(1).getGrupoOperacao());
+        assertEquals(0, new BigDecimal("50.00").compareTo(primeira.getConteudo().get(1).getValorTotal()));
+    }
+
+    @Test
+    void deveAgregarContasDoGrupoNaProjecao() {
+        PaginaPorCursor<LancamentoGrupoDTO> primeira = buscarPaginaPorCursor(null, null, false);
+
+        // Duas contas distintas -> "Múltiplas contas (...)"; dois pagamentos na mesma conta -> só o nome
+        String contasDoGrupoRecente = primeira.getConteudo().get(0).getContasDescricao();
+        assertTrue(contasDoGrupoRecente.startsWith("Múltiplas contas ("));
+        assertTrue(contasDoGrupoRecente.contains("Banco") && contasDoGrupoRecente.contains("Caixa"));
+        assertEquals("Banco", primeira.getConteudo().get(1).getContasDescricao());
+    }
+
+    @Test
+    void grupoParcialmentePagoDeveOcuparUmaUnicaLinha() {
+        // Cenário (Arrange) - conta com dois pagamentos, só o primeiro quitado
+        Lancamento primeiro = criarLancamento("grupo-parcial", LocalDate.of(2026, 1, 11), contaBanco, "70.00",
+                TipoLancamento.SAIDA, StatusLancamento.A_PAGAR);
+        criarLancamento("grupo-parcial", LocalDate.of(2026, 1, 11), contaCaixa, "30.00",
+                TipoLancamento.SAIDA, StatusLancamento.A_PAGAR);
+        lancamentoService.pagarContas(List.of(primeiro.getId()), usuario);
+
+        // Ação (Act)
+        PaginaPorCursor<LancamentoGrupoDTO> primeira = buscarPaginaPorCursor(null, null, true);
+
+        // Verificação (Assert) - uma linha para o grupo, com o total e o status pendente
+        assertEquals(4L, primeira.getTotalElementos());
+        assertEquals(2, primeira.getConteudo().size());
+        assertEquals(1, primeira.getConteudo().stream().filter(g -> "grupo-parcial".equals(g.getGrupoOperacao())).count());
+        LancamentoGrupoDTO parcial = primeira.getConteudo().get(0);
+        assertEquals("grupo-parcial", parcial.getGrupoOperacao());
+        assertEquals(StatusLancamento.A_PAGAR, parcial.getStatus());
+        assertEquals(TipoLancamento.SAIDA, parcial.getTipo());
+        assertEquals(0, new BigDecimal("100.00").compareTo(parcial.getValorTotal()));
+        assertEquals("grupo-recente", primeira.getConteudo().get(1).getGrupoOperacao());
+    }
+
+    @Test
+    void deveIncluirLancamentoLegadoSemGrupoNaUltimaPagina() {
+        PaginaPorCursor<LancamentoGrupoDTO> primeira = buscarPaginaPorCursor(null, null, false);
+        PaginaPorCursor<LancamentoGrupoDTO> segunda = buscarPaginaPorCursor(primeira.getCursorProximo(), null, false);
+
+        assertEquals(1, segunda.getConteudo().size());
+        assertFalse(segunda.hasProxima());
+        assertNull(segunda.getConteudo().get(0).getGrupoOperacao());
+        assertEquals(0, new BigDecimal("10.00").compareTo(segunda.getConteudo().get(0).getValorTotal()));
+    }
+
+    @Test
+    void deveAplicarApenasOsFiltrosInformados() {
+        // Filtro por conta; descrição em branco não filtra
+        LancamentoFiltro filtro = new LancamentoFiltro();
+        filtro.setContaId(contaCaixa.getId());
+        filtro.setDescricao("  ");
+
+        List<LancamentoGrupoDTO> grupos = lancamentoService.buscarComFiltrosAgrupados(filtro, usuario);
+
+        // Só o pagamento na conta Caixa do grupo-recente atende ao filtro
+        assertEquals(1, grupos.size());
+        assertEquals("grupo-recente", grupos.get(0).getGrupoOperacao());
+        assertEquals(0, new BigDecimal("50.00").compareTo(grupos.get(0).getValorTotal()));
+        assertEquals("Caixa", grupos.get(0).getContasDescricao());
+    }
+
+    @Test
+    void devePaginarPorCursorNosDoisSentidos() {
+        // Primeira página: sem cursor, sem contagem
+        PaginaPorCursor<LancamentoGrupoDTO> primeira = buscarPaginaPorCursor(null, null, false);
+        assertEquals(2, primeira.getConteudo().size());
+        assertEquals("grupo-recente", primeira.getConteudo().get(0).getGrupoOperacao());
+        assertEquals("grupo-meio", primeira.getConteudo().get(1).getGrupoOperacao());
+        assertFalse(primeira.hasAnterior());
+        assertTrue(primeira.hasProxima());
+        assertNull(primeira.getTotalElementos(), "A contagem não deve ser executada quando não pedida");
+
+        // Próxima página: apenas o lançamento legado
+        PaginaPorCursor<LancamentoGrupoDTO> segunda = buscarPaginaPorCursor(primeira.getCursorProximo(), null, false);
+        assertEquals(1, segunda.getConteudo().size());
+        assertNull(segunda.getConteudo().get(0).getGrupoOperacao());
+        assertTrue(segunda.hasAnterior());
+        assertFalse(segunda.hasProxima());
+
+        // Volta para a primeira página a partir do cursor anterior, na ordem original
+        PaginaPorCursor<LancamentoGrupoDTO> volta = buscarPaginaPorCursor(null, segunda.getCursorAnterior(), true);
+        assertEquals("grupo-recente", volta.getConteudo().get(0).getGrupoOperacao());
+        assertEquals("grupo-meio", volta.getConteudo().get(1).getGrupoOperacao());
+        assertFalse(volta.hasAnterior());
+        assertTrue(volta.hasProxima());
+        assertEquals(3L, volta.getTotalElementos());
+    }
+
+    @Test
+    void deveVoltarParaPrimeiraPaginaComCursorInvalido() {
+        PaginaPorCursor<LancamentoGrupoDTO> pagina = buscarPaginaPorCursor("cursor-adulterado", null, false);
+
+        assertEquals("grupo-recente", pagina.getConteudo().get(0).getGrupoOperacao());
+        assertFalse(pagina.hasAnterior());
+    }
+
+    private PaginaPorCursor<LancamentoGrupoDTO> buscarPaginaPorCursor(String depois, String antes, boolean contarTotal) {
+        return lancamentoService.buscarComFiltrosAgrupadosPorCursor(new LancamentoFiltro(),
+                usuario, depois, antes, 2, contarTotal);
+    }
+}
@@ -0,0 +1,242 @@
+package br.com.ellomei;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFormDTO;
+import br.com.ellomei.domain.PagamentoDTO;
+import br.com.ellomei.domain.PlanoAssinatura;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.LancamentoRepository;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.LancamentoService;
+import br.com.ellomei.service.SaldoDiarioService;
+import br.com.ellomei.service.SaldoDiarioService.PontoDoSaldo;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de Integração do histórico de saldo diário das contas.
+ *
+ * Verifica que cada gravação do LancamentoService (criar, editar, pagar, excluir, inclusive
+ * com datas retroativas) deixa o histórico igual ao recalculado a partir dos lançamentos, que o
+ * saldo em uma data e a série de saldos saem corretos (com no máximo duas consultas) e que a
+ * reconstrução corrige divergências.
+ *
+ * @author ElloMEI Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser("userSaldoDiario")
+public class SaldoDiarioIntegrationTest {
+
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private SaldoDiarioService saldoDiarioService;
+    @Autowired private LancamentoRepository lancamentoRepository;
+    @Autowired private ContaRepository contaRepository;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private EntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate hoje = LocalDate.now();
+
+    private Usuario usuario;
+    private Conta banco;
+    private Conta caixa;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userSaldoDiario");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuario.setPlano(PlanoAssinatura.PRO);
+        usuarioRepository.save(usuario);
+
+        banco = criarConta("Banco", "Conta Corrente", "500.00");
+        caixa = criarConta("Dinheiro", "Caixa", "0.00");
+    }
+
+    private Conta criarConta(String nome, String tipo, String saldoInicial) {
+        Conta conta = new Conta();
+        conta.setNomeConta(nome);
+        conta.setTipo(tipo);
+        conta.setSaldoInicial(new BigDecimal(saldoInicial));
+        conta.setSaldoAtual(new BigDecimal(saldoInicial));
+        conta.setUsuario(usuario);
+        return contaRepository.save(conta);
+    }
+
+    private LancamentoFormDTO criarForm(String descricao, LocalDate data, TipoLancamento tipo, StatusLancamento status,
+                                        Conta conta, String valor) {
+        LancamentoFormDTO form = new LancamentoFormDTO();
+        form.setDescricao(descricao);
+        form.setData(data);
+        form.setTipo(tipo);
+        form.setStatus(status);
+        PagamentoDTO pagamento = new PagamentoDTO();
+        pagamento.setConta(conta.getId());
+        pagamento.setValor(new BigDecimal(valor));
+        form.setPagamentos(new ArrayList<>(List.of(pagamento)));
+        return form;
+    }
+
+    /** Salva a operação e devolve o grupo gerado. */
+    private String salvar(LancamentoFormDTO form) {
+        lancamentoService.salvarOuAtualizarOperacao(form, null, usuario);
+        return form.getGrupoOperacao();
+    }
+
+    private Lancamento unicoLancamentoDoGrupo(String grupo) {
+        return lancamentoRepository.findByGrupoOperacaoAndUsuario(grupo, usuario).get(0);
+    }
+
+    /**
+     * A reconstrução não encontra nada a corrigir quando o histórico acompanha os lançamentos,
+     * e o saldo de hoje no histórico é o saldo atual das contas.
+     */
+    private void assertHistoricoConsistente() {
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(0, saldoDiarioService.reconstruir(usuario), "Histórico de saldo divergente dos lançamentos");
+        for (Conta conta : contaRepository.findByUsuario(usuario)) {
+            assertValor(conta.getSaldoAtual().toPlainString(), saldoDiarioService.saldoEm(conta, hoje).saldo());
+        }
+    }
+
+    private BigDecimal saldoDoBancoEm(LocalDate data) {
+        return saldoDiarioService.saldoEm(contaRepository.findById(banco.getId()).orElseThrow(), data).saldo();
+    }
+
+    private static void assertValor(String esperado, BigDecimal atual) {
+        assertEquals(0, new BigDecimal(esperado).compareTo(atual), "Esperado " + esperado + ", obtido " + atual);
+    }
+
+    @Test
+    void deveManterHistoricoAoCriarEditarPagarEExcluir() {
+        // Arrange & Act: criação, com lançamentos retroativos depois dos mais recentes
+        String venda = salvar(criarForm("Venda", hoje.minusDays(2), TipoLancamento.ENTRADA, StatusLancamento.PAGO, banco, "300.00"));
+        salvar(criarForm("Tarifa", hoje.minusDays(10), TipoLancamento.SAIDA, StatusLancamento.PAGO, banco, "20.00"));
+        String fornecedor = salvar(criarForm("Fornecedor", hoje.minusDays(5), TipoLancamento.SAIDA, StatusLancamento.A_PAGAR, banco, "100.00"));
+        salvar(criarForm("Venda balcão", hoje.minusDays(5), TipoLancamento.ENTRADA, StatusLancamento.PAGO, caixa, "40.00"));
+        assertHistoricoConsistente();
+
+        // Assert
+        assertValor("500.00", saldoDoBancoEm(hoje.minusDays(11)));
+        assertValor("480.00", saldoDoBancoEm(hoje.minusDays(10)));
+        assertValor("480.00", saldoDoBancoEm(hoje.minusDays(3)));
+        assertValor("780.00", saldoDoBancoEm(hoje.minusDays(2)));
+
+        // Act: pagamento do fornecedor (conta A_PAGAR de uma data passada)
+        lancamentoService.pagarConta(unicoLancamentoDoGrupo(fornecedor).getId(), usuario);
+        assertHistoricoConsistente();
+        assertValor("380.00", saldoDoBancoEm(hoje.minusDays(5)));
+        assertValor("680.00", saldoDoBancoEm(hoje));
+
+        // Act: edição da venda, movida para antes da tarifa (o saldo atual não muda)
+        LancamentoFormDTO edicao = criarForm("Venda", hoje.minusDays(12), TipoLancamento.ENTRADA, StatusLancamento.PAGO, banco, "300.00");
+        edicao.setGrupoOperacao(venda);
+        salvar(edicao);
+        assertHistoricoConsistente();
+        assertValor("800.00", saldoDoBancoEm(hoje.minusDays(12)));
+        assertValor("680.00", saldoDoBancoEm(hoje.minusDays(2)));
+
+        // Act: exclusão
+        lancamentoService.excluirOperacao(unicoLancamentoDoGrupo(venda).getId(), usuario);
+        assertHistoricoConsistente();
+        assertValor("500.00", saldoDoBancoEm(hoje.minusDays(12)));
+        assertValor("380.00", saldoDoBancoEm(hoje));
+    }
+
+    @Test
+    void devePagarContasEmLoteMantendoHistorico() {
+        // Arrange
+        String primeira = salvar(criarForm("Fornecedor A", hoje.minusDays(3), TipoLancamento.SAIDA, StatusLancamento.A_PAGAR, banco, "80.00"));
+        String segunda = salvar(criarForm("Fornecedor B", hoje.minusDays(1), TipoLancamento.SAIDA, StatusLancamento.A_PAGAR, banco, "20.00"));
+
+        // Act
+        lancamentoService.pagarContas(List.of(unicoLancamentoDoGrupo(primeira).getId(), unicoLancamentoDoGrupo(segunda).getId()), usuario);
+
+        // Assert
+        assertHistoricoConsistente();
+        assertValor("420.00", saldoDoBancoEm(hoje.minusDays(2)));
+        assertValor("400.00", saldoDoBancoEm(hoje));
+    }
+
+    @Test
+    void serieDeveTerUmPontoPorDiaComDuasConsultas() {
+        // Arrange
+        salvar(criarForm("Venda antiga", hoje.minusDays(40), TipoLancamento.ENTRADA, StatusLancamento.PAGO, banco, "100.00"));
+        salvar(criarForm("Venda", hoje.minusDays(6), TipoLancamento.ENTRADA, StatusLancamento.PAGO, banco, "50.00"));
+        salvar(criarForm("Compra", hoje.minusDays(6), TipoLancamento.SAIDA, StatusLancamento.PAGO, banco, "10.00"));
+        salvar(criarForm("Aluguel", hoje.minusDays(2), TipoLancamento.SAIDA, StatusLancamento.PAGO, banco, "30.00"));
+        entityManager.flush();
+        entityManager.clear();
+        Conta conta = contaRepository.findById(banco.getId()).orElseThrow();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Act
+        List<PontoDoSaldo> serie = saldoDiarioService.serie(conta, hoje.minusDays(9), hoje);
+
+        // Assert
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(10, serie.size());
+        assertEquals(hoje.minusDays(9), serie.get(0).data());
+        assertValor("600.00", serie.get(0).saldo());
+        assertValor("640.00", serie.get(3).saldo());
+        assertValor("40.00", serie.get(3).movimento());
+        assertValor("640.00", serie.get(6).saldo());
+        assertValor("0", serie.get(6).movimento());
+        assertValor("610.00", serie.get(7).saldo());
+        assertValor("610.00", serie.get(9).saldo());
+        assertThrows(IllegalArgumentException.class, () -> saldoDiarioService.serie(conta, hoje, hoje.minusDays(1)));
+    }
+
+    @Test
+    void reconstrucaoDeveCorrigirDivergencias() {
+        // Arrange: histórico alterado direto no banco
+        salvar(criarForm("Venda", hoje.minusDays(4), TipoLancamento.ENTRADA, StatusLancamento.PAGO, banco, "100.00"));
+        salvar(criarForm("Compra", hoje.minusDays(1), TipoLancamento.SAIDA, StatusLancamento.PAGO, banco, "30.00"));
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE saldo_diario SET movimento = movimento + 1 WHERE data = ?", hoje.minusDays(1));
+        jdbcTemplate.update("DELETE FROM saldo_diario WHERE data = ?", hoje.minusDays(4));
+        entityManager.clear();
+
+        // Act
+        int divergentes = saldoDiarioService.reconstruir(usuario);
+
+        // Assert
+        assertTrue(divergentes >= 2, "Divergências encontradas: " + divergentes);
+        assertHistoricoConsistente();
+        assertValor("600.00", saldoDoBancoEm(hoje.minusDays(4)));
+        assertValor("570.00", saldoDoBancoEm(hoje.minusDays(1)));
+    }
+}
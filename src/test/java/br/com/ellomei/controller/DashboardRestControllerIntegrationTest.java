@@ -0,0 +1,171 @@
+package br.com.ellomei.controller;
+
+import br.com.ellomei.TestHelper;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.LancamentoFormDTO;
+import br.com.ellomei.domain.PagamentoDTO;
+import br.com.ellomei.domain.PlanoAssinatura;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.repository.RoleRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import br.com.ellomei.service.ContaService;
+import br.com.ellomei.service.LancamentoService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes de integração do GET condicional (ETag / If-None-Match) em /api/dashboard.
+ *
+ * Verifica que a resposta leva ETag e Cache-Control de revalidação, que um If-None-Match
+ * com a versão atual devolve 304 sem chamar o DashboardService, e que uma gravação do
+ * usuário muda o ETag.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class DashboardRestControllerIntegrationTest {
+
+    private static final String WIDGET = "/api/dashboard/faturamento-widget?tipoCalculo=OFICIAL";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private LancamentoService lancamentoService;
+    @Autowired private ContaService contaService;
+    @Autowired private UsuarioRepository usuarioRepository;
+    @Autowired private RoleRepository roleRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private CacheManager cacheManager;
+    @Autowired private EntityManager entityManager;
+
+    private Usuario usuario;
+    private Conta conta;
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setUsername("userEtag");
+        usuario.setPassword(passwordEncoder.encode("password"));
+        usuario.setRoles(TestHelper.createUserRole(roleRepository));
+        usuario.setPlano(PlanoAssinatura.PRO);
+        usuario = usuarioRepository.save(usuario);
+
+        conta = new Conta();
+        conta.setNomeConta("Banco");
+        conta.setTipo("Conta Corrente");
+        conta.setSaldoInicial(BigDecimal.ZERO);
+        contaService.salvar(conta, usuario);
+
+        salvarVenda("100.00");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void salvarVenda(String valor) {
+        LancamentoFormDTO form = new LancamentoFormDTO();
+        form.setDescricao("Venda");
+        form.setData(LocalDate.now().withDayOfMonth(1));
+        form.setTipo(TipoLancamento.ENTRADA);
+        form.setStatus(StatusLancamento.PAGO);
+        PagamentoDTO pagamento = new PagamentoDTO();
+        pagamento.setConta(conta.getId());
+        pagamento.setValor(new BigDecimal(valor));
+        form.setPagamentos(new ArrayList<>(List.of(pagamento)));
+        lancamentoService.salvarOuAtualizarOperacao(form, null, usuario);
+    }
+
+    private String etagDe(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, "A resposta deve levar ETag");
+        return etag;
+    }
+
+    private CacheStats estatisticasDoCache() {
+        return ((CaffeineCache) cacheManager.getCache("dashboard")).getNativeCache().stats();
+    }
+
+    @Test
+    @WithMockUser(username = "userEtag")
+    void deveResponder304SemConsultarOsDadosQuandoNadaMudou() throws Exception {
+        // Cenário (Arrange)
+        String etag = etagDe(WIDGET);
+        CacheStats antes = estatisticasDoCache();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // Ação (Act) & Verificação (Assert)
+        mockMvc.perform(get(WIDGET).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // Só a busca do usuário logado; o DashboardService nem foi chamado (nem pelo cache)
+        assertTrue(statistics.getPrepareStatementCount() <= 1,
+                "O 304 não deve consultar os dados: " + statistics.getPrepareStatementCount() + " consultas");
+        CacheStats depois = estatisticasDoCache().minus(antes);
+        assertEquals(0, depois.requestCount());
+    }
+
+    @Test
+    @WithMockUser(username = "userEtag")
+    void gravacaoDoUsuarioDeveMudarOEtag() throws Exception {
+        // Cenário (Arrange)
+        String etagAntigo = etagDe(WIDGET);
+
+        // Ação (Act)
+        salvarVenda("50.00");
+
+        // Verificação (Assert)
+        String etagNovo = mockMvc.perform(get(WIDGET).header(HttpHeaders.IF_NONE_MATCH, etagAntigo))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etagAntigo, etagNovo);
+    }
+
+    @Test
+    @WithMockUser(username = "userEtag")
+    void todosOsEndpointsDevemUsarOMesmoEtagDaVersao() throws Exception {
+        // Ação (Act)
+        String etagDespesas = etagDe("/api/dashboard/despesas-por-categoria");
+        String etagFluxo = etagDe("/api/dashboard/fluxo-caixa-mensal");
+
+        // Verificação (Assert) - a versão é do usuário, não do endpoint
+        assertEquals(etagDespesas, etagFluxo);
+        mockMvc.perform(get("/api/dashboard/fluxo-caixa-mensal").header(HttpHeaders.IF_NONE_MATCH, etagFluxo))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes unitários para a classe AjustesDeSaldo.
+ *
+ * Esta classe concentra a regra financeira que antes ficava em
+ * LancamentoService.aplicarLancamentoNaConta/reverterLancamentoNaConta:
+ * o efeito de cada lançamento no saldo agora é acumulado como delta por conta.
+ *
+ * Os testes verificam:
+ * 1. Se uma despesa (SAIDA) gera delta negativo e uma receita (ENTRADA) delta positivo
+ * 2. Se reverter um lançamento gera o delta oposto
+ * 3. Se vários lançamentos na mesma conta são somados em um único delta
+ * 4. Se lançamentos não pagos e deltas zerados são ignorados
+ * 5. Se os deltas também são separados pela data dos lançamentos (histórico de saldo diário)
+ */
+class AjustesDeSaldoTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2026, 3, 10);
+
+    private Conta conta;
+    private AjustesDeSaldo ajustes;
+
+    @BeforeEach
+    void setUp() {
+        conta = criarConta(1L);
+        ajustes = new AjustesDeSaldo();
+    }
+
+    private Conta criarConta(Long id) {
+        Conta novaConta = new Conta();
+        novaConta.setId(id);
+        novaConta.setSaldoAtual(new BigDecimal("1000.00"));
+        return novaConta;
+    }
+
+    private Lancamento criarLancamento(Conta contaDoLancamento, TipoLancamento tipo, String valor, StatusLancamento status) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setTipo(tipo);
+        lancamento.setValor(new BigDecimal(valor));
+        lancamento.setConta(contaDoLancamento);
+        lancamento.setStatus(status);
+        lancamento.setData(HOJE);
+        return lancamento;
+    }
+
+    @Test
+    void deveDebitarSaldoAoAplicarLancamentoDeSaida() {
+        ajustes.aplicar(criarLancamento(conta, TipoLancamento.SAIDA, "200.00", StatusLancamento.PAGO));
+
+        assertEquals(Map.of(1L, new BigDecimal("-200.00")), ajustes.getDeltasPorConta());
+    }
+
+    @Test
+    void deveCreditarSaldoAoAplicarLancamentoDeEntrada() {
+        ajustes.aplicar(criarLancamento(conta, TipoLancamento.ENTRADA, "300.00", StatusLancamento.PAGO));
+
+        assertEquals(Map.of(1L, new BigDecimal("300.00")), ajustes.getDeltasPorConta());
+    }
+
+    @Test
+    void deveCreditarSaldoAoReverterLancamentoDeSaida() {
+        ajustes.reverter(criarLancamento(conta, TipoLancamento.SAIDA, "150.00", StatusLancamento.PAGO));
+
+        assertEquals(Map.of(1L, new BigDecimal("150.00")), ajustes.getDeltasPorConta());
+    }
+
+    @Test
+    void deveDebitarSaldoAoReverterLancamentoDeEntrada() {
+        ajustes.reverter(criarLancamento(conta, TipoLancamento.ENTRADA, "400.00", StatusLancamento.PAGO));
+
+        assertEquals(Map.of(1L, new BigDecimal("-400.00")), ajustes.getDeltasPorConta());
+    }
+
+    @Test
+    void deveSomarDeltasDaMesmaContaComPrecisaoDecimal() {
+        // 0 - 123.45 + 67.89 = -55.56 (um único UPDATE para a conta)
+        ajustes.aplicar(criarLancamento(conta, TipoLancamento.SAIDA, "123.45", StatusLancamento.PAGO));
+        ajustes.aplicar(criarLancamento(conta, TipoLancamento.ENTRADA, "67.89", StatusLancamento.PAGO));
+
+        assertEquals(Map.of(1L, new BigDecimal("-55.56")), ajustes.getDeltasPorConta());
+    }
+
+    @Test
+    void deveSepararDeltasPorConta() {
+        Conta outraConta = criarConta(2L);
+        ajustes.aplicar(criarLancamento(conta, TipoLancamento.ENTRADA, "100.00", StatusLancamento.PAGO));
+        ajustes.aplicar(criarLancamento(outraConta, TipoLancamento.ENTRADA, "50.00", StatusLancamento.PAGO));
+
+        assertEquals(Map.of(1L, new BigDecimal("100.00"), 2L, new BigDecimal("50.00")), ajustes.getDeltasPorConta());
+    }
+
+    @Test
+    void deveSomarPagamentosInformadosPorValor() {
+        ajustes.aplicarPagamento(1L, TipoLancamento.SAIDA, new BigDecimal("70.00"), HOJE);
+        ajustes.aplicarPagamento(1L, TipoLancamento.SAIDA, new BigDecimal("30.00"), HOJE);
+        ajustes.aplicarPagamento(2L, TipoLancamento.ENTRADA, new BigDecimal("45.00"), HOJE);
+
+        assertEquals(Map.of(1L, new BigDecimal("-100.00"), 2L, new BigDecimal("45.00")), ajustes.getDeltasPorConta());
+    }
+
+    @Test
+    void deveIgnorarContaQuandoAplicarEReverterSeAnulam() {
+        Lancamento lancamento = criarLancamento(conta, TipoLancamento.SAIDA, "250.00", StatusLancamento.PAGO);
+
+        ajustes.reverter(lancamento);
+        ajustes.aplicar(lancamento);
+
+        assertTrue(ajustes.getDeltasPorConta().isEmpty());
+        assertTrue(ajustes.isVazio());
+    }
+
+    @Test
+    void naoDeveAlterarSaldoComLancamentoNaoPago() {
+        ajustes.aplicar(criarLancamento(conta, TipoLancamento.SAIDA, "80.00", StatusLancamento.A_PAGAR));
+        ajustes.aplicar(criarLancamento(conta, TipoLancamento.ENTRADA, "90.00", StatusLancamento.A_RECEBER));
+
+        assertTrue(ajustes.isVazio());
+    }
+
+    @Test
+    void deveSepararOsDeltasPorDia() {
+        ajustes.aplicarPagamento(1L, TipoLancamento.ENTRADA, new BigDecimal("100.00"), HOJE);
+        ajustes.aplicarPagamento(1L, TipoLancamento.SAIDA, new BigDecimal("40.00"), HOJE.plusDays(1));
+        ajustes.aplicarPagamento(1L, TipoLancamento.SAIDA, new BigDecimal("10.00"), HOJE);
+
+        assertEquals(Map.of(1L, Map.of(HOJE, new BigDecimal("90.00"), HOJE.plusDays(1), new BigDecimal("-40.00"))),
+                ajustes.getDeltasPorDia());
+        assertEquals(Map.of(1L, new BigDecimal("50.00")), ajustes.getDeltasPorConta());
+    }
+
+    @Test
+    void mudarADataDeUmLancamentoPagoDeveAlterarSoOsDias() {
+        Lancamento lancamento = criarLancamento(conta, TipoLancamento.SAIDA, "60.00", StatusLancamento.PAGO);
+
+        ajustes.reverter(lancamento);
+        lancamento.setData(HOJE.minusDays(5));
+        ajustes.aplicar(lancamento);
+
+        assertTrue(ajustes.getDeltasPorConta().isEmpty());
+        assertEquals(Map.of(1L, Map.of(HOJE, new BigDecimal("60.00"), HOJE.minusDays(5), new BigDecimal("-60.00"))),
+                ajustes.getDeltasPorDia());
+        assertFalse(ajustes.isVazio());
+    }
+}
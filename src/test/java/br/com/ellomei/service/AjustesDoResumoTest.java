@@ -0,0 +1,105 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.CategoriaDespesa;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.ResumoMensal;
+import br.com.ellomei.domain.StatusLancamento;
+import br.com.ellomei.domain.TipoLancamento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes unitários para a classe AjustesDoResumo.
+ *
+ * Os testes verificam:
+ * 1. Se lançamentos do mesmo mês, tipo, status, conta, categoria e nota caem na mesma linha
+ * 2. Se a chave normaliza o dia do mês, a categoria ausente e a nota fiscal nula
+ * 3. Se reverter e aplicar o mesmo lançamento não gera variação
+ * 4. Se uma mudança de status move o valor entre duas linhas
+ */
+class AjustesDoResumoTest {
+
+    private Conta conta;
+    private AjustesDoResumo ajustes;
+
+    @BeforeEach
+    void setUp() {
+        conta = new Conta();
+        conta.setId(1L);
+        ajustes = new AjustesDoResumo();
+    }
+
+    private Lancamento criarLancamento(LocalDate data, TipoLancamento tipo, String valor, StatusLancamento status) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setData(data);
+        lancamento.setTipo(tipo);
+        lancamento.setValor(new BigDecimal(valor));
+        lancamento.setConta(conta);
+        lancamento.setStatus(status);
+        return lancamento;
+    }
+
+    @Test
+    void deveSomarLancamentosDoMesmoMesNaMesmaLinha() {
+        ajustes.aplicar(criarLancamento(LocalDate.of(2026, 3, 2), TipoLancamento.SAIDA, "10.50", StatusLancamento.PAGO));
+        ajustes.aplicar(criarLancamento(LocalDate.of(2026, 3, 31), TipoLancamento.SAIDA, "4.50", StatusLancamento.PAGO));
+
+        ResumoMensal.Chave chave = new ResumoMensal.Chave(LocalDate.of(2026, 3, 1), TipoLancamento.SAIDA,
+                StatusLancamento.PAGO, 1L, ResumoMensal.SEM_CATEGORIA, false);
+        assertEquals(Map.of(chave, new AjustesDoResumo.Variacao(new BigDecimal("15.00"), 2)), ajustes.getVariacoes());
+    }
+
+    @Test
+    void deveSepararLinhasPorMesCategoriaENotaFiscal() {
+        CategoriaDespesa categoria = new CategoriaDespesa();
+        categoria.setId(7L);
+        Lancamento comCategoria = criarLancamento(LocalDate.of(2026, 3, 5), TipoLancamento.SAIDA, "20.00", StatusLancamento.PAGO);
+        comCategoria.setCategoriaDespesa(categoria);
+        Lancamento comNota = criarLancamento(LocalDate.of(2026, 3, 5), TipoLancamento.SAIDA, "30.00", StatusLancamento.PAGO);
+        comNota.setComNotaFiscal(true);
+        Lancamento outroMes = criarLancamento(LocalDate.of(2026, 4, 5), TipoLancamento.SAIDA, "40.00", StatusLancamento.PAGO);
+
+        for (Lancamento lancamento : List.of(comCategoria, comNota, outroMes)) {
+            ajustes.aplicar(lancamento);
+        }
+
+        assertEquals(3, ajustes.getVariacoes().size());
+        assertTrue(ajustes.getVariacoes().keySet().stream().anyMatch(c -> c.categoriaId() == 7L && !c.comNotaFiscal()));
+        assertTrue(ajustes.getVariacoes().keySet().stream().anyMatch(c -> c.categoriaId() == ResumoMensal.SEM_CATEGORIA && c.comNotaFiscal()));
+    }
+
+    @Test
+    void deveIgnorarLinhaQuandoAplicarEReverterSeAnulam() {
+        Lancamento lancamento = criarLancamento(LocalDate.of(2026, 3, 5), TipoLancamento.ENTRADA, "99.90", StatusLancamento.A_RECEBER);
+
+        ajustes.reverter(lancamento);
+        ajustes.aplicar(lancamento);
+
+        assertTrue(ajustes.getVariacoes().isEmpty());
+        assertTrue(ajustes.isVazio());
+    }
+
+    @Test
+    void deveMoverValorEntreLinhasAoMudarOStatus() {
+        Lancamento lancamento = criarLancamento(LocalDate.of(2026, 3, 5), TipoLancamento.SAIDA, "80.00", StatusLancamento.A_PAGAR);
+
+        ajustes.reverter(lancamento);
+        lancamento.setStatus(StatusLancamento.PAGO);
+        ajustes.aplicar(lancamento);
+
+        Map<ResumoMensal.Chave, AjustesDoResumo.Variacao> variacoes = ajustes.getVariacoes();
+        assertEquals(new AjustesDoResumo.Variacao(new BigDecimal("-80.00"), -1),
+                variacoes.get(ResumoMensal.Chave.de(LocalDate.of(2026, 3, 1), TipoLancamento.SAIDA, StatusLancamento.A_PAGAR, 1L, null, null)));
+        assertEquals(new AjustesDoResumo.Variacao(new BigDecimal("80.00"), 1),
+                variacoes.get(ResumoMensal.Chave.de(LocalDate.of(2026, 3, 1), TipoLancamento.SAIDA, StatusLancamento.PAGO, 1L, null, null)));
+    }
+}
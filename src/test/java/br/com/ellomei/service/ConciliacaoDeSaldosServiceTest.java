@@ -0,0 +1,136 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.dto.RelatorioConciliacaoDTO;
+import br.com.ellomei.dto.RelatorioConciliacaoDTO.Divergencia;
+import br.com.ellomei.repository.ContaRepository;
+import br.com.ellomei.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe ConciliacaoDeSaldosService.
+ *
+ * Verifica que os usuários são divididos em lotes (uma consulta por lote), que o relatório
+ * e as métricas somam os lotes, que um lote com erro não derruba os demais e que a correção
+ * soma ao saldo o oposto da diferença.
+ */
+@ExtendWith(MockitoExtension.class)
+class ConciliacaoDeSaldosServiceTest {
+
+    @Mock private EntityManager entityManager;
+    @Mock private Session session;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private ContaRepository contaRepository;
+    @Mock private UsuarioRepository usuarioRepository;
+    @Mock private ContaService contaService;
+    @Mock private VersaoDeDadosService versaoDeDadosService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ConciliacaoDeSaldosService conciliacaoDeSaldosService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(conciliacaoDeSaldosService, "usuariosPorLote", 2);
+        ReflectionTestUtils.setField(conciliacaoDeSaldosService, "meterRegistry", meterRegistry);
+        conciliacaoDeSaldosService.registrarMetricas();
+
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        // Uma conta por usuário (ID = usuário x 10): saldo inicial 100 e 50 de entradas pagas.
+        // O saldo gravado do usuário 3 está 10 acima; a consulta do usuário 5 falha.
+        lenient().when(contaRepository.somarMovimentoPorConta(anyCollection())).thenAnswer(invocacao -> {
+            List<Object[]> linhas = new ArrayList<>();
+            for (Long usuarioId : invocacao.<Collection<Long>>getArgument(0)) {
+                if (usuarioId == 5L) throw new IllegalStateException("banco fora do ar");
+                String saldoAtual = usuarioId == 3L ? "160.00" : "150.00";
+                linhas.add(new Object[]{usuarioId * 10, usuarioId, "Conta " + usuarioId,
+                        new BigDecimal("100.00"), new BigDecimal(saldoAtual), new BigDecimal("50.00")});
+            }
+            return linhas;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        conciliacaoDeSaldosService.encerrar();
+    }
+
+    @Test
+    void deveConciliarTodosOsLotesEReportarAsDivergencias() {
+        // Cenário (Arrange)
+        when(usuarioRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+
+        // Ação (Act)
+        RelatorioConciliacaoDTO relatorio = conciliacaoDeSaldosService.conciliar(false);
+
+        // Verificação (Assert) - três lotes ({1,2}, {3,4}, {5}), o último com erro
+        verify(contaRepository, times(3)).somarMovimentoPorConta(anyCollection());
+        assertEquals(5, relatorio.usuarios());
+        assertEquals(4, relatorio.contas());
+        assertEquals(1, relatorio.lotesComErro());
+        assertEquals(1, relatorio.contasDivergentes());
+        assertEquals(0, new BigDecimal("10.00").compareTo(relatorio.diferencaTotal()));
+        Divergencia divergencia = relatorio.divergencias().get(0);
+        assertEquals(30L, divergencia.contaId());
+        assertEquals(0, new BigDecimal("150.00").compareTo(divergencia.saldoEsperado()));
+        assertFalse(divergencia.corrigida());
+        verify(contaRepository, never()).adicionarAoSaldo(any(), any(), any());
+
+        assertEquals(relatorio, conciliacaoDeSaldosService.getUltimoRelatorio());
+        assertEquals(1.0, meterRegistry.get("ellomei.conciliacao.contas.divergentes").gauge().value());
+        assertEquals(1.0, meterRegistry.get("ellomei.conciliacao.lotes.com.erro").gauge().value());
+    }
+
+    @Test
+    void deveCorrigirOSaldoComOOpostoDaDiferenca() {
+        // Cenário (Arrange)
+        Usuario usuario = new Usuario();
+        usuario.setId(3L);
+        when(usuarioRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(usuarioRepository.getReferenceById(3L)).thenReturn(usuario);
+
+        // Ação (Act)
+        RelatorioConciliacaoDTO relatorio = conciliacaoDeSaldosService.conciliar(true);
+
+        // Verificação (Assert)
+        assertTrue(relatorio.correcaoAutomatica());
+        assertTrue(relatorio.divergencias().get(0).corrigida());
+        verify(contaRepository).adicionarAoSaldo(30L, new BigDecimal("-10.00"), usuario);
+        verify(contaService).evictContaCache(3L);
+        verify(versaoDeDadosService).incrementar(3L);
+        assertEquals(1.0, meterRegistry.get("ellomei.conciliacao.contas.corrigidas").counter().count());
+    }
+
+    @Test
+    void naoDeveIniciarComOutraConciliacaoEmAndamento() {
+        // Cenário (Arrange)
+        ((AtomicBoolean) ReflectionTestUtils.getField(conciliacaoDeSaldosService, "emExecucao")).set(true);
+
+        // Ação (Act) + Verificação (Assert)
+        assertThrows(IllegalStateException.class, () -> conciliacaoDeSaldosService.conciliar(false));
+        verify(usuarioRepository, never()).findAllIds();
+    }
+}
@@ -35,6 +35,9 @@ class ContaServiceTest {
     @Mock
     private ContaRepository contaRepository;
 
+    @Mock
+    private VersaoDeDadosService versaoDeDadosService;
+
     // @InjectMocks cria uma instância real do ContaService, mas injeta
     // os mocks que criámos acima (neste caso, o contaRepository).
     @InjectMocks
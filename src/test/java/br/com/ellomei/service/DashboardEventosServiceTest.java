@@ -0,0 +1,95 @@
+package br.com.ellomei.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes unitários para a classe DashboardEventosService.
+ *
+ * Verifica os limites do registro de conexões SSE (por usuário e total) e que conexões
+ * encerradas saem do registro no primeiro envio que falha.
+ */
+class DashboardEventosServiceTest {
+
+    private DashboardEventosService dashboardEventosService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardEventosService = new DashboardEventosService();
+    }
+
+    @Test
+    void deveEncerrarAConexaoMaisAntigaAlemDoLimitePorUsuario() {
+        // Cenário (Arrange)
+        List<SseEmitter> conexoes = new ArrayList<>();
+        for (int i = 0; i < DashboardEventosService.MAXIMO_POR_USUARIO; i++) {
+            conexoes.add(dashboardEventosService.conectar(1L));
+        }
+
+        // Ação (Act)
+        dashboardEventosService.conectar(1L);
+
+        // Verificação (Assert) - a primeira foi encerrada, as demais seguem abertas
+        assertEquals(DashboardEventosService.MAXIMO_POR_USUARIO, dashboardEventosService.getTotalDeConexoes());
+        assertThrows(IllegalStateException.class, () -> conexoes.get(0).send("x"));
+    }
+
+    @Test
+    void deveRecusarConexoesAcimaDoLimiteTotal() {
+        // Cenário (Arrange)
+        ReflectionTestUtils.setField(dashboardEventosService, "maximoConexoes", 2);
+        dashboardEventosService.conectar(1L);
+        dashboardEventosService.conectar(2L);
+
+        // Ação (Act)
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class, () -> dashboardEventosService.conectar(3L));
+
+        // Verificação (Assert)
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, erro.getStatusCode());
+        assertEquals(2, dashboardEventosService.getTotalDeConexoes());
+        assertFalse(dashboardEventosService.temConexoes(3L));
+    }
+
+    @Test
+    void deveTirarDoRegistroAConexaoQueFalhaNoEnvio() {
+        // Cenário (Arrange) - aba fechada: a conexão já não aceita envios
+        SseEmitter fechada = dashboardEventosService.conectar(1L);
+        fechada.complete();
+        dashboardEventosService.conectar(2L);
+
+        // Ação (Act)
+        dashboardEventosService.enviar(1L, DashboardEventosService.EVENTO_LANCAMENTOS, Map.of("valor", 10));
+
+        // Verificação (Assert) - só a conexão do usuário 1 sai; a vaga volta para o total
+        assertFalse(dashboardEventosService.temConexoes(1L));
+        assertTrue(dashboardEventosService.temConexoes(2L));
+        assertEquals(1, dashboardEventosService.getTotalDeConexoes());
+    }
+
+    @Test
+    void sinalDeVidaDeveEncerrarConexoesDeAbasFechadas() {
+        // Cenário (Arrange)
+        SseEmitter fechada = dashboardEventosService.conectar(1L);
+        fechada.complete();
+
+        // Ação (Act)
+        dashboardEventosService.enviarSinalDeVida();
+
+        // Verificação (Assert)
+        assertFalse(dashboardEventosService.temConexoes(1L));
+        assertEquals(0, dashboardEventosService.getTotalDeConexoes());
+    }
+}
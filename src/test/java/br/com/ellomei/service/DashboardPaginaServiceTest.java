@@ -0,0 +1,196 @@
+package br.com.ellomei.service;
+
+import br.com.ellomei.domain.CategoriaDespesa;
+import br.com.ellomei.domain.Conta;
+import br.com.ellomei.domain.Contato;
+import br.com.ellomei.domain.LancamentoFiltro;
+import br.com.ellomei.domain.PlanoAssinatura;
+import br.com.ellomei.domain.TipoLancamento;
+import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.dto.UsageMetricsDTO;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Filter;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a classe DashboardPaginaService.
+ *
+ * Verifica que as partes da página são consultadas em paralelo, cada uma com o filtro de
+ * tenant ativo e com o tempo máximo como timeout da transação, e que uma parte com erro, lenta
+ * demais ou recusada pelo pool cheio volta vazia sem derrubar as demais.
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardPaginaServiceTest {
+
+    @Mock private EntityManager entityManager;
+    @Mock private Session session;
+    @Mock private Filter filter;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private DashboardService dashboardService;
+    @Mock private ContaService contaService;
+    @Mock private ContatoService contatoService;
+    @Mock private CategoriaDespesaService categoriaDespesaService;
+    @Mock private UsageMetricsService usageMetricsService;
+
+    @InjectMocks
+    private DashboardPaginaService dashboardPaginaService;
+
+    private Usuario usuario;
+    private final LancamentoFiltro filtro = new LancamentoFiltro();
+    private final List<Conta> contas = List.of(new Conta());
+    private final List<Contato> contatos = List.of(new Contato());
+    private final List<CategoriaDespesa> categorias = List.of(new CategoriaDespesa());
+    private final UsageMetricsDTO usageMetrics = new UsageMetricsDTO(PlanoAssinatura.PRO, 3, Integer.MAX_VALUE, 10);
+
+    @BeforeEach
+    void setUp() {
+        usuario = new Usuario();
+        usuario.setId(1L);
+        ReflectionTestUtils.setField(dashboardPaginaService, "timeoutMs", 2000L);
+        ReflectionTestUtils.setField(dashboardPaginaService, "threads", 8);
+        dashboardPaginaService.iniciar();
+
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().when(session.enableFilter("tenantFilter")).thenReturn(filter);
+        lenient().when(contaService.buscarTodasPorUsuario(usuario)).thenReturn(contas);
+        lenient().when(contatoService.buscarTodosPorUsuario(usuario)).thenReturn(contatos);
+        lenient().when(categoriaDespesaService.buscarTodasPorUsuario(usuario)).thenReturn(categorias);
+        lenient().when(dashboardService.getSaldoTotal(usuario, null)).thenReturn(new BigDecimal("500.00"));
+        lenient().when(dashboardService.getTotaisPagosPorTipo(filtro, usuario)).thenReturn(
+                Map.of(TipoLancamento.ENTRADA, new BigDecimal("300.00"), TipoLancamento.SAIDA, new BigDecimal("120.00")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardPaginaService.encerrar();
+    }
+
+    @Test
+    void deveMontarAPaginaComTodasAsPartes() {
+        // Cenário (Arrange)
+        when(usageMetricsService.calcularMetricas(usuario)).thenReturn(usageMetrics);
+
+        // Ação (Act)
+        DashboardPaginaService.PaginaDashboard pagina = dashboardPaginaService.montar(filtro, usuario);
+
+        // Verificação (Assert)
+        assertEquals(contas, pagina.contas());
+        assertEquals(contatos, pagina.contatos());
+        assertEquals(categorias, pagina.categorias());
+        assertEquals(new BigDecimal("500.00"), pagina.saldoTotal());
+        assertEquals(new BigDecimal("300.00"), pagina.totalEntradas());
+        assertEquals(new BigDecimal("120.00"), pagina.totalSaidas());
+        assertEquals(usageMetrics, pagina.usageMetrics());
+        assertTrue(pagina.indisponiveis().isEmpty());
+        // Cada parte roda na sua transação somente leitura, com o tempo máximo (2 s) como timeout
+        // e o filtro de tenant do usuário
+        verify(transactionManager, times(6)).getTransaction(argThat(transacao ->
+                transacao.isReadOnly() && transacao.getTimeout() > 0 && transacao.getTimeout() <= 2));
+        verify(filter, times(6)).setParameter("tenantId", 1L);
+    }
+
+    @Test
+    void deveDevolverAsDemaisPartesQuandoUmaFalha() {
+        // Cenário (Arrange)
+        when(contatoService.buscarTodosPorUsuario(usuario)).thenThrow(new IllegalStateException("banco fora do ar"));
+        when(usageMetricsService.calcularMetricas(usuario)).thenReturn(usageMetrics);
+
+        // Ação (Act)
+        DashboardPaginaService.PaginaDashboard pagina = dashboardPaginaService.montar(filtro, usuario);
+
+        // Verificação (Assert)
+        assertEquals(List.of("contatos"), pagina.indisponiveis());
+        assertTrue(pagina.contatos().isEmpty());
+        assertEquals(contas, pagina.contas());
+        assertEquals(new BigDecimal("300.00"), pagina.totalEntradas());
+    }
+
+    @Test
+    void deveDesistirDaParteQuePassaDoTempoMaximo() {
+        // Cenário (Arrange)
+        ReflectionTestUtils.setField(dashboardPaginaService, "timeoutMs", 200L);
+        when(usageMetricsService.calcularMetricas(usuario)).thenAnswer(invocation -> {
+            Thread.sleep(3000);
+            return usageMetrics;
+        });
+
+        // Ação (Act)
+        long inicio = System.nanoTime();
+        DashboardPaginaService.PaginaDashboard pagina = dashboardPaginaService.montar(filtro, usuario);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Verificação (Assert)
+        assertEquals(List.of("uso do plano"), pagina.indisponiveis());
+        assertNull(pagina.usageMetrics());
+        assertEquals(new BigDecimal("500.00"), pagina.saldoTotal());
+        assertTrue(duracaoMs < 2000, "A página esperou a parte lenta: " + duracaoMs + " ms");
+    }
+
+    @Test
+    void deveConsultarAsPartesEmParalelo() {
+        // Cenário (Arrange) - três partes de 400 ms: em sequência seriam 1200 ms
+        when(contaService.buscarTodasPorUsuario(usuario)).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return contas;
+        });
+        when(dashboardService.getSaldoTotal(usuario, null)).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return new BigDecimal("500.00");
+        });
+        when(usageMetricsService.calcularMetricas(usuario)).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return usageMetrics;
+        });
+
+        // Ação (Act)
+        long inicio = System.nanoTime();
+        DashboardPaginaService.PaginaDashboard pagina = dashboardPaginaService.montar(filtro, usuario);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Verificação (Assert)
+        assertTrue(pagina.indisponiveis().isEmpty());
+        assertTrue(duracaoMs < 1000, "As partes rodaram em sequência: " + duracaoMs + " ms");
+    }
+
+    @Test
+    void deveRecusarNaHoraAsPartesQueNaoCabemNoPool() {
+        // Cenário (Arrange) - uma thread e uma vaga na fila: contas ocupa a thread, contatos a fila
+        dashboardPaginaService.encerrar();
+        ReflectionTestUtils.setField(dashboardPaginaService, "threads", 1);
+        ReflectionTestUtils.setField(dashboardPaginaService, "fila", 1);
+        dashboardPaginaService.iniciar();
+        when(contaService.buscarTodasPorUsuario(usuario)).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return contas;
+        });
+
+        // Ação (Act)
+        DashboardPaginaService.PaginaDashboard pagina = dashboardPaginaService.montar(filtro, usuario);
+
+        // Verificação (Assert) - as demais voltam vazias sem rodar na thread da requisição
+        assertEquals(List.of("categorias", "entradas e saídas", "saldo total", "uso do plano"), pagina.indisponiveis());
+        assertEquals(contas, pagina.contas());
+        assertEquals(contatos, pagina.contatos());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(categoriaDespesaService, never()).buscarTodasPorUsuario(any());
+        verify(usageMetricsService, never()).calcularMetricas(any());
+    }
+}
@@ -2,36 +2,51 @@ package br.com.ellomei.service;
 
 import br.com.ellomei.domain.Conta;
 import br.com.ellomei.domain.Lancamento;
+import br.com.ellomei.domain.LancamentoFormDTO;
+import br.com.ellomei.domain.PagamentoDTO;
+import br.com.ellomei.domain.ResumoMensal;
+import br.com.ellomei.domain.StatusLancamento;
 import br.com.ellomei.domain.TipoLancamento;
 import br.com.ellomei.domain.Usuario;
+import br.com.ellomei.event.LancamentosAlteradosEvent;
 import br.com.ellomei.repository.ComprovanteRepository;
 import br.com.ellomei.repository.LancamentoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 /**
  * Testes unitários para a classe LancamentoService.
  * 
- * Esta classe testa a lógica financeira crítica do LancamentoService, focando nos métodos
- * responsáveis por alterar o saldo das contas: aplicarLancamentoNaConta e reverterLancamentoNaConta.
- * 
- * Os testes verificam:
- * 1. Se uma despesa (SAIDA) subtrai corretamente do saldo da conta
- * 2. Se uma receita (ENTRADA) adiciona corretamente ao saldo da conta
- * 3. Se reverter uma despesa restaura corretamente o saldo da conta
- * 4. Se reverter uma receita subtrai corretamente do saldo da conta
+ * Esta classe testa o fluxo de escrita do LancamentoService. A aritmética dos saldos
+ * fica em AjustesDeSaldo (ver AjustesDeSaldoTest); aqui verificamos que cada operação:
+ * 1. Persiste os lançamentos e comprovantes em lote
+ * 2. Aplica os efeitos financeiros uma única vez, com os deltas somados por conta
+ * 3. Reverte os saldos ao excluir uma operação paga
+ * 4. Mantém o resumo mensal do dashboard com as mesmas variações
  */
 @ExtendWith(MockitoExtension.class)
 class LancamentoServiceTest {
@@ -45,8 +60,20 @@ class LancamentoServiceTest {
     @Mock
     private FileStorageService fileStorageService;
 
-    // Usamos @Spy no ContaService porque precisamos chamar um método real dele (`salvar`)
-    // dentro de outro método do LancamentoService que estamos a testar.
+    @Mock
+    private ResumoMensalService resumoMensalService;
+
+    @Mock
+    private SaldoDiarioService saldoDiarioService;
+
+    @Mock
+    private VersaoDeDadosService versaoDeDadosService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // Usamos @Spy no ContaService para interceptar as chamadas feitas pelo LancamentoService
+    // (buscarPorIds, aplicarAjustesDeSaldo) sem precisar de um repositório real.
     @Spy
     private ContaService contaService;
 
@@ -71,11 +98,6 @@ class LancamentoServiceTest {
         conta.setTipo("Banco");
         conta.setSaldoInicial(new BigDecimal("1000.00"));
         conta.setSaldoAtual(new BigDecimal("1000.00"));
-
-        // Como contaService é um @Spy, precisamos configurar seu comportamento.
-        // Configuramos o spy para retornar a própria conta quando salvar() for chamado,
-        // permitindo que testemos apenas a lógica de alteração de saldo.
-        doReturn(conta).when(contaService).salvar(any(Conta.class), any(Usuario.class));
     }
 
     /**
@@ -94,102 +116,277 @@ class LancamentoServiceTest {
     }
 
     @Test
-    void deveDebitarSaldoAoAplicarLancamentoDeSaida() {
-        // Cenário (Arrange)
-        Lancamento lancamentoSaida = criarLancamento(TipoLancamento.SAIDA, new BigDecimal("200.00"));
+    @SuppressWarnings("unchecked")
+    void deveSalvarOperacaoComMultiplosPagamentosEmLote() {
+        // Cenário (Arrange) - Venda dividida em 3 pagamentos, com um PDF de 2 páginas
+        Conta outraConta = new Conta();
+        outraConta.setId(2L);
+        outraConta.setUsuario(usuario);
+        outraConta.setSaldoAtual(new BigDecimal("500.00"));
+        doReturn(Map.of(1L, conta, 2L, outraConta)).when(contaService).buscarPorIds(anyCollection(), eq(usuario));
+
+        doNothing().when(contaService).aplicarAjustesDeSaldo(any(AjustesDeSaldo.class), eq(usuario));
+
+        MockMultipartFile arquivo = new MockMultipartFile("comprovanteFiles", "nota.pdf", "application/pdf", new byte[]{1});
+        when(fileStorageService.storeFile(arquivo)).thenReturn(List.of("x_nota_p1.pdf", "x_nota_p2.pdf"));
+
+        LancamentoFormDTO form = new LancamentoFormDTO();
+        form.setDescricao("Venda dividida");
+        form.setData(LocalDate.now());
+        form.setTipo(TipoLancamento.ENTRADA);
+        form.setStatus(StatusLancamento.PAGO);
+        form.setPagamentos(new ArrayList<>(List.of(
+                criarPagamento(1L, "100.00"), criarPagamento(2L, "50.00"), criarPagamento(1L, "25.00"))));
 
         // Ação (Act)
-        // Usamos ReflectionTestUtils para invocar o método privado para o teste
-        ReflectionTestUtils.invokeMethod(lancamentoService, "aplicarLancamentoNaConta", lancamentoSaida);
-
-        // Verificação (Assert)
-        // O saldo inicial era 1000. Após uma saída de 200, deve ser 800.
-        assertEquals(new BigDecimal("800.00"), conta.getSaldoAtual());
-        // Verifica se o método `salvar` do contaService foi chamado uma vez.
-        verify(contaService, times(1)).salvar(conta, usuario);
+        lancamentoService.salvarOuAtualizarOperacao(form, new MultipartFile[]{arquivo}, usuario);
+
+        // Verificação (Assert) - um único saveAll com os 3 lançamentos, comprovantes via cascade
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(lancamentoRepository, times(1)).saveAll(captor.capture());
+        verify(lancamentoRepository, never()).save(any(Lancamento.class));
+        verify(comprovanteRepository, never()).save(any());
+        verify(contaService, times(1)).buscarPorIds(anyCollection(), eq(usuario));
+
+        List<Lancamento> salvos = captor.getValue();
+        assertEquals(3, salvos.size());
+        salvos.forEach(l -> assertEquals(2, l.getComprovantes().size()));
+        assertEquals(outraConta, salvos.get(1).getConta());
+
+        // Um único ajuste de saldo para a operação inteira: conta 1 recebe 100 + 25
+        ArgumentCaptor<AjustesDeSaldo> ajustesCaptor = ArgumentCaptor.forClass(AjustesDeSaldo.class);
+        verify(contaService, times(1)).aplicarAjustesDeSaldo(ajustesCaptor.capture(), eq(usuario));
+        assertEquals(Map.of(1L, new BigDecimal("125.00"), 2L, new BigDecimal("50.00")),
+                ajustesCaptor.getValue().getDeltasPorConta());
+        verify(contaService, never()).salvar(any(Conta.class), any(Usuario.class));
     }
 
     @Test
-    void deveCreditarSaldoAoAplicarLancamentoDeEntrada() {
-        // Cenário (Arrange)
-        Lancamento lancamentoEntrada = criarLancamento(TipoLancamento.ENTRADA, new BigDecimal("300.00"));
+    void novaOperacaoNaoDeveBuscarOGrupoNoBanco() {
+        // Cenário (Arrange) - formulário sem grupoOperacao (operação nova)
+        doReturn(Map.of(1L, conta)).when(contaService).buscarPorIds(anyCollection(), eq(usuario));
+        doNothing().when(contaService).aplicarAjustesDeSaldo(any(AjustesDeSaldo.class), eq(usuario));
+
+        LancamentoFormDTO form = new LancamentoFormDTO();
+        form.setDescricao("Venda nova");
+        form.setData(LocalDate.now());
+        form.setTipo(TipoLancamento.ENTRADA);
+        form.setStatus(StatusLancamento.PAGO);
+        form.setPagamentos(new ArrayList<>(List.of(criarPagamento(1L, "80.00"))));
 
         // Ação (Act)
-        ReflectionTestUtils.invokeMethod(lancamentoService, "aplicarLancamentoNaConta", lancamentoEntrada);
+        lancamentoService.salvarOuAtualizarOperacao(form, null, usuario);
 
-        // Verificação (Assert)
-        // O saldo inicial era 1000. Após uma entrada de 300, deve ser 1300.
-        assertEquals(new BigDecimal("1300.00"), conta.getSaldoAtual());
-        verify(contaService, times(1)).salvar(conta, usuario);
+        // Verificação (Assert) - o grupo é gerado, mas não há o que carregar de um grupo que acabou de nascer
+        assertNotNull(form.getGrupoOperacao());
+        verify(lancamentoRepository, never()).findByGrupoOperacaoAndUsuario(anyString(), any(Usuario.class));
+        verify(lancamentoRepository, times(1)).saveAll(anyList());
     }
 
     @Test
-    void deveCreditarSaldoAoReverterLancamentoDeSaida() {
+    void deveAplicarSaldoUmaUnicaVezAoPagarConta() {
         // Cenário (Arrange)
-        Lancamento lancamentoSaida = criarLancamento(TipoLancamento.SAIDA, new BigDecimal("150.00"));
+        Lancamento lancamento = criarLancamento(TipoLancamento.SAIDA, new BigDecimal("200.00"));
+        lancamento.setStatus(StatusLancamento.A_PAGAR);
+        when(lancamentoRepository.findById(1L)).thenReturn(Optional.of(lancamento));
+        doNothing().when(contaService).aplicarAjustesDeSaldo(any(AjustesDeSaldo.class), eq(usuario));
 
         // Ação (Act)
-        ReflectionTestUtils.invokeMethod(lancamentoService, "reverterLancamentoNaConta", lancamentoSaida);
-
-        // Verificação (Assert)
-        // O saldo inicial era 1000. Ao reverter uma saída de 150, o valor deve ser somado de volta.
-        assertEquals(new BigDecimal("1150.00"), conta.getSaldoAtual());
-        verify(contaService, times(1)).salvar(conta, usuario);
+        lancamentoService.pagarConta(1L, usuario);
+
+        // Verificação (Assert) - o saldo é alterado no banco (UPDATE atômico), não na entidade
+        assertEquals(StatusLancamento.PAGO, lancamento.getStatus());
+        assertEquals(new BigDecimal("1000.00"), conta.getSaldoAtual());
+        ArgumentCaptor<AjustesDeSaldo> ajustesCaptor = ArgumentCaptor.forClass(AjustesDeSaldo.class);
+        verify(contaService, times(1)).aplicarAjustesDeSaldo(ajustesCaptor.capture(), eq(usuario));
+        assertEquals(Map.of(1L, new BigDecimal("-200.00")), ajustesCaptor.getValue().getDeltasPorConta());
+
+        // No resumo mensal o valor passa da linha A_PAGAR para a linha PAGO
+        ArgumentCaptor<AjustesDoResumo> resumoCaptor = ArgumentCaptor.forClass(AjustesDoResumo.class);
+        verify(resumoMensalService, times(1)).aplicarAjustes(resumoCaptor.capture(), eq(usuario));
+        Map<ResumoMensal.Chave, AjustesDoResumo.Variacao> variacoes = resumoCaptor.getValue().getVariacoes();
+        assertEquals(2, variacoes.size());
+        assertEquals(new AjustesDoResumo.Variacao(new BigDecimal("-200.00"), -1),
+                variacoes.get(ResumoMensal.Chave.de(lancamento.getData(), TipoLancamento.SAIDA, StatusLancamento.A_PAGAR, 1L, null, null)));
+        assertEquals(new AjustesDoResumo.Variacao(new BigDecimal("200.00"), 1),
+                variacoes.get(ResumoMensal.Chave.de(lancamento.getData(), TipoLancamento.SAIDA, StatusLancamento.PAGO, 1L, null, null)));
+
+        // A versão dos dados avança: o cache do dashboard recalcula
+        verify(versaoDeDadosService, times(1)).incrementar(usuario.getId());
+
+        // As abas abertas do dashboard recebem as mesmas variações do resumo e do saldo
+        ArgumentCaptor<LancamentosAlteradosEvent> eventoCaptor = ArgumentCaptor.forClass(LancamentosAlteradosEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventoCaptor.capture());
+        assertEquals(variacoes, eventoCaptor.getValue().getVariacoes());
+        assertEquals(Map.of(1L, new BigDecimal("-200.00")), eventoCaptor.getValue().getDeltasDeSaldo());
     }
 
     @Test
-    void deveDebitarSaldoAoReverterLancamentoDeEntrada() {
-        // Cenário (Arrange)
-        Lancamento lancamentoEntrada = criarLancamento(TipoLancamento.ENTRADA, new BigDecimal("400.00"));
+    void devePagarContasEmLoteSomandoOsDeltasPorConta() {
+        // Cenário (Arrange) - duas contas da conta 1, uma da conta 2 e uma já paga
+        List<Long> ids = List.of(10L, 11L, 12L, 13L);
+        LocalDate vencimento = LocalDate.of(2026, 3, 10);
+        when(lancamentoRepository.findResumoParaPagamento(anyCollection(), eq(usuario))).thenReturn(List.of(
+                new Object[]{10L, 1L, TipoLancamento.SAIDA, new BigDecimal("100.00"), StatusLancamento.A_PAGAR, vencimento, 5L, true},
+                new Object[]{11L, 1L, TipoLancamento.SAIDA, new BigDecimal("50.00"), StatusLancamento.A_PAGAR, vencimento.plusDays(5), 5L, true},
+                new Object[]{12L, 2L, TipoLancamento.SAIDA, new BigDecimal("30.00"), StatusLancamento.A_PAGAR, vencimento, null, null},
+                new Object[]{13L, 2L, TipoLancamento.SAIDA, new BigDecimal("99.00"), StatusLancamento.PAGO, vencimento, null, null}));
+        when(lancamentoRepository.marcarComoPagos(anyCollection(), eq(usuario))).thenReturn(3);
+        doNothing().when(contaService).aplicarAjustesDeSaldo(any(AjustesDeSaldo.class), eq(usuario));
 
         // Ação (Act)
-        ReflectionTestUtils.invokeMethod(lancamentoService, "reverterLancamentoNaConta", lancamentoEntrada);
-
-        // Verificação (Assert)
-        // O saldo inicial era 1000. Ao reverter uma entrada de 400, o valor deve ser subtraído.
-        assertEquals(new BigDecimal("600.00"), conta.getSaldoAtual());
-        verify(contaService, times(1)).salvar(conta, usuario);
+        int pagas = lancamentoService.pagarContas(ids, usuario);
+
+        // Verificação (Assert) - um único UPDATE de status e um ajuste de saldo com os deltas somados
+        assertEquals(3, pagas);
+        verify(lancamentoRepository, times(1)).marcarComoPagos(anyCollection(), eq(usuario));
+        verify(lancamentoRepository, never()).save(any(Lancamento.class));
+        ArgumentCaptor<AjustesDeSaldo> ajustesCaptor = ArgumentCaptor.forClass(AjustesDeSaldo.class);
+        verify(contaService, times(1)).aplicarAjustesDeSaldo(ajustesCaptor.capture(), eq(usuario));
+        assertEquals(Map.of(1L, new BigDecimal("-150.00"), 2L, new BigDecimal("-30.00")),
+                ajustesCaptor.getValue().getDeltasPorConta());
+
+        // Resumo: as duas contas da conta 1 caem na mesma linha (mesmo mês, categoria e nota)
+        ArgumentCaptor<AjustesDoResumo> resumoCaptor = ArgumentCaptor.forClass(AjustesDoResumo.class);
+        verify(resumoMensalService, times(1)).aplicarAjustes(resumoCaptor.capture(), eq(usuario));
+        Map<ResumoMensal.Chave, AjustesDoResumo.Variacao> variacoes = resumoCaptor.getValue().getVariacoes();
+        assertEquals(4, variacoes.size());
+        assertEquals(new AjustesDoResumo.Variacao(new BigDecimal("150.00"), 2),
+                variacoes.get(ResumoMensal.Chave.de(vencimento, TipoLancamento.SAIDA, StatusLancamento.PAGO, 1L, 5L, true)));
+        assertEquals(new AjustesDoResumo.Variacao(new BigDecimal("-30.00"), -1),
+                variacoes.get(ResumoMensal.Chave.de(vencimento, TipoLancamento.SAIDA, StatusLancamento.A_PAGAR, 2L, null, false)));
     }
 
     @Test
-    void deveManterPrecisaoDecimalEmOperacoesFinanceiras() {
-        // Cenário (Arrange) - Testando com valores decimais precisos
-        Lancamento lancamentoSaida = criarLancamento(TipoLancamento.SAIDA, new BigDecimal("123.45"));
-        Lancamento lancamentoEntrada = criarLancamento(TipoLancamento.ENTRADA, new BigDecimal("67.89"));
+    void naoDevePagarContasEmLoteComLancamentoDeOutroUsuario() {
+        // Cenário (Arrange) - o ID 11 não pertence ao usuário e não volta na consulta
+        when(lancamentoRepository.findResumoParaPagamento(anyCollection(), eq(usuario))).thenReturn(List.<Object[]>of(
+                new Object[]{10L, 1L, TipoLancamento.SAIDA, new BigDecimal("100.00"), StatusLancamento.A_PAGAR}));
+
+        // Ação e Verificação (Act & Assert)
+        assertThrows(AccessDeniedException.class, () -> lancamentoService.pagarContas(List.of(10L, 11L), usuario));
+        verify(lancamentoRepository, never()).marcarComoPagos(anyCollection(), any(Usuario.class));
+        verify(contaService, never()).aplicarAjustesDeSaldo(any(AjustesDeSaldo.class), any(Usuario.class));
+        verify(resumoMensalService, never()).aplicarAjustes(any(AjustesDoResumo.class), any(Usuario.class));
+        verify(versaoDeDadosService, never()).incrementar(any());
+        verify(eventPublisher, never()).publishEvent(any(ApplicationEvent.class));
+    }
 
-        // Ação (Act) - Aplicar saída primeiro
-        ReflectionTestUtils.invokeMethod(lancamentoService, "aplicarLancamentoNaConta", lancamentoSaida);
-        
-        // Verificação intermediária
-        assertEquals(new BigDecimal("876.55"), conta.getSaldoAtual());
+    @Test
+    void deveReverterSaldoAoExcluirOperacaoPaga() {
+        // Cenário (Arrange) - operação com dois pagamentos na mesma conta
+        Lancamento primeiro = criarLancamento(TipoLancamento.ENTRADA, new BigDecimal("300.00"));
+        primeiro.setStatus(StatusLancamento.PAGO);
+        primeiro.setGrupoOperacao("grupo-1");
+        Lancamento segundo = criarLancamento(TipoLancamento.ENTRADA, new BigDecimal("50.00"));
+        segundo.setStatus(StatusLancamento.PAGO);
+        segundo.setGrupoOperacao("grupo-1");
+        when(lancamentoRepository.findById(1L)).thenReturn(Optional.of(primeiro));
+        when(lancamentoRepository.findByGrupoOperacaoAndUsuario("grupo-1", usuario)).thenReturn(List.of(primeiro, segundo));
+        doNothing().when(contaService).aplicarAjustesDeSaldo(any(AjustesDeSaldo.class), eq(usuario));
 
-        // Ação (Act) - Aplicar entrada depois
-        ReflectionTestUtils.invokeMethod(lancamentoService, "aplicarLancamentoNaConta", lancamentoEntrada);
+        // Ação (Act)
+        lancamentoService.excluirOperacao(1L, usuario);
 
         // Verificação (Assert)
-        // 1000.00 - 123.45 + 67.89 = 944.44
-        assertEquals(new BigDecimal("944.44"), conta.getSaldoAtual());
-        verify(contaService, times(2)).salvar(conta, usuario);
+        verify(lancamentoRepository).delete(primeiro);
+        verify(lancamentoRepository).delete(segundo);
+        ArgumentCaptor<AjustesDeSaldo> ajustesCaptor = ArgumentCaptor.forClass(AjustesDeSaldo.class);
+        verify(contaService, times(1)).aplicarAjustesDeSaldo(ajustesCaptor.capture(), eq(usuario));
+        assertEquals(Map.of(1L, new BigDecimal("-350.00")), ajustesCaptor.getValue().getDeltasPorConta());
+    }
+
+    private PagamentoDTO criarPagamento(Long contaId, String valor) {
+        PagamentoDTO pagamento = new PagamentoDTO();
+        pagamento.setConta(contaId);
+        pagamento.setValor(new BigDecimal(valor));
+        return pagamento;
     }
 
     @Test
-    void deveManterConsistenciaAoAplicarEReverterLancamento() {
-        // Cenário (Arrange)
-        BigDecimal saldoInicial = conta.getSaldoAtual();
-        Lancamento lancamento = criarLancamento(TipoLancamento.SAIDA, new BigDecimal("250.00"));
+    @SuppressWarnings("unchecked")
+    void deveAtualizarNoLugarQuandoSoADescricaoMuda() {
+        // Cenário (Arrange) - operação paga com um pagamento, usuário corrige a descrição
+        Lancamento existente = criarLancamento(TipoLancamento.SAIDA, new BigDecimal("200.00"));
+        existente.setStatus(StatusLancamento.PAGO);
+        existente.setGrupoOperacao("grupo-1");
+        when(lancamentoRepository.findByGrupoOperacaoAndUsuario("grupo-1", usuario)).thenReturn(List.of(existente));
+        doReturn(Map.of(1L, conta)).when(contaService).buscarPorIds(anyCollection(), eq(usuario));
+        doNothing().when(contaService).aplicarAjustesDeSaldo(any(AjustesDeSaldo.class), eq(usuario));
+
+        LancamentoFormDTO form = criarFormDeEdicao("grupo-1", "Descrição corrigida", TipoLancamento.SAIDA);
+        form.setPagamentos(new ArrayList<>(List.of(criarPagamento(1L, "200.00"))));
+
+        // Ação (Act)
+        lancamentoService.salvarOuAtualizarOperacao(form, null, usuario);
+
+        // Verificação (Assert) - mesma linha, nada inserido/excluído, nenhum delta de saldo
+        assertEquals("Descrição corrigida", existente.getDescricao());
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(lancamentoRepository).saveAll(captor.capture());
+        assertTrue(captor.getValue().isEmpty());
+        verify(lancamentoRepository, never()).delete(any(Lancamento.class));
+
+        ArgumentCaptor<AjustesDeSaldo> ajustesCaptor = ArgumentCaptor.forClass(AjustesDeSaldo.class);
+        verify(contaService).aplicarAjustesDeSaldo(ajustesCaptor.capture(), eq(usuario));
+        assertTrue(ajustesCaptor.getValue().isVazio());
+        ArgumentCaptor<AjustesDoResumo> resumoCaptor = ArgumentCaptor.forClass(AjustesDoResumo.class);
+        verify(resumoMensalService).aplicarAjustes(resumoCaptor.capture(), eq(usuario));
+        assertTrue(resumoCaptor.getValue().isVazio());
+        // Nada mudou nos números: o dashboard não é avisado
+        verify(eventPublisher, never()).publishEvent(any(ApplicationEvent.class));
+    }
 
-        // Ação (Act) - Aplicar lançamento
-        ReflectionTestUtils.invokeMethod(lancamentoService, "aplicarLancamentoNaConta", lancamento);
-        
-        // Verificação intermediária
-        assertEquals(new BigDecimal("750.00"), conta.getSaldoAtual());
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveAplicarApenasODeltaLiquidoAoEditarPagamentos() {
+        // Cenário (Arrange) - grupo com pagamentos nas contas 1 e 2
+        Conta outraConta = new Conta();
+        outraConta.setId(2L);
+        outraConta.setUsuario(usuario);
+        Conta terceiraConta = new Conta();
+        terceiraConta.setId(3L);
+        terceiraConta.setUsuario(usuario);
+
+        Lancamento naConta1 = criarLancamento(TipoLancamento.ENTRADA, new BigDecimal("100.00"));
+        naConta1.setStatus(StatusLancamento.PAGO);
+        naConta1.setGrupoOperacao("grupo-1");
+        Lancamento naConta2 = criarLancamento(TipoLancamento.ENTRADA, new BigDecimal("50.00"));
+        naConta2.setConta(outraConta);
+        naConta2.setStatus(StatusLancamento.PAGO);
+        naConta2.setGrupoOperacao("grupo-1");
+        when(lancamentoRepository.findByGrupoOperacaoAndUsuario("grupo-1", usuario)).thenReturn(List.of(naConta1, naConta2));
+        doReturn(Map.of(1L, conta, 3L, terceiraConta)).when(contaService).buscarPorIds(anyCollection(), eq(usuario));
+        doNothing().when(contaService).aplicarAjustesDeSaldo(any(AjustesDeSaldo.class), eq(usuario));
+
+        // Conta 1 passa de 100 para 120, conta 2 sai do grupo e conta 3 entra com 30
+        LancamentoFormDTO form = criarFormDeEdicao("grupo-1", "Lançamento de teste", TipoLancamento.ENTRADA);
+        form.setPagamentos(new ArrayList<>(List.of(criarPagamento(1L, "120.00"), criarPagamento(3L, "30.00"))));
 
-        // Ação (Act) - Reverter lançamento
-        ReflectionTestUtils.invokeMethod(lancamentoService, "reverterLancamentoNaConta", lancamento);
+        // Ação (Act)
+        lancamentoService.salvarOuAtualizarOperacao(form, null, usuario);
 
         // Verificação (Assert)
-        // Após aplicar e reverter, o saldo deve voltar ao valor inicial
-        assertEquals(saldoInicial, conta.getSaldoAtual());
-        verify(contaService, times(2)).salvar(conta, usuario);
+        assertEquals(new BigDecimal("120.00"), naConta1.getValor());
+        verify(lancamentoRepository).delete(naConta2);
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(lancamentoRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(terceiraConta, captor.getValue().get(0).getConta());
+
+        ArgumentCaptor<AjustesDeSaldo> ajustesCaptor = ArgumentCaptor.forClass(AjustesDeSaldo.class);
+        verify(contaService).aplicarAjustesDeSaldo(ajustesCaptor.capture(), eq(usuario));
+        assertEquals(Map.of(1L, new BigDecimal("20.00"), 2L, new BigDecimal("-50.00"), 3L, new BigDecimal("30.00")),
+                ajustesCaptor.getValue().getDeltasPorConta());
+    }
+
+    private LancamentoFormDTO criarFormDeEdicao(String grupoOperacao, String descricao, TipoLancamento tipo) {
+        LancamentoFormDTO form = new LancamentoFormDTO();
+        form.setGrupoOperacao(grupoOperacao);
+        form.setDescricao(descricao);
+        form.setData(LocalDate.now());
+        form.setTipo(tipo);
+        form.setStatus(StatusLancamento.PAGO);
+        return form;
     }
 }